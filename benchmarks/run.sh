@@ -0,0 +1,16 @@
+#!/bin/sh
+# Run the JMH benchmarks and store the results as results/<commit>.json.
+# Extra arguments go to JMH, e.g. ./run.sh NlpParseBenchmark -f 1 -wi 2 -i 3
+# Compare two runs with:
+#   java -cp target/benchmarks.jar com.idxexchange.idxbackend.benchmarks.CompareResults results/<old>.json results/<new>.json
+set -e
+cd "$(dirname "$0")"
+
+commit=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain -- ../src ../pom.xml)" ]; then
+    commit="$commit-dirty"
+fi
+
+mkdir -p results
+java -jar target/benchmarks.jar -rf json -rff "results/$commit.json" "$@"
+echo "Results written to benchmarks/results/$commit.json"
@@ -0,0 +1,83 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.comps.CompsIndex;
+import com.idxexchange.idxbackend.comps.CompsIndex.Neighbor;
+import com.idxexchange.idxbackend.comps.CompsIndex.Point;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.seed.SyntheticListingGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparable-listing lookups in a k-d tree over synthetic listings: the 5 nearest of any
+ * status, and the 5 nearest closed sales within 3 km.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CompsBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private CompsIndex index;
+    private long[] subjects;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticListingGenerator generator = new SyntheticListingGenerator(42);
+        List<Point> points = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            Property p = generator.generate(id);
+            float[] vector = CompsIndex.vector(p.getLatitude(), p.getLongitude(), p.getPrice(), p.getBeds(), p.getBaths(),
+                    p.getSquareFeet(), p.getYear_built(), p.getPoolPrivate(), p.getFireplace(), p.getView(), p.getGarage());
+            if (vector != null) {
+                points.add(new Point(id, p.getStandardStatus(), vector));
+            }
+        }
+        index = CompsIndex.build(points);
+        SplittableRandom random = new SplittableRandom(7);
+        subjects = new long[1024];
+        for (int i = 0; i < subjects.length; i++) {
+            subjects[i] = points.get(random.nextInt(points.size())).id();
+        }
+    }
+
+    private Point nextSubject() {
+        long id = subjects[next];
+        next = (next + 1) & (subjects.length - 1);
+        return index.point(id);
+    }
+
+    @Benchmark
+    public List<Neighbor> nearest() {
+        Point subject = nextSubject();
+        return index.nearest(subject.vector(), 5, null, 0, id -> id == subject.id());
+    }
+
+    @Benchmark
+    public List<Neighbor> nearestClosedWithinRadius() {
+        Point subject = nextSubject();
+        return index.nearest(subject.vector(), 5, Set.of("closed"), 3, id -> id == subject.id());
+    }
+}
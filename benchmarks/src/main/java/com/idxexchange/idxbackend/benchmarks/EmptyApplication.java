@@ -0,0 +1,32 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The backend as in {@link SeededApplication} but with no listings, so a query costs its planning
+ * and a round trip rather than scanning rows.
+ */
+@State(Scope.Benchmark)
+public class EmptyApplication {
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start("empty");
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
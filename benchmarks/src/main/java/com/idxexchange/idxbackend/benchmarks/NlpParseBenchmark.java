@@ -0,0 +1,59 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.nlp.QueryScanner;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NLPQueryParserService.parseQuery over the query corpus, through the parse cache as the
+ * endpoints call it, and through the scanner alone (what a cache miss costs).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NlpParseBenchmark {
+
+    private String[] queries;
+    private int next;
+    private NLPQueryParserService service;
+    private QueryScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setup(SeededApplication application) {
+        queries = Corpus.queries();
+        service = application.bean(NLPQueryParserService.class);
+        scanner = new QueryScanner(QueryScanner.builtInCities());
+    }
+
+    private String nextQuery() {
+        String query = queries[next];
+        next = next + 1 == queries.length ? 0 : next + 1;
+        return query;
+    }
+
+    @Benchmark
+    public PropertySearchQuery parseQuery() {
+        return service.parseQuery(nextQuery());
+    }
+
+    @Benchmark
+    public PropertySearchQuery scanUncached() {
+        return scanner.parse(nextQuery());
+    }
+}
@@ -0,0 +1,62 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.seed.SyntheticListingGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a page of listings as the /properties endpoints return it, with the application's
+ * ObjectMapper (PageSerializer, PropertyProjectionSerializer, LazyAttributeModule and the
+ * spring.jackson settings)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageSerializerBenchmark {
+
+    @Param({"20", "200", "2000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private Page<Property> page;
+
+    @Setup(Level.Trial)
+    public void setup(EmptyApplication application) {
+        mapper = application.bean(ObjectMapper.class);
+        SyntheticListingGenerator generator = new SyntheticListingGenerator(42);
+        List<Property> content = new ArrayList<>(pageSize);
+        for (int id = 1; id <= pageSize; id++) {
+            content.add(generator.generate(id));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 20_000);
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
@@ -0,0 +1,71 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import com.idxexchange.idxbackend.service.PropertyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request cost of planning a search: a Specification turned into a Criteria query and
+ * rendered to SQL on every call, against the statement compiled for the filter shape with only
+ * its values bound. Runs against an empty table so the rows don't hide the planning.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryPlanBenchmark {
+
+    private PropertySearchQuery[] parsed;
+    private int next;
+    private PropertyService propertyService;
+    private PropertyRepository repository;
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setup(EmptyApplication application) {
+        NLPQueryParserService parser = application.bean(NLPQueryParserService.class);
+        String[] queries = Corpus.queries();
+        parsed = new PropertySearchQuery[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            parsed[i] = parser.parseQuery(queries[i]);
+        }
+        propertyService = application.bean(PropertyService.class);
+        repository = application.bean(PropertyRepository.class);
+    }
+
+    private PropertySearchQuery nextQuery() {
+        PropertySearchQuery query = parsed[next];
+        next = next + 1 == parsed.length ? 0 : next + 1;
+        return query;
+    }
+
+    @Benchmark
+    public Page<Property> specification() {
+        return repository.findAll(propertyService.buildSpecificationFromNLPQuery(nextQuery()), pageable);
+    }
+
+    @Benchmark
+    public Page<Property> compiled() {
+        return repository.search(nextQuery(), pageable);
+    }
+}
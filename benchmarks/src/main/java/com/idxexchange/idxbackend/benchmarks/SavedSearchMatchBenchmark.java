@@ -0,0 +1,87 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.alerts.SavedSearchMatcher;
+import com.idxexchange.idxbackend.alerts.SavedSearchMatcher.Match;
+import com.idxexchange.idxbackend.alerts.SavedSearchMatcher.SavedSearchEntry;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.seed.SyntheticListingGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching one new listing against many saved searches. Each search is modelled on a synthetic
+ * listing: usually its zip, otherwise its city; often a bedroom count or minimum; and a price
+ * range around the listing's price or a minimum size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SavedSearchMatchBenchmark {
+
+    @Param({"200000"})
+    public int searches;
+
+    private SavedSearchMatcher matcher;
+    private Property[] listings;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticListingGenerator generator = new SyntheticListingGenerator(42);
+        SplittableRandom random = new SplittableRandom(7);
+        List<SavedSearchEntry> entries = new ArrayList<>(searches);
+        for (long id = 1; id <= searches; id++) {
+            Property model = generator.generate(id);
+            PropertySearchQuery.PropertySearchQueryBuilder query = PropertySearchQuery.builder();
+            if (random.nextInt(4) == 0) {
+                query.city(model.getCity());
+            } else {
+                query.zip(model.getZip());
+            }
+            switch (random.nextInt(4)) {
+                case 0, 1 -> query.beds(model.getBeds());
+                case 2 -> query.minBeds(model.getBeds());
+                default -> { }
+            }
+            if (random.nextInt(5) != 0 && model.getPrice() != null) {
+                query.minPrice(model.getPrice() * 0.9).maxPrice(model.getPrice() * 1.1);
+            } else if (model.getSquareFeet() != null) {
+                query.minSquareFeet(model.getSquareFeet());
+            }
+            entries.add(new SavedSearchEntry(id, "owner" + (id % 50_000), query.build()));
+        }
+        matcher = new SavedSearchMatcher();
+        matcher.putAll(entries);
+
+        listings = new Property[1024];
+        for (int i = 0; i < listings.length; i++) {
+            listings[i] = generator.generate(searches + 1L + i);
+        }
+    }
+
+    @Benchmark
+    public List<Match> match() {
+        Property listing = listings[next];
+        next = (next + 1) & (listings.length - 1);
+        return matcher.match(listing);
+    }
+}
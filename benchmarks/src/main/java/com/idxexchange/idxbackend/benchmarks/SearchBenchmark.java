@@ -0,0 +1,59 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.PropertyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PropertyService.searchProperties end to end (Specification, SQL, count query, entity loading)
+ * for the filter combinations the search page sends most.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"none", "city", "cityPrice", "cityBedsBaths"})
+    public String filters;
+
+    private PropertyService propertyService;
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setup(SeededApplication application) {
+        propertyService = application.bean(PropertyService.class);
+    }
+
+    @Benchmark
+    public Page<Property> searchProperties() {
+        return switch (filters) {
+            case "city" -> propertyService.searchProperties("Irvine", null, null,
+                    null, null, null, null, null, null, pageable);
+            case "cityPrice" -> propertyService.searchProperties("Los Angeles", null, null,
+                    300_000.0, 900_000.0, null, null, null, null, pageable);
+            case "cityBedsBaths" -> propertyService.searchProperties("San Diego", null, null,
+                    null, null, null, 3, null, 2, pageable);
+            default -> propertyService.searchProperties(null, null, null,
+                    null, null, null, null, null, null, pageable);
+        };
+    }
+}
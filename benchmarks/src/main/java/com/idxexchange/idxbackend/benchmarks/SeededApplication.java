@@ -0,0 +1,62 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.IdxBackendApplication;
+import com.idxexchange.idxbackend.seed.PropertySeeder;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The backend started without a web server against an in-memory H2 database
+ * holding {@code rows} synthetic listings; run with e.g. -p rows=1000000 to benchmark at scale.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param("20000")
+    public int rows;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = start("bench");
+        seed();
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(IdxBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN"
+                )
+                .run();
+    }
+
+    private void seed() throws Exception {
+        context.getBean(PropertySeeder.class).seed(rows, 42);
+        // The gazetteer loaded at startup saw an empty table
+        context.getBean(NLPQueryParserService.class).reloadGazetteer();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
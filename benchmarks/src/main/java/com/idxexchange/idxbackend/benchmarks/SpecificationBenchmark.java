@@ -0,0 +1,84 @@
+package com.idxexchange.idxbackend.benchmarks;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import com.idxexchange.idxbackend.service.PropertyService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning parsed queries into a Specification, and that Specification into a Criteria query
+ * (what Spring Data does before Hibernate renders SQL).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SpecificationBenchmark {
+
+    private PropertySearchQuery[] parsed;
+    private int next;
+    private PropertyService propertyService;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setup(SeededApplication application) {
+        NLPQueryParserService parser = application.bean(NLPQueryParserService.class);
+        String[] queries = Corpus.queries();
+        parsed = new PropertySearchQuery[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            parsed[i] = parser.parseQuery(queries[i]);
+        }
+        propertyService = application.bean(PropertyService.class);
+        entityManager = application.bean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    private PropertySearchQuery nextQuery() {
+        PropertySearchQuery query = parsed[next];
+        next = next + 1 == parsed.length ? 0 : next + 1;
+        return query;
+    }
+
+    @Benchmark
+    public Specification<Property> buildSpecification() {
+        return propertyService.buildSpecificationFromNLPQuery(nextQuery());
+    }
+
+    @Benchmark
+    public CriteriaQuery<Property> buildCriteriaQuery() {
+        Specification<Property> spec = propertyService.buildSpecificationFromNLPQuery(nextQuery());
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Property> query = cb.createQuery(Property.class);
+        Root<Property> root = query.from(Property.class);
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        return query;
+    }
+}
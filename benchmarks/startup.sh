@@ -0,0 +1,93 @@
+#!/bin/sh
+# Startup benchmark: time from launch to the first 200 from /health, and the resident set size at
+# that point, for the runnable jar as is, for the fast-startup build as the Dockerfile runs it
+# (extracted jar, Spring AOT, AppCDS archive) and, when it has been built, for the native image.
+# Each variant then serves a fixed search load for its steady-state throughput and RSS.
+# Runs against an H2 file database seeded once with synthetic listings.
+# Build first, from the repository root: ./mvnw -Pfast-startup package -DskipTests
+# and for the native image, with a GraalVM JDK: ./mvnw -Pnative native:compile -DskipTests
+# Usage: ./startup.sh [runs] [requests]   (defaults 5 and 20000; startup figures are medians)
+set -e
+cd "$(dirname "$0")"
+
+runs=${1:-5}
+requests=${2:-20000}
+java=${JAVA_HOME:+$JAVA_HOME/bin/}java
+jar=../target/idx-backend-0.0.1-SNAPSHOT-exec.jar
+native=../target/idx-backend
+work=target/startup
+port=18089
+db="--spring.datasource.url=jdbc:h2:file:$PWD/$work/db"
+args="--server.port=$port $db --spring.jpa.hibernate.ddl-auto=none"
+search="http://localhost:$port/properties?city=Fresno&size=20"
+
+rm -rf "$work"
+mkdir -p "$work"
+"$java" -jar "$jar" $db --spring.jpa.hibernate.ddl-auto=update --spring.main.web-application-type=none --idx.seed.rows=20000 --idx.seed.exit=true \
+    > "$work/seed.log" 2>&1
+"$java" -Djarmode=tools -jar "$jar" extract --destination "$work/app" > /dev/null
+app="$work/app/$(basename "$jar")"
+# Training run: records the classes loaded up to the end of context refresh, then exits
+"$java" -XX:ArchiveClassesAtExit="$work/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$app" $args > "$work/training.log" 2>&1
+
+# Start the backend in the background and wait for /health; sets pid and the startup time in ms
+start() {
+    begin=$(date +%s%N)
+    "$@" $args > "$work/run.log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$port/health" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Backend exited, see benchmarks/$work/run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    startup=$(( ($(date +%s%N) - begin) / 1000000 ))
+}
+
+stop() {
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+rss() {
+    awk '/VmRSS/ { print $2 }' "/proc/$pid/status"
+}
+
+# Sends n searches, 8 at a time; prints the elapsed ms
+load() {
+    begin=$(date +%s%N)
+    curl -s --no-progress-meter -Z --parallel-max 8 "$search&n=[1-$1]" > /dev/null
+    echo $(( ($(date +%s%N) - begin) / 1000000 ))
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+report() {
+    name=$1
+    shift
+    : > "$work/$name.txt"
+    for i in $(seq "$runs"); do
+        start "$@"
+        echo "$startup $(rss)" >> "$work/$name.txt"
+        stop
+    done
+    ms=$(cut -d' ' -f1 "$work/$name.txt" | median)
+    rss=$(cut -d' ' -f2 "$work/$name.txt" | median)
+    echo "$name: first healthy /health after $ms ms, RSS $((rss / 1024)) MB (median of $runs)"
+
+    start "$@"
+    load "$requests" > /dev/null
+    ms=$(load "$requests")
+    echo "$name: $((requests * 1000 / ms)) searches/s after warm-up, RSS $(( $(rss) / 1024 )) MB"
+    stop
+}
+
+report jar "$java" -jar "$jar"
+report fast-startup "$java" -XX:SharedArchiveFile="$work/app.jsa" -Dspring.aot.enabled=true -jar "$app"
+if [ -x "$native" ]; then
+    report native "$native"
+fi
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { propertyService } from './services/api';
-import type {Property, PropertyFilters} from './types/property';
+import type {Property, PropertyFilters, Suggestion} from './types/property';
 import PropertyMap from './components/PropertyMap';
 import Chatbot from './components/Chatbot';
 import './App.css';
@@ -99,6 +99,49 @@ function App() {
     // eslint-disable-next-line react-hooks/exhaustive-deps
     }, [JSON.stringify(filters), useNLPSearch]);
 
+    // Search results leave out descriptions and agent contacts; load them when a listing is opened
+    useEffect(() => {
+        if (!selectedProperty) {
+            return;
+        }
+        let cancelled = false;
+        propertyService.getPropertyById(selectedProperty.id)
+            .then(details => {
+                if (!cancelled) {
+                    setSelectedProperty(current => current && current.id === details.id ? details : current);
+                }
+            })
+            .catch(err => console.error('Error fetching property details:', err));
+        return () => { cancelled = true; };
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [selectedProperty?.id]);
+
+    // City and ZIP inputs show typeahead while typing; the search runs once typing pauses
+    const [locationDraft, setLocationDraft] = useState({ city: '', zip: '' });
+    const [suggestions, setSuggestions] = useState<Suggestion[]>([]);
+
+    useEffect(() => {
+        const timer = setTimeout(() => {
+            setFilters(prev => (prev.city || '') === locationDraft.city && (prev.zip || '') === locationDraft.zip
+                ? prev
+                : { ...prev, city: locationDraft.city || undefined, zip: locationDraft.zip || undefined, page: 0 });
+        }, 400);
+        return () => clearTimeout(timer);
+    }, [locationDraft]);
+
+    const handleLocationInput = async (key: 'city' | 'zip', value: string) => {
+        setLocationDraft(prev => ({ ...prev, [key]: value }));
+        if (!value.trim()) {
+            setSuggestions([]);
+            return;
+        }
+        try {
+            setSuggestions(await propertyService.suggest(value));
+        } catch (err) {
+            console.error('Error fetching suggestions:', err);
+        }
+    };
+
     // Handle filter changes
     const handleFilterChange = (key: keyof PropertyFilters, value: any) => {
         setFilters(prev => ({
@@ -1251,20 +1294,32 @@ function App() {
                             <input
                                 type="text"
                                 placeholder="City"
-                                value={filters.city || ''}
-                                onChange={e => handleFilterChange('city', e.target.value)}
+                                value={locationDraft.city}
+                                onChange={e => handleLocationInput('city', e.target.value)}
+                                list="city-suggestions"
                                 className="filter-input-card"
                             />
+                            <datalist id="city-suggestions">
+                                {suggestions.filter(s => s.type === 'CITY').map(s => (
+                                    <option key={s.text} value={s.text}>{s.count} listings</option>
+                                ))}
+                            </datalist>
                         </div>
                         
                         <div className="filter-card">
                             <input
                                 type="text"
                                 placeholder="ZIP Code"
-                                value={filters.zip || ''}
-                                onChange={e => handleFilterChange('zip', e.target.value)}
+                                value={locationDraft.zip}
+                                onChange={e => handleLocationInput('zip', e.target.value)}
+                                list="zip-suggestions"
                                 className="filter-input-card"
                             />
+                            <datalist id="zip-suggestions">
+                                {suggestions.filter(s => s.type === 'ZIP').map(s => (
+                                    <option key={s.text} value={s.text}>{s.count} listings</option>
+                                ))}
+                            </datalist>
                         </div>
                         
                         <div className="filter-card">
@@ -1322,7 +1377,10 @@ function App() {
                             Search Properties
                         </button>
                         <button
-                            onClick={() => setFilters({ page: 0, size: 20, city: '', state: '', zip: '', sort: '' })}
+                            onClick={() => {
+                                setLocationDraft({ city: '', zip: '' });
+                                setFilters({ page: 0, size: 20, city: '', state: '', zip: '', sort: '' });
+                            }}
                             className="filter-button-secondary px-6 py-2.5"
                         >
                             Clear Filters
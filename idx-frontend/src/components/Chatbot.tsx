@@ -17,6 +17,7 @@ export default function Chatbot({ propertyContext }: ChatbotProps) {
     ]);
     const [inputValue, setInputValue] = useState('');
     const [isLoading, setIsLoading] = useState(false);
+    const [sessionId, setSessionId] = useState<string | undefined>(undefined);
     const [suggestedQuestions, setSuggestedQuestions] = useState<string[]>([
         "What properties do you have available?",
         "Tell me about the California real estate market",
@@ -60,11 +61,15 @@ export default function Chatbot({ propertyContext }: ChatbotProps) {
                 timestamp: Date.now(),
                 conversationHistory: messages.slice(-6), // Last 3 exchanges
                 includePropertyContext: true,
-                propertyIds: propertyContext
+                propertyIds: propertyContext,
+                sessionId
             };
 
             // Get AI response
             const response = await chatbotService.sendMessage(request);
+            if (response.sessionId) {
+                setSessionId(response.sessionId);
+            }
 
             // Add assistant response
             const assistantMessage: ChatMessage = {
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type {Property, PropertyPage, PropertyFilters} from '../types/property';
+import type {Property, PropertyPage, PropertyFilters, Suggestion} from '../types/property';
 
 // Base URL for your Spring Boot API — use Vite env var when available
 const API_BASE_URL = import.meta?.env?.VITE_API_BASE_URL || 'http://localhost:8080';
@@ -39,6 +39,14 @@ export const propertyService = {
         return response.data;
     },
 
+    /**
+     * Location values starting with a prefix, most listings first
+     */
+    suggest: async (prefix: string, limit: number = 10): Promise<Suggestion[]> => {
+        const response = await api.get<Suggestion[]>('/properties/suggest', { params: { prefix, limit } });
+        return response.data;
+    },
+
     /**
      * Search properties using natural language query
      * @param naturalLanguageQuery - e.g., "3 bedroom house with pool in Los Angeles under 500k"
@@ -90,6 +98,7 @@ export interface ChatRequest {
     conversationHistory?: ChatMessage[];
     includePropertyContext?: boolean;
     propertyIds?: number[];
+    sessionId?: string;
 }
 
 export interface ChatResponse {
@@ -98,6 +107,7 @@ export interface ChatResponse {
     suggestedQuestions?: string[];
     relatedPropertyIds?: number[];
     contextUsed?: string;
+    sessionId?: string;
 }
 
 export const chatbotService = {
@@ -88,4 +88,11 @@ export interface PropertyFilters {
     page?: number;
     size?: number;
     sort?: string;
-}
\ No newline at end of file
+}
+
+// Typeahead entry from /properties/suggest
+export interface Suggestion {
+    text: string;
+    type: 'CITY' | 'ZIP' | 'SUBDIVISION' | 'COUNTY' | 'STREET';
+    count: number;
+}
@@ -0,0 +1,15 @@
+#!/bin/sh
+# Run the load test and store the results as results/<commit>.json.
+# Options are passed through, e.g. ./run.sh --rate=200 --duration=120 --rows=1000000
+# Fail on a regression against an earlier run with:
+#   ./run.sh --baseline=results/<old>.json
+set -e
+cd "$(dirname "$0")"
+
+commit=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain -- ../src ../pom.xml)" ]; then
+    commit="$commit-dirty"
+fi
+
+mkdir -p results
+java -jar target/loadtest.jar --out="results/$commit.json" "$@"
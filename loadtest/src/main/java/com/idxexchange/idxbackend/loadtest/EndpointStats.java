@@ -0,0 +1,135 @@
+package com.idxexchange.idxbackend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts for one endpoint.
+ *
+ * Response time runs from when the request was scheduled to be sent until the response was read,
+ * so time a request spent waiting behind a stalled client or server counts against it
+ * (no coordinated omission). Service time runs from when it was actually sent, for comparison.
+ * Requests dropped because too many were in flight never got a response; they are recorded at the
+ * ceiling, so shedding load can't make the percentiles look better, and counted separately.
+ */
+public class EndpointStats {
+
+    // Anything slower than a minute is recorded as a minute
+    static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> errorKinds = new ConcurrentHashMap<>();
+
+    /**
+     * Record a completed request; {@code status} is ignored when {@code failure} is set
+     */
+    public void record(long intendedNanos, long sentNanos, long completedNanos, int status, Throwable failure) {
+        requests.increment();
+        responseTime.recordValue(micros(completedNanos - intendedNanos));
+        serviceTime.recordValue(micros(completedNanos - sentNanos));
+        if (failure != null) {
+            Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+            error(cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName());
+        } else if (status >= 400) {
+            error(String.valueOf(status));
+        }
+    }
+
+    /**
+     * Record a request that was never sent because too many were already in flight
+     */
+    public void recordDropped() {
+        requests.increment();
+        dropped.increment();
+        responseTime.recordValue(HIGHEST_MICROS);
+        error("dropped");
+    }
+
+    /**
+     * Record a request still in flight when the run ended
+     */
+    public void recordUnfinished(long intendedNanos, long nowNanos) {
+        requests.increment();
+        responseTime.recordValue(micros(nowNanos - intendedNanos));
+        error("unfinished");
+    }
+
+    private void error(String kind) {
+        errors.increment();
+        errorKinds.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public double errorRate() {
+        long total = requests();
+        return total == 0 ? 0 : errors() * 100.0 / total;
+    }
+
+    public Histogram responseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Summary in milliseconds, for the report and the JSON results file
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests());
+        summary.put("errors", errors());
+        summary.put("errorRatePercent", round(errorRate()));
+        summary.put("dropped", dropped());
+        Map<String, Long> kinds = new LinkedHashMap<>();
+        errorKinds.forEach((kind, count) -> kinds.put(kind, count.sum()));
+        summary.put("errorKinds", kinds);
+        summary.put("responseTimeMs", percentiles(responseTime));
+        summary.put("serviceTimeMs", percentiles(serviceTime));
+        return summary;
+    }
+
+    static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            values.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+        values.put("max", millis(histogram.getMaxValue()));
+        values.put("mean", round(histogram.getMean() / 1000.0));
+        return values;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
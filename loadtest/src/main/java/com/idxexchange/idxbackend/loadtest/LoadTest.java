@@ -0,0 +1,389 @@
+package com.idxexchange.idxbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idxexchange.idxbackend.IdxBackendApplication;
+import com.idxexchange.idxbackend.loadtest.Workload.Endpoint;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load test for the backend.
+ *
+ * Starts the backend on a random port against an in-memory H2 database seeded with synthetic
+ * listings, with the chatbot pointed at a stub LLM, then sends requests at a fixed arrival rate
+ * regardless of how fast responses come back. Pass --target to drive an already running server instead.
+ * Prints latency percentiles and error rates per endpoint and writes them to a JSON file;
+ * with --baseline the run fails if p99 latency or the error rate got worse.
+ */
+public class LoadTest {
+
+    private static final String USAGE = """
+            Usage: java -jar target/loadtest.jar [--option=value ...]
+              --rate=100                    requests per second, across all endpoints
+              --duration=60                 measured seconds
+              --warmup=10                   seconds of load before measuring starts
+              --arrivals=uniform            uniform (fixed interval) or poisson
+              --mix=search:50,detail:25,nlp:15,chat:10
+              --rows=100000                 synthetic listings to seed the embedded backend with
+              --llm-delay-ms=800            stub LLM response time
+              --target=http://host:port     drive a running server instead of starting one
+              --max-id=<rows>               highest listing id for detail requests
+              --timeout=30                  request timeout in seconds
+              --max-in-flight=2000          requests beyond this are not sent; they count as dropped, at a one-minute response time
+              --seed=42                     random seed for the request sequence and the data
+              --out=loadtest-results.json   results file
+              --baseline=<results.json>     fail if p99 or error rate regressed against this run
+              --max-regression=10           allowed p99 increase over the baseline, in percent
+              --max-error-rate=1            allowed error rate, in percent
+              --app.<property>=<value>      extra property for the embedded backend, e.g. --app.server.tomcat.threads.max=400
+            """;
+
+    public static void main(String[] args) throws Exception {
+        if (List.of(args).contains("--help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        StubLlmServer llm = null;
+        ConfigurableApplicationContext backend = null;
+        int status;
+        try {
+            String baseUrl = options.target;
+            if (baseUrl == null) {
+                llm = new StubLlmServer(options.llmDelayMillis);
+                backend = startBackend(options, llm.baseUrl());
+                baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) backend).getWebServer().getPort();
+            }
+            Workload workload = new Workload(baseUrl, options.mix, options.maxId, Duration.ofSeconds(options.timeoutSeconds));
+            Map<String, Object> results = new LoadTest(options, workload).run(baseUrl);
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File(options.out), results);
+            System.out.println("Results written to " + options.out);
+            status = check(options, results) ? 0 : 1;
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            if (llm != null) {
+                llm.close();
+            }
+        }
+        System.exit(status);
+    }
+
+    private static ConfigurableApplicationContext startBackend(Options options, String llmBaseUrl) {
+        System.out.println("Starting backend with " + options.rows + " listings, stub LLM at " + llmBaseUrl);
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "openai.api.key=stub",
+                "openai.base-url=" + llmBaseUrl,
+                "idx.seed.rows=" + options.rows,
+                "idx.seed.seed=" + options.seed
+        ));
+        options.appProperties.forEach((key, value) -> properties.add(key + "=" + value));
+        return new SpringApplicationBuilder(IdxBackendApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+
+    private final Options options;
+    private final Workload workload;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    // Sent requests without a response yet, by sequence number
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private record InFlight(Endpoint endpoint, long intendedNanos, boolean measured) {
+    }
+
+    LoadTest(Options options, Workload workload) {
+        this.options = options;
+        this.workload = workload;
+        for (Endpoint endpoint : workload.endpoints()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    Map<String, Object> run(String baseUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        SplittableRandom random = new SplittableRandom(options.seed);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        System.out.println("Sending " + options.rate + " req/s (" + options.arrivals + " arrivals) to " + baseUrl + " for " +
+                           options.warmupSeconds + " s warm-up + " + options.durationSeconds + " s, mix " + options.mix);
+        long intended = start;
+        long sequence = 0;
+        long nextProgress = measureFrom;
+        while (intended < end) {
+            // The schedule never waits for responses: if this loop falls behind, requests go out late
+            // but their latency is still measured from the time they were due
+            parkUntil(intended);
+            Endpoint endpoint = workload.nextEndpoint(random);
+            HttpRequest request = workload.request(endpoint, sequence, random);
+            boolean measured = intended >= measureFrom;
+            if (inFlight.size() >= options.maxInFlight) {
+                if (measured) {
+                    stats.get(endpoint).recordDropped();
+                }
+            } else {
+                send(client, request, sequence, new InFlight(endpoint, intended, measured));
+            }
+            if (intended >= nextProgress) {
+                System.out.println("  " + TimeUnit.NANOSECONDS.toSeconds(intended - measureFrom) + " s, " + inFlight.size() + " in flight");
+                nextProgress += TimeUnit.SECONDS.toNanos(10);
+            }
+            sequence++;
+            intended = options.arrivals.equals("poisson")
+                    ? intended + (long) (-Math.log(1 - random.nextDouble()) * intervalNanos)
+                    : start + sequence * intervalNanos;
+        }
+        drain();
+        return report(baseUrl);
+    }
+
+    private void send(HttpClient client, HttpRequest request, long sequence, InFlight pending) {
+        inFlight.put(sequence, pending);
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            long completed = System.nanoTime();
+            if (inFlight.remove(sequence) != null && pending.measured()) {
+                stats.get(pending.endpoint()).record(pending.intendedNanos(), sent, completed,
+                        response != null ? response.statusCode() : 0, failure);
+            }
+        });
+    }
+
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.timeoutSeconds + 5);
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        long now = System.nanoTime();
+        for (Long sequence : new ArrayList<>(inFlight.keySet())) {
+            InFlight pending = inFlight.remove(sequence);
+            if (pending != null && pending.measured()) {
+                stats.get(pending.endpoint()).recordUnfinished(pending.intendedNanos(), now);
+            }
+        }
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private Map<String, Object> report(String baseUrl) {
+        Histogram all = null;
+        long requests = 0;
+        long errors = 0;
+        long dropped = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.println();
+        System.out.printf("%-8s %9s %8s %7s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "err%", "dropped", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            printRow(entry.getKey().key, endpointStats.requests(), endpointStats.errors(), endpointStats.dropped(),
+                    endpointStats.responseTime());
+            endpoints.put(entry.getKey().key, endpointStats.summary());
+            requests += endpointStats.requests();
+            errors += endpointStats.errors();
+            dropped += endpointStats.dropped();
+            if (all == null) {
+                all = endpointStats.responseTime().copy();
+            } else {
+                all.add(endpointStats.responseTime());
+            }
+        }
+        printRow("all", requests, errors, dropped, all);
+        System.out.println("Response times are measured from each request's scheduled send time.");
+        if (dropped > 0) {
+            System.out.println(dropped + " requests were dropped at --max-in-flight and count as " +
+                               TimeUnit.MICROSECONDS.toSeconds(EndpointStats.HIGHEST_MICROS) + " s responses.");
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("requests", requests);
+        total.put("errors", errors);
+        total.put("errorRatePercent", requests == 0 ? 0.0 : Math.round(errors * 10000.0 / requests) / 100.0);
+        total.put("dropped", dropped);
+        total.put("throughputPerSecond", Math.round(requests * 100.0 / options.durationSeconds) / 100.0);
+        total.put("responseTimeMs", EndpointStats.percentiles(all));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("target", baseUrl);
+        results.put("options", options.describe());
+        results.put("total", total);
+        results.put("endpoints", endpoints);
+        return results;
+    }
+
+    private static void printRow(String name, long requests, long errors, long dropped, Histogram histogram) {
+        System.out.printf("%-8s %9d %8d %6.2f%% %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                name, requests, errors, requests == 0 ? 0.0 : errors * 100.0 / requests, dropped,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(95) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Apply the error-rate limit and, when a baseline is given, the p99 regression limit per endpoint
+     */
+    private static boolean check(Options options, Map<String, Object> results) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode current = mapper.valueToTree(results);
+        boolean passed = true;
+        double errorRate = current.path("total").path("errorRatePercent").asDouble();
+        if (errorRate > options.maxErrorRate) {
+            System.out.printf("FAIL: error rate %.2f%% is above %.2f%%%n", errorRate, options.maxErrorRate);
+            passed = false;
+        }
+        if (options.baseline != null) {
+            JsonNode baseline = mapper.readTree(new File(options.baseline));
+            System.out.printf("%n%-8s %14s %14s %9s%n", "endpoint", "baseline p99", "p99", "change");
+            for (Map.Entry<String, JsonNode> entry : iterable(current.path("endpoints"))) {
+                JsonNode before = baseline.path("endpoints").path(entry.getKey()).path("responseTimeMs").path("p99");
+                double now = entry.getValue().path("responseTimeMs").path("p99").asDouble();
+                if (before.isMissingNode()) {
+                    System.out.printf("%-8s %14s %14.1f %9s%n", entry.getKey(), "-", now, "new");
+                    continue;
+                }
+                double change = before.asDouble() == 0 ? 0 : (now - before.asDouble()) / before.asDouble() * 100;
+                boolean regressed = change > options.maxRegression;
+                passed &= !regressed;
+                System.out.printf("%-8s %14.1f %14.1f %+8.1f%%%s%n",
+                        entry.getKey(), before.asDouble(), now, change, regressed ? "  REGRESSION" : "");
+            }
+        }
+        return passed;
+    }
+
+    private static Iterable<Map.Entry<String, JsonNode>> iterable(JsonNode node) {
+        return node::fields;
+    }
+
+    /**
+     * Command line options, given as --name=value
+     */
+    static final class Options {
+        int rate = 100;
+        long durationSeconds = 60;
+        long warmupSeconds = 10;
+        String arrivals = "uniform";
+        String mix = "search:50,detail:25,nlp:15,chat:10";
+        long rows = 100_000;
+        long llmDelayMillis = 800;
+        String target;
+        long maxId;
+        long timeoutSeconds = 30;
+        int maxInFlight = 2000;
+        long seed = 42;
+        String out = "loadtest-results.json";
+        String baseline;
+        double maxRegression = 10;
+        double maxErrorRate = 1;
+        final Map<String, String> appProperties = new LinkedHashMap<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    throw new IllegalArgumentException("Bad argument '" + arg + "', expected --name=value");
+                }
+                String name = arg.substring(2, equals);
+                String value = arg.substring(equals + 1);
+                switch (name) {
+                    case "rate" -> options.rate = Integer.parseInt(value);
+                    case "duration" -> options.durationSeconds = Long.parseLong(value);
+                    case "warmup" -> options.warmupSeconds = Long.parseLong(value);
+                    case "arrivals" -> options.arrivals = value;
+                    case "mix" -> options.mix = value;
+                    case "rows" -> options.rows = Long.parseLong(value);
+                    case "llm-delay-ms" -> options.llmDelayMillis = Long.parseLong(value);
+                    case "target" -> options.target = value;
+                    case "max-id" -> options.maxId = Long.parseLong(value);
+                    case "timeout" -> options.timeoutSeconds = Long.parseLong(value);
+                    case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "out" -> options.out = value;
+                    case "baseline" -> options.baseline = value;
+                    case "max-regression" -> options.maxRegression = Double.parseDouble(value);
+                    case "max-error-rate" -> options.maxErrorRate = Double.parseDouble(value);
+                    default -> {
+                        if (!name.startsWith("app.")) {
+                            throw new IllegalArgumentException("Unknown option --" + name);
+                        }
+                        options.appProperties.put(name.substring(4), value);
+                    }
+                }
+            }
+            if (options.rate <= 0 || options.durationSeconds <= 0) {
+                throw new IllegalArgumentException("--rate and --duration must be positive");
+            }
+            if (!options.arrivals.equals("uniform") && !options.arrivals.equals("poisson")) {
+                throw new IllegalArgumentException("--arrivals must be uniform or poisson");
+            }
+            if (options.maxId <= 0) {
+                options.maxId = options.rows;
+            }
+            Workload.parseMix(options.mix);
+            return options;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put("rate", rate);
+            described.put("durationSeconds", durationSeconds);
+            described.put("warmupSeconds", warmupSeconds);
+            described.put("arrivals", arrivals);
+            described.put("mix", mix);
+            described.put("rows", target == null ? rows : null);
+            described.put("llmDelayMillis", target == null ? llmDelayMillis : null);
+            described.put("maxId", maxId);
+            described.put("maxInFlight", maxInFlight);
+            described.put("seed", seed);
+            described.put("appProperties", appProperties);
+            return described;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.idxexchange.idxbackend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * OpenAI-compatible chat completions endpoint that answers every request with the same
+ * canned reply after a fixed delay, standing in for the real LLM during load tests.
+ */
+public class StubLlmServer implements AutoCloseable {
+
+    private static final byte[] RESPONSE = """
+            {"id":"chatcmpl-stub","object":"chat.completion","created":0,"model":"stub",
+             "choices":[{"index":0,"finish_reason":"stop",
+               "message":{"role":"assistant","content":"There are several listings that match what you are looking for. Try narrowing the search by city, price or number of bedrooms."}}],
+             "usage":{"prompt_tokens":120,"completion_tokens":30,"total_tokens":150}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StubLlmServer(long delayMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        // A sleeping virtual thread per request, so slow completions never queue behind each other
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", exchange -> respond(exchange, delayMillis));
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, long delayMillis) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
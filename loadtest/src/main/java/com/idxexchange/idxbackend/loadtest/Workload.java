@@ -0,0 +1,190 @@
+package com.idxexchange.idxbackend.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The request mix: which endpoint each request goes to, and its parameters.
+ * Requests are drawn from a seeded random source, so two runs with the same seed send the same sequence.
+ */
+public class Workload {
+
+    /**
+     * Endpoints the load test drives
+     */
+    public enum Endpoint {
+        SEARCH("search"),
+        DETAIL("detail"),
+        NLP("nlp"),
+        CHAT("chat");
+
+        final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint '" + key + "', expected search, detail, nlp or chat");
+        }
+    }
+
+    // Cities present in the synthetic data, weighted towards the large ones as real traffic is
+    private static final String[] CITIES = {
+        "Los Angeles", "Los Angeles", "Los Angeles", "San Diego", "San Diego", "San Jose", "San Francisco",
+        "San Francisco", "Fresno", "Sacramento", "Long Beach", "Oakland", "Bakersfield", "Anaheim", "Irvine",
+        "Riverside", "Pasadena", "Glendale", "Santa Barbara", "Palo Alto", "Newport Beach", "Malibu"
+    };
+
+    private static final String[] NLP_QUERIES = {
+        "3 bedroom house with pool in Los Angeles under 500k",
+        "2+ bath condo in San Francisco with view",
+        "Houses in San Diego between 400k and 600k with garage",
+        "homes in LA under $750,000",
+        "4 beds 3 baths in Irvine",
+        "3+ beds 2+ baths in Pasadena over 1.2m",
+        "townhouse in Long Beach between $500k and $700k",
+        "single family home in Fresno built after 2000",
+        "land in Bakersfield",
+        "house with a fireplace and garage in Palo Alto",
+        "homes between 1500 and 2500 sqft in Irvine",
+        "condo in Orange County under 800k",
+        "cheap homes in Sacramento",
+        "5 bedroom 4 bathroom with pool and view in Malibu above 3,000,000"
+    };
+
+    // Answered from the database by the chat intent service
+    private static final String[] CHAT_AGGREGATE = {
+        "How many homes are for sale in San Diego?",
+        "What is the average price of a 3 bedroom house in Los Angeles?",
+        "What's the cheapest condo in San Francisco?",
+        "How many listings in Irvine have a pool?",
+        "What is the average size of homes in Fresno?"
+    };
+
+    // Sent to the LLM
+    private static final String[] CHAT_OPEN = {
+        "Is it a good time to buy a house in California?",
+        "What should I look for when touring a condo?",
+        "Can you explain how HOA fees work?",
+        "Which neighborhoods are good for families?",
+        "What does contingent mean on a listing?"
+    };
+
+    private final URI baseUri;
+    private final Duration timeout;
+    private final long maxId;
+    private final Endpoint[] endpoints;
+    private final double[] cumulativeWeights;
+
+    /**
+     * @param mix endpoint weights, e.g. {@code search:50,detail:25,nlp:15,chat:10}
+     * @param maxId listing ids for detail requests are drawn from 1..maxId
+     */
+    public Workload(String baseUrl, String mix, long maxId, Duration timeout) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.timeout = timeout;
+        this.maxId = maxId;
+        Map<Endpoint, Double> weights = parseMix(mix);
+        endpoints = weights.keySet().toArray(new Endpoint[0]);
+        cumulativeWeights = new double[endpoints.length];
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double sum = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            sum += weights.get(endpoints[i]) / total;
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    static Map<Endpoint, Double> parseMix(String mix) {
+        Map<Endpoint, Double> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + part + "', expected endpoint:weight");
+            }
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.of(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The request mix is empty");
+        }
+        return weights;
+    }
+
+    public List<Endpoint> endpoints() {
+        return new ArrayList<>(List.of(endpoints));
+    }
+
+    public Endpoint nextEndpoint(SplittableRandom random) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < endpoints.length - 1; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public HttpRequest request(Endpoint endpoint, long sequence, SplittableRandom random) {
+        return switch (endpoint) {
+            case SEARCH -> get(searchQuery(random));
+            case DETAIL -> get("properties/" + random.nextLong(1, maxId + 1));
+            case NLP -> post("properties/nlp-search?page=0&size=20", "text/plain", pick(NLP_QUERIES, random));
+            case CHAT -> post("api/chatbot/chat", "application/json", chatMessage(sequence, random));
+        };
+    }
+
+    private String searchQuery(SplittableRandom random) {
+        StringBuilder query = new StringBuilder("properties?page=0&size=20");
+        if (random.nextInt(10) < 9) {
+            query.append("&city=").append(URLEncoder.encode(pick(CITIES, random), StandardCharsets.UTF_8));
+        }
+        if (random.nextBoolean()) {
+            int min = 200_000 + 100_000 * random.nextInt(10);
+            query.append("&minPrice=").append(min).append("&maxPrice=").append(min + 100_000 * (2 + random.nextInt(8)));
+        }
+        if (random.nextInt(3) == 0) {
+            query.append("&minBeds=").append(1 + random.nextInt(4)).append("&minBaths=").append(1 + random.nextInt(3));
+        }
+        return query.toString();
+    }
+
+    private static String chatMessage(long sequence, SplittableRandom random) {
+        String content = random.nextBoolean() ? pick(CHAT_AGGREGATE, random) : pick(CHAT_OPEN, random);
+        // A few hundred concurrent conversations, each a handful of turns long
+        String sessionId = "loadtest-" + (sequence % 500);
+        return "{\"role\":\"user\",\"content\":\"" + content + "\",\"sessionId\":\"" + sessionId + "\"}";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest post(String path, String contentType, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -1,9 +1,14 @@
 package com.idxexchange.idxbackend;
 
+import com.idxexchange.idxbackend.config.NativeImageHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeImageHints.class)
 public class IdxBackendApplication {
 
     public static void main(String[] args) {
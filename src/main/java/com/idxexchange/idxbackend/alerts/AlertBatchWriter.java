@@ -0,0 +1,136 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.model.SearchAlert;
+import com.idxexchange.idxbackend.repository.SearchAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers saved-search alerts off the listing write path.
+ * Alerts are queued in a bounded buffer and flushed in batches: each batch is written to
+ * saved_search_alerts in one saveAll and announced with one digest line per owner. When the
+ * buffer is full new alerts are dropped and counted rather than blocking listing writes.
+ */
+@Component
+public class AlertBatchWriter {
+
+    @Value("${alerts.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${alerts.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${alerts.writer.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private SearchAlertRepository searchAlertRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<SearchAlert> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    private Counter enqueued;
+    private Counter dropped;
+    private Counter written;
+    private Counter failed;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        enqueued = meterRegistry.counter("alerts.writer.enqueued");
+        dropped = meterRegistry.counter("alerts.writer.dropped");
+        written = meterRegistry.counter("alerts.writer.written");
+        failed = meterRegistry.counter("alerts.writer.failed");
+        Gauge.builder("alerts.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        running = true;
+        worker = new Thread(this::run, "alert-batch-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queue an alert for delivery. Never blocks.
+     *
+     * @return false if the queue was full and the alert was dropped
+     */
+    public boolean submit(SearchAlert alert) {
+        if (queue.offer(alert)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void run() {
+        List<SearchAlert> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SearchAlert first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                queue.drainTo(drained, batchSize - 1);
+                flush(drained);
+            } catch (InterruptedException e) {
+                // Shutting down - drain whatever is left on the next loop iteration
+                if (!running) {
+                    queue.drainTo(drained);
+                    flush(drained);
+                    return;
+                }
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void flush(List<SearchAlert> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            searchAlertRepository.saveAll(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            System.err.println("Error writing alert batch: " + e.getMessage());
+            return;
+        }
+
+        Map<String, Integer> perOwner = new LinkedHashMap<>();
+        for (SearchAlert alert : batch) {
+            perOwner.merge(alert.getOwner(), 1, Integer::sum);
+        }
+        perOwner.forEach((owner, count) ->
+                System.out.println("Saved search alerts for " + owner + ": " + count + " matching listing" + (count == 1 ? "" : "s")));
+    }
+}
@@ -0,0 +1,92 @@
+package com.idxexchange.idxbackend.alerts;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Static interval tree answering "which intervals contain x".
+ *
+ * Intervals are sorted by their low end and form an implicit balanced tree, where the node of
+ * a range is its middle element and stores the highest high end in the range. A stabbing query
+ * skips every subtree whose highest end is below x and every right subtree whose lows are above
+ * it, so it costs O(log n + matches).
+ */
+final class IntervalIndex {
+
+    /**
+     * A closed interval [low, high] carrying an int value
+     */
+    record Interval(double low, double high, int value) {
+    }
+
+    static final IntervalIndex EMPTY = build(List.of());
+
+    private final double[] lows;
+    private final double[] highs;
+    private final double[] maxHighs;
+    private final int[] values;
+
+    private IntervalIndex(double[] lows, double[] highs, double[] maxHighs, int[] values) {
+        this.lows = lows;
+        this.highs = highs;
+        this.maxHighs = maxHighs;
+        this.values = values;
+    }
+
+    static IntervalIndex build(List<Interval> intervals) {
+        Interval[] sorted = intervals.toArray(new Interval[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(Interval::low));
+        int n = sorted.length;
+        double[] lows = new double[n];
+        double[] highs = new double[n];
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            lows[i] = sorted[i].low();
+            highs[i] = sorted[i].high();
+            values[i] = sorted[i].value();
+        }
+        double[] maxHighs = new double[n];
+        maxHigh(highs, maxHighs, 0, n);
+        return new IntervalIndex(lows, highs, maxHighs, values);
+    }
+
+    private static double maxHigh(double[] highs, double[] maxHighs, int lo, int hi) {
+        if (lo >= hi) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        int mid = (lo + hi) >>> 1;
+        double max = Math.max(highs[mid], Math.max(maxHigh(highs, maxHighs, lo, mid), maxHigh(highs, maxHighs, mid + 1, hi)));
+        maxHighs[mid] = max;
+        return max;
+    }
+
+    /**
+     * Pass the value of every interval containing x to the consumer
+     */
+    void stab(double x, IntConsumer consumer) {
+        stab(0, lows.length, x, consumer);
+    }
+
+    private void stab(int lo, int hi, double x, IntConsumer consumer) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxHighs[mid] < x) {
+                return;
+            }
+            stab(lo, mid, x, consumer);
+            if (lows[mid] > x) {
+                return;
+            }
+            if (highs[mid] >= x) {
+                consumer.accept(values[mid]);
+            }
+            lo = mid + 1;
+        }
+    }
+
+    int size() {
+        return lows.length;
+    }
+}
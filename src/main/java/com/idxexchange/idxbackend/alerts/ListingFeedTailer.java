@@ -0,0 +1,193 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.invalidation.ListingCache;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the listings the MLS feed adds to or changes in rets_property, for saved-search alerts.
+ *
+ * The feed writes the table directly, so its writes publish no PropertyChangedEvent. Instead the
+ * table is polled every alerts.feed.poll-ms. Rows with an id above the highest seen are new
+ * listings. Rows whose alerts.feed.timestamp-column (the RESO ModificationTimestamp) is later
+ * than the latest seen have changed. Without that column only new listings are found.
+ * The listings are evicted from the ListingCaches, as the feed changed them behind Hibernate's
+ * back, and matched against the saved searches.
+ *
+ * The first poll only records where the table is, so existing listings raise no alerts.
+ * A row committed with a modification time earlier than one already seen is missed.
+ * Every instance polling would alert several times, so it is off by default: set
+ * alerts.feed.enabled=true on exactly one instance.
+ */
+@Component
+public class ListingFeedTailer {
+
+    @Value("${alerts.feed.enabled:false}")
+    private boolean enabled;
+
+    @Value("${alerts.feed.timestamp-column:ModificationTimestamp}")
+    private String timestampColumn;
+
+    @Value("${alerts.feed.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired(required = false)
+    private List<ListingCache> caches = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // -1 until the first successful poll
+    private long lastId = -1;
+    // Null while the timestamp column can't be read
+    private Timestamp lastModified;
+    private long lastModifiedId;
+    private boolean timestampMissingReported;
+    private boolean failing;
+
+    private Counter listings;
+    private Counter failed;
+
+    @PostConstruct
+    void registerMetrics() {
+        if (!timestampColumn.isEmpty() && !timestampColumn.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("alerts.feed.timestamp-column is not a column name: " + timestampColumn);
+        }
+        listings = Counter.builder("alerts.feed.listings")
+                .description("New and changed listings found in rets_property and matched against saved searches")
+                .register(meterRegistry);
+        failed = Counter.builder("alerts.feed.poll.failed")
+                .description("Polls of rets_property for new and changed listings that failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.feed.poll-ms:30000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            tail();
+            if (failing) {
+                failing = false;
+                System.out.println("Polling rets_property for saved-search alerts again");
+            }
+        } catch (Exception e) {
+            failed.increment();
+            // Once per outage rather than every poll
+            if (!failing) {
+                failing = true;
+                System.err.println("Error polling rets_property for saved-search alerts, retrying: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether changed listings are found too, not only new ones
+     */
+    public synchronized boolean isTrackingChanges() {
+        return lastModified != null;
+    }
+
+    private void tail() {
+        if (lastId < 0) {
+            lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(Id), 0) FROM rets_property", Long.class);
+            startTrackingChanges();
+            return;
+        }
+
+        // Listing id -> whether it is new
+        Map<Long, Boolean> found = new LinkedHashMap<>();
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("SELECT Id FROM rets_property WHERE Id > ? ORDER BY Id LIMIT ?",
+                    Long.class, lastId, batchSize);
+            for (Long id : ids) {
+                found.put(id, true);
+                lastId = id;
+            }
+        } while (ids.size() == batchSize);
+
+        if (lastModified == null) {
+            startTrackingChanges();
+        } else {
+            String column = timestampColumn;
+            List<Object[]> rows;
+            do {
+                rows = jdbcTemplate.query(
+                        "SELECT Id, " + column + " FROM rets_property WHERE " + column + " > ? OR (" + column + " = ? AND Id > ?) " +
+                        "ORDER BY " + column + ", Id LIMIT ?",
+                        (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2)},
+                        lastModified, lastModified, lastModifiedId, batchSize);
+                for (Object[] row : rows) {
+                    found.putIfAbsent((Long) row[0], false);
+                    lastModifiedId = (Long) row[0];
+                    lastModified = (Timestamp) row[1];
+                }
+            } while (rows.size() == batchSize);
+        }
+
+        if (!found.isEmpty()) {
+            apply(found);
+        }
+    }
+
+    // Changes before the column could be read don't matter
+    private void startTrackingChanges() {
+        if (timestampColumn.isEmpty()) {
+            return;
+        }
+        try {
+            Timestamp max = jdbcTemplate.queryForObject("SELECT MAX(" + timestampColumn + ") FROM rets_property", Timestamp.class);
+            lastModified = max != null ? max : new Timestamp(0);
+            lastModifiedId = Long.MAX_VALUE;
+            System.out.println("Saved-search alerts follow new listings and changes by rets_property." + timestampColumn);
+        } catch (Exception e) {
+            if (!timestampMissingReported) {
+                timestampMissingReported = true;
+                System.err.println("Cannot read rets_property." + timestampColumn + " (" + e.getMessage() +
+                                   "); only new listings raise saved-search alerts");
+            }
+        }
+    }
+
+    private void apply(Map<Long, Boolean> found) {
+        List<Long> ids = new ArrayList<>(found.keySet());
+        for (ListingCache cache : caches) {
+            try {
+                cache.evict(ids);
+            } catch (Exception e) {
+                System.err.println("Error evicting feed changes from " + cache.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            for (Property listing : propertyRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + batchSize)))) {
+                savedSearchService.onFeedChange(listing, found.get(listing.getId()));
+                listings.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.alerts.IntervalIndex.Interval;
+import com.idxexchange.idxbackend.alerts.SearchPredicate.Listing;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from listings to the saved searches they match.
+ *
+ * Instead of running every saved search against a new listing, the searches' own predicates
+ * are indexed. Each search goes into one bucket, keyed by its most selective location (zip,
+ * then subdivision, city, county) and its exact bedroom count if it has one. Within a bucket,
+ * searches are indexed by their price range in an {@link IntervalIndex}, or by their square
+ * footage range when they have no price range. A listing looks up the few buckets its values
+ * name, stabs their interval trees with its price and size, and checks the full predicate
+ * only on those candidates.
+ *
+ * Buckets are immutable and replaced on change, so matching takes no locks.
+ */
+public final class SavedSearchMatcher {
+
+    private static final String ANY = "*";
+
+    // One bucket's searches: those with a price range, those with only a size range, and the rest
+    private record Bucket(SearchPredicate[] searches, IntervalIndex byPrice, IntervalIndex bySquareFeet, int[] unbounded) {
+
+        static final Bucket EMPTY = new Bucket(new SearchPredicate[0], IntervalIndex.EMPTY, IntervalIndex.EMPTY, new int[0]);
+
+        static Bucket of(List<SearchPredicate> searches) {
+            List<Interval> byPrice = new ArrayList<>();
+            List<Interval> bySquareFeet = new ArrayList<>();
+            List<Integer> unbounded = new ArrayList<>();
+            for (int i = 0; i < searches.size(); i++) {
+                SearchPredicate search = searches.get(i);
+                if (search.hasPriceBounds()) {
+                    byPrice.add(new Interval(low(search.minPrice), high(search.maxPrice), i));
+                } else if (search.hasSquareFeetBounds()) {
+                    bySquareFeet.add(new Interval(low(search.minSquareFeet), high(search.maxSquareFeet), i));
+                } else {
+                    unbounded.add(i);
+                }
+            }
+            return new Bucket(searches.toArray(new SearchPredicate[0]), IntervalIndex.build(byPrice),
+                    IntervalIndex.build(bySquareFeet), unbounded.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        void match(Listing listing, List<SearchPredicate> matches) {
+            Property property = listing.property;
+            if (property.getPrice() != null) {
+                byPrice.stab(property.getPrice(), i -> check(searches[i], listing, matches));
+            }
+            if (property.getSquareFeet() != null) {
+                bySquareFeet.stab(property.getSquareFeet(), i -> check(searches[i], listing, matches));
+            }
+            for (int i : unbounded) {
+                check(searches[i], listing, matches);
+            }
+        }
+
+        private static void check(SearchPredicate search, Listing listing, List<SearchPredicate> matches) {
+            if (search.matches(listing)) {
+                matches.add(search);
+            }
+        }
+
+        private static double low(Number bound) {
+            return bound == null ? Double.NEGATIVE_INFINITY : bound.doubleValue();
+        }
+
+        private static double high(Number bound) {
+            return bound == null ? Double.POSITIVE_INFINITY : bound.doubleValue();
+        }
+    }
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // All searches by id, with the bucket each is in; guarded by this
+    private final Map<Long, SearchPredicate> searches = new HashMap<>();
+    private final Map<String, List<SearchPredicate>> members = new HashMap<>();
+
+    /**
+     * Add or replace a saved search
+     */
+    public synchronized void put(long id, String owner, PropertySearchQuery query) {
+        remove(id);
+        SearchPredicate search = new SearchPredicate(id, owner, query);
+        String key = bucketKey(search);
+        searches.put(id, search);
+        List<SearchPredicate> bucket = members.computeIfAbsent(key, k -> new ArrayList<>());
+        bucket.add(search);
+        buckets.put(key, Bucket.of(bucket));
+    }
+
+    public synchronized void remove(long id) {
+        SearchPredicate search = searches.remove(id);
+        if (search == null) {
+            return;
+        }
+        String key = bucketKey(search);
+        List<SearchPredicate> bucket = members.get(key);
+        bucket.remove(search);
+        if (bucket.isEmpty()) {
+            members.remove(key);
+            buckets.remove(key);
+        } else {
+            buckets.put(key, Bucket.of(bucket));
+        }
+    }
+
+    /**
+     * Replace all saved searches at once, building each bucket once
+     */
+    public synchronized void putAll(List<SavedSearchEntry> entries) {
+        searches.clear();
+        members.clear();
+        for (SavedSearchEntry entry : entries) {
+            SearchPredicate search = new SearchPredicate(entry.id(), entry.owner(), entry.query());
+            searches.put(entry.id(), search);
+            members.computeIfAbsent(bucketKey(search), k -> new ArrayList<>()).add(search);
+        }
+        Map<String, Bucket> built = new HashMap<>();
+        members.forEach((key, bucket) -> built.put(key, Bucket.of(bucket)));
+        buckets.keySet().retainAll(built.keySet());
+        buckets.putAll(built);
+    }
+
+    /**
+     * A saved search to load with {@link #putAll}
+     */
+    public record SavedSearchEntry(long id, String owner, PropertySearchQuery query) {
+    }
+
+    /**
+     * A saved search a listing matched
+     */
+    public record Match(long savedSearchId, String owner) {
+    }
+
+    /**
+     * The saved searches a listing matches
+     */
+    public List<Match> match(Property property) {
+        Listing listing = new Listing(property);
+        List<SearchPredicate> matches = new ArrayList<>();
+        String beds = property.getBeds() == null ? null : property.getBeds().toString();
+        for (String location : locations(listing)) {
+            probe(location + "|" + ANY, listing, matches);
+            if (beds != null) {
+                probe(location + "|" + beds, listing, matches);
+            }
+        }
+        List<Match> result = new ArrayList<>(matches.size());
+        for (SearchPredicate search : matches) {
+            result.add(new Match(search.id, search.owner));
+        }
+        return result;
+    }
+
+    private void probe(String key, Listing listing, List<SearchPredicate> matches) {
+        Bucket bucket = buckets.getOrDefault(key, Bucket.EMPTY);
+        if (bucket != Bucket.EMPTY) {
+            bucket.match(listing, matches);
+        }
+    }
+
+    public synchronized int size() {
+        return searches.size();
+    }
+
+    // A search's bucket: its most selective location and exact bedroom count, each or "*"
+    private static String bucketKey(SearchPredicate search) {
+        String location;
+        if (search.zip != null) {
+            location = "zip:" + search.zip;
+        } else if (search.subdivision != null) {
+            location = "subdivision:" + search.subdivision;
+        } else if (search.city != null) {
+            location = "city:" + search.city;
+        } else if (search.county != null) {
+            location = "county:" + search.county;
+        } else {
+            location = ANY;
+        }
+        return location + "|" + (search.beds == null ? ANY : search.beds.toString());
+    }
+
+    // The location parts of the bucket keys a listing can match
+    private static List<String> locations(Listing listing) {
+        List<String> locations = new ArrayList<>(5);
+        if (listing.property.getZip() != null) {
+            locations.add("zip:" + listing.property.getZip());
+        }
+        if (listing.subdivision != null) {
+            locations.add("subdivision:" + listing.subdivision);
+        }
+        if (listing.city != null) {
+            locations.add("city:" + listing.city);
+        }
+        if (listing.county != null) {
+            locations.add("county:" + listing.county);
+        }
+        locations.add(ANY);
+        return locations;
+    }
+}
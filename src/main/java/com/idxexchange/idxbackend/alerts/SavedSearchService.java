@@ -0,0 +1,239 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.idxexchange.idxbackend.alerts.SavedSearchMatcher.Match;
+import com.idxexchange.idxbackend.alerts.SavedSearchMatcher.SavedSearchEntry;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.model.SavedSearch;
+import com.idxexchange.idxbackend.model.SearchAlert;
+import com.idxexchange.idxbackend.repository.SavedSearchRepository;
+import com.idxexchange.idxbackend.repository.SearchAlertRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saved searches and their alerts.
+ *
+ * All saved searches are held in a {@link SavedSearchMatcher}, so each listing change is matched
+ * in memory against every search at once. A listing raises an alert for a search when it starts
+ * matching it: when it is created, or changed from not matching to matching (a price drop into
+ * range, for example). Bulk changes such as seeding raise no alerts. Listings the MLS feed
+ * writes directly are found by ListingFeedTailer.
+ *
+ * There are no user accounts, so an owner's searches and alerts are guarded by an access key,
+ * issued with the owner's first search. Only its SHA-256 is stored.
+ */
+@Service
+public class SavedSearchService {
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SearchAlertRepository searchAlertRepository;
+
+    @Autowired
+    private AlertBatchWriter alertBatchWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SavedSearchMatcher matcher = new SavedSearchMatcher();
+
+    // Alerts queued but perhaps not written yet, so the feed doesn't alert again about a listing
+    // written through PropertyIngestionService
+    private final Cache<AlertKey, Boolean> recentAlerts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private record AlertKey(long savedSearchId, long propertyId) {
+    }
+    private Timer matchTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        matchTimer = Timer.builder("alerts.match")
+                .description("Matching one listing change against all saved searches")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a search has any filters; one without would alert on every listing
+     */
+    public static boolean hasFilters(PropertySearchQuery query) {
+        return query != null && !new SearchPredicate(0, null, query).matchesEverything();
+    }
+
+    /**
+     * A new random access key for an owner
+     */
+    public static String newOwnerKey() {
+        byte[] key = new byte[24];
+        RANDOM.nextBytes(key);
+        return HexFormat.of().formatHex(key);
+    }
+
+    /**
+     * Whether the owner has been issued an access key
+     */
+    public boolean hasOwnerKey(String owner) {
+        return savedSearchRepository.findFirstByOwnerAndOwnerKeyHashIsNotNull(owner).isPresent();
+    }
+
+    /**
+     * Whether the key is the owner's access key
+     */
+    public boolean isOwnerKey(String owner, String key) {
+        if (owner == null || key == null) {
+            return false;
+        }
+        return savedSearchRepository.findFirstByOwnerAndOwnerKeyHashIsNotNull(owner)
+                .map(search -> MessageDigest.isEqual(
+                        search.getOwnerKeyHash().getBytes(StandardCharsets.UTF_8),
+                        hash(key).getBytes(StandardCharsets.UTF_8)))
+                .orElse(false);
+    }
+
+    /**
+     * Save a search for an owner, with the owner's access key (checked by the caller)
+     */
+    public SavedSearch create(String owner, String ownerKey, String name, PropertySearchQuery query) {
+        String keyHash = hash(ownerKey);
+        savedSearchRepository.assignOwnerKeyHash(owner, keyHash);
+        SavedSearch search = new SavedSearch();
+        search.setOwner(owner);
+        search.setOwnerKeyHash(keyHash);
+        search.setName(name);
+        search.setQuery(query);
+        search.setCreatedAt(Instant.now());
+        SavedSearch saved = savedSearchRepository.save(search);
+        matcher.put(saved.getId(), saved.getOwner(), saved.getQuery());
+        return saved;
+    }
+
+    public List<SavedSearch> findByOwner(String owner) {
+        return savedSearchRepository.findByOwnerOrderByIdAsc(owner);
+    }
+
+    /**
+     * @return false if the owner has no saved search with the id
+     */
+    public boolean delete(Long id, String owner) {
+        SavedSearch search = savedSearchRepository.findById(id).orElse(null);
+        if (search == null || !search.getOwner().equals(owner)) {
+            return false;
+        }
+        savedSearchRepository.delete(search);
+        matcher.remove(id);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            long start = System.currentTimeMillis();
+            matcher.putAll(savedSearchRepository.findAll().stream()
+                    .map(search -> new SavedSearchEntry(search.getId(), search.getOwner(), search.getQuery()))
+                    .toList());
+            System.out.println("Loaded " + matcher.size() + " saved searches in " +
+                               (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Error loading saved searches: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queue an alert for every saved search the changed listing newly matches
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isBulk() || event.after() == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Match> matches = matcher.match(event.after());
+        Set<Long> matchedBefore = new HashSet<>();
+        if (event.before() != null && !matches.isEmpty()) {
+            matcher.match(event.before()).forEach(match -> matchedBefore.add(match.savedSearchId()));
+        }
+        matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Instant now = Instant.now();
+        for (Match match : matches) {
+            if (!matchedBefore.contains(match.savedSearchId())) {
+                alert(match, event.after().getId(), event.before() == null ? "new" : "changed", now);
+            }
+        }
+    }
+
+    /**
+     * Queue an alert for every saved search a listing found by ListingFeedTailer matches. Its
+     * earlier state is unknown, so each search is alerted about a listing at most once.
+     */
+    public void onFeedChange(Property listing, boolean added) {
+        long start = System.nanoTime();
+        List<Match> matches = matcher.match(listing);
+        matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (matches.isEmpty()) {
+            return;
+        }
+        Set<Long> alerted = new HashSet<>(searchAlertRepository.findSavedSearchIdsAlertedFor(
+                listing.getId(), matches.stream().map(Match::savedSearchId).toList()));
+        Instant now = Instant.now();
+        for (Match match : matches) {
+            if (!alerted.contains(match.savedSearchId())
+                && recentAlerts.getIfPresent(new AlertKey(match.savedSearchId(), listing.getId())) == null) {
+                alert(match, listing.getId(), added ? "new" : "changed", now);
+            }
+        }
+    }
+
+    private void alert(Match match, Long propertyId, String reason, Instant now) {
+        SearchAlert alert = new SearchAlert();
+        alert.setSavedSearchId(match.savedSearchId());
+        alert.setOwner(match.owner());
+        alert.setPropertyId(propertyId);
+        alert.setReason(reason);
+        alert.setCreatedAt(now);
+        if (alertBatchWriter.submit(alert)) {
+            recentAlerts.put(new AlertKey(match.savedSearchId(), propertyId), Boolean.TRUE);
+        }
+    }
+
+    public int getSavedSearchCount() {
+        return matcher.size();
+    }
+
+    private static String hash(String key) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
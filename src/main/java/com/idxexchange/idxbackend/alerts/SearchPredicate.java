@@ -0,0 +1,163 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+
+import java.util.Locale;
+
+/**
+ * A saved search compiled for matching single listings in memory.
+ * Mirrors the predicates PropertyService builds from a {@link PropertySearchQuery}:
+ * location names compare case-insensitively, zip exactly, an exact bed or bath count
+ * takes precedence over a minimum, and features only filter when requested.
+ */
+final class SearchPredicate {
+
+    final long id;
+    final String owner;
+
+    final String city;
+    final String state;
+    final String zip;
+    final String county;
+    final String subdivision;
+    final Double minPrice;
+    final Double maxPrice;
+    final Integer beds;
+    final Integer minBeds;
+    final Integer baths;
+    final Integer minBaths;
+    final Integer minSquareFeet;
+    final Integer maxSquareFeet;
+    final boolean pool;
+    final boolean fireplace;
+    final boolean view;
+    final boolean garage;
+    final Integer minYearBuilt;
+    final Integer maxYearBuilt;
+    final String propertyType;
+
+    SearchPredicate(long id, String owner, PropertySearchQuery query) {
+        this.id = id;
+        this.owner = owner;
+        this.city = lower(query.getCity());
+        this.state = lower(query.getState());
+        this.zip = blankToNull(query.getZip());
+        this.county = lower(query.getCounty());
+        this.subdivision = lower(query.getSubdivision());
+        this.minPrice = query.getMinPrice();
+        this.maxPrice = query.getMaxPrice();
+        this.beds = query.getBeds();
+        this.minBeds = query.getBeds() == null ? query.getMinBeds() : null;
+        this.baths = query.getBaths();
+        this.minBaths = query.getBaths() == null ? query.getMinBaths() : null;
+        this.minSquareFeet = query.getMinSquareFeet();
+        this.maxSquareFeet = query.getMaxSquareFeet();
+        this.pool = Boolean.TRUE.equals(query.getPoolPrivate());
+        this.fireplace = Boolean.TRUE.equals(query.getFireplace());
+        this.view = Boolean.TRUE.equals(query.getView());
+        this.garage = Boolean.TRUE.equals(query.getGarage());
+        this.minYearBuilt = query.getMinYearBuilt();
+        this.maxYearBuilt = query.getMaxYearBuilt();
+        this.propertyType = lower(query.getPropertyType());
+    }
+
+    boolean matches(Property listing) {
+        return matches(new Listing(listing));
+    }
+
+    boolean matches(Listing listing) {
+        Property p = listing.property;
+        return (city == null || city.equals(listing.city))
+                && (state == null || state.equals(listing.state))
+                && (zip == null || zip.equals(p.getZip()))
+                && (county == null || county.equals(listing.county))
+                && (subdivision == null || subdivision.equals(listing.subdivision))
+                && atLeast(minPrice, p.getPrice())
+                && atMost(maxPrice, p.getPrice())
+                && (beds == null || beds.equals(p.getBeds()))
+                && atLeast(minBeds, p.getBeds())
+                && (baths == null || baths.equals(p.getBaths()))
+                && atLeast(minBaths, p.getBaths())
+                && atLeast(minSquareFeet, p.getSquareFeet())
+                && atMost(maxSquareFeet, p.getSquareFeet())
+                && (!pool || Boolean.TRUE.equals(p.getPoolPrivate()))
+                && (!fireplace || Boolean.TRUE.equals(p.getFireplace()))
+                && (!view || Boolean.TRUE.equals(p.getView()))
+                && (!garage || Boolean.TRUE.equals(p.getGarage()))
+                && atLeast(minYearBuilt, p.getYear_built())
+                && atMost(maxYearBuilt, p.getYear_built())
+                && (propertyType == null
+                    || contains(listing.householdType, propertyType)
+                    || contains(listing.propertyClass, propertyType));
+    }
+
+    /**
+     * A listing with its text fields lower-cased once, to check against many searches
+     */
+    static final class Listing {
+
+        final Property property;
+        final String city;
+        final String state;
+        final String county;
+        final String subdivision;
+        final String householdType;
+        final String propertyClass;
+
+        Listing(Property property) {
+            this.property = property;
+            this.city = lowerCase(property.getCity());
+            this.state = lowerCase(property.getState());
+            this.county = lowerCase(property.getCounty());
+            this.subdivision = lowerCase(property.getSubdivisionName());
+            this.householdType = lowerCase(property.getHousehold_type());
+            this.propertyClass = lowerCase(property.getProperty_class());
+        }
+
+        private static String lowerCase(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Whether the search has no filters at all, and so matches every listing
+     */
+    boolean matchesEverything() {
+        return city == null && state == null && zip == null && county == null && subdivision == null
+                && minPrice == null && maxPrice == null && beds == null && minBeds == null
+                && baths == null && minBaths == null && minSquareFeet == null && maxSquareFeet == null
+                && !pool && !fireplace && !view && !garage
+                && minYearBuilt == null && maxYearBuilt == null && propertyType == null;
+    }
+
+    boolean hasPriceBounds() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    boolean hasSquareFeetBounds() {
+        return minSquareFeet != null || maxSquareFeet != null;
+    }
+
+    private static boolean contains(String value, String part) {
+        return value != null && value.contains(part);
+    }
+
+    // A bound compares like SQL: a missing value never satisfies it
+    private static boolean atLeast(Number bound, Number value) {
+        return bound == null || (value != null && value.doubleValue() >= bound.doubleValue());
+    }
+
+    private static boolean atMost(Number bound, Number value) {
+        return bound == null || (value != null && value.doubleValue() <= bound.doubleValue());
+    }
+
+    private static String lower(String value) {
+        String trimmed = blankToNull(value);
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,444 @@
+package com.idxexchange.idxbackend.comps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * k-d tree over listing feature vectors, for finding comparable listings.
+ *
+ * Each listing is a point in a weighted feature space (see {@link #vector}) where one unit of
+ * distance is roughly equally dissimilar in every dimension: 2 km, 15% in price, one bedroom,
+ * one bathroom, 20% in size, 15 years of age. Points are stored in flat arrays in tree order,
+ * and the tree is implicit: the node of a range is its middle element. Immutable once built.
+ */
+public final class CompsIndex {
+
+    static final int DIMENSIONS = 11;
+
+    // Scales that make one unit of each dimension comparable
+    static final double LOCATION_SCALE_KM = 2.0;
+    private static final double PRICE_SCALE = 0.15;
+    private static final double SQFT_SCALE = 0.2;
+    private static final double YEAR_SCALE = 15.0;
+    private static final double FEATURE_WEIGHT = 0.5;
+
+    // Equirectangular projection, accurate enough for distances within California
+    private static final double KM_PER_DEGREE_LAT = 110.57;
+    private static final double KM_PER_DEGREE_LON = 111.32 * Math.cos(Math.toRadians(37));
+
+    private static final int LEAF_SIZE = 8;
+
+    /**
+     * A listing in feature space; missing features are NaN until the index fills them
+     */
+    public record Point(long id, String status, float[] vector) {
+    }
+
+    /**
+     * A listing found near the query, with its feature distance and distance in km
+     */
+    public record Neighbor(long id, double distance, double distanceKm) {
+    }
+
+    private final int size;
+    // size x DIMENSIONS values, in tree order
+    private final float[] data;
+    private final long[] ids;
+    private final byte[] statuses;
+    private final String[] statusNames;
+    // Split dimension of the node at each position
+    private final byte[] splitDims;
+    // Ids in ascending order and the tree position of each
+    private final long[] sortedIds;
+    private final int[] positions;
+    // Replaces missing features: the mean of each dimension
+    private final float[] fill;
+
+    private CompsIndex(int size, float[] data, long[] ids, byte[] statuses, String[] statusNames, byte[] splitDims,
+                       long[] sortedIds, int[] positions, float[] fill) {
+        this.size = size;
+        this.data = data;
+        this.ids = ids;
+        this.statuses = statuses;
+        this.statusNames = statusNames;
+        this.splitDims = splitDims;
+        this.sortedIds = sortedIds;
+        this.positions = positions;
+        this.fill = fill;
+    }
+
+    /**
+     * Feature vector of a listing, or null without usable coordinates
+     */
+    public static float[] vector(String latitude, String longitude, Double price, Integer beds, Integer baths,
+                                 Integer squareFeet, Integer yearBuilt, Boolean pool, Boolean fireplace,
+                                 Boolean view, Boolean garage) {
+        double lat = parseCoordinate(latitude);
+        double lon = parseCoordinate(longitude);
+        if (Double.isNaN(lat) || Double.isNaN(lon)) {
+            return null;
+        }
+        return new float[]{
+                (float) (lon * KM_PER_DEGREE_LON / LOCATION_SCALE_KM),
+                (float) (lat * KM_PER_DEGREE_LAT / LOCATION_SCALE_KM),
+                price == null || price <= 0 ? Float.NaN : (float) (Math.log(price) / PRICE_SCALE),
+                beds == null ? Float.NaN : beds,
+                baths == null ? Float.NaN : baths,
+                squareFeet == null || squareFeet <= 0 ? Float.NaN : (float) (Math.log(squareFeet) / SQFT_SCALE),
+                yearBuilt == null || yearBuilt <= 0 ? Float.NaN : (float) (yearBuilt / YEAR_SCALE),
+                feature(pool),
+                feature(fireplace),
+                feature(view),
+                feature(garage)
+        };
+    }
+
+    private static float feature(Boolean present) {
+        return Boolean.TRUE.equals(present) ? (float) FEATURE_WEIGHT : 0f;
+    }
+
+    // Latitude or longitude in degrees; NaN when missing, unparseable or zero (a common placeholder)
+    private static double parseCoordinate(String value) {
+        if (value == null || value.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            double degrees = Double.parseDouble(value.trim());
+            return degrees == 0 || Double.isInfinite(degrees) ? Double.NaN : degrees;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public static CompsIndex build(List<Point> points) {
+        int n = points.size();
+        float[] fill = means(points);
+        float[] raw = new float[n * DIMENSIONS];
+        Map<String, Byte> statusCodes = new HashMap<>();
+        List<String> statusNames = new ArrayList<>();
+        byte[] rawStatuses = new byte[n];
+        for (int i = 0; i < n; i++) {
+            Point point = points.get(i);
+            for (int d = 0; d < DIMENSIONS; d++) {
+                float value = point.vector()[d];
+                raw[i * DIMENSIONS + d] = Float.isNaN(value) ? fill[d] : value;
+            }
+            String status = point.status() == null ? "" : point.status();
+            rawStatuses[i] = statusCodes.computeIfAbsent(status, s -> {
+                statusNames.add(s);
+                return (byte) (statusNames.size() - 1);
+            });
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        byte[] splitDims = new byte[n];
+        split(raw, order, splitDims, 0, n);
+
+        // Store points in tree order so leaf scans read consecutive memory
+        float[] data = new float[n * DIMENSIONS];
+        long[] ids = new long[n];
+        byte[] statuses = new byte[n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(raw, order[i] * DIMENSIONS, data, i * DIMENSIONS, DIMENSIONS);
+            ids[i] = points.get(order[i]).id();
+            statuses[i] = rawStatuses[order[i]];
+        }
+
+        Integer[] byId = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byId[i] = i;
+        }
+        Arrays.sort(byId, (a, b) -> Long.compare(ids[a], ids[b]));
+        long[] sortedIds = new long[n];
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedIds[i] = ids[byId[i]];
+            positions[i] = byId[i];
+        }
+        return new CompsIndex(n, data, ids, statuses, statusNames.toArray(new String[0]), splitDims,
+                sortedIds, positions, fill);
+    }
+
+    private static float[] means(List<Point> points) {
+        double[] sums = new double[DIMENSIONS];
+        long[] counts = new long[DIMENSIONS];
+        for (Point point : points) {
+            for (int d = 0; d < DIMENSIONS; d++) {
+                if (!Float.isNaN(point.vector()[d])) {
+                    sums[d] += point.vector()[d];
+                    counts[d]++;
+                }
+            }
+        }
+        float[] means = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            means[d] = counts[d] == 0 ? 0f : (float) (sums[d] / counts[d]);
+        }
+        return means;
+    }
+
+    // Split [lo, hi) at its middle along the dimension with the widest spread
+    private static void split(float[] raw, int[] order, byte[] splitDims, int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        int dim = 0;
+        float widest = -1;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                float value = raw[order[i] * DIMENSIONS + d];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                dim = d;
+            }
+        }
+        int mid = (lo + hi) >>> 1;
+        select(raw, order, dim, lo, hi - 1, mid);
+        splitDims[mid] = (byte) dim;
+        split(raw, order, splitDims, lo, mid);
+        split(raw, order, splitDims, mid + 1, hi);
+    }
+
+    // Reorder order[left..right] so position k holds the k-th smallest value of dim (Hoare quickselect)
+    private static void select(float[] raw, int[] order, int dim, int left, int right, int k) {
+        while (left < right) {
+            float pivot = raw[order[(left + right) >>> 1] * DIMENSIONS + dim];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (raw[order[i] * DIMENSIONS + dim] < pivot) {
+                    i++;
+                }
+                while (raw[order[j] * DIMENSIONS + dim] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The indexed listing with the id, with missing features filled, or null
+     */
+    public Point point(long id) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        if (index < 0) {
+            return null;
+        }
+        int position = positions[index];
+        return new Point(id, statusNames[statuses[position]],
+                Arrays.copyOfRange(data, position * DIMENSIONS, (position + 1) * DIMENSIONS));
+    }
+
+    /**
+     * Copy of the vector with missing features replaced by the index means
+     */
+    public float[] filled(float[] vector) {
+        float[] filled = vector.clone();
+        for (int d = 0; d < DIMENSIONS; d++) {
+            if (Float.isNaN(filled[d])) {
+                filled[d] = fill[d];
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * The k listings closest to the query vector
+     *
+     * @param statuses allowed statuses, compared case-insensitively; null allows all
+     * @param radiusKm maximum distance from the query location; 0 or less for no limit
+     * @param exclude  ids to skip
+     */
+    public List<Neighbor> nearest(float[] query, int k, Set<String> statuses, double radiusKm, LongPredicate exclude) {
+        if (k <= 0 || size == 0) {
+            return List.of();
+        }
+        boolean[] allowed = new boolean[statusNames.length];
+        for (int s = 0; s < statusNames.length; s++) {
+            allowed[s] = statuses == null || statuses.contains(statusNames[s].toLowerCase(Locale.ROOT));
+        }
+        Search search = new Search(query, k, allowed, radiusKm, exclude);
+        search.visit(0, size);
+        return search.results();
+    }
+
+    /**
+     * Distance between two vectors in feature space
+     */
+    static double distance(float[] a, float[] b) {
+        double sum = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double diff = a[d] - b[d];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Distance in km between the locations of two vectors
+     */
+    static double distanceKm(float[] a, float[] b) {
+        return Math.hypot(a[0] - b[0], a[1] - b[1]) * LOCATION_SCALE_KM;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // State of one k-nearest search: a max-heap of the best k squared distances so far
+    private final class Search {
+        final float[] query;
+        final boolean[] allowed;
+        final double radius;
+        final LongPredicate exclude;
+        final double[] heapDistance;
+        final int[] heapPosition;
+        int found;
+
+        Search(float[] query, int k, boolean[] allowed, double radiusKm, LongPredicate exclude) {
+            this.query = query;
+            this.allowed = allowed;
+            this.radius = radiusKm > 0 ? radiusKm / LOCATION_SCALE_KM : Double.POSITIVE_INFINITY;
+            this.exclude = exclude;
+            this.heapDistance = new double[k];
+            this.heapPosition = new int[k];
+        }
+
+        double worst() {
+            return found < heapDistance.length ? Double.POSITIVE_INFINITY : heapDistance[0];
+        }
+
+        void visit(int lo, int hi) {
+            if (hi - lo <= LEAF_SIZE) {
+                for (int i = lo; i < hi; i++) {
+                    consider(i);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int dim = splitDims[mid];
+            double diff = query[dim] - data[mid * DIMENSIONS + dim];
+            consider(mid);
+            if (diff < 0) {
+                visit(lo, mid);
+                if (canSkip(dim, diff)) {
+                    return;
+                }
+                visit(mid + 1, hi);
+            } else {
+                visit(mid + 1, hi);
+                if (canSkip(dim, diff)) {
+                    return;
+                }
+                visit(lo, mid);
+            }
+        }
+
+        // The far side of a split is out of reach when the plane alone is farther than the current worst or the radius
+        boolean canSkip(int dim, double diff) {
+            return diff * diff >= worst() || (dim < 2 && Math.abs(diff) > radius);
+        }
+
+        void consider(int position) {
+            if (!allowed[statuses[position]] || exclude.test(ids[position])) {
+                return;
+            }
+            int offset = position * DIMENSIONS;
+            double dx = query[0] - data[offset];
+            double dy = query[1] - data[offset + 1];
+            double squared = dx * dx + dy * dy;
+            if (squared > radius * radius) {
+                return;
+            }
+            for (int d = 2; d < DIMENSIONS && squared < worst(); d++) {
+                double diff = query[d] - data[offset + d];
+                squared += diff * diff;
+            }
+            if (squared >= worst()) {
+                return;
+            }
+            if (found < heapDistance.length) {
+                siftUp(found++, squared, position);
+            } else {
+                siftDown(squared, position);
+            }
+        }
+
+        void siftUp(int i, double distance, int position) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (heapDistance[parent] >= distance) {
+                    break;
+                }
+                heapDistance[i] = heapDistance[parent];
+                heapPosition[i] = heapPosition[parent];
+                i = parent;
+            }
+            heapDistance[i] = distance;
+            heapPosition[i] = position;
+        }
+
+        // Replace the root (the current worst) and restore the heap
+        void siftDown(double distance, int position) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= found) {
+                    break;
+                }
+                if (child + 1 < found && heapDistance[child + 1] > heapDistance[child]) {
+                    child++;
+                }
+                if (heapDistance[child] <= distance) {
+                    break;
+                }
+                heapDistance[i] = heapDistance[child];
+                heapPosition[i] = heapPosition[child];
+                i = child;
+            }
+            heapDistance[i] = distance;
+            heapPosition[i] = position;
+        }
+
+        List<Neighbor> results() {
+            List<Neighbor> neighbors = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                int offset = heapPosition[i] * DIMENSIONS;
+                double dx = query[0] - data[offset];
+                double dy = query[1] - data[offset + 1];
+                neighbors.add(new Neighbor(ids[heapPosition[i]], Math.sqrt(heapDistance[i]),
+                        Math.hypot(dx, dy) * LOCATION_SCALE_KM));
+            }
+            neighbors.sort((a, b) -> Double.compare(a.distance(), b.distance()));
+            return neighbors;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.idxexchange.idxbackend.comps;
+
+import com.idxexchange.idxbackend.comps.CompsIndex.Neighbor;
+import com.idxexchange.idxbackend.comps.CompsIndex.Point;
+import com.idxexchange.idxbackend.dto.ComparableListing;
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.invalidation.ListingCache;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Comparable listings ("comps") for a listing, from an in-memory {@link CompsIndex}.
+ *
+ * The k-d tree is rebuilt from one scan of the listings on startup and on a schedule.
+ * Listing changes in between go to a small overlay that takes precedence over the tree and is
+ * searched linearly; once the overlay grows past idx.comps.max-pending the tree is rebuilt
+ * in the background. Listings changed by other instances are read back into the overlay.
+ */
+@Service
+public class CompsService implements ListingCache {
+
+    private static final List<String> ATTRIBUTES = List.of(
+            "id", "latitude", "longitude", "price", "beds", "baths", "squareFeet", "year_built",
+            "poolPrivate", "fireplace", "view", "garage", "standardStatus");
+
+    // Overlay value of a deleted listing, or one that lost its coordinates
+    private static final Point REMOVED = new Point(-1, null, null);
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Value("${idx.comps.max-k:50}")
+    private int maxK;
+
+    @Value("${idx.comps.max-pending:10000}")
+    private int maxPending;
+
+    private volatile CompsIndex index = CompsIndex.build(List.of());
+
+    // Listings changed since the tree was built, by id
+    private final Map<Long, Point> overlay = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * The k listings most similar to a listing, most similar first
+     *
+     * @param statuses allowed listing statuses, case-insensitive; empty or null allows all
+     * @param radiusKm maximum distance from the listing; null for no limit
+     * @return null if the listing is not indexed, because it does not exist or has no coordinates
+     */
+    public List<ComparableListing> comps(long id, int k, Set<String> statuses, Double radiusKm) {
+        CompsIndex current = index;
+        Point subject = overlay.get(id);
+        if (subject == null) {
+            subject = current.point(id);
+        }
+        if (subject == null || subject == REMOVED) {
+            return null;
+        }
+        int limit = Math.max(0, Math.min(k, maxK));
+        Set<String> allowed = statuses == null || statuses.isEmpty() ? null
+                : statuses.stream().map(status -> status.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        double radius = radiusKm == null ? 0 : radiusKm;
+        float[] query = current.filled(subject.vector());
+
+        List<Neighbor> neighbors = new ArrayList<>(current.nearest(query, limit, allowed, radius,
+                candidate -> candidate == id || overlay.containsKey(candidate)));
+        for (Point point : overlay.values()) {
+            if (point == REMOVED || point.id() == id
+                    || (allowed != null && (point.status() == null || !allowed.contains(point.status().toLowerCase(Locale.ROOT))))) {
+                continue;
+            }
+            float[] vector = current.filled(point.vector());
+            double distanceKm = CompsIndex.distanceKm(query, vector);
+            if (radius <= 0 || distanceKm <= radius) {
+                neighbors.add(new Neighbor(point.id(), CompsIndex.distance(query, vector), distanceKm));
+            }
+        }
+        neighbors.sort(Comparator.comparingDouble(Neighbor::distance));
+        if (neighbors.size() > limit) {
+            neighbors = neighbors.subList(0, limit);
+        }
+
+        Map<Long, Property> properties = new HashMap<>();
+        propertyRepository.findAllById(neighbors.stream().map(Neighbor::id).toList())
+                .forEach(property -> properties.put(property.getId(), property));
+        List<ComparableListing> comps = new ArrayList<>(neighbors.size());
+        for (Neighbor neighbor : neighbors) {
+            Property property = properties.get(neighbor.id());
+            if (property != null) {
+                comps.add(new ComparableListing(property, neighbor.distanceKm(), neighbor.distance()));
+            }
+        }
+        return comps;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild the tree from the database. Lookups keep using the previous tree until the new
+     * one is ready, and if loading fails.
+     *
+     * @return number of indexed listings
+     */
+    @Scheduled(fixedDelayString = "${idx.comps.refresh-ms:3600000}", initialDelayString = "${idx.comps.refresh-ms:3600000}")
+    public synchronized int reload() {
+        try {
+            long start = System.currentTimeMillis();
+            // Changes seen before the scan are in the new tree; later ones stay in the overlay
+            Map<Long, Point> applied = new HashMap<>(overlay);
+            List<Point> points = new ArrayList<>();
+            propertyRepository.scan(ATTRIBUTES, row -> {
+                Point point = point(row);
+                if (point != REMOVED) {
+                    points.add(point);
+                }
+            });
+            index = CompsIndex.build(points);
+            applied.forEach(overlay::remove);
+            System.out.println("Built comps index over " + points.size() + " listings in " +
+                               (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Error building comps index: " + e.getMessage());
+        }
+        return index.size();
+    }
+
+    /**
+     * Put a changed listing in the overlay, and rebuild the tree once the overlay is too big to scan
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isBulk()) {
+            reload();
+            return;
+        }
+        if (event.after() == null) {
+            overlay.put(event.before().getId(), REMOVED);
+        } else {
+            Property after = event.after();
+            float[] vector = CompsIndex.vector(after.getLatitude(), after.getLongitude(), after.getPrice(),
+                    after.getBeds(), after.getBaths(), after.getSquareFeet(), after.getYear_built(),
+                    after.getPoolPrivate(), after.getFireplace(), after.getView(), after.getGarage());
+            overlay.put(after.getId(), vector == null ? REMOVED : new Point(after.getId(), after.getStandardStatus(), vector));
+        }
+        rebuildIfTooManyPending();
+    }
+
+    /**
+     * Read listings changed by another instance back into the overlay
+     */
+    @Override
+    public void evict(Collection<Long> propertyIds) {
+        Set<Long> deleted = new HashSet<>(propertyIds);
+        for (Object[] row : propertyRepository.findAttributesById(ATTRIBUTES, deleted)) {
+            Long id = (Long) row[0];
+            deleted.remove(id);
+            overlay.put(id, point(row));
+        }
+        deleted.forEach(id -> overlay.put(id, REMOVED));
+        rebuildIfTooManyPending();
+    }
+
+    @Override
+    public void evictAll() {
+        reload();
+    }
+
+    // A row of ATTRIBUTES as a point, or REMOVED without coordinates
+    private static Point point(Object[] row) {
+        float[] vector = CompsIndex.vector((String) row[1], (String) row[2], (Double) row[3], (Integer) row[4],
+                (Integer) row[5], (Integer) row[6], (Integer) row[7], (Boolean) row[8], (Boolean) row[9],
+                (Boolean) row[10], (Boolean) row[11]);
+        return vector == null ? REMOVED : new Point((Long) row[0], (String) row[12], vector);
+    }
+
+    private void rebuildIfTooManyPending() {
+        if (overlay.size() > maxPending && rebuilding.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    reload();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    public int getIndexSize() {
+        return index.size();
+    }
+
+    public int getPendingChanges() {
+        return overlay.size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.idxexchange.idxbackend.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import jakarta.persistence.Basic;
+import jakarta.persistence.FetchType;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leaves lazy entity attributes that were never loaded out of the JSON.
+ * Without it, writing a page of listings would read each listing's lazy columns with one query
+ * per listing (or fail once the session is closed). Endpoints that return those columns load
+ * them before returning the entity.
+ */
+@Component
+public class LazyAttributeModule extends SimpleModule {
+
+    public LazyAttributeModule() {
+        super("LazyAttributeModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                Class<?> type = beanDesc.getBeanClass();
+                if (!PersistentAttributeInterceptable.class.isAssignableFrom(type)) {
+                    return beanProperties;
+                }
+                List<BeanPropertyWriter> writers = new ArrayList<>(beanProperties.size());
+                for (BeanPropertyWriter writer : beanProperties) {
+                    writers.add(isLazy(type, writer.getName()) ? new LoadedOnlyWriter(writer) : writer);
+                }
+                return writers;
+            }
+        });
+    }
+
+    private static boolean isLazy(Class<?> type, String attribute) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(attribute);
+                Basic basic = field.getAnnotation(Basic.class);
+                return basic != null && basic.fetch() == FetchType.LAZY;
+            } catch (NoSuchFieldException e) {
+                // Declared further up, if at all
+            }
+        }
+        return false;
+    }
+
+    // Writes the attribute only if it has been loaded
+    private static final class LoadedOnlyWriter extends BeanPropertyWriter {
+
+        LoadedOnlyWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (Hibernate.isPropertyInitialized(bean, getName())) {
+                super.serializeAsField(bean, gen, prov);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.idxexchange.idxbackend.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.ListingSnapshot;
+import com.idxexchange.idxbackend.model.Property;
+import com.theokanning.openai.OpenAiError;
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import javax.cache.expiry.EternalExpiryPolicy;
+
+/**
+ * Reflection, proxy and resource hints for the native image ({@code mvn -Pnative native:compile}).
+ * Spring AOT derives hints for beans, entities and handler signatures; these cover what it can't see.
+ * Libraries in the GraalVM reachability metadata repository (Caffeine's generated cache classes,
+ * Hibernate, MySQL Connector/J) or shipping their own (H2) need nothing here.
+ */
+public class NativeImageHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+        // Listings go out through Page<?> and ResponseEntity<?>; PropertyFields and LazyAttributeModule
+        // read the fields' annotations and call the getters
+        bindings.registerReflectionHints(hints.reflection(), Property.class);
+        hints.reflection().registerType(Property.class,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        // Saved searches store their query as JSON with a mapper of their own
+        bindings.registerReflectionHints(hints.reflection(), PropertySearchQuery.class);
+        // So do listing changes, for other instances (see InvalidationBus)
+        bindings.registerReflectionHints(hints.reflection(), ListingSnapshot.class);
+
+        // OpenAI client: a Retrofit proxy of OpenAiApi, reading and writing JSON with its own mapper
+        hints.proxies().registerJdkProxy(OpenAiApi.class);
+        hints.reflection().registerType(OpenAiApi.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        bindings.registerReflectionHints(hints.reflection(),
+                ChatCompletionRequest.class, ChatCompletionResult.class, OpenAiError.class);
+
+        // Second-level cache: Hibernate and JCache create these by class name, Caffeine's JCache
+        // provider reads its defaults from reference.conf
+        hints.reflection().registerType(JCacheRegionFactory.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(EternalExpiryPolicy.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("reference.conf");
+        hints.resources().registerPattern("META-INF/services/javax.cache.spi.CachingProvider");
+    }
+}
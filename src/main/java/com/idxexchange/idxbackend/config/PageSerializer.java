@@ -3,14 +3,35 @@ package com.idxexchange.idxbackend.config;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.idxexchange.idxbackend.jfr.PropertySearchEvent;
+import com.idxexchange.idxbackend.metrics.SearchMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jackson.JsonComponent;
 import org.springframework.data.domain.Page;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @JsonComponent
 public class PageSerializer extends JsonSerializer<Page<?>> {
     
+    // Absent when the serializer is created outside Spring, e.g. in benchmarks
+    private Meter.MeterProvider<Timer> serializeTimer;
+    
+    @Autowired(required = false)
+    void setMeterRegistry(MeterRegistry meterRegistry) {
+        serializeTimer = Timer.builder("idx.page.serialize")
+                .description("Writing pages of results as JSON")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+    }
+    
     @SuppressWarnings("unchecked")
     @Override
     public Class<Page<?>> handledType() {
@@ -19,6 +40,22 @@ public class PageSerializer extends JsonSerializer<Page<?>> {
     
     @Override
     public void serialize(Page<?> page, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            write(page, gen);
+            outcome = "success";
+        } finally {
+            long nanos = System.nanoTime() - start;
+            PropertySearchEvent.serialized(nanos);
+            if (serializeTimer != null) {
+                serializeTimer.withTags("page.size", SearchMetrics.pageSizeTag(page.getPageable()), "outcome", outcome)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    private void write(Page<?> page, JsonGenerator gen) throws IOException {
         gen.writeStartObject();
         gen.writeObjectField("content", page.getContent());
         gen.writeNumberField("totalElements", page.getTotalElements());
@@ -0,0 +1,83 @@
+package com.idxexchange.idxbackend.config;
+
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.invalidation.ListingCache;
+import com.idxexchange.idxbackend.model.Property;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+/**
+ * Reports the listing cache's hit ratio and empties it after bulk listing changes.
+ * Single listing changes need nothing here: Hibernate updates the cache as they commit.
+ * Changes made by other instances are evicted through the InvalidationBus.
+ */
+@Component
+public class PropertyCacheMonitor implements ListingCache {
+
+    @Value("${idx.cache.property.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void registerMetrics() {
+        if (!enabled) {
+            return;
+        }
+        CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(Property.CACHE_REGION);
+        Gauge.builder("idx.cache.property.hit.ratio", region, PropertyCacheMonitor::hitRatio)
+                .description("Share of listing cache lookups answered from the cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("idx.cache.property.size", region, CacheRegionStatistics::getElementCountInMemory)
+                .description("Listings in the second-level cache")
+                .register(meterRegistry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long lookups = hits + region.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isBulk()) {
+            evictAll();
+        }
+    }
+
+    @Override
+    public void evict(Collection<Long> propertyIds) {
+        if (!enabled) {
+            return;
+        }
+        Cache cache = entityManagerFactory.getCache();
+        for (Long id : propertyIds) {
+            cache.evict(Property.class, id);
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        if (!enabled) {
+            return;
+        }
+        entityManagerFactory.getCache().evict(Property.class);
+    }
+}
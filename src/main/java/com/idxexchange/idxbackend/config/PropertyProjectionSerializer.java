@@ -0,0 +1,34 @@
+package com.idxexchange.idxbackend.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.idxexchange.idxbackend.dto.PropertyProjection;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a PropertyProjection as an object of its fields, without building a map per listing.
+ * Values go through the same serializers as the entity's, so a field looks the same either way.
+ */
+@JsonComponent
+public class PropertyProjectionSerializer extends JsonSerializer<PropertyProjection> {
+
+    @Override
+    public Class<PropertyProjection> handledType() {
+        return PropertyProjection.class;
+    }
+
+    @Override
+    public void serialize(PropertyProjection projection, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        List<String> names = projection.fields().names();
+        Object[] values = projection.values();
+        gen.writeStartObject(projection);
+        for (int i = 0; i < values.length; i++) {
+            serializers.defaultSerializeField(names.get(i), values[i], gen);
+        }
+        gen.writeEndObject();
+    }
+}
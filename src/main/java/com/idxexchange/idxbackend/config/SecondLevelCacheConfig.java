@@ -0,0 +1,84 @@
+package com.idxexchange.idxbackend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.idxexchange.idxbackend.model.Property;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for listings.
+ *
+ * Listings are cached by id in a local, size-bounded Caffeine cache behind Hibernate's JCache
+ * region factory, so detail pages and id lookups of popular listings skip the database. Writes
+ * through JPA (PropertyIngestionService) update or evict entries as they commit; entries also
+ * expire after idx.cache.property.ttl-minutes, which bounds how long a row changed directly in
+ * the database can be served stale. Disable with idx.cache.property.enabled=false (checked when
+ * Hibernate starts, so it also works with AOT builds).
+ */
+@Component
+public class SecondLevelCacheConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${idx.cache.property.enabled:true}")
+    private boolean enabled;
+
+    @Value("${idx.cache.property.max-entries:50000}")
+    private long maxEntries;
+
+    @Value("${idx.cache.property.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private CacheManager cacheManager;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (!enabled) {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            return;
+        }
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(OptionalLong.of(maxEntries));
+        region.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        // Hibernate caches immutable disassembled state, so there is no need to copy it on every access
+        region.setStoreByValue(false);
+        region.setStatisticsEnabled(true);
+
+        // A manager of its own, so several application contexts in one JVM (e.g. a cluster test) don't share listings
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        cacheManager = provider.getCacheManager(
+                URI.create(provider.getDefaultURI() + "#" + UUID.randomUUID()), getClass().getClassLoader());
+        if (cacheManager.getCache(Property.CACHE_REGION) == null) {
+            cacheManager.createCache(Property.CACHE_REGION, region);
+        }
+
+        hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        // Every region is created above with a size bound; fail rather than create an unbounded one
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        // Hit and miss counts, published as hibernate.second.level.cache.* metrics
+        hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        // Statistics would otherwise log a "Session Metrics" block for every session
+        hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+    }
+
+    @PreDestroy
+    void close() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+}
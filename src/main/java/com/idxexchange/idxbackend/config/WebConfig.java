@@ -1,7 +1,11 @@
 package com.idxexchange.idxbackend.config;
 
+import com.idxexchange.idxbackend.controller.SavedSearchController;
+import com.idxexchange.idxbackend.limit.ConcurrencyLimitInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
@@ -11,6 +15,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         // Read allowed origins from environment variable ALLOWED_ORIGINS (comma-separated).
@@ -30,6 +42,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins(origins)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
+                // Issued with an owner's first saved search
+                .exposedHeaders(SavedSearchController.OWNER_KEY_HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
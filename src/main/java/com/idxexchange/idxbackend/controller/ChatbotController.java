@@ -2,8 +2,10 @@ package com.idxexchange.idxbackend.controller;
 
 import com.idxexchange.idxbackend.dto.ChatMessage;
 import com.idxexchange.idxbackend.dto.ChatResponse;
+import com.idxexchange.idxbackend.limit.ConcurrencyLimit;
 import com.idxexchange.idxbackend.service.ChatbotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -15,7 +17,9 @@ import org.springframework.web.bind.annotation.RestController;
  * Handles user questions and provides intelligent responses
  */
 @RestController
+@Lazy
 @RequestMapping("/api/chatbot")
+@ConcurrencyLimit("chat")
 public class ChatbotController {
     
     @Autowired
@@ -0,0 +1,41 @@
+package com.idxexchange.idxbackend.controller;
+
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the NLP location gazetteer.
+ * GET /actuator/gazetteer shows its size and why the last load failed, if it did;
+ * POST /actuator/gazetteer reloads it from the database and fails if that does.
+ */
+@Component
+@Endpoint(id = "gazetteer")
+public class GazetteerEndpoint {
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @ReadOperation
+    public Map<String, Object> gazetteer() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("names", nlpQueryParserService.getGazetteerSize());
+        response.put("loadedAt", nlpQueryParserService.getGazetteerLoadedAt());
+        if (nlpQueryParserService.getGazetteerLoadError() != null) {
+            response.put("loadError", nlpQueryParserService.getGazetteerLoadError());
+        }
+        return response;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        nlpQueryParserService.reloadGazetteer();
+        return gazetteer();
+    }
+}
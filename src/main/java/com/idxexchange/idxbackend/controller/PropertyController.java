@@ -1,15 +1,23 @@
 package com.idxexchange.idxbackend.controller;
 
+import com.idxexchange.idxbackend.comps.CompsService;
+import com.idxexchange.idxbackend.dto.ComparableListing;
+import com.idxexchange.idxbackend.dto.MarketStats;
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.dto.PropertyProjection;
 import com.idxexchange.idxbackend.dto.PropertySearchQuery;
-import com.idxexchange.idxbackend.model.Property;
-import com.idxexchange.idxbackend.repository.PropertyRepository;
+import com.idxexchange.idxbackend.limit.ConcurrencyLimit;
 import com.idxexchange.idxbackend.service.NLPQueryParserService;
 import com.idxexchange.idxbackend.service.PropertyService;
+import com.idxexchange.idxbackend.stats.MarketStatsService;
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Suggestion;
+import com.idxexchange.idxbackend.suggest.SuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,20 +25,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 public class PropertyController {
 
     @Autowired
     private PropertyService propertyService;
-
-    @Autowired
-    private PropertyRepository repository;
     
     @Autowired
     private NLPQueryParserService nlpQueryParserService;
 
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private MarketStatsService marketStatsService;
+
+    @Autowired
+    private CompsService compsService;
+
     @GetMapping("/properties")
-    public Page<Property> getAll(
+    @ConcurrencyLimit("search")
+    public ResponseEntity<Page<?>> getAll(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String zip,
@@ -40,22 +60,85 @@ public class PropertyController {
             @RequestParam(required = false) Integer minBeds,
             @RequestParam(required = false) Integer baths,
             @RequestParam(required = false) Integer minBaths,
+            @RequestParam(required = false) String fields,
             @PageableDefault(size = 20) Pageable pageable) {
 
-        return propertyService.searchProperties(
+        PropertyFields selected = PropertyFields.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(propertyService.searchProperties(
+                    city, state, zip,
+                    minPrice, maxPrice,
+                    beds, minBeds,
+                    baths, minBaths,
+                    selected, pageable));
+        }
+        return ResponseEntity.ok(propertyService.searchProperties(
                 city, state, zip,
                 minPrice, maxPrice,
                 beds, minBeds,
                 baths, minBaths,
                 pageable
-        );
+        ));
+    }
+
+    /**
+     * Typeahead for the search box: cities, zips, subdivisions, counties and streets starting
+     * with the prefix, most listings first. Served from memory without a database query.
+     */
+    @GetMapping("/properties/suggest")
+    public List<Suggestion> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || limit < 1) {
+            return List.of();
+        }
+        return suggestionService.suggest(prefix, limit);
+    }
+
+    /**
+     * Listing count, median and quartile prices, median price per square foot and median
+     * days on market for a city, zip and bedroom filter. Served from in-memory aggregates.
+     */
+    @GetMapping("/properties/stats")
+    public MarketStats stats(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String zip,
+            @RequestParam(required = false) Integer beds,
+            @RequestParam(required = false) Integer minBeds) {
+        return marketStatsService.stats(city, zip, beds, minBeds);
     }
 
+    /**
+     * A listing with all its columns, or only the given fields; searches leave out descriptions
+     * and agent contacts. Listings come from the second-level cache, so fields only trims the JSON.
+     */
     @GetMapping("/properties/{id}")
-    public ResponseEntity<Property> getPropertyById(@PathVariable Long id) {
-        return repository.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    @ConcurrencyLimit("lookup")
+    public ResponseEntity<?> getPropertyById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+        PropertyFields selected = PropertyFields.parse(fields);
+        return propertyService.findDetails(id)
+                .<Object>map(property -> selected == null ? property : PropertyProjection.of(property, selected))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * The k listings most similar to a listing by location, price, rooms, size, age and features,
+     * optionally limited to some statuses (e.g. status=Closed) and a radius in km.
+     * Not found for listings that do not exist or have no coordinates.
+     */
+    @GetMapping("/properties/{id}/comps")
+    public ResponseEntity<List<ComparableListing>> getComps(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(required = false) Set<String> status,
+            @RequestParam(required = false) Double radiusKm) {
+        List<ComparableListing> comps = compsService.comps(id, k, status, radiusKm);
+        return comps == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(comps);
+    }
+
     /**
      * NLP-based property search endpoint
      * Accepts a natural language query and returns matching properties
@@ -66,11 +149,17 @@ public class PropertyController {
      * - "Houses in San Diego between 400k and 600k with garage"
      */
     @PostMapping("/properties/nlp-search")
-    public Page<Property> searchWithNLP(
+    @ConcurrencyLimit("search")
+    public ResponseEntity<Page<?>> searchWithNLP(
             @RequestBody String naturalLanguageQuery,
+            @RequestParam(required = false) String fields,
             @PageableDefault(size = 20) Pageable pageable) {
         
-        return propertyService.searchPropertiesWithNLP(naturalLanguageQuery, pageable);
+        PropertyFields selected = PropertyFields.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(propertyService.searchPropertiesWithNLP(naturalLanguageQuery, selected, pageable));
+        }
+        return ResponseEntity.ok(propertyService.searchPropertiesWithNLP(naturalLanguageQuery, pageable));
     }
     
     /**
@@ -82,4 +171,15 @@ public class PropertyController {
         return nlpQueryParserService.parseQuery(naturalLanguageQuery);
     }
 
+    /**
+     * Bad request for a fields= list naming unknown fields, with the names that can be used
+     */
+    @ExceptionHandler(PropertyFields.UnknownFieldsException.class)
+    public ResponseEntity<Map<String, Object>> unknownFields(PropertyFields.UnknownFieldsException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage());
+        body.put("fields", PropertyFields.available());
+        return ResponseEntity.badRequest().body(body);
+    }
+
 }
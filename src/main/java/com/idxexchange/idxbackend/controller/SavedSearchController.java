@@ -0,0 +1,115 @@
+package com.idxexchange.idxbackend.controller;
+
+import com.idxexchange.idxbackend.alerts.SavedSearchService;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.dto.SavedSearchRequest;
+import com.idxexchange.idxbackend.model.SavedSearch;
+import com.idxexchange.idxbackend.model.SearchAlert;
+import com.idxexchange.idxbackend.repository.SearchAlertRepository;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Saved searches and the alerts raised when new or changed listings match them.
+ * An owner's first search returns an access key in the X-Owner-Key header; their later
+ * searches, listing them, reading their alerts and deleting need it in the same header.
+ */
+@RestController
+@RequestMapping("/saved-searches")
+public class SavedSearchController {
+
+    public static final String OWNER_KEY_HEADER = "X-Owner-Key";
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired
+    private SearchAlertRepository searchAlertRepository;
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @PostMapping
+    public ResponseEntity<SavedSearch> create(@RequestBody SavedSearchRequest request,
+                                              @RequestHeader(name = OWNER_KEY_HEADER, required = false) String ownerKey) {
+        String owner = request.getOwner() != null ? request.getOwner().trim() : "";
+        if (owner.isEmpty() || owner.length() > SavedSearch.OWNER_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        PropertySearchQuery query = request.getQuery();
+        if (query == null && request.getText() != null && !request.getText().isBlank()) {
+            query = nlpQueryParserService.parseQuery(request.getText());
+        }
+        // Without filters it would alert on every listing
+        if (!SavedSearchService.hasFilters(query)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String name = request.getName() != null ? request.getName() : request.getText();
+        if (name != null && name.length() > SavedSearch.NAME_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String issuedKey = null;
+        if (savedSearchService.hasOwnerKey(owner)) {
+            if (!savedSearchService.isOwnerKey(owner, ownerKey)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        } else {
+            issuedKey = SavedSearchService.newOwnerKey();
+            ownerKey = issuedKey;
+        }
+        SavedSearch saved = savedSearchService.create(owner, ownerKey, name, query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (issuedKey != null) {
+            response.header(OWNER_KEY_HEADER, issuedKey);
+        }
+        return response.body(saved);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SavedSearch>> list(@RequestParam String owner,
+                                                  @RequestHeader(name = OWNER_KEY_HEADER, required = false) String ownerKey) {
+        if (!savedSearchService.isOwnerKey(owner, ownerKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(savedSearchService.findByOwner(owner));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id, @RequestParam String owner,
+                                       @RequestHeader(name = OWNER_KEY_HEADER, required = false) String ownerKey) {
+        if (!savedSearchService.isOwnerKey(owner, ownerKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return savedSearchService.delete(id, owner) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * An owner's alerts, newest first
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<Page<SearchAlert>> alerts(@RequestParam String owner,
+                                                    @RequestHeader(name = OWNER_KEY_HEADER, required = false) String ownerKey,
+                                                    @PageableDefault(size = 50) Pageable pageable) {
+        if (!savedSearchService.isOwnerKey(owner, ownerKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(searchAlertRepository.findByOwnerOrderByCreatedAtDesc(owner, pageable));
+    }
+}
@@ -0,0 +1,47 @@
+package com.idxexchange.idxbackend.controller;
+
+import com.idxexchange.idxbackend.metrics.SqlStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for SQL statement statistics.
+ * GET /actuator/sqlstats lists statement shapes by total time spent (?limit=50),
+ * GET /actuator/sqlstats/{id} adds the captured EXPLAIN plan and slow parameter samples,
+ * DELETE /actuator/sqlstats starts over.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    @Autowired
+    private SqlStats sqlStats;
+
+    @ReadOperation
+    public Map<String, Object> statements(@Nullable Integer limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("slowThresholdMs", sqlStats.getSlowThresholdMillis());
+        response.put("windowMinutes", sqlStats.getWindowMinutes());
+        response.put("untracked", sqlStats.getUntracked());
+        response.put("statements", sqlStats.summary(limit != null ? limit : 50));
+        return response;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statement(@Selector String id) {
+        return sqlStats.detail(id);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStats.reset();
+    }
+}
@@ -45,4 +45,9 @@ public class ChatMessage {
      * Optional: specific property IDs to include in context
      */
     private List<Long> propertyIds;
+    
+    /**
+     * Optional: chat session identifier, assigned by the server on the first turn
+     */
+    private String sessionId;
 }
@@ -40,4 +40,9 @@ public class ChatResponse {
      * Context information used for generating the response
      */
     private String contextUsed;
+    
+    /**
+     * Chat session identifier to send back with the next message
+     */
+    private String sessionId;
 }
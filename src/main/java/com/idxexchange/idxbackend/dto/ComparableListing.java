@@ -0,0 +1,23 @@
+package com.idxexchange.idxbackend.dto;
+
+import com.idxexchange.idxbackend.model.Property;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A listing comparable to another one, with how far apart they are
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparableListing {
+
+    private Property property;
+
+    // Distance between the two locations
+    private double distanceKm;
+
+    // Distance over location, price, size, rooms, age and features; lower is more similar
+    private double score;
+}
@@ -0,0 +1,37 @@
+package com.idxexchange.idxbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Market statistics for the listings matching a city, zip and bedroom filter.
+ * Medians and quartiles are estimates within 1% of an actual listing value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketStats {
+
+    // Filters the statistics cover; null means any
+    private String city;
+    private String zip;
+    private Integer beds;
+    private Integer minBeds;
+
+    private long listings;
+    private long activeListings;
+
+    private Double medianPrice;
+    private Double lowerQuartilePrice;
+    private Double upperQuartilePrice;
+    private Double medianPricePerSquareFoot;
+    private Double medianDaysOnMarket;
+
+    // When the underlying aggregates last changed
+    private Instant updatedAt;
+}
@@ -0,0 +1,117 @@
+package com.idxexchange.idxbackend.dto;
+
+import com.idxexchange.idxbackend.model.Property;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The listing fields a client asked for with {@code fields=}, e.g. {@code fields=id,latitude,longitude,price}.
+ * Names are Property attributes, as they appear in its JSON. They are kept in declaration order,
+ * so the same set of fields always gives the same select list however the client ordered it.
+ */
+public record PropertyFields(List<String> names) {
+
+    // Column attributes in declaration order, with the getters that read them (and load lazy ones)
+    private static final Map<String, Method> GETTERS = getters();
+
+    public PropertyFields {
+        names = List.copyOf(names);
+    }
+
+    /**
+     * The fields of a comma-separated list, or null when it is absent or blank (all fields)
+     *
+     * @throws UnknownFieldsException naming any field that is not a listing attribute
+     */
+    public static PropertyFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (GETTERS.containsKey(field)) {
+                requested.add(field);
+            } else {
+                unknown.add(field);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new UnknownFieldsException(unknown);
+        }
+        if (requested.isEmpty()) {
+            return null;
+        }
+        return new PropertyFields(GETTERS.keySet().stream().filter(requested::contains).toList());
+    }
+
+    /**
+     * Thrown for a fields list naming something that is not a listing attribute
+     */
+    public static class UnknownFieldsException extends IllegalArgumentException {
+
+        public UnknownFieldsException(List<String> unknown) {
+            super("Unknown fields: " + String.join(", ", unknown));
+        }
+    }
+
+    /**
+     * Every field that can be requested
+     */
+    public static Set<String> available() {
+        return GETTERS.keySet();
+    }
+
+    /**
+     * JPQL select list of these fields, e.g. "p.id, p.price"
+     */
+    public String selectList(String alias) {
+        return names.stream().map(name -> alias + "." + name).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * A listing's values of these fields, in order
+     */
+    public Object[] values(Property property) {
+        Object[] values = new Object[names.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = GETTERS.get(names.get(i)).invoke(property);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read listing fields " + names, e);
+        }
+        return values;
+    }
+
+    private static Map<String, Method> getters() {
+        Map<String, Method> getters = new LinkedHashMap<>();
+        for (Field field : Property.class.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(Column.class) && !field.isAnnotationPresent(Id.class)) {
+                continue;
+            }
+            String name = field.getName();
+            try {
+                getters.put(name, Property.class.getMethod("get" + Character.toUpperCase(name.charAt(0)) + name.substring(1)));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No getter for listing field " + name, e);
+            }
+        }
+        return Collections.unmodifiableMap(getters);
+    }
+}
@@ -0,0 +1,16 @@
+package com.idxexchange.idxbackend.dto;
+
+import com.idxexchange.idxbackend.model.Property;
+
+/**
+ * Some fields of a listing, selected with {@code fields=}. Written as a JSON object of just those
+ * fields, with the same names and value formats as the full listing (see PropertyProjectionSerializer).
+ *
+ * @param values the values of {@code fields.names()}, in the same order
+ */
+public record PropertyProjection(PropertyFields fields, Object[] values) {
+
+    public static PropertyProjection of(Property property, PropertyFields fields) {
+        return new PropertyProjection(fields, fields.values(property));
+    }
+}
@@ -1,53 +1,54 @@
 package com.idxexchange.idxbackend.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * DTO to hold parsed property search criteria from natural language query
+ * Immutable, so parsed queries can be cached and shared; use toBuilder() to derive a changed copy
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class PropertySearchQuery {
     // Location filters
-    private String city;
-    private String state;
-    private String zip;
+    String city;
+    String state;
+    String zip;
+    String county;
+    String subdivision;
     
     // Price filters
-    private Double minPrice;
-    private Double maxPrice;
+    Double minPrice;
+    Double maxPrice;
     
     // Bedroom/Bathroom filters
-    private Integer beds;
-    private Integer minBeds;
-    private Integer baths;
-    private Integer minBaths;
+    Integer beds;
+    Integer minBeds;
+    Integer baths;
+    Integer minBaths;
     
     // Square footage
-    private Integer minSquareFeet;
-    private Integer maxSquareFeet;
+    Integer minSquareFeet;
+    Integer maxSquareFeet;
     
     // Features
-    private Boolean poolPrivate;
-    private Boolean fireplace;
-    private Boolean view;
-    private Boolean garage;
+    Boolean poolPrivate;
+    Boolean fireplace;
+    Boolean view;
+    Boolean garage;
     
     // Property type
-    private String propertyType;
+    String propertyType;
     
     // Year built
-    private Integer minYearBuilt;
-    private Integer maxYearBuilt;
+    Integer minYearBuilt;
+    Integer maxYearBuilt;
     
     // Original query for reference
-    private String originalQuery;
+    String originalQuery;
     
     // Confidence score (0-100)
-    private Integer confidenceScore;
+    Integer confidenceScore;
 }
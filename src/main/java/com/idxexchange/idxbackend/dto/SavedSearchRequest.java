@@ -0,0 +1,36 @@
+package com.idxexchange.idxbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A search to save: either structured filters or a natural language query
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchRequest {
+
+    /**
+     * Who receives the alerts, e.g. an email address
+     */
+    private String owner;
+
+    /**
+     * Optional display name
+     */
+    private String name;
+
+    /**
+     * Structured filters; takes precedence over text
+     */
+    private PropertySearchQuery query;
+
+    /**
+     * Natural language query such as "3 bed homes in Irvine under 1.5M"
+     */
+    private String text;
+}
@@ -0,0 +1,20 @@
+package com.idxexchange.idxbackend.event;
+
+import com.idxexchange.idxbackend.model.Property;
+
+/**
+ * Published after listings in rets_property change, for in-memory state derived from them.
+ *
+ * A single-listing change carries the row before and after it (null when created or deleted).
+ * A bulk change such as seeding carries neither, and listeners reload from the database.
+ */
+public record PropertyChangedEvent(Property before, Property after) {
+
+    public static PropertyChangedEvent bulk() {
+        return new PropertyChangedEvent(null, null);
+    }
+
+    public boolean isBulk() {
+        return before == null && after == null;
+    }
+}
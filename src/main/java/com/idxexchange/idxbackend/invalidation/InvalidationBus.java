@@ -0,0 +1,325 @@
+package com.idxexchange.idxbackend.invalidation;
+
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.model.ListingSnapshot;
+import com.idxexchange.idxbackend.model.ListingSnapshotConverter;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.model.PropertyChange;
+import com.idxexchange.idxbackend.repository.PropertyChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link ListingCache}s of several backend instances sharing one database consistent.
+ *
+ * Every listing change is appended to property_change_log in the transaction that makes it, so
+ * a change is logged exactly when it commits. Each instance tails the log with a short poll and
+ * applies the listings changed by other instances to all its ListingCaches: caches of listings
+ * evict them, and counts over listings (typeahead, market statistics) move them from their old
+ * values to their new ones, which are logged with the change. Log ids are
+ * assigned before commit, so a change can become visible after one with a higher id: ids the
+ * poll skips over are rechecked until they appear or idx.invalidation.gap-timeout-ms passes
+ * (rolled back inserts never appear).
+ * Off by default; enable with idx.invalidation.enabled=true when several instances share the
+ * database, after creating the table (db/property_change_log.sql). If the log can't be read, the
+ * poller reports it once and keeps retrying, doubling its interval up to
+ * idx.invalidation.max-poll-interval-ms, rather than stopping the instance from starting. The log
+ * is read with JdbcTemplate, so failed polls are not also logged by Hibernate.
+ * A runtime switch rather than a bean condition, so AOT builds can still turn it on.
+ */
+@Component
+public class InvalidationBus {
+
+    @Value("${idx.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${idx.invalidation.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    // Longest wait between polls while the log can't be read
+    @Value("${idx.invalidation.max-poll-interval-ms:10000}")
+    private long maxPollIntervalMs;
+
+    @Value("${idx.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${idx.invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    // Larger jumps in the log ids are not tracked as gaps
+    @Value("${idx.invalidation.max-gap:1000}")
+    private int maxGap;
+
+    @Value("${idx.invalidation.retention-hours:24}")
+    private long retentionHours;
+
+    @Autowired
+    private PropertyChangeRepository changeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired(required = false)
+    private List<ListingCache> caches = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String node = UUID.randomUUID().toString();
+
+    // Poller state, only used by the poller thread; lastSeen is -1 until the log has been read
+    private long lastSeen = -1;
+    private boolean failing;
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private final ListingSnapshotConverter snapshots = new ListingSnapshotConverter();
+
+    // Queries on property_change_log, with the column names of the Hibernate mapping
+    private String selectMaxId;
+    private String selectAfter;
+    private String selectIn;
+    private RowMapper<PropertyChange> changeMapper;
+
+    private Thread poller;
+    private volatile boolean running;
+
+    private Counter received;
+    private Counter failed;
+    private Timer lag;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        received = Counter.builder("idx.invalidation.received")
+                .description("Listing changes made by other instances and evicted here")
+                .register(meterRegistry);
+        failed = Counter.builder("idx.invalidation.poll.failed")
+                .description("Polls of the listing change log that failed")
+                .register(meterRegistry);
+        lag = Timer.builder("idx.invalidation.lag")
+                .description("Time from a listing change on another instance to its eviction here")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        prepareQueries();
+
+        running = true;
+        poller = new Thread(this::run, "invalidation-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (poller == null) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Identifies this instance in the change log
+     */
+    public String node() {
+        return node;
+    }
+
+    /**
+     * Log a listing change, in the transaction that makes it if there is one
+     */
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        PropertyChange change = new PropertyChange();
+        if (!event.isBulk()) {
+            Property listing = event.after() != null ? event.after() : event.before();
+            change.setPropertyId(listing.getId());
+            change.setBefore(ListingSnapshot.of(event.before()));
+            change.setAfter(ListingSnapshot.of(event.after()));
+        }
+        change.setNode(node);
+        change.setChangedAt(Instant.now());
+        changeRepository.save(change);
+    }
+
+    /**
+     * Drop old log entries; every instance has long since seen them
+     */
+    @Scheduled(fixedDelayString = "${idx.invalidation.cleanup-ms:3600000}", initialDelayString = "${idx.invalidation.cleanup-ms:3600000}")
+    public void deleteOldChanges() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = changeRepository.deleteChangedBefore(Instant.now().minus(Duration.ofHours(retentionHours)));
+            if (deleted > 0) {
+                System.out.println("Deleted " + deleted + " listing changes older than " + retentionHours + " hours");
+            }
+        } catch (Exception e) {
+            System.err.println("Error deleting old listing changes: " + e.getMessage());
+        }
+    }
+
+    private void prepareQueries() {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(PropertyChange.class);
+        String table = persister.getTableName();
+        String id = persister.getIdentifierColumnNames()[0];
+        String propertyId = persister.getPropertyColumnNames("propertyId")[0];
+        String node = persister.getPropertyColumnNames("node")[0];
+        String changedAt = persister.getPropertyColumnNames("changedAt")[0];
+        String before = persister.getPropertyColumnNames("before")[0];
+        String after = persister.getPropertyColumnNames("after")[0];
+        String select = "SELECT " + id + ", " + propertyId + ", " + node + ", " + changedAt + ", " + before + ", " +
+                        after + " FROM " + table;
+
+        selectMaxId = "SELECT COALESCE(MAX(" + id + "), 0) FROM " + table;
+        selectAfter = select + " WHERE " + id + " > ? ORDER BY " + id + " LIMIT ?";
+        selectIn = select + " WHERE " + id + " IN ";
+        changeMapper = (rs, rowNum) -> {
+            PropertyChange change = new PropertyChange();
+            change.setId(rs.getLong(1));
+            long listing = rs.getLong(2);
+            change.setPropertyId(rs.wasNull() ? null : listing);
+            change.setNode(rs.getString(3));
+            Timestamp at = rs.getTimestamp(4);
+            change.setChangedAt(at != null ? at.toInstant() : Instant.now());
+            change.setBefore(snapshots.convertToEntityAttribute(rs.getString(5)));
+            change.setAfter(snapshots.convertToEntityAttribute(rs.getString(6)));
+            return change;
+        };
+    }
+
+    private void run() {
+        long interval = pollIntervalMs;
+        while (running) {
+            try {
+                poll();
+                if (failing) {
+                    failing = false;
+                    interval = pollIntervalMs;
+                    System.out.println("Polling listing changes again");
+                }
+            } catch (Exception e) {
+                failed.increment();
+                // Once per outage rather than every poll interval, and less often while it lasts
+                if (!failing) {
+                    failing = true;
+                    System.err.println("Error polling listing changes, retrying: " + e.getMessage());
+                }
+                interval = Math.min(maxPollIntervalMs, interval * 2);
+            }
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                // Shutting down
+                return;
+            }
+        }
+    }
+
+    private void poll() {
+        if (lastSeen < 0) {
+            // Nothing was cached before the first poll, so earlier changes don't matter
+            lastSeen = jdbcTemplate.queryForObject(selectMaxId, Long.class);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<PropertyChange> changes = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            List<Long> ids = new ArrayList<>(gaps.keySet());
+            String in = "(" + "?, ".repeat(ids.size() - 1) + "?)";
+            for (PropertyChange late : jdbcTemplate.query(selectIn + in, changeMapper, ids.toArray())) {
+                gaps.remove(late.getId());
+                changes.add(late);
+            }
+            gaps.values().removeIf(deadline -> deadline < now);
+        }
+
+        List<PropertyChange> next;
+        do {
+            next = jdbcTemplate.query(selectAfter, changeMapper, lastSeen, batchSize);
+            for (PropertyChange change : next) {
+                long skipped = change.getId() - lastSeen - 1;
+                if (skipped > 0 && skipped <= maxGap) {
+                    for (long id = lastSeen + 1; id < change.getId(); id++) {
+                        gaps.put(id, now + gapTimeoutMs);
+                    }
+                }
+                lastSeen = change.getId();
+            }
+            changes.addAll(next);
+        } while (next.size() == batchSize);
+
+        apply(changes);
+    }
+
+    private void apply(List<PropertyChange> changes) {
+        List<PropertyChangedEvent> changed = new ArrayList<>();
+        boolean bulk = false;
+        Instant now = Instant.now();
+        for (PropertyChange change : changes) {
+            if (node.equals(change.getNode())) {
+                continue;
+            }
+            if (change.getBefore() == null && change.getAfter() == null) {
+                // A bulk change, or one logged without the listing's values: start over
+                bulk = true;
+            } else {
+                changed.add(new PropertyChangedEvent(
+                        change.getBefore() == null ? null : change.getBefore().toProperty(),
+                        change.getAfter() == null ? null : change.getAfter().toProperty()));
+            }
+            received.increment();
+            lag.record(Duration.between(change.getChangedAt(), now));
+        }
+        if (!bulk && changed.isEmpty()) {
+            return;
+        }
+        for (ListingCache cache : caches) {
+            try {
+                if (bulk) {
+                    cache.evictAll();
+                } else {
+                    cache.changed(changed);
+                }
+            } catch (Exception e) {
+                System.err.println("Error applying changed listings to " + cache.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.idxexchange.idxbackend.invalidation;
+
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A cache of listings, or state derived from them, local to one backend instance. Beans
+ * implementing it are registered with the {@link InvalidationBus}, which applies listings
+ * changed by other instances.
+ * Changes made by this instance reach the cache as before, e.g. through PropertyChangedEvent.
+ */
+public interface ListingCache {
+
+    /**
+     * Drop these listings; they will be read from the database on next use
+     */
+    void evict(Collection<Long> propertyIds);
+
+    /**
+     * Drop every listing, after a bulk change
+     */
+    void evictAll();
+
+    /**
+     * Apply single-listing changes made by another instance. Their listings carry only the
+     * values logged with the change (see ListingSnapshot), which is what counts over listings
+     * need to move them from their old values to their new ones. By default they are evicted.
+     */
+    default void changed(List<PropertyChangedEvent> changes) {
+        evict(changes.stream()
+                .map(change -> change.after() != null ? change.after().getId() : change.before().getId())
+                .toList());
+    }
+}
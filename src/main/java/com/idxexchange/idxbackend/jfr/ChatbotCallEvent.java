@@ -0,0 +1,78 @@
+package com.idxexchange.idxbackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One chatbot message, from arrival to reply
+ */
+@Name("com.idxexchange.ChatbotCall")
+@Label("Chatbot Call")
+@Category({"IDX", "Chatbot"})
+@Description("Chatbot message handling, split into context building and the upstream LLM call")
+@StackTrace(false)
+public class ChatbotCallEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(ChatbotCallEvent.class);
+
+    @Label("Route")
+    @Description("local (answered from the database), llm or fallback")
+    String route;
+
+    @Label("Model")
+    String model;
+
+    @Label("Upstream Outcome")
+    @Description("success, empty or error; absent without an LLM call")
+    String outcome;
+
+    @Label("Context Build Time")
+    @Description("Time spent loading listings for the prompt")
+    @Timespan(Timespan.NANOSECONDS)
+    long contextBuildTime;
+
+    @Label("Upstream Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long upstreamTime;
+
+    @Label("Prompt Tokens")
+    long promptTokens;
+
+    @Label("Completion Tokens")
+    long completionTokens;
+
+    /**
+     * Begin an event, or return null when no recording wants it
+     */
+    public static ChatbotCallEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        ChatbotCallEvent event = new ChatbotCallEvent();
+        event.begin();
+        return event;
+    }
+
+    public void contextBuilt(long nanos) {
+        contextBuildTime = nanos;
+    }
+
+    public void upstream(String model, String outcome, long nanos, long promptTokens, long completionTokens) {
+        this.model = model;
+        this.outcome = outcome;
+        this.upstreamTime = nanos;
+        this.promptTokens = promptTokens;
+        this.completionTokens = completionTokens;
+    }
+
+    public void finish(String route) {
+        this.route = route;
+        commit();
+    }
+}
@@ -0,0 +1,34 @@
+package com.idxexchange.idxbackend.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Keeps a search's flight recorder event open until its response has been written,
+ * so the event covers JSON serialization as well as the query. Does nothing unless
+ * a recording has {@link PropertySearchEvent} enabled.
+ */
+@Component
+public class JfrRequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!PropertySearchEvent.enabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PropertySearchEvent.openRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PropertySearchEvent.closeRequest();
+        }
+    }
+}
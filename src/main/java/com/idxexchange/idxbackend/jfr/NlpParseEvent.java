@@ -0,0 +1,61 @@
+package com.idxexchange.idxbackend.jfr;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.metrics.SearchMetrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of one natural language query
+ */
+@Name("com.idxexchange.NlpParse")
+@Label("NLP Query Parse")
+@Category({"IDX", "Search"})
+@Description("Natural language query parse with the criteria it found")
+@StackTrace(false)
+public class NlpParseEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(NlpParseEvent.class);
+
+    @Label("Query Length")
+    int queryLength;
+
+    @Label("Criteria")
+    @Description("Number of search criteria recognized")
+    int criteria;
+
+    @Label("Filter Shape")
+    String shape;
+
+    @Label("Cache Hit")
+    boolean cacheHit;
+
+    /**
+     * Begin an event, or return null when no recording wants it
+     */
+    public static NlpParseEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        NlpParseEvent event = new NlpParseEvent();
+        event.begin();
+        return event;
+    }
+
+    public void parsed(String query, PropertySearchQuery result, boolean cacheHit) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.queryLength = query.length();
+        this.shape = SearchMetrics.shape(result);
+        this.criteria = shape.equals("none") ? 0 : shape.split("\\+").length;
+        this.cacheHit = cacheHit;
+        commit();
+    }
+}
@@ -0,0 +1,134 @@
+package com.idxexchange.idxbackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A property search, from the repository call until its page has been written as JSON.
+ *
+ * Inside a web request the event stays open until {@link JfrRequestFilter} sees the response
+ * completed, so serialization time lands on the same event; elsewhere it is committed as soon as
+ * the query returns. Events are recorded on the request thread, so allocation samples, lock waits
+ * and GC pauses in a recording line up with the search they happened during.
+ */
+@Name("com.idxexchange.PropertySearch")
+@Label("Property Search")
+@Category({"IDX", "Search"})
+@Description("Property search with its filter shape, result size, database and serialization time")
+@StackTrace(false)
+public class PropertySearchEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(PropertySearchEvent.class);
+
+    // Holds the open search event while a web request is handled; null outside requests
+    private static final ThreadLocal<PropertySearchEvent[]> REQUEST = new ThreadLocal<>();
+
+    @Label("Search Type")
+    @Description("filters or nlp")
+    String searchType;
+
+    @Label("Filter Shape")
+    @Description("Filters present, e.g. city+minPrice+minBeds")
+    String shape;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Page Number")
+    int pageNumber;
+
+    @Label("Rows")
+    @Description("Listings on the returned page")
+    int rows;
+
+    @Label("Total Elements")
+    long totalElements;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long dbTime;
+
+    @Label("Serialization Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long serializationTime;
+
+    /**
+     * True while some recording has this event enabled
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * Begin an event before the repository call, or return null when no recording wants it
+     */
+    public static PropertySearchEvent start(String searchType) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        PropertySearchEvent event = new PropertySearchEvent();
+        event.searchType = searchType;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Fill in the query results; commits now unless a web request will serialize the page
+     */
+    public void queried(String shape, Pageable pageable, Page<?> page, String outcome, long dbNanos) {
+        this.shape = shape;
+        this.outcome = outcome;
+        this.dbTime = dbNanos;
+        if (pageable.isPaged()) {
+            pageSize = pageable.getPageSize();
+            pageNumber = pageable.getPageNumber();
+        }
+        if (page != null) {
+            rows = page.getNumberOfElements();
+            totalElements = page.getTotalElements();
+        }
+        PropertySearchEvent[] request = REQUEST.get();
+        if (request == null) {
+            commit();
+            return;
+        }
+        if (request[0] != null) {
+            request[0].commit();
+        }
+        request[0] = this;
+    }
+
+    /**
+     * Add serialization time to the search the current request is returning, if any
+     */
+    public static void serialized(long nanos) {
+        PropertySearchEvent[] request = REQUEST.get();
+        if (request != null && request[0] != null) {
+            request[0].serializationTime += nanos;
+            request[0].end();
+        }
+    }
+
+    static void openRequest() {
+        REQUEST.set(new PropertySearchEvent[1]);
+    }
+
+    static void closeRequest() {
+        PropertySearchEvent[] request = REQUEST.get();
+        REQUEST.remove();
+        if (request != null && request[0] != null) {
+            request[0].commit();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.idxexchange.idxbackend.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method, or every handler of a controller, behind the adaptive concurrency limit
+ * of an endpoint class (see ConcurrencyLimitInterceptor). Endpoints that wait on the same resource
+ * share a class, e.g. "search" for the database searches.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    /**
+     * Endpoint class, configured with idx.limit.&lt;class&gt;.*
+     */
+    String value();
+}
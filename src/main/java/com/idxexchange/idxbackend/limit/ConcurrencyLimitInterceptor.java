@@ -0,0 +1,107 @@
+package com.idxexchange.idxbackend.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load on {@link ConcurrencyLimit} endpoints before requests pile up on Tomcat threads and
+ * Hikari connections. Each endpoint class has an adaptive limit on requests in flight
+ * (GradientLimit): it follows the endpoints' latency down when the database slows and back up
+ * when it recovers. Requests over the limit get 503 with Retry-After at once, so admitted ones
+ * keep close to their usual latency.
+ *
+ * An interceptor rather than a servlet filter, so rejections still carry CORS headers and the
+ * browser sees the 503. Settings are idx.limit.&lt;class&gt;.* with idx.limit.* as defaults.
+ * Disable with idx.limit.enabled=false.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String INFLIGHT = ConcurrencyLimitInterceptor.class.getName() + ".inflight";
+    private static final String STARTED = ConcurrencyLimitInterceptor.class.getName() + ".started";
+
+    @Value("${idx.limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${idx.limit.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConcurrencyLimit annotation = method.getMethodAnnotation(ConcurrencyLimit.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), ConcurrencyLimit.class);
+        }
+        if (annotation == null) {
+            return true;
+        }
+        ConcurrencyLimiter limiter = limiter(annotation.value());
+        int inflight = limiter.tryAcquire();
+        if (inflight == 0) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return false;
+        }
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(INFLIGHT, inflight);
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(LIMITER) instanceof ConcurrencyLimiter limiter) {
+            request.removeAttribute(LIMITER);
+            limiter.release(System.nanoTime() - (long) request.getAttribute(STARTED), (int) request.getAttribute(INFLIGHT));
+        }
+    }
+
+    /**
+     * The limiter of an endpoint class
+     */
+    public ConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, this::create);
+    }
+
+    private ConcurrencyLimiter create(String name) {
+        GradientLimit limit = new GradientLimit(
+                setting(name, "initial", Integer.class, 20),
+                setting(name, "min", Integer.class, 4),
+                setting(name, "max", Integer.class, 200),
+                setting(name, "tolerance", Double.class, 1.5),
+                setting(name, "smoothing", Double.class, 0.2),
+                setting(name, "probe-interval", Integer.class, 5000));
+        return new ConcurrencyLimiter(name, limit, meterRegistry);
+    }
+
+    // idx.limit.<class>.<key>, falling back to idx.limit.<key>
+    private <T> T setting(String name, String key, Class<T> type, T defaultValue) {
+        return environment.getProperty("idx.limit." + name + "." + key, type,
+                environment.getProperty("idx.limit." + key, type, defaultValue));
+    }
+}
@@ -0,0 +1,89 @@
+package com.idxexchange.idxbackend.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The requests in flight for one endpoint class, admitted while there are fewer than its limit.
+ * Publishes idx.limit.limit, idx.limit.inflight, idx.limit.rejected and idx.limit.rtt, tagged
+ * with the endpoint class.
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer rtt;
+
+    public ConcurrencyLimiter(String name, GradientLimit limit, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.limit = limit;
+        Gauge.builder("idx.limit.limit", limit, GradientLimit::get)
+                .description("Concurrent requests admitted")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Gauge.builder("idx.limit.inflight", inflight, AtomicInteger::get)
+                .description("Requests in flight")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        rejected = Counter.builder("idx.limit.rejected")
+                .description("Requests shed with 503 because the limit was reached")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        rtt = Timer.builder("idx.limit.rtt")
+                .description("Round-trip time of admitted requests, which the limit follows")
+                .tag("endpoint", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Admit a request if fewer than the limit are in flight
+     *
+     * @return the requests in flight including this one, or 0 if it was rejected
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Finish an admitted request
+     *
+     * @param inflightAtStart what {@link #tryAcquire()} returned for it
+     */
+    public void release(long rttNanos, int inflightAtStart) {
+        inflight.decrementAndGet();
+        rtt.record(rttNanos, TimeUnit.NANOSECONDS);
+        limit.sample(rttNanos, inflightAtStart);
+    }
+}
@@ -0,0 +1,108 @@
+package com.idxexchange.idxbackend.limit;
+
+/**
+ * A concurrency limit that follows latency, in the style of Netflix's Gradient2 algorithm.
+ *
+ * The current round-trip time, a short exponential average, is compared with a baseline: the
+ * RTT the endpoints have without queueing. While the current RTT stays within
+ * {@code tolerance} times the baseline, the limit grows by about its square root per sample,
+ * which leaves room for a small queue. Once requests queue up and slow down, the limit shrinks
+ * in proportion, down to half per sample, so admitted requests keep close to the baseline.
+ *
+ * The baseline follows lower RTTs at once. Whether a higher RTT is queueing or a backend that has
+ * become slower can't be told from the RTT alone; Gradient2's long average takes it for the
+ * latter, and under sustained overload ends up accepting any latency. Instead, after
+ * {@code probeInterval} samples in a row over the tolerance, the limit drops to its minimum for
+ * a probe, as BBR's ProbeRTT does: the average RTT of requests that started with no more than
+ * that in flight is the new baseline, and the limit goes back to where it was.
+ *
+ * When fewer than half of the limit's requests are in flight, the limit stays as it is: low load
+ * says nothing about how much more the backend could take.
+ */
+public class GradientLimit {
+
+    // Requests started during a probe that make up the new baseline
+    private static final int PROBE_SAMPLES = 10;
+
+    private final int min;
+    private final int max;
+    private final double tolerance;
+    private final double smoothing;
+    private final int probeInterval;
+    private final double rttWeight = 2.0 / (10 + 1);
+
+    private double rtt;
+    private double baseline;
+    private double estimate;
+    private volatile int limit;
+
+    private int overTolerance;
+    private boolean probing;
+    private double probeSum;
+    private int probeCount;
+
+    public GradientLimit(int initial, int min, int max, double tolerance, double smoothing, int probeInterval) {
+        this.min = min;
+        this.max = max;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.probeInterval = probeInterval;
+        this.estimate = Math.max(min, Math.min(max, initial));
+        this.limit = (int) estimate;
+    }
+
+    public int get() {
+        return limit;
+    }
+
+    /**
+     * The RTT without queueing, in nanoseconds, or 0 before the first sample
+     */
+    public synchronized double baseline() {
+        return baseline;
+    }
+
+    public boolean isProbing() {
+        return probing;
+    }
+
+    /**
+     * Update the limit with a request's round-trip time and the requests in flight when it started
+     */
+    public synchronized void sample(long rttNanos, int inflight) {
+        if (probing) {
+            // Requests started before the probe were queued behind more than the minimum
+            if (inflight <= min) {
+                probeSum += rttNanos;
+                if (++probeCount >= PROBE_SAMPLES) {
+                    baseline = probeSum / probeCount;
+                    rtt = baseline;
+                    probing = false;
+                    overTolerance = 0;
+                    limit = (int) estimate;
+                }
+            }
+            return;
+        }
+
+        rtt = rtt == 0 ? rttNanos : rtt + rttWeight * (rttNanos - rtt);
+        if (baseline == 0 || rtt < baseline) {
+            baseline = rtt;
+        }
+        if (inflight < estimate / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / rtt));
+        double next = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.max(min, Math.min(max, estimate * (1 - smoothing) + next * smoothing));
+        limit = (int) estimate;
+
+        overTolerance = gradient < 1.0 ? overTolerance + 1 : 0;
+        if (overTolerance >= probeInterval) {
+            probing = true;
+            probeSum = 0;
+            probeCount = 0;
+            limit = min;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.idxexchange.idxbackend.metrics;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.jfr.PropertySearchEvent;
+import com.idxexchange.idxbackend.warmup.WarmupRecorder;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for property searches, tagged by filter shape, page size and outcome.
+ *
+ * The shape is the set of filters present, e.g. {@code city+minPrice+minBeds}, so slow searches
+ * can be traced to the predicate combination that causes them. idx.search covers the whole search
+ * including NLP parsing; idx.search.query only the repository call (SQL, count query, entity loading).
+ * Searches replayed by the warm-up are not recorded.
+ */
+@Component
+public class SearchMetrics {
+
+    public static final String TYPE_FILTERS = "filters";
+    public static final String TYPE_NLP = "nlp";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Shapes beyond this many distinct ones are tagged "other", to bound the number of time series
+    @Value("${idx.metrics.search.max-shapes:100}")
+    private int maxShapes;
+
+    private final Set<String> knownShapes = ConcurrentHashMap.newKeySet();
+    private Meter.MeterProvider<Timer> searchTimer;
+    private Meter.MeterProvider<Timer> queryTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        searchTimer = Timer.builder("idx.search")
+                .description("Property searches, including NLP parsing")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+        queryTimer = Timer.builder("idx.search.query")
+                .description("Repository calls made by property searches")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Run the repository call of a search and record it, along with the whole search
+     * measured from {@code startNanos}
+     */
+    public <T> Page<T> record(String type, String shape, Pageable pageable, long startNanos, Supplier<Page<T>> query) {
+        if (WarmupRecorder.isReplaying()) {
+            return query.get();
+        }
+        String shapeTag = boundShape(shape);
+        String pageSizeTag = pageSizeTag(pageable);
+        PropertySearchEvent event = PropertySearchEvent.start(type);
+        long queryStart = System.nanoTime();
+        String outcome = "error";
+        Page<T> page = null;
+        try {
+            page = query.get();
+            outcome = page.hasContent() ? "hits" : "empty";
+            return page;
+        } finally {
+            long end = System.nanoTime();
+            if (event != null) {
+                event.queried(shape, pageable, page, outcome, end - queryStart);
+            }
+            queryTimer.withTags("type", type, "shape", shapeTag, "page.size", pageSizeTag, "outcome", outcome)
+                    .record(end - queryStart, TimeUnit.NANOSECONDS);
+            searchTimer.withTags("type", type, "shape", shapeTag, "page.size", pageSizeTag, "outcome", outcome)
+                    .record(end - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String boundShape(String shape) {
+        if (knownShapes.contains(shape)) {
+            return shape;
+        }
+        if (knownShapes.size() >= maxShapes) {
+            return "other";
+        }
+        knownShapes.add(shape);
+        return shape;
+    }
+
+    /**
+     * Page sizes rounded up to the common ones, since clients can ask for any size
+     */
+    public static String pageSizeTag(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged";
+        }
+        int size = pageable.getPageSize();
+        if (size <= 20) return "20";
+        if (size <= 50) return "50";
+        if (size <= 100) return "100";
+        if (size <= 500) return "500";
+        return "more";
+    }
+
+    /**
+     * Shape of a filter search; arguments are name/value pairs, and a filter counts as present
+     * when its value is non-null and not a blank string
+     */
+    public static String shape(Object... namesAndValues) {
+        StringJoiner shape = new StringJoiner("+");
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            Object value = namesAndValues[i + 1];
+            if (value != null && !(value instanceof String text && text.isBlank())) {
+                shape.add((String) namesAndValues[i]);
+            }
+        }
+        return shape.length() == 0 ? "none" : shape.toString();
+    }
+
+    /**
+     * Shape of a search's filters, following the predicates it is run with
+     */
+    public static String shape(PropertySearchQuery query) {
+        return shape(
+                "city", query.getCity(),
+                "state", query.getState(),
+                "zip", query.getZip(),
+                "county", query.getCounty(),
+                "subdivision", query.getSubdivision(),
+                "minPrice", query.getMinPrice(),
+                "maxPrice", query.getMaxPrice(),
+                "beds", query.getBeds(),
+                "minBeds", query.getBeds() == null ? query.getMinBeds() : null,
+                "baths", query.getBaths(),
+                "minBaths", query.getBaths() == null ? query.getMinBaths() : null,
+                "minSquareFeet", query.getMinSquareFeet(),
+                "maxSquareFeet", query.getMaxSquareFeet(),
+                "pool", flag(query.getPoolPrivate()),
+                "fireplace", flag(query.getFireplace()),
+                "view", flag(query.getView()),
+                "garage", flag(query.getGarage()),
+                "minYearBuilt", query.getMinYearBuilt(),
+                "maxYearBuilt", query.getMaxYearBuilt(),
+                "propertyType", query.getPropertyType());
+    }
+
+    private static Boolean flag(Boolean value) {
+        return Boolean.TRUE.equals(value) ? Boolean.TRUE : null;
+    }
+}
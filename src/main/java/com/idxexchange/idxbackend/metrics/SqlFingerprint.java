@@ -0,0 +1,75 @@
+package com.idxexchange.idxbackend.metrics;
+
+/**
+ * Reduces a SQL statement to its shape: literals become ?, IN lists and multi-row VALUES collapse
+ * to a single element and whitespace is normalized, so every search with the same set of
+ * Specification predicates maps to the same fingerprint whatever the parameter values.
+ */
+public final class SqlFingerprint {
+
+    private SqlFingerprint() {
+    }
+
+    public static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // String literal, with '' as an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return collapseLists(out.toString().trim());
+    }
+
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '`' || previous == '"';
+    }
+
+    // (?, ?, ?) -> (?...) and (?, ?), (?, ?) -> (?...)
+    private static String collapseLists(String sql) {
+        return sql
+                .replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?...)")
+                .replaceAll("\\(\\?\\.\\.\\.\\)(\\s*,\\s*\\(\\?\\.\\.\\.\\))+", "(?...)");
+    }
+
+    /**
+     * Short stable id for a normalized statement
+     */
+    public static String id(String normalizedSql) {
+        return String.format("%08x", normalizedSql.hashCode());
+    }
+}
@@ -0,0 +1,333 @@
+package com.idxexchange.idxbackend.metrics;
+
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency statistics per SQL fingerprint, fed by {@link SqlStatsDataSource}.
+ *
+ * Each fingerprint keeps totals since startup and a latency histogram over a rolling window.
+ * The first time a fingerprint runs slower than the threshold its EXPLAIN output is captured
+ * in the background, and the parameters of its most recent slow executions are kept as samples.
+ */
+@Component
+public class SqlStats {
+
+    @Value("${idx.sql.stats.slow-threshold-ms:200}")
+    private long slowThresholdMillis;
+
+    // Rolling latency histograms cover this many one-minute slots
+    @Value("${idx.sql.stats.window-minutes:5}")
+    private int windowMinutes;
+
+    @Value("${idx.sql.stats.max-fingerprints:500}")
+    private int maxFingerprints;
+
+    @Value("${idx.sql.stats.samples:5}")
+    private int maxSamples;
+
+    // Print each slow statement to stdout
+    @Value("${idx.sql.stats.log-slow:true}")
+    private boolean logSlow;
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    static final int EXPLAIN_QUEUE_CAPACITY = 16;
+
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    // EXPLAINs run one at a time, off the request thread; ones that don't fit the queue are retried next slow run
+    private final ExecutorService explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(EXPLAIN_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "sql-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private volatile DataSource explainDataSource;
+
+    /**
+     * The un-instrumented data source EXPLAIN statements run against
+     */
+    void setExplainDataSource(DataSource dataSource) {
+        this.explainDataSource = dataSource;
+    }
+
+    /**
+     * Record one execution; {@code parameters} holds the bound values at indexes 1 to {@code parameterCount}
+     */
+    public void record(String sql, long nanos, Object[] parameters, int parameterCount) {
+        String normalized = SqlFingerprint.normalize(sql);
+        String id = SqlFingerprint.id(normalized);
+        Fingerprint fingerprint = fingerprints.get(id);
+        if (fingerprint == null) {
+            if (fingerprints.size() >= maxFingerprints) {
+                untracked.increment();
+                return;
+            }
+            fingerprint = fingerprints.computeIfAbsent(id, key -> new Fingerprint(key, normalized, windowMinutes));
+        }
+        fingerprint.record(nanos);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= slowThresholdMillis) {
+            List<Object> values = sampleParameters(parameters, parameterCount);
+            fingerprint.slow(new Sample(Instant.now(), millis, values), maxSamples);
+            if (logSlow) {
+                System.out.println("Slow query [" + id + "] " + millis + " ms: " + normalized + " " + values);
+            }
+            if (fingerprint.planRequested.compareAndSet(false, true)) {
+                Fingerprint target = fingerprint;
+                // The statement may be reused with other values once this call returns
+                Object[] bound = parameters == null ? null : Arrays.copyOf(parameters, parameterCount + 1);
+                try {
+                    explainExecutor.execute(() -> explain(target, sql, bound));
+                } catch (RejectedExecutionException e) {
+                    // Queue full, or shutting down: let the next slow run ask again
+                    target.planRequested.set(false);
+                }
+            }
+        }
+    }
+
+    private void explain(Fingerprint fingerprint, String sql, Object[] parameters) {
+        DataSource dataSource = explainDataSource;
+        if (dataSource == null) {
+            fingerprint.planRequested.set(false);
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            if (parameters != null) {
+                for (int i = 1; i < parameters.length; i++) {
+                    statement.setObject(i, parameters[i]);
+                }
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                fingerprint.plan = formatPlan(result);
+            }
+        } catch (SQLException | RuntimeException e) {
+            fingerprint.plan = "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private static String formatPlan(ResultSet result) throws SQLException {
+        ResultSetMetaData meta = result.getMetaData();
+        StringBuilder plan = new StringBuilder();
+        while (result.next()) {
+            if (meta.getColumnCount() == 1) {
+                plan.append(result.getString(1)).append('\n');
+                continue;
+            }
+            // MySQL returns one row per table: id, select_type, table, type, possible_keys, key, rows, Extra...
+            StringBuilder row = new StringBuilder();
+            for (int c = 1; c <= meta.getColumnCount(); c++) {
+                String value = result.getString(c);
+                if (value != null) {
+                    row.append(row.length() == 0 ? "" : ", ").append(meta.getColumnLabel(c)).append('=').append(value);
+                }
+            }
+            plan.append(row).append('\n');
+        }
+        return plan.toString().trim();
+    }
+
+    private static List<Object> sampleParameters(Object[] parameters, int parameterCount) {
+        if (parameters == null || parameterCount == 0) {
+            return List.of();
+        }
+        List<Object> values = new ArrayList<>(parameterCount);
+        for (int i = 1; i <= parameterCount; i++) {
+            Object value = parameters[i];
+            if (value instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+                value = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            } else if (value != null && !(value instanceof Number || value instanceof Boolean || value instanceof CharSequence)) {
+                value = value.toString();
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * Fingerprints ordered by total time spent, the most expensive first
+     */
+    public List<Map<String, Object>> summary(int limit) {
+        List<Map<String, Object>> summary = new ArrayList<>();
+        fingerprints.values().stream()
+                .sorted(Comparator.comparingLong((Fingerprint f) -> f.totalNanos.sum()).reversed())
+                .limit(limit)
+                .forEach(fingerprint -> summary.add(fingerprint.describe(false)));
+        return summary;
+    }
+
+    /**
+     * One fingerprint with its plan and parameter samples, or null if unknown
+     */
+    public Map<String, Object> detail(String id) {
+        Fingerprint fingerprint = fingerprints.get(id);
+        return fingerprint == null ? null : fingerprint.describe(true);
+    }
+
+    public long getUntracked() {
+        return untracked.sum();
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public void reset() {
+        fingerprints.clear();
+        untracked.reset();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private record Sample(Instant at, long millis, List<Object> parameters) {
+    }
+
+    private static final class Fingerprint {
+        final String id;
+        final String sql;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final RollingHistogram recent;
+        final AtomicBoolean planRequested = new AtomicBoolean();
+        volatile String plan;
+        private final Deque<Sample> samples = new ArrayDeque<>();
+
+        Fingerprint(String id, String sql, int windowMinutes) {
+            this.id = id;
+            this.sql = sql;
+            this.recent = new RollingHistogram(windowMinutes);
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            recent.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        synchronized void slow(Sample sample, int maxSamples) {
+            slowCount.increment();
+            samples.addFirst(sample);
+            while (samples.size() > maxSamples) {
+                samples.removeLast();
+            }
+        }
+
+        Map<String, Object> describe(boolean detailed) {
+            Map<String, Object> described = new LinkedHashMap<>();
+            long executions = count.sum();
+            described.put("id", id);
+            described.put("sql", sql);
+            described.put("count", executions);
+            described.put("totalMs", round(totalNanos.sum() / 1e6));
+            described.put("meanMs", executions == 0 ? 0.0 : round(totalNanos.sum() / 1e6 / executions));
+            described.put("maxMs", round(maxNanos.get() / 1e6));
+            described.put("slowCount", slowCount.sum());
+            Histogram window = recent.snapshot();
+            Map<String, Object> windowStats = new LinkedHashMap<>();
+            windowStats.put("count", window.getTotalCount());
+            windowStats.put("p50Ms", round(window.getValueAtPercentile(50) / 1000.0));
+            windowStats.put("p95Ms", round(window.getValueAtPercentile(95) / 1000.0));
+            windowStats.put("p99Ms", round(window.getValueAtPercentile(99) / 1000.0));
+            windowStats.put("maxMs", round(window.getMaxValue() / 1000.0));
+            described.put("recent", windowStats);
+            if (detailed) {
+                described.put("plan", plan);
+                synchronized (this) {
+                    described.put("slowSamples", new ArrayList<>(samples));
+                }
+            } else {
+                described.put("planCaptured", plan != null);
+            }
+            return described;
+        }
+    }
+
+    /**
+     * Histogram over the last few minutes, kept as one-minute slots that are cleared when reused
+     */
+    static final class RollingHistogram {
+        private final Histogram[] slots;
+        private final AtomicLong[] slotMinutes;
+
+        RollingHistogram(int minutes) {
+            slots = new Histogram[Math.max(1, minutes)];
+            slotMinutes = new AtomicLong[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new ConcurrentHistogram(HIGHEST_MICROS, 2);
+                slotMinutes[i] = new AtomicLong(-1);
+            }
+        }
+
+        void record(long micros) {
+            long minute = currentMinute();
+            int index = (int) (minute % slots.length);
+            long slotMinute = slotMinutes[index].get();
+            if (slotMinute != minute && slotMinutes[index].compareAndSet(slotMinute, minute)) {
+                slots[index].reset();
+            }
+            slots[index].recordValue(Math.min(HIGHEST_MICROS, Math.max(0, micros)));
+        }
+
+        Histogram snapshot() {
+            long minute = currentMinute();
+            Histogram total = new Histogram(HIGHEST_MICROS, 2);
+            for (int i = 0; i < slots.length; i++) {
+                if (minute - slotMinutes[i].get() < slots.length) {
+                    total.add(slots[i]);
+                }
+            }
+            return total;
+        }
+
+        private static long currentMinute() {
+            return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.idxexchange.idxbackend.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Data source wrapper that times every statement execution and reports it to {@link SqlStats}.
+ *
+ * Connections and statements are JDK proxies around the pool's own objects; prepared statement
+ * parameters are remembered as they are bound so slow executions can be sampled and explained.
+ * Extends DelegatingDataSource so Spring Boot can still unwrap the pool for its health and pool metrics.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final SqlStats sqlStats;
+
+    public SqlStatsDataSource(DataSource target, SqlStats sqlStats) {
+        super(target);
+        this.sqlStats = sqlStats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        return proxy(PreparedStatement.class, new StatementHandler(statement, (String) args[0]));
+                    }
+                    if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                        return proxy(Statement.class, new StatementHandler(statement, null));
+                    }
+                    return result;
+                });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        // Bound values by parameter index; slot 0 unused
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+
+        StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                String executed = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                long start = System.nanoTime();
+                try {
+                    return SqlStatsDataSource.invoke(statement, method, args);
+                } finally {
+                    if (executed != null) {
+                        sqlStats.record(executed, System.nanoTime() - start, parameters, sql != null ? parameterCount : 0);
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+                parameterCount = 0;
+            } else if (name.equals("unwrap") && args[0] instanceof Class<?> type && type.isInstance(proxy)) {
+                return proxy;
+            }
+            return SqlStatsDataSource.invoke(statement, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
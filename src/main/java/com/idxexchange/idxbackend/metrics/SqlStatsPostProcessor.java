@@ -0,0 +1,35 @@
+package com.idxexchange.idxbackend.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's data source in a {@link SqlStatsDataSource}.
+ * Disable with idx.sql.stats.enabled=false to take the JDBC proxies out of the call path entirely.
+ */
+@Component
+public class SqlStatsPostProcessor implements BeanPostProcessor {
+
+    // Checked here rather than as a bean condition, so AOT builds can still turn it off
+    @Value("${idx.sql.stats.enabled:true}")
+    private boolean enabled;
+
+    // Looked up lazily so SqlStats itself isn't created before all post processors are registered
+    @Autowired
+    private ObjectProvider<SqlStats> sqlStats;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof SqlStatsDataSource)) {
+            SqlStats stats = sqlStats.getObject();
+            stats.setExplainDataSource(dataSource);
+            return new SqlStatsDataSource(dataSource, stats);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,57 @@
+package com.idxexchange.idxbackend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Lead qualification data captured from a chatbot session.
+ * One row per chat session, upserted as the conversation progresses.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "chat_leads")
+public class Lead {
+
+    public static final int SESSION_ID_LENGTH = 64;
+
+    @Id
+    @Column(name = "SessionId", length = SESSION_ID_LENGTH)
+    private String sessionId;
+
+    @Column(name = "BudgetMentioned")
+    private Boolean budgetMentioned;
+
+    @Column(name = "BudgetRange")
+    private String budgetRange;
+
+    @Column(name = "PreferredCity")
+    private String preferredCity;
+
+    @Column(name = "Bedrooms")
+    private Integer bedrooms;
+
+    @Column(name = "DesiredFeatures")
+    private String desiredFeatures;
+
+    @Column(name = "Urgency")
+    private String urgency;
+
+    @Column(name = "BuyerType")
+    private String buyerType;
+
+    @Column(name = "MessageCount")
+    private Integer messageCount;
+
+    @Column(name = "FirstSeenAt")
+    private Instant firstSeenAt;
+
+    @Column(name = "UpdatedAt")
+    private Instant updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.idxexchange.idxbackend.model;
+
+/**
+ * The values of a listing that the in-memory typeahead index and market statistics count it by,
+ * logged with each listing change so that other instances can move it between their counts
+ * (see PropertyChange)
+ */
+public record ListingSnapshot(Long id, String city, String zip, String subdivisionName, String county,
+                              String addressStreet, Integer beds, Double price, Integer squareFeet,
+                              Integer daysOnMarket, String standardStatus) {
+
+    public static ListingSnapshot of(Property property) {
+        if (property == null) {
+            return null;
+        }
+        return new ListingSnapshot(property.getId(), property.getCity(), property.getZip(),
+                property.getSubdivisionName(), property.getCounty(), property.getAddressStreet(),
+                property.getBeds(), property.getPrice(), property.getSquareFeet(),
+                property.getDaysOnMarket(), property.getStandardStatus());
+    }
+
+    /**
+     * A listing with only these values set
+     */
+    public Property toProperty() {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity(city);
+        property.setZip(zip);
+        property.setSubdivisionName(subdivisionName);
+        property.setCounty(county);
+        property.setAddressStreet(addressStreet);
+        property.setBeds(beds);
+        property.setPrice(price);
+        property.setSquareFeet(squareFeet);
+        property.setDaysOnMarket(daysOnMarket);
+        property.setStandardStatus(standardStatus);
+        return property;
+    }
+}
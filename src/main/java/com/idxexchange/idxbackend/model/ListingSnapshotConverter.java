@@ -0,0 +1,35 @@
+package com.idxexchange.idxbackend.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a listing snapshot as JSON text
+ */
+@Converter
+public class ListingSnapshotConverter implements AttributeConverter<ListingSnapshot, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public String convertToDatabaseColumn(ListingSnapshot snapshot) {
+        try {
+            return snapshot == null ? null : MAPPER.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize listing snapshot", e);
+        }
+    }
+
+    @Override
+    public ListingSnapshot convertToEntityAttribute(String json) {
+        try {
+            return json == null ? null : MAPPER.readValue(json, ListingSnapshot.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read stored listing snapshot", e);
+        }
+    }
+}
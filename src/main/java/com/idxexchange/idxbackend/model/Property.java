@@ -1,17 +1,52 @@
 package com.idxexchange.idxbackend.model;
 
+import jakarta.persistence.Basic;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyGroup;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "rets_property")
+@NamedEntityGraph(name = Property.DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("remarks"), @NamedAttributeNode("appliances"), @NamedAttributeNode("viewDescription"),
+        @NamedAttributeNode("interiorFeatures"), @NamedAttributeNode("agentFirstName"), @NamedAttributeNode("agentLastName"),
+        @NamedAttributeNode("agentFullName"), @NamedAttributeNode("officeName"), @NamedAttributeNode("agentEmail"),
+        @NamedAttributeNode("agentPhone")})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Property.CACHE_REGION)
 public class Property {
+    // Long text columns are TEXT in MySQL; the length only matters for generated schemas (tests, benchmarks)
+    static final int TEXT_LENGTH = 65535;
+
+    /**
+     * Lazy group of the columns only the detail view reads: descriptions and agent contacts.
+     * They are loaded together on first access; searches and other list views leave them unread
+     * and their JSON omits them (see LazyAttributeModule).
+     */
+    public static final String DETAILS = "details";
+
+    /**
+     * Fetch graph of every {@link #DETAILS} attribute, to load a listing with them in one select
+     */
+    public static final String DETAILS_GRAPH = "Property.details";
+
+    /**
+     * Second-level cache region of listings (see SecondLevelCacheConfig)
+     */
+    public static final String CACHE_REGION = "property";
+
     // Getters & setters
     @Id
     @Column(name = "Id")
@@ -56,16 +91,20 @@ public class Property {
     @Column(name = "LMD_MP_Longitude")
     private String longitude;
 
-    @Column(name = "L_Remarks")
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
+    @Column(name = "L_Remarks", length = TEXT_LENGTH)
     private String remarks;
 
     @Column(name = "YearBuilt")
     private Integer year_built;
 
-    @Column(name = "Appliances")
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
+    @Column(name = "Appliances", length = TEXT_LENGTH)
     private String appliances;
 
-    @Column(name = "L_Photos")
+    @Column(name = "L_Photos", length = TEXT_LENGTH)
     private String photos;
 
     // MLS and Listing Info
@@ -140,11 +179,15 @@ public class Property {
     private String heatingType;
 
     // View Details
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "View")
     private String viewDescription;
 
     // Interior Features
-    @Column(name = "InteriorFeatures")
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
+    @Column(name = "InteriorFeatures", length = TEXT_LENGTH)
     private String interiorFeatures;
 
     // Association/HOA
@@ -155,21 +198,33 @@ public class Property {
     private String associationFeeFrequency;
 
     // Agent Information
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "LA1_UserFirstName")
     private String agentFirstName;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "LA1_UserLastName")
     private String agentLastName;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "ListAgentFullName")
     private String agentFullName;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "LO1_OrganizationName")
     private String officeName;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "ListAgentEmail")
     private String agentEmail;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(DETAILS)
     @Column(name = "ListAgentDirectPhone")
     private String agentPhone;
 
@@ -0,0 +1,50 @@
+package com.idxexchange.idxbackend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A listing change, logged so that other backend instances can evict it from their caches
+ * (see InvalidationBus)
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "property_change_log", indexes = @Index(name = "idx_property_change_log_changed_at", columnList = "ChangedAt"))
+public class PropertyChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "Id")
+    private Long id;
+
+    // The changed listing, or null for a bulk change to any number of listings
+    @Column(name = "PropertyId")
+    private Long propertyId;
+
+    // Instance that made the change, which has already updated its own caches
+    @Column(name = "Node", length = 64, nullable = false)
+    private String node;
+
+    @Column(name = "ChangedAt", nullable = false)
+    private Instant changedAt;
+
+    // The listing's counted values before and after the change; null when it was created or deleted
+    @Convert(converter = ListingSnapshotConverter.class)
+    @Column(name = "ValuesBefore", length = 4000)
+    private ListingSnapshot before;
+
+    @Convert(converter = ListingSnapshotConverter.class)
+    @Column(name = "ValuesAfter", length = 4000)
+    private ListingSnapshot after;
+}
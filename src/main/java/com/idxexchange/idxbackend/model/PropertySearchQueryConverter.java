@@ -0,0 +1,36 @@
+package com.idxexchange.idxbackend.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a search query as JSON text
+ */
+@Converter
+public class PropertySearchQueryConverter implements AttributeConverter<PropertySearchQuery, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public String convertToDatabaseColumn(PropertySearchQuery query) {
+        try {
+            return query == null ? null : MAPPER.writeValueAsString(query);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize search query", e);
+        }
+    }
+
+    @Override
+    public PropertySearchQuery convertToEntityAttribute(String json) {
+        try {
+            return json == null ? null : MAPPER.readValue(json, PropertySearchQuery.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read stored search query", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.idxexchange.idxbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A search a user wants to be alerted about when new or changed listings match it
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "saved_searches", indexes = @Index(name = "idx_saved_searches_owner", columnList = "Owner"))
+public class SavedSearch {
+
+    public static final int OWNER_LENGTH = 255;
+    public static final int NAME_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "Id")
+    private Long id;
+
+    // Who the alerts go to, e.g. an email address
+    @Column(name = "Owner", nullable = false, length = OWNER_LENGTH)
+    private String owner;
+
+    // SHA-256 of the owner's access key, the same on all of an owner's searches
+    @JsonIgnore
+    @Column(name = "OwnerKeyHash", length = 64)
+    private String ownerKeyHash;
+
+    @Column(name = "Name", length = NAME_LENGTH)
+    private String name;
+
+    @Convert(converter = PropertySearchQueryConverter.class)
+    @Column(name = "Query", nullable = false, length = 4000)
+    private PropertySearchQuery query;
+
+    @Column(name = "CreatedAt")
+    private Instant createdAt;
+}
@@ -0,0 +1,46 @@
+package com.idxexchange.idxbackend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A listing that started matching a saved search
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "saved_search_alerts", indexes = {
+        @Index(name = "idx_saved_search_alerts_owner", columnList = "Owner, CreatedAt"),
+        @Index(name = "idx_saved_search_alerts_property", columnList = "PropertyId")})
+public class SearchAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "Id")
+    private Long id;
+
+    @Column(name = "SavedSearchId", nullable = false)
+    private Long savedSearchId;
+
+    @Column(name = "Owner", nullable = false)
+    private String owner;
+
+    @Column(name = "PropertyId", nullable = false)
+    private Long propertyId;
+
+    // "new" for a new listing, "changed" for an existing one that now matches
+    @Column(name = "Reason", length = 16)
+    private String reason;
+
+    @Column(name = "CreatedAt")
+    private Instant createdAt;
+}
@@ -0,0 +1,54 @@
+package com.idxexchange.idxbackend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * How often traffic asked for a search, NLP query or listing, so that new instances can replay
+ * the most popular ones before taking traffic (see WarmupService)
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "warmup_sample",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warmup_sample_kind_fingerprint", columnNames = {"Kind", "Fingerprint"}),
+        indexes = @Index(name = "idx_warmup_sample_last_seen", columnList = "LastSeen"))
+public class WarmupSample {
+
+    public enum Kind { SEARCH, NLP, LISTING }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "Id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Kind", length = 16, nullable = false)
+    private Kind kind;
+
+    // SHA-256 of the request, which can be too long for a unique index
+    @Column(name = "Fingerprint", length = 64, nullable = false)
+    private String fingerprint;
+
+    // Search filters as JSON (for NLP queries, the filters parsed from them), or the listing id
+    @Column(name = "Request", length = 1000, nullable = false)
+    private String request;
+
+    @Column(name = "Hits", nullable = false)
+    private long hits;
+
+    @Column(name = "LastSeen", nullable = false)
+    private Instant lastSeen;
+}
@@ -0,0 +1,154 @@
+package com.idxexchange.idxbackend.nlp;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the location trie the query scanner resolves "in/near/around/at ..." phrases with.
+ *
+ * Names come from the distinct city, county and subdivision values of the listings plus the
+ * built-in city list. Every name is also reachable through a few generated aliases
+ * ("St"/"Mt"/"Ft" for "Saint"/"Mount"/"Fort", accent-free spellings, "X County").
+ * When several names match at the same offset the longest one wins, and on equal length
+ * cities beat counties, which beat subdivisions.
+ */
+public final class Gazetteer {
+
+    public enum Kind { CITY, COUNTY, SUBDIVISION }
+
+    /**
+     * A resolved location; a null name means "use the text as the user typed it"
+     */
+    public record Location(Kind kind, String name) {
+    }
+
+    // Abbreviations people type for well-known cities
+    private static final List<String[]> CITY_ALIASES = List.of(
+        new String[]{"LA", "Los Angeles"},
+        new String[]{"SF", "San Francisco"}
+    );
+
+    // Leading words with a common abbreviation
+    private static final List<String[]> PREFIX_ALIASES = List.of(
+        new String[]{"saint ", "st ", "st. "},
+        new String[]{"mount ", "mt ", "mt. "},
+        new String[]{"fort ", "ft ", "ft. "}
+    );
+
+    // Placeholder values MLS feeds use for "no subdivision"
+    private static final Set<String> NOISE = Set.of(
+        "none", "n/a", "na", "other", "not applicable", "unknown", "no", "not in a subdivision", "see remarks"
+    );
+
+    private static final Pattern COUNTY_SUFFIX = Pattern.compile("\\s+county$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final LocationTrie<Location> trie = new LocationTrie<>();
+
+    private Gazetteer() {
+    }
+
+    /**
+     * Build a trie from listing location values. Null, blank and placeholder values are skipped.
+     */
+    public static LocationTrie<Location> build(Collection<String> cities, Collection<String> counties,
+                                               Collection<String> subdivisions) {
+        Gazetteer gazetteer = new Gazetteer();
+        for (String[] alias : CITY_ALIASES) {
+            gazetteer.add(Kind.CITY, alias[0], alias[1]);
+        }
+        for (String city : QueryScanner.BUILT_IN_CITIES) {
+            gazetteer.add(Kind.CITY, city, city);
+        }
+        for (String city : cities) {
+            if (isUsable(city)) {
+                gazetteer.addWithAliases(Kind.CITY, city.trim(), city.trim());
+            }
+        }
+        for (String county : counties) {
+            if (isUsable(county)) {
+                // The filter compares against the stored value, the keys use the bare name
+                String stored = county.trim();
+                String base = COUNTY_SUFFIX.matcher(stored).replaceFirst("");
+                gazetteer.addWithAliases(Kind.COUNTY, base, stored);
+                gazetteer.addWithAliases(Kind.COUNTY, base + " County", stored);
+                gazetteer.addWithAliases(Kind.COUNTY, "County of " + base, stored);
+            }
+        }
+        for (String subdivision : subdivisions) {
+            if (isUsable(subdivision)) {
+                gazetteer.addWithAliases(Kind.SUBDIVISION, subdivision.trim(), subdivision.trim());
+            }
+        }
+        return gazetteer.trie;
+    }
+
+    private static boolean isUsable(String value) {
+        if (value == null) {
+            return false;
+        }
+        String trimmed = value.trim();
+        return trimmed.length() >= 3
+                && !isPlaceholder(trimmed)
+                && trimmed.chars().anyMatch(Character::isLetter);
+    }
+
+    /**
+     * Whether a value is one MLS feeds use for "none", such as "N/A" or "Not in a Subdivision"
+     */
+    public static boolean isPlaceholder(String value) {
+        return NOISE.contains(value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private void addWithAliases(Kind kind, String key, String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        String lower = lowerAscii(key.replaceAll("\\s+", " "));
+        keys.add(lower);
+        String plain = MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        keys.add(plain);
+
+        for (String spelling : List.copyOf(keys)) {
+            for (String[] prefix : PREFIX_ALIASES) {
+                for (String variant : prefix) {
+                    if (spelling.startsWith(variant)) {
+                        String rest = spelling.substring(variant.length());
+                        for (String other : prefix) {
+                            keys.add(other + rest);
+                        }
+                    }
+                }
+            }
+        }
+        for (String k : keys) {
+            put(kind, k, name);
+        }
+    }
+
+    private void add(Kind kind, String key, String name) {
+        put(kind, lowerAscii(key), name);
+    }
+
+    private void put(Kind kind, String key, String name) {
+        // Longer names first, then by kind
+        trie.put(key, new Location(kind, name), -(key.length() * Kind.values().length) + kind.ordinal());
+    }
+
+    /**
+     * The scanner lower-cases ASCII letters only, so keys must be folded the same way
+     */
+    static String lowerAscii(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c >= 'A' && c <= 'Z') {
+                chars[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,109 @@
+package com.idxexchange.idxbackend.nlp;
+
+import java.util.Arrays;
+
+/**
+ * Character trie over lower-case location names.
+ * Lookups walk the input once from a start offset and return the best entry that ends
+ * on a word boundary, so matching cost depends on the query, not on the number of names.
+ *
+ * @param <T> payload stored with each name
+ */
+public final class LocationTrie<T> {
+
+    /**
+     * A name match: the payload, its priority and the end offset in the input
+     */
+    public record Match<T>(T value, int priority, int end) {
+    }
+
+    /**
+     * Decides whether a match may end at the given offset of the input
+     */
+    @FunctionalInterface
+    public interface EndTest {
+        boolean test(int end);
+    }
+
+    private static final class Node<T> {
+        char[] keys = new char[0];
+        @SuppressWarnings("unchecked")
+        Node<T>[] children = new Node[0];
+        T value;
+        int priority = Integer.MAX_VALUE;
+        boolean terminal;
+
+        Node<T> child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node<T> addChild(char c) {
+            Node<T> existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node<T> node = new Node<>();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = node;
+            return node;
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    /**
+     * Add a name. When the same name is added twice the entry with the lower priority wins.
+     *
+     * @param name     lower-case name
+     * @param priority lower values win when several names match at the same offset
+     */
+    public void put(String name, T value, int priority) {
+        Node<T> node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.addChild(name.charAt(i));
+        }
+        if (!node.terminal) {
+            size++;
+        }
+        if (!node.terminal || priority < node.priority) {
+            node.terminal = true;
+            node.value = value;
+            node.priority = priority;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the best name starting at {@code from} in already lower-cased text.
+     *
+     * @return the matching entry with the lowest priority, or null if none matches
+     */
+    public Match<T> match(char[] text, int from, EndTest endTest) {
+        Node<T> node = root;
+        Node<T> best = null;
+        int bestEnd = -1;
+        for (int i = from; i < text.length; i++) {
+            node = node.child(text[i]);
+            if (node == null) {
+                break;
+            }
+            if (node.terminal && (best == null || node.priority < best.priority) && endTest.test(i + 1)) {
+                best = node;
+                bestEnd = i + 1;
+            }
+        }
+        return best == null ? null : new Match<>(best.value, best.priority, bestEnd);
+    }
+}
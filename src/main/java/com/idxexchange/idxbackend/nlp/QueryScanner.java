@@ -0,0 +1,797 @@
+package com.idxexchange.idxbackend.nlp;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.nlp.Gazetteer.Kind;
+import com.idxexchange.idxbackend.nlp.Gazetteer.Location;
+
+import java.util.List;
+
+/**
+ * Single-pass parser for natural language property queries.
+ *
+ * The query is lower-cased once and walked left to right; at each offset only the
+ * recognizers whose first character fits (and whose result is still missing) are tried.
+ * Each recognizer reproduces the leftmost-match semantics of the regular expressions
+ * NLPQueryParserService used to run one after another, so the resulting
+ * PropertySearchQuery is the same, including their quirks (e.g. "3-4 beds" is also read
+ * as a $3,000-$4,000 price range). The one difference: a bed count too large for an int is
+ * no match, where they threw NumberFormatException.
+ */
+public final class QueryScanner {
+
+    // Common California cities, in the order the old alternation tried them -
+    // when several names match at the same offset the earliest one wins
+    public static final List<String> BUILT_IN_CITIES = List.of(
+        "Los Angeles", "LA", "San Francisco", "SF", "San Diego", "Sacramento",
+        "San Jose", "Oakland", "Fresno", "Long Beach", "Santa Ana", "Anaheim", "Bakersfield", "Riverside",
+        "Stockton", "Irvine", "Fremont", "San Bernardino", "Modesto", "Fontana", "Oxnard", "Moreno Valley",
+        "Huntington Beach", "Glendale", "Santa Clarita", "Oceanside", "Garden Grove", "Elk Grove",
+        "Corona", "Ontario", "Rancho Cucamonga", "Santa Rosa", "Pasadena", "Hayward", "Salinas",
+        "Sunnyvale", "Roseville", "Escondido", "Pomona", "Torrance", "Fullerton", "Orange", "Visalia",
+        "Thousand Oaks", "Simi Valley", "Concord", "Santa Clara", "Victorville", "Berkeley",
+        "Vallejo", "Fairfield", "Murrieta", "Richmond", "Lancaster", "Palmdale", "Carlsbad",
+        "Antioch", "Temecula", "Downey", "Inglewood", "Ventura", "West Covina", "Norwalk",
+        "Burbank", "Daly City", "Rialto", "San Mateo", "Vista", "Vacaville", "Carson",
+        "Hesperia", "Redding", "Santa Monica", "Westminster", "Santa Barbara", "Chico",
+        "Newport Beach", "San Marcos", "Hawthorne", "Citrus Heights", "Alhambra",
+        "Tracy", "Livermore", "Buena Park", "Menifee", "Hemet", "Lakewood", "Merced",
+        "Chino", "Chino Hills", "Indio", "Redwood City", "Lake Forest", "Napa", "Tustin",
+        "Bellflower", "Mountain View", "Redondo Beach", "Alameda", "Upland", "Folsom",
+        "San Ramon", "Pleasanton", "Lynwood", "Union City", "Apple Valley", "Manteca",
+        "Redlands", "Turlock", "Milpitas", "Whittier", "Davis", "Newport", "Palo Alto", "Malibu"
+    );
+
+    private static final String[] CITY_PREPOSITIONS = {"in", "near", "around", "at"};
+    private static final String[] MAX_PRICE_KEYWORDS = {"under", "below", "less than", "max", "maximum", "up to"};
+    private static final String[] MIN_PRICE_KEYWORDS = {"over", "above", "more than", "min", "minimum", "starting at", "at least"};
+    private static final String[] MIN_COUNT_KEYWORDS = {"at least", "minimum", "min", "+"};
+    private static final String[] MIN_SQFT_KEYWORDS = {"over", "above", "more than", "at least"};
+    private static final String[] MAX_SQFT_KEYWORDS = {"under", "below", "less than", "max", "maximum", "up to"};
+    private static final String[] FEATURE_VERBS = {"with", "has", "having", "includes", "include"};
+    private static final String[] VIEW_NOUNS = {"view", "ocean view", "mountain view", "city view"};
+    private static final String[] PROPERTY_TYPES = {"house", "condo", "townhouse", "apartment", "single", "multi", "land", "commercial"};
+    private static final String[] MIN_YEAR_KEYWORDS = {"after", "since", "from"};
+    private static final String[] MAX_YEAR_KEYWORDS = {"before", "prior to", "until"};
+    private static final String[] RANGE_CONNECTORS = {"to", "-", "and"};
+
+    private final LocationTrie<Location> locations;
+
+    public QueryScanner(LocationTrie<Location> locations) {
+        this.locations = locations;
+    }
+
+    /**
+     * Trie of BUILT_IN_CITIES in their original order, as the regex parser matched them.
+     * The name is canonical for abbreviations and null (keep the typed text) otherwise.
+     */
+    public static LocationTrie<Location> builtInCities() {
+        LocationTrie<Location> trie = new LocationTrie<>();
+        for (int i = 0; i < BUILT_IN_CITIES.size(); i++) {
+            String city = BUILT_IN_CITIES.get(i);
+            String canonical = switch (city) {
+                case "LA" -> "Los Angeles";
+                case "SF" -> "San Francisco";
+                default -> null;
+            };
+            trie.put(city.toLowerCase(), new Location(Kind.CITY, canonical), i);
+        }
+        return trie;
+    }
+
+    /**
+     * Parse a natural language query into search criteria
+     */
+    public PropertySearchQuery parse(String naturalLanguageQuery) {
+        if (naturalLanguageQuery == null || naturalLanguageQuery.trim().isEmpty()) {
+            return PropertySearchQuery.builder()
+                    .originalQuery(naturalLanguageQuery)
+                    .confidenceScore(0)
+                    .build();
+        }
+        return new Scan(naturalLanguageQuery.trim()).run();
+    }
+
+    /**
+     * State of one walk over a query. Each slot holds the first (leftmost) match of one criterion.
+     */
+    private final class Scan {
+        private final String query;
+        private final char[] s;
+        private final int n;
+
+        private Location location;
+        private int[] priceRange;
+        private int[] maxPrice;
+        private int[] minPrice;
+        private int[] minBeds;
+        private int[] beds;
+        private int[] minBaths;
+        private int[] baths;
+        private int[] sqftRange;
+        private int[] minSqft;
+        private int[] maxSqft;
+        private boolean pool;
+        private boolean fireplace;
+        private boolean view;
+        private boolean garage;
+        private int[] propertyType;
+        private int[] yearRange;
+        private int[] minYear;
+        private int[] maxYear;
+
+        Scan(String query) {
+            this.query = query;
+            this.n = query.length();
+            this.s = new char[n];
+            // The patterns were case-insensitive for ASCII only
+            for (int i = 0; i < n; i++) {
+                char c = query.charAt(i);
+                s[i] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+            }
+        }
+
+        PropertySearchQuery run() {
+            for (int i = 0; i < n; i++) {
+                char c = s[i];
+                if (isAsciiLetter(c)) {
+                    scanWord(i, c);
+                } else if (isDigit(c)) {
+                    if (i == 0 || !isDigit(s[i - 1])) {
+                        scanDigitRun(i);
+                    }
+                    if (i == 0 || !isDigitOrComma(s[i - 1])) {
+                        scanNumberRun(i);
+                    }
+                } else if (c == ',') {
+                    if (i == 0 || !isDigitOrComma(s[i - 1])) {
+                        scanNumberRun(i);
+                    }
+                } else if (c == '+') {
+                    scanMinCount(i);
+                }
+            }
+            return build();
+        }
+
+        private void scanWord(int i, char c) {
+            // Recognizers anchored on a word boundary
+            if ((location == null && (c == 'i' || c == 'n' || c == 'a'))
+                    || (!(pool && fireplace && view && garage) && (c == 'w' || c == 'h' || c == 'i'))
+                    || (propertyType == null && (c == 'h' || c == 'c' || c == 't' || c == 'a' || c == 's' || c == 'm' || c == 'l'))) {
+                if (boundaryBefore(i)) {
+                    if (location == null) {
+                        location = matchLocation(i);
+                    }
+                    matchFeatures(i);
+                    if (propertyType == null) {
+                        propertyType = matchPropertyType(i);
+                    }
+                }
+            }
+
+            // Keyword recognizers that may start anywhere, dispatched on the first letter
+            boolean upperBoundStart = c == 'u' || c == 'b' || c == 'l' || c == 'm';
+            boolean lowerBoundStart = c == 'o' || c == 'a' || c == 'm' || c == 's';
+            if (priceRange == null) {
+                if (maxPrice == null && upperBoundStart) {
+                    maxPrice = matchKeywordNumber(i, MAX_PRICE_KEYWORDS, true);
+                }
+                if (minPrice == null && lowerBoundStart) {
+                    minPrice = matchKeywordNumber(i, MIN_PRICE_KEYWORDS, true);
+                }
+            }
+            if (c == 'a' || c == 'm') {
+                scanMinCount(i);
+            }
+            if (sqftRange == null) {
+                if (minSqft == null && lowerBoundStart) {
+                    minSqft = matchKeywordSqft(i, MIN_SQFT_KEYWORDS);
+                }
+                if (maxSqft == null && upperBoundStart) {
+                    maxSqft = matchKeywordSqft(i, MAX_SQFT_KEYWORDS);
+                }
+            }
+            if (c == 'b' && startsWith(i, "built")) {
+                matchBuilt(i + 5);
+            }
+        }
+
+        // --- Location ---
+
+        private Location matchLocation(int i) {
+            for (String preposition : CITY_PREPOSITIONS) {
+                if (!startsWith(i, preposition)) {
+                    continue;
+                }
+                int q = skipSpaces(i + preposition.length());
+                if (q == i + preposition.length()) {
+                    continue;
+                }
+                LocationTrie.Match<Location> match = locations.match(s, q, this::boundaryAfterWord);
+                if (match != null) {
+                    Location value = match.value();
+                    return value.name() != null ? value : new Location(value.kind(), query.substring(q, match.end()));
+                }
+            }
+            return null;
+        }
+
+        // --- Prices, counts and sizes ---
+
+        /**
+         * keyword \s+ \$? ([0-9,]+) - returns the group bounds
+         */
+        private int[] matchKeywordNumber(int i, String[] keywords, boolean allowDollar) {
+            for (String keyword : keywords) {
+                if (!startsWith(i, keyword)) {
+                    continue;
+                }
+                int j = i + keyword.length();
+                int k = skipSpaces(j);
+                if (k == j) {
+                    continue;
+                }
+                if (allowDollar && k < n && s[k] == '$') {
+                    k++;
+                }
+                int end = numberRunEnd(k);
+                if (end > k) {
+                    return new int[]{k, end};
+                }
+            }
+            return null;
+        }
+
+        /**
+         * keyword \s+ ([0-9,]+) \s* sqft-unit
+         */
+        private int[] matchKeywordSqft(int i, String[] keywords) {
+            int[] group = matchKeywordNumber(i, keywords, false);
+            if (group != null && sqftUnitEnd(skipSpaces(group[1])) > 0) {
+                return group;
+            }
+            return null;
+        }
+
+        /**
+         * (at least|minimum|min|\+) \s* digits \s* bed/bath-unit
+         */
+        private void scanMinCount(int i) {
+            if (minBeds != null && minBaths != null) {
+                return;
+            }
+            for (String keyword : MIN_COUNT_KEYWORDS) {
+                if (!startsWith(i, keyword)) {
+                    continue;
+                }
+                int k = skipSpaces(i + keyword.length());
+                int digitsEnd = digitRunEnd(k);
+                if (digitsEnd == k) {
+                    continue;
+                }
+                if (minBeds == null && bedUnitLength(skipSpaces(digitsEnd)) > 0) {
+                    minBeds = new int[]{k, digitsEnd};
+                }
+                if (minBaths == null) {
+                    int groupEnd = decimalEnd(digitsEnd);
+                    if (bathUnitLength(skipSpaces(groupEnd)) > 0) {
+                        minBaths = new int[]{k, groupEnd};
+                    }
+                }
+                return;
+            }
+        }
+
+        /**
+         * Start of a maximal run of digits: "3 beds", "2.5+ baths"
+         */
+        private void scanDigitRun(int p) {
+            int digitsEnd = digitRunEnd(p);
+            if (beds == null) {
+                int unit = skipPlus(digitsEnd);
+                int len = bedUnitLength(unit);
+                if (len > 0) {
+                    beds = new int[]{p, digitsEnd, unit + len - p};
+                }
+            }
+            if (baths == null) {
+                int groupEnd = decimalEnd(digitsEnd);
+                int unit = skipPlus(groupEnd);
+                int len = bathUnitLength(unit);
+                if (len > 0) {
+                    baths = new int[]{p, groupEnd, unit + len - p};
+                }
+            }
+        }
+
+        /**
+         * Start of a maximal run of [0-9,]: price and square footage ranges
+         */
+        private void scanNumberRun(int p) {
+            int end = numberRunEnd(p);
+            if (priceRange == null) {
+                int k = end;
+                if (k < n && s[k] == 'k') {
+                    k++;
+                }
+                int second = afterConnector(skipSpaces(k));
+                if (second >= 0) {
+                    if (second < n && s[second] == '$') {
+                        second++;
+                    }
+                    int secondEnd = numberRunEnd(second);
+                    if (secondEnd > second) {
+                        priceRange = new int[]{p, end, second, secondEnd};
+                    }
+                }
+            }
+            if (sqftRange == null) {
+                int second = afterConnector(skipSpaces(end));
+                if (second >= 0) {
+                    int secondEnd = numberRunEnd(second);
+                    if (secondEnd > second && sqftUnitEnd(skipSpaces(secondEnd)) > 0) {
+                        sqftRange = new int[]{p, end, second, secondEnd};
+                    }
+                }
+            }
+        }
+
+        // --- Features and property type ---
+
+        private void matchFeatures(int i) {
+            if (pool && fireplace && view && garage) {
+                return;
+            }
+            for (String verb : FEATURE_VERBS) {
+                if (!startsWith(i, verb)) {
+                    continue;
+                }
+                int j = i + verb.length();
+                int q = skipSpaces(j);
+                if (q == j) {
+                    continue;
+                }
+                // (?:a\s+)? - the article is optional, none of the nouns start with 'a'
+                int noun = q;
+                if (q + 1 < n && s[q] == 'a' && isSpace(s[q + 1])) {
+                    noun = skipSpaces(q + 1);
+                }
+                pool |= wordAt(noun, "pool");
+                fireplace |= wordAt(noun, "fireplace");
+                garage |= wordAt(noun, "garage");
+                if (!view) {
+                    for (String viewNoun : VIEW_NOUNS) {
+                        if (wordAt(noun, viewNoun)) {
+                            view = true;
+                            break;
+                        }
+                    }
+                }
+                return;
+            }
+        }
+
+        private int[] matchPropertyType(int i) {
+            for (String type : PROPERTY_TYPES) {
+                if (!startsWith(i, type)) {
+                    continue;
+                }
+                int end = i + type.length();
+                if (type.equals("single") || type.equals("multi")) {
+                    int k = skipSpaces(end);
+                    if (k == end || !startsWith(k, "family")) {
+                        continue;
+                    }
+                    end = k + "family".length();
+                }
+                if (boundaryAfterWord(end)) {
+                    return new int[]{i, end};
+                }
+            }
+            return null;
+        }
+
+        // --- Year built ---
+
+        private void matchBuilt(int j) {
+            int k = skipSpaces(j);
+            if (k == j) {
+                return;
+            }
+            if (yearRange == null) {
+                if (startsWith(k, "between")) {
+                    int b = k + "between".length();
+                    int afterBetween = skipSpaces(b);
+                    if (afterBetween > b) {
+                        yearRange = matchYearRange(afterBetween);
+                    }
+                }
+                if (yearRange == null) {
+                    yearRange = matchYearRange(k);
+                }
+            }
+            if (minYear == null) {
+                minYear = matchKeywordYear(k, MIN_YEAR_KEYWORDS);
+            }
+            if (maxYear == null) {
+                maxYear = matchKeywordYear(k, MAX_YEAR_KEYWORDS);
+            }
+        }
+
+        private int[] matchYearRange(int k) {
+            if (!fourDigits(k)) {
+                return null;
+            }
+            int second = afterConnector(skipSpaces(k + 4));
+            if (second >= 0 && fourDigits(second)) {
+                return new int[]{k, k + 4, second, second + 4};
+            }
+            return null;
+        }
+
+        private int[] matchKeywordYear(int k, String[] keywords) {
+            for (String keyword : keywords) {
+                if (!startsWith(k, keyword)) {
+                    continue;
+                }
+                int j = k + keyword.length();
+                int y = skipSpaces(j);
+                if (y > j && fourDigits(y)) {
+                    return new int[]{y, y + 4};
+                }
+            }
+            return null;
+        }
+
+        // --- Result ---
+
+        private PropertySearchQuery build() {
+            PropertySearchQuery.PropertySearchQueryBuilder builder = PropertySearchQuery.builder()
+                    .originalQuery(query);
+            int matchedCriteria = 0;
+
+            if (location != null) {
+                switch (location.kind()) {
+                    case CITY -> builder.city(location.name());
+                    case COUNTY -> builder.county(location.name());
+                    case SUBDIVISION -> builder.subdivision(location.name());
+                }
+                matchedCriteria++;
+            }
+
+            if (priceRange != null) {
+                builder.minPrice(parsePrice(group(priceRange, 0))).maxPrice(parsePrice(group(priceRange, 1)));
+                matchedCriteria++;
+            } else {
+                if (maxPrice != null) {
+                    builder.maxPrice(parsePrice(group(maxPrice, 0)));
+                    matchedCriteria++;
+                }
+                if (minPrice != null) {
+                    builder.minPrice(parsePrice(group(minPrice, 0)));
+                    matchedCriteria++;
+                }
+            }
+
+            // Counts too large for an int are no match, like any other unreadable number
+            Integer bedCount = minBeds != null ? parseInt(group(minBeds, 0))
+                    : beds != null ? parseInt(group(beds, 0)) : null;
+            if (bedCount != null) {
+                if (minBeds != null || plusNear(beds[0], beds[2])) {
+                    builder.minBeds(bedCount);
+                } else {
+                    builder.beds(bedCount);
+                }
+                matchedCriteria++;
+            }
+
+            if (minBaths != null) {
+                builder.minBaths(parseFloat(group(minBaths, 0)));
+                matchedCriteria++;
+            } else if (baths != null) {
+                Integer value = parseFloat(group(baths, 0));
+                if (plusNear(baths[0], baths[2])) {
+                    builder.minBaths(value);
+                } else {
+                    builder.baths(value);
+                }
+                matchedCriteria++;
+            }
+
+            if (sqftRange != null) {
+                builder.minSquareFeet(parseInt(group(sqftRange, 0)));
+                builder.maxSquareFeet(parseInt(group(sqftRange, 1)));
+                matchedCriteria++;
+            } else {
+                if (minSqft != null) {
+                    builder.minSquareFeet(parseInt(group(minSqft, 0)));
+                    matchedCriteria++;
+                }
+                if (maxSqft != null) {
+                    builder.maxSquareFeet(parseInt(group(maxSqft, 0)));
+                    matchedCriteria++;
+                }
+            }
+
+            if (pool) {
+                builder.poolPrivate(true);
+                matchedCriteria++;
+            }
+            if (fireplace) {
+                builder.fireplace(true);
+                matchedCriteria++;
+            }
+            if (view) {
+                builder.view(true);
+                matchedCriteria++;
+            }
+            if (garage) {
+                builder.garage(true);
+                matchedCriteria++;
+            }
+
+            if (propertyType != null) {
+                builder.propertyType(group(propertyType, 0));
+                matchedCriteria++;
+            }
+
+            if (yearRange != null) {
+                builder.minYearBuilt(parseInt(group(yearRange, 0)));
+                builder.maxYearBuilt(parseInt(group(yearRange, 1)));
+                matchedCriteria++;
+            } else {
+                if (minYear != null) {
+                    builder.minYearBuilt(parseInt(group(minYear, 0)));
+                    matchedCriteria++;
+                }
+                if (maxYear != null) {
+                    builder.maxYearBuilt(parseInt(group(maxYear, 0)));
+                    matchedCriteria++;
+                }
+            }
+
+            // Calculate confidence score (0-100)
+            builder.confidenceScore(Math.min(100, matchedCriteria * 15));
+            return builder.build();
+        }
+
+        private String group(int[] bounds, int index) {
+            return query.substring(bounds[2 * index], bounds[2 * index + 1]);
+        }
+
+        /**
+         * A '+' within 10 chars before or 5 chars after the match indicates a minimum
+         */
+        private boolean plusNear(int matchStart, int matchLength) {
+            int from = Math.max(0, matchStart - 10);
+            int to = Math.min(n, matchStart + matchLength + 5);
+            for (int i = from; i < to; i++) {
+                if (s[i] == '+') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // --- Lexical helpers ---
+
+        private boolean startsWith(int i, String lowerCaseWord) {
+            int len = lowerCaseWord.length();
+            if (i + len > n) {
+                return false;
+            }
+            for (int k = 0; k < len; k++) {
+                if (s[i + k] != lowerCaseWord.charAt(k)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean wordAt(int i, String lowerCaseWord) {
+            return startsWith(i, lowerCaseWord) && boundaryAfterWord(i + lowerCaseWord.length());
+        }
+
+        private int skipSpaces(int i) {
+            while (i < n && isSpace(s[i])) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * \s* \+? \s*
+         */
+        private int skipPlus(int i) {
+            i = skipSpaces(i);
+            if (i < n && s[i] == '+') {
+                i = skipSpaces(i + 1);
+            }
+            return i;
+        }
+
+        private int digitRunEnd(int i) {
+            while (i < n && isDigit(s[i])) {
+                i++;
+            }
+            return i;
+        }
+
+        private int numberRunEnd(int i) {
+            while (i < n && isDigitOrComma(s[i])) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Extends a digit run with an optional decimal part (\.[0-9]+)?
+         */
+        private int decimalEnd(int digitsEnd) {
+            if (digitsEnd + 1 < n && s[digitsEnd] == '.' && isDigit(s[digitsEnd + 1])) {
+                return digitRunEnd(digitsEnd + 1);
+            }
+            return digitsEnd;
+        }
+
+        private boolean fourDigits(int i) {
+            return i + 4 <= n && isDigit(s[i]) && isDigit(s[i + 1]) && isDigit(s[i + 2]) && isDigit(s[i + 3]);
+        }
+
+        /**
+         * (?:to|-|and) \s* - returns the offset after it, or -1
+         */
+        private int afterConnector(int i) {
+            for (String connector : RANGE_CONNECTORS) {
+                if (startsWith(i, connector)) {
+                    return skipSpaces(i + connector.length());
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * bed(?:room)?s? | br | bd
+         */
+        private int bedUnitLength(int i) {
+            if (startsWith(i, "bed")) {
+                int len = startsWith(i + 3, "room") ? 7 : 3;
+                return (i + len < n && s[i + len] == 's') ? len + 1 : len;
+            }
+            return (startsWith(i, "br") || startsWith(i, "bd")) ? 2 : 0;
+        }
+
+        /**
+         * bath(?:room)?s? | ba
+         */
+        private int bathUnitLength(int i) {
+            if (startsWith(i, "bath")) {
+                int len = startsWith(i + 4, "room") ? 8 : 4;
+                return (i + len < n && s[i + len] == 's') ? len + 1 : len;
+            }
+            return startsWith(i, "ba") ? 2 : 0;
+        }
+
+        /**
+         * sq\s*ft | sqft | square\s*feet - returns the end offset, or 0
+         */
+        private int sqftUnitEnd(int i) {
+            if (startsWith(i, "sq")) {
+                int k = skipSpaces(i + 2);
+                if (startsWith(k, "ft")) {
+                    return k + 2;
+                }
+            }
+            if (startsWith(i, "square")) {
+                int k = skipSpaces(i + 6);
+                if (startsWith(k, "feet")) {
+                    return k + 4;
+                }
+            }
+            return 0;
+        }
+
+        // --- Word boundaries, as java.util.regex defines \b ---
+
+        private boolean boundaryBefore(int i) {
+            if (i == 0) {
+                return true;
+            }
+            int ch = Character.codePointBefore(query, i);
+            return !(isAsciiWord(ch) || (Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(i - 1)));
+        }
+
+        /**
+         * True if a word ending at {@code end} is followed by a non-word character or the end of input
+         */
+        private boolean boundaryAfterWord(int end) {
+            if (end >= n) {
+                return true;
+            }
+            int ch = Character.codePointAt(query, end);
+            return !(isAsciiWord(ch) || (Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(end)));
+        }
+
+        private boolean hasBaseCharacter(int i) {
+            for (int x = i; x >= 0; x--) {
+                int ch = Character.codePointAt(query, x);
+                if (Character.isLetterOrDigit(ch)) {
+                    return true;
+                }
+                if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigitOrComma(char c) {
+        return (c >= '0' && c <= '9') || c == ',';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isAsciiWord(int ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_';
+    }
+
+    /**
+     * Whether the character is in regex \s without UNICODE_CHARACTER_CLASS, the whitespace the scanner splits on
+     */
+    public static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Parse price string handling commas; values under 10,000 are read as thousands ("500" means 500k)
+     */
+    static Double parsePrice(String priceStr) {
+        if (priceStr == null) return null;
+
+        priceStr = priceStr.replace(",", "").trim();
+
+        try {
+            double value = Double.parseDouble(priceStr);
+
+            // If the value is less than 10000, assume it's in thousands (e.g., "500" means "500k")
+            if (value < 10000) {
+                return value * 1000;
+            }
+
+            return value;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse integer string removing commas
+     */
+    static Integer parseInt(String str) {
+        if (str == null) return null;
+        try {
+            return Integer.parseInt(str.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse float string for bathrooms, rounded up to a whole count
+     */
+    static Integer parseFloat(String str) {
+        if (str == null) return null;
+        try {
+            return (int) Math.ceil(Double.parseDouble(str));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
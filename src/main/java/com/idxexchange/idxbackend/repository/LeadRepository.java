@@ -0,0 +1,7 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.Lead;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LeadRepository extends JpaRepository<Lead, String> {
+}
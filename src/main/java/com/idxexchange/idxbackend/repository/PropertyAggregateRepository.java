@@ -0,0 +1,50 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.Property;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Aggregate queries over properties matching a Specification.
+ * Implemented by PropertyAggregateRepositoryImpl and mixed into PropertyRepository.
+ */
+public interface PropertyAggregateRepository {
+
+    enum Aggregate { AVG, MIN, MAX }
+
+    /**
+     * Compute an aggregate of a numeric attribute over matching properties
+     *
+     * @param spec      filter, or null for all properties
+     * @param attribute numeric Property attribute name, e.g. "price" or "squareFeet"
+     * @return the aggregate value, or null if no property has a value
+     */
+    Double aggregate(Specification<Property> spec, String attribute, Aggregate aggregate);
+
+    /**
+     * Count properties per distinct non-null value of an attribute
+     *
+     * @param attribute Property attribute name, e.g. "city" or "zip"
+     */
+    Map<String, Long> countByValue(String attribute);
+
+    /**
+     * Pass the given attributes of every property to the consumer, one row at a time,
+     * without loading entities or holding all rows in memory
+     *
+     * @param attributes Property attribute names; each row has their values in this order
+     */
+    void scan(List<String> attributes, Consumer<Object[]> consumer);
+
+    /**
+     * The given attributes of the properties with these ids, read from the database rather than
+     * the second-level cache; ids that don't exist have no row
+     *
+     * @param attributes Property attribute names; each row has their values in this order
+     */
+    List<Object[]> findAttributesById(List<String> attributes, Collection<Long> ids);
+}
@@ -0,0 +1,98 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class PropertyAggregateRepositoryImpl implements PropertyAggregateRepository {
+
+    // Rows per round trip when scanning; MySQL Connector/J needs useCursorFetch=true to honor it
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Double aggregate(Specification<Property> spec, String attribute, Aggregate aggregate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Number> query = cb.createQuery(Number.class);
+        Root<Property> root = query.from(Property.class);
+        Expression<Number> path = root.get(attribute);
+
+        switch (aggregate) {
+            case AVG -> query.select(cb.avg(path));
+            case MIN -> query.select(cb.min(path));
+            case MAX -> query.select(cb.max(path));
+        }
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        Number result = entityManager.createQuery(query).getSingleResult();
+        return result == null ? null : result.doubleValue();
+    }
+
+    @Override
+    public Map<String, Long> countByValue(String attribute) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Expression<String> path = root.get(attribute);
+        query.multiselect(path, cb.count(root)).where(cb.isNotNull(path)).groupBy(path);
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scan(List<String> attributes, Consumer<Object[]> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Property> root = query.from(Property.class);
+        query.multiselect(attributes.stream().<Selection<?>>map(root::get).toList());
+
+        try (Stream<Object[]> rows = entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, SCAN_FETCH_SIZE)
+                .getResultStream()) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Override
+    public List<Object[]> findAttributesById(List<String> attributes, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Property> root = query.from(Property.class);
+        query.multiselect(attributes.stream().<Selection<?>>map(root::get).toList())
+                .where(root.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
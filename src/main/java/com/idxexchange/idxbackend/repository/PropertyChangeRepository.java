@@ -0,0 +1,17 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.PropertyChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface PropertyChangeRepository extends JpaRepository<PropertyChange, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PropertyChange c WHERE c.changedAt < :cutoff")
+    int deleteChangedBefore(Instant cutoff);
+}
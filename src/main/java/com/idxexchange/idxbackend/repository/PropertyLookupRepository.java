@@ -0,0 +1,27 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.Property;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lookups of listings by id that are served from the second-level cache where possible.
+ * Implemented by PropertyLookupRepositoryImpl and mixed into PropertyRepository.
+ */
+public interface PropertyLookupRepository {
+
+    /**
+     * A listing with its {@link Property#DETAILS} columns loaded. A cached listing is returned
+     * without a query; otherwise all its columns are read in one select and the complete listing
+     * is cached for the next lookup.
+     */
+    Optional<Property> findDetailsById(Long id);
+
+    /**
+     * Replaces JpaRepository.findAllById: cached listings come from the second-level cache and
+     * only the others are selected. Ids that do not exist are skipped. Listings read here are
+     * not added to the cache, which is filled by {@link #findDetailsById}.
+     */
+    List<Property> findAllById(Iterable<Long> ids);
+}
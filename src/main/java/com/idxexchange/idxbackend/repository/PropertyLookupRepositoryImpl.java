@@ -0,0 +1,46 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+public class PropertyLookupRepositoryImpl implements PropertyLookupRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Property> findDetailsById(Long id) {
+        // find() checks the cache first; the fetch graph makes a miss select the lazy columns too
+        Map<String, Object> hints = Map.of(AvailableHints.HINT_SPEC_FETCH_GRAPH,
+                entityManager.getEntityGraph(Property.DETAILS_GRAPH));
+        return Optional.ofNullable(entityManager.find(Property.class, id, hints));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Property> findAllById(Iterable<Long> ids) {
+        List<Long> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        if (idList.isEmpty()) {
+            return List.of();
+        }
+        // GET: use cached listings, but don't cache these ones without their lazy columns
+        List<Property> properties = entityManager.unwrap(Session.class)
+                .byMultipleIds(Property.class)
+                .with(CacheMode.GET)
+                .multiLoad(idList);
+        return properties.stream().filter(Objects::nonNull).toList();
+    }
+}
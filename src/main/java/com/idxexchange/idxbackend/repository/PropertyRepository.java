@@ -1,17 +1,46 @@
 package com.idxexchange.idxbackend.repository;
 
 import com.idxexchange.idxbackend.model.Property;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+        PropertyAggregateRepository, PropertyLookupRepository, PropertySearchRepository {
+
+    // Searches read listings from the second-level cache but don't add to it: a page of results
+    // would evict the popular listings, and would cache them without their lazy columns
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "GET"))
+    Page<Property> findAll(Pageable pageable);
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "GET"))
+    Page<Property> findAll(Specification<Property> spec, Pageable pageable);
 
-public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
     Page<Property> findByCity(String city, Pageable pageable);
     Page<Property> findByState(String state, Pageable pageable);
     Page<Property> findByCityAndState(String city, String state, Pageable pageable);
     Page<Property> findByCityAndStateAndZip(String city, String state, String country, Pageable pageable);
 
+    // Distinct location values for the NLP gazetteer
+    @Query("SELECT DISTINCT p.city FROM Property p WHERE p.city IS NOT NULL")
+    List<String> findDistinctCities();
+
+    @Query("SELECT DISTINCT p.county FROM Property p WHERE p.county IS NOT NULL")
+    List<String> findDistinctCounties();
+
+    @Query("SELECT DISTINCT p.subdivisionName FROM Property p WHERE p.subdivisionName IS NOT NULL")
+    List<String> findDistinctSubdivisions();
+
     // Filter by prices
 //    @Query("SELECT p FROM Property p WHERE p.price BETWEEN :minPrice AND :maxPrice")
     Page<Property> findByPriceBetween(Double minPrice, Double maxPrice, Pageable pageable);
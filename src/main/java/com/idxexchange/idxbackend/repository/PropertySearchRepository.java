@@ -0,0 +1,28 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.dto.PropertyProjection;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Listing searches run from statements compiled per filter shape.
+ * Implemented by PropertySearchRepositoryImpl and mixed into PropertyRepository.
+ */
+public interface PropertySearchRepository {
+
+    /**
+     * A page of the listings matching every filter set on the query, with the same semantics as
+     * the PropertySpecification predicates. Like the other searches this reads listings from the
+     * second-level cache without adding to it. The count is skipped when the page shows the total.
+     */
+    Page<Property> search(PropertySearchQuery filters, Pageable pageable);
+
+    /**
+     * Like {@link #search(PropertySearchQuery, Pageable)}, but selects only the given fields.
+     * The rows are not entities, so they skip the persistence context and the second-level cache.
+     */
+    Page<PropertyProjection> search(PropertySearchQuery filters, PropertyFields fields, Pageable pageable);
+}
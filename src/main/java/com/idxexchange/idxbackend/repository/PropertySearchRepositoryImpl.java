@@ -0,0 +1,101 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.dto.PropertyProjection;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.specification.PropertyQueryCompiler;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PropertySearchRepositoryImpl implements PropertySearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Set<String> sortableAttributes;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Property> search(PropertySearchQuery filters, Pageable pageable) {
+        PropertyQueryCompiler.Statement statement = PropertyQueryCompiler.compile(filters);
+        TypedQuery<Property> select = entityManager.createQuery(statement.select() + orderBy(pageable.getSort()), Property.class);
+        select.setHint(AvailableHints.HINT_CACHE_MODE, CacheMode.GET);
+        return page(statement, filters, select, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PropertyProjection> search(PropertySearchQuery filters, PropertyFields fields, Pageable pageable) {
+        PropertyQueryCompiler.Statement statement = PropertyQueryCompiler.compile(filters);
+        TypedQuery<Object[]> select = entityManager.createQuery(statement.select(fields) + orderBy(pageable.getSort()), Object[].class);
+        return page(statement, filters, select, pageable).map(values -> new PropertyProjection(fields, values));
+    }
+
+    private <T> Page<T> page(PropertyQueryCompiler.Statement statement, PropertySearchQuery filters,
+                             TypedQuery<T> select, Pageable pageable) {
+        statement.bind(filters, select::setParameter);
+        if (pageable.isPaged()) {
+            select.setFirstResult((int) pageable.getOffset());
+            select.setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = select.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(statement.count(), Long.class);
+            statement.bind(filters, count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        Set<String> attributes = sortableAttributes();
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        boolean first = true;
+        for (Sort.Order order : sort) {
+            // Sort properties come from the request, so only attribute names reach the JPQL
+            if (!attributes.contains(order.getProperty())) {
+                throw new PropertyReferenceException(order.getProperty(), TypeInformation.of(Property.class), List.of());
+            }
+            if (!first) {
+                orderBy.append(", ");
+            }
+            first = false;
+            String path = PropertyQueryCompiler.ALIAS + "." + order.getProperty();
+            orderBy.append(order.isIgnoreCase() ? "lower(" + path + ")" : path)
+                    .append(order.isAscending() ? " asc" : " desc");
+        }
+        return orderBy.toString();
+    }
+
+    private Set<String> sortableAttributes() {
+        Set<String> attributes = sortableAttributes;
+        if (attributes == null) {
+            attributes = entityManager.getMetamodel().entity(Property.class).getAttributes().stream()
+                    .filter(attribute -> !attribute.isCollection())
+                    .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC)
+                    .map(Attribute::getName)
+                    .collect(Collectors.toUnmodifiableSet());
+            sortableAttributes = attributes;
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByOwnerOrderByIdAsc(String owner);
+
+    Optional<SavedSearch> findFirstByOwnerAndOwnerKeyHashIsNotNull(String owner);
+
+    // Searches saved before owners had keys
+    @Modifying
+    @Transactional
+    @Query("UPDATE SavedSearch s SET s.ownerKeyHash = :hash WHERE s.owner = :owner AND s.ownerKeyHash IS NULL")
+    int assignOwnerKeyHash(String owner, String hash);
+}
@@ -0,0 +1,17 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.SearchAlert;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchAlertRepository extends JpaRepository<SearchAlert, Long> {
+    Page<SearchAlert> findByOwnerOrderByCreatedAtDesc(String owner, Pageable pageable);
+
+    @Query("SELECT a.savedSearchId FROM SearchAlert a WHERE a.propertyId = :propertyId AND a.savedSearchId IN :savedSearchIds")
+    List<Long> findSavedSearchIdsAlertedFor(Long propertyId, Collection<Long> savedSearchIds);
+}
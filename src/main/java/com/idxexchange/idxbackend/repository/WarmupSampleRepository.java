@@ -0,0 +1,21 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.model.WarmupSample;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface WarmupSampleRepository extends JpaRepository<WarmupSample, Long> {
+
+    List<WarmupSample> findByKindAndLastSeenAfterOrderByHitsDesc(WarmupSample.Kind kind, Instant since, Pageable limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WarmupSample s WHERE s.lastSeen < :cutoff")
+    int deleteSeenBefore(Instant cutoff);
+}
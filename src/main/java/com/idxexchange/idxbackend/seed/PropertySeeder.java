@@ -0,0 +1,206 @@
+package com.idxexchange.idxbackend.seed;
+
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.model.Property;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes synthetic listings into rets_property with batched JDBC inserts.
+ *
+ * Table and column names come from the Hibernate mapping of Property, so the same code works
+ * against H2 (generated schema) and MySQL (PhysicalNamingStrategyStandardImpl, quoted names).
+ * For MySQL add rewriteBatchedStatements=true to the JDBC URL, otherwise each row is sent
+ * as its own statement.
+ */
+@Component
+public class PropertySeeder {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${idx.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${idx.seed.threads:4}")
+    private int threads;
+
+    // Ids are handed to writer threads in chunks of this many rows
+    private static final int CHUNK_SIZE = 10_000;
+
+    /**
+     * Insert {@code rows} listings with ids following the current maximum id
+     *
+     * @return the first id written
+     */
+    public long seed(long rows, long seed) throws Exception {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Property.class);
+        InsertStatement insert = new InsertStatement(persister);
+        long firstId = maxId(insert) + 1;
+        long endId = firstId + rows;
+
+        System.out.println("Seeding " + rows + " synthetic listings into " + insert.table +
+                           " (ids " + firstId + "-" + (endId - 1) + ", seed " + seed + ", " + threads + " threads)");
+        SyntheticListingGenerator generator = new SyntheticListingGenerator(seed);
+        AtomicLong nextChunk = new AtomicLong(firstId);
+        AtomicLong written = new AtomicLong();
+        long start = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    writeChunks(insert, persister, generator, nextChunk, endId, written, rows, start);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        System.out.println("Seeded " + written.get() + " listings in " + elapsed / 1000.0 + " s (" +
+                           written.get() * 1000 / elapsed + " rows/s)");
+        eventPublisher.publishEvent(PropertyChangedEvent.bulk());
+        return firstId;
+    }
+
+    private void writeChunks(InsertStatement insert, AbstractEntityPersister persister,
+                             SyntheticListingGenerator generator, AtomicLong nextChunk, long endId,
+                             AtomicLong written, long rows, long start) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insert.sql)) {
+                long chunkStart;
+                while ((chunkStart = nextChunk.getAndAdd(CHUNK_SIZE)) < endId) {
+                    long chunkEnd = Math.min(endId, chunkStart + CHUNK_SIZE);
+                    int pending = 0;
+                    for (long id = chunkStart; id < chunkEnd; id++) {
+                        Property property = generator.generate(id);
+                        insert.bind(statement, property, persister.getValues(property));
+                        statement.addBatch();
+                        if (++pending == batchSize) {
+                            statement.executeBatch();
+                            connection.commit();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                    long done = written.addAndGet(chunkEnd - chunkStart);
+                    reportProgress(done - (chunkEnd - chunkStart), done, rows, start);
+                }
+            }
+        }
+    }
+
+    private void reportProgress(long before, long done, long rows, long start) {
+        // Roughly every 5%
+        long step = Math.max(1, rows / 20);
+        if (before / step != done / step && done < rows) {
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            System.out.println("  " + done + "/" + rows + " rows (" + done * 1000 / elapsed + " rows/s)");
+        }
+    }
+
+    private long maxId(InsertStatement insert) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select max(" + insert.idColumn + ") from " + insert.table)) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * INSERT for every mapped column of Property, in persister property order
+     */
+    private static final class InsertStatement {
+        final String table;
+        final String idColumn;
+        final String sql;
+        // Index into the persister's property values and JDBC type, per bind parameter after the id
+        final int[] propertyIndexes;
+        final int[] sqlTypes;
+
+        InsertStatement(AbstractEntityPersister persister) {
+            table = persister.getTableName();
+            idColumn = persister.getIdentifierColumnNames()[0];
+            List<String> columns = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            List<Integer> types = new ArrayList<>();
+            columns.add(idColumn);
+            String[] names = persister.getPropertyNames();
+            for (int i = 0; i < names.length; i++) {
+                String[] propertyColumns = persister.getPropertyColumnNames(i);
+                if (propertyColumns.length != 1) {
+                    throw new IllegalStateException("Unsupported mapping for Property." + names[i]);
+                }
+                columns.add(propertyColumns[0]);
+                indexes.add(i);
+                types.add(sqlType(persister.getPropertyTypes()[i].getReturnedClass()));
+            }
+            propertyIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+            sqlTypes = types.stream().mapToInt(Integer::intValue).toArray();
+            sql = "insert into " + table + " (" + String.join(", ", columns) + ") values (" +
+                  "?, ".repeat(columns.size() - 1) + "?)";
+        }
+
+        void bind(PreparedStatement statement, Property property, Object[] values) throws SQLException {
+            statement.setLong(1, property.getId());
+            for (int p = 0; p < propertyIndexes.length; p++) {
+                Object value = values[propertyIndexes[p]];
+                if (value == null) {
+                    statement.setNull(p + 2, sqlTypes[p]);
+                } else {
+                    statement.setObject(p + 2, value, sqlTypes[p]);
+                }
+            }
+        }
+
+        private static int sqlType(Class<?> type) {
+            if (type == String.class) return Types.VARCHAR;
+            if (type == Integer.class) return Types.INTEGER;
+            if (type == Long.class) return Types.BIGINT;
+            if (type == Double.class) return Types.DOUBLE;
+            if (type == Boolean.class) return Types.BOOLEAN;
+            if (type == BigDecimal.class) return Types.DECIMAL;
+            if (type == java.sql.Date.class) return Types.DATE;
+            throw new IllegalStateException("Unsupported column type " + type.getName());
+        }
+    }
+}
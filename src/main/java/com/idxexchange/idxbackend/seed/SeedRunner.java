@@ -0,0 +1,45 @@
+package com.idxexchange.idxbackend.seed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds rets_property with synthetic listings on startup when idx.seed.rows is set, e.g.
+ * {@code java -jar idx-backend-exec.jar --idx.seed.rows=1000000 --idx.seed.exit=true}
+ */
+@Component
+public class SeedRunner implements ApplicationRunner {
+
+    @Autowired
+    private PropertySeeder propertySeeder;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    // Unset: nothing to seed. Read at runtime, so AOT builds can seed too
+    @Value("${idx.seed.rows:0}")
+    private long rows;
+
+    @Value("${idx.seed.seed:42}")
+    private long seed;
+
+    // Stop the application once seeding is done instead of serving requests
+    @Value("${idx.seed.exit:false}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (rows <= 0) {
+            return;
+        }
+        propertySeeder.seed(rows, seed);
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
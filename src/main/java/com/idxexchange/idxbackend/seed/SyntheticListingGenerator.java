@@ -0,0 +1,318 @@
+package com.idxexchange.idxbackend.seed;
+
+import com.idxexchange.idxbackend.model.Property;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic California listings for load and scale testing.
+ *
+ * Every listing is derived from (seed, id) alone, so any id range can be generated
+ * independently and in parallel, and the same seed always yields the same table.
+ * Cities are drawn by population weight; zip codes and coordinates fall inside the city;
+ * square footage follows bedrooms, price follows square footage and the city's price per
+ * square foot; YN flags are often missing, as in the MLS feed.
+ */
+public class SyntheticListingGenerator {
+
+    /**
+     * City, county, first zip code and number of zip codes, bounding box, population weight
+     * (thousands), median price per square foot, and how common private pools are
+     */
+    record City(String name, String county, int zipStart, int zipCount,
+                double minLat, double maxLat, double minLon, double maxLon,
+                int weight, int pricePerSqft, double poolRate) {
+    }
+
+    static final City[] CITIES = {
+        new City("Los Angeles", "Los Angeles", 90001, 89, 33.90, 34.18, -118.52, -118.20, 3900, 650, 0.20),
+        new City("San Diego", "San Diego", 92101, 54, 32.68, 32.98, -117.25, -117.05, 1390, 680, 0.22),
+        new City("San Jose", "Santa Clara", 95110, 30, 37.24, 37.40, -121.96, -121.78, 970, 850, 0.15),
+        new City("San Francisco", "San Francisco", 94102, 30, 37.71, 37.80, -122.51, -122.39, 810, 1050, 0.02),
+        new City("Fresno", "Fresno", 93701, 30, 36.70, 36.86, -119.88, -119.70, 545, 250, 0.35),
+        new City("Sacramento", "Sacramento", 95811, 34, 38.47, 38.65, -121.54, -121.38, 525, 330, 0.30),
+        new City("Long Beach", "Los Angeles", 90802, 14, 33.75, 33.87, -118.22, -118.10, 450, 560, 0.10),
+        new City("Oakland", "Alameda", 94601, 21, 37.73, 37.85, -122.28, -122.15, 435, 600, 0.05),
+        new City("Bakersfield", "Kern", 93301, 14, 35.30, 35.42, -119.15, -118.92, 410, 220, 0.40),
+        new City("Anaheim", "Orange", 92801, 8, 33.80, 33.87, -117.98, -117.75, 345, 580, 0.25),
+        new City("Santa Ana", "Orange", 92701, 7, 33.69, 33.76, -117.93, -117.84, 310, 560, 0.15),
+        new City("Riverside", "Riverside", 92501, 9, 33.88, 34.00, -117.48, -117.32, 315, 380, 0.35),
+        new City("Irvine", "Orange", 92602, 19, 33.62, 33.73, -117.85, -117.72, 310, 780, 0.20),
+        new City("Stockton", "San Joaquin", 95202, 15, 37.91, 38.05, -121.37, -121.24, 320, 270, 0.30),
+        new City("Chula Vista", "San Diego", 91910, 6, 32.58, 32.66, -117.10, -116.94, 275, 520, 0.25),
+        new City("Fremont", "Alameda", 94536, 4, 37.48, 37.58, -122.05, -121.90, 230, 900, 0.12),
+        new City("Santa Clarita", "Los Angeles", 91350, 6, 34.36, 34.46, -118.58, -118.44, 225, 480, 0.35),
+        new City("Modesto", "Stanislaus", 95350, 8, 37.60, 37.70, -121.08, -120.92, 220, 290, 0.30),
+        new City("Oxnard", "Ventura", 93030, 6, 34.15, 34.24, -119.23, -119.13, 200, 520, 0.10),
+        new City("Glendale", "Los Angeles", 91201, 8, 34.13, 34.22, -118.29, -118.20, 195, 640, 0.18),
+        new City("Huntington Beach", "Orange", 92646, 4, 33.63, 33.75, -118.05, -117.95, 195, 760, 0.12),
+        new City("Rancho Cucamonga", "San Bernardino", 91701, 5, 34.08, 34.17, -117.63, -117.52, 175, 430, 0.40),
+        new City("Pasadena", "Los Angeles", 91101, 7, 34.12, 34.20, -118.18, -118.07, 135, 720, 0.25),
+        new City("Torrance", "Los Angeles", 90501, 5, 33.79, 33.89, -118.39, -118.30, 145, 640, 0.10),
+        new City("Roseville", "Placer", 95661, 4, 38.72, 38.81, -121.36, -121.22, 155, 330, 0.40),
+        new City("Temecula", "Riverside", 92589, 4, 33.46, 33.55, -117.20, -117.07, 110, 330, 0.45),
+        new City("Santa Barbara", "Santa Barbara", 93101, 10, 34.40, 34.46, -119.77, -119.65, 90, 1100, 0.20),
+        new City("Palo Alto", "Santa Clara", 94301, 4, 37.38, 37.46, -122.19, -122.09, 65, 1800, 0.25),
+        new City("Newport Beach", "Orange", 92657, 5, 33.58, 33.66, -117.95, -117.83, 85, 1300, 0.25),
+        new City("Malibu", "Los Angeles", 90263, 3, 34.01, 34.06, -118.95, -118.65, 10, 1500, 0.55)
+    };
+
+    private static final String[] STREET_NAMES = {
+        "Main", "Oak", "Pine", "Maple", "Cedar", "Elm", "Washington", "Lake", "Hill", "Sunset",
+        "Park", "Vista", "Mission", "Ocean", "Canyon", "Palm", "Willow", "Magnolia", "Olive", "Sierra"
+    };
+    private static final String[] STREET_SUFFIXES = {"St", "Ave", "Blvd", "Dr", "Ln", "Ct", "Way", "Pl"};
+    private static final String[] FIRST_NAMES = {"Maria", "James", "Linda", "David", "Sofia", "Michael", "Emily", "Daniel", "Grace", "Kevin"};
+    private static final String[] LAST_NAMES = {"Garcia", "Nguyen", "Smith", "Kim", "Lopez", "Patel", "Johnson", "Chen", "Martinez", "Brown"};
+    private static final String[] OFFICES = {"Coldwell Banker Realty", "Compass", "Keller Williams Realty", "Redfin", "RE/MAX Gold", "Berkshire Hathaway HomeServices"};
+    private static final String[] REMARK_PHRASES = {
+        "Beautifully updated home on a quiet street with an open floor plan and abundant natural light.",
+        "Chef's kitchen with quartz counters, stainless steel appliances and a large center island.",
+        "Private backyard with mature landscaping, a covered patio and plenty of room to entertain.",
+        "Walking distance to parks, shopping, restaurants and highly rated schools.",
+        "Primary suite with a walk-in closet and a spa-like bathroom with dual vanities.",
+        "Recent upgrades include a new roof, dual pane windows, central air and fresh interior paint.",
+        "Hardwood floors throughout, recessed lighting and a cozy family room.",
+        "Easy access to freeways, public transit and major employers."
+    };
+    private static final String[] APPLIANCES = {"Dishwasher", "Gas Range", "Microwave", "Refrigerator", "Range Hood", "Water Heater", "Disposal"};
+    private static final String[] INTERIOR_FEATURES = {"Ceiling Fan(s)", "Open Floorplan", "Quartz Counters", "Recessed Lighting", "Walk-In Closet(s)", "High Ceilings"};
+    private static final String[] VIEWS = {"City Lights", "Mountain(s)", "Ocean", "Hills", "Park/Greenbelt", "Canyon"};
+    private static final String[] CONDITIONS = {"Turnkey", "Updated/Remodeled", "Fixer", "Additions/Alterations"};
+    private static final LocalDate FIRST_LISTING_DATE = LocalDate.of(2023, 1, 1);
+
+    private final long seed;
+    private final long[] cumulativeWeights;
+
+    public SyntheticListingGenerator(long seed) {
+        this.seed = seed;
+        cumulativeWeights = new long[CITIES.length];
+        long total = 0;
+        for (int i = 0; i < CITIES.length; i++) {
+            total += CITIES[i].weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * The listing with the given id; the same (seed, id) always yields the same listing
+     */
+    public Property generate(long id) {
+        SplittableRandom random = new SplittableRandom(mix(seed, id));
+        City city = pickCity(random);
+
+        Property p = new Property();
+        p.setId(id);
+        p.setMlsNumber("SYN" + id);
+        p.setCity(city.name());
+        p.setCounty(city.county());
+        p.setState("CA");
+        p.setZip(String.valueOf(city.zipStart() + random.nextInt(city.zipCount())));
+        p.setLatitude(coordinate(city.minLat() + random.nextDouble() * (city.maxLat() - city.minLat())));
+        p.setLongitude(coordinate(city.minLon() + random.nextDouble() * (city.maxLon() - city.minLon())));
+        String street = STREET_NAMES[random.nextInt(STREET_NAMES.length)] + " " + STREET_SUFFIXES[random.nextInt(STREET_SUFFIXES.length)];
+        p.setAddressStreet(street);
+        p.setAddress((100 + random.nextInt(19900)) + " " + street);
+        p.setSubdivisionName(random.nextInt(3) == 0 ? null : city.name() + " " + STREET_NAMES[random.nextInt(STREET_NAMES.length)] + " Estates");
+
+        // Property type decides the size and price model
+        int typeRoll = random.nextInt(100);
+        String propertyClass;
+        String type;
+        if (typeRoll < 62) {
+            propertyClass = "Residential";
+            type = "SingleFamilyResidence";
+        } else if (typeRoll < 80) {
+            propertyClass = "Residential";
+            type = "Condominium";
+        } else if (typeRoll < 88) {
+            propertyClass = "Residential";
+            type = "Townhouse";
+        } else if (typeRoll < 94) {
+            propertyClass = "Residential Income";
+            type = random.nextBoolean() ? "Duplex" : "Quadruplex";
+        } else if (typeRoll < 98) {
+            propertyClass = "Land";
+            type = "UnimprovedLand";
+        } else {
+            propertyClass = "Commercial Sale";
+            type = "Commercial";
+        }
+        p.setProperty_class(propertyClass);
+        p.setHousehold_type(type);
+
+        boolean land = "Land".equals(propertyClass);
+        boolean attached = "Condominium".equals(type) || "Townhouse".equals(type);
+        int lotSize = land ? 5000 + random.nextInt(200000) : attached ? 0 : 3000 + (int) (Math.abs(random.nextDouble() + random.nextDouble() - 1) * 12000);
+        p.setLotSizeSquareFeet(lotSize > 0 ? BigDecimal.valueOf(lotSize) : null);
+        p.setLand_size(lotSize > 0 ? lotSize : null);
+
+        double priceFactor = logNormal(random, 0.25);
+        if (land) {
+            p.setPrice(roundPrice(lotSize * city.pricePerSqft() * 0.015 * priceFactor));
+        } else {
+            int beds = attached ? 1 + weighted(random, 30, 45, 20, 5) : 1 + weighted(random, 5, 20, 38, 25, 9, 3);
+            int baths = Math.max(1, beds - random.nextInt(2) - (beds > 4 ? 1 : 0));
+            int sqft = (int) ((attached ? 450 : 600) + beds * (attached ? 380 : 420) * logNormal(random, 0.2));
+            double price = sqft * city.pricePerSqft() * priceFactor * (attached ? 0.85 : 1.0);
+            p.setBeds(beds);
+            p.setBaths(baths);
+            p.setBathroomsHalf(random.nextInt(3) == 0 ? 1 : 0);
+            p.setSquareFeet(sqft);
+            p.setPrice(roundPrice(price));
+            p.setStoriesTotal(attached ? 1 + random.nextInt(3) : sqft > 2400 ? 2 : 1 + random.nextInt(2));
+            p.setYear_built(yearBuilt(random));
+            p.setStructureType(attached ? "Multi Level" : "House");
+            p.setPropertyCondition(random.nextInt(4) == 0 ? null : CONDITIONS[random.nextInt(CONDITIONS.length)]);
+            Integer hoaFee = null;
+            if (attached) {
+                hoaFee = 250 + random.nextInt(500);
+            } else if (random.nextInt(5) == 0) {
+                hoaFee = 50 + random.nextInt(200);
+            }
+            p.setAssociationFee(hoaFee);
+            p.setAssociationFeeFrequency(p.getAssociationFee() != null ? "Monthly" : null);
+
+            // YN flags are frequently missing in the feed
+            p.setPoolPrivate(sparseFlag(random, attached ? 0.02 : city.poolRate()));
+            p.setFireplace(sparseFlag(random, 0.4));
+            p.setView(sparseFlag(random, 0.2));
+            p.setGarage(sparseFlag(random, attached ? 0.5 : 0.85));
+            p.setGarage_capacity(Boolean.TRUE.equals(p.getGarage()) ? 1 + random.nextInt(3) : null);
+            p.setCooling(sparseFlag(random, 0.75));
+            p.setHeating(sparseFlag(random, 0.9));
+            p.setCoolingType(Boolean.TRUE.equals(p.getCooling()) ? "Central Air" : null);
+            p.setHeatingType(Boolean.TRUE.equals(p.getHeating()) ? (random.nextBoolean() ? "Central" : "Forced Air") : null);
+            p.setViewDescription(Boolean.TRUE.equals(p.getView()) ? VIEWS[random.nextInt(VIEWS.length)] : null);
+            p.setAppliances(pickSome(random, APPLIANCES));
+            p.setInteriorFeatures(pickSome(random, INTERIOR_FEATURES));
+            p.setRemarks(remarks(random, p));
+        }
+
+        int statusRoll = random.nextInt(100);
+        String status = statusRoll < 70 ? "Active" : statusRoll < 85 ? "Pending" : "Closed";
+        p.setStatus(status);
+        p.setStandardStatus(status);
+        p.setDaysOnMarket((int) (logNormal(random, 0.9) * 20));
+        p.setListingContractDate(Date.valueOf(FIRST_LISTING_DATE.plusDays(random.nextInt(900))));
+
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        p.setAgentFirstName(firstName);
+        p.setAgentLastName(lastName);
+        p.setAgentFullName(firstName + " " + lastName);
+        p.setAgentEmail(firstName.toLowerCase() + "." + lastName.toLowerCase() + (id % 500) + "@example.com");
+        p.setAgentPhone("(" + (200 + random.nextInt(700)) + ") 555-" + (1000 + random.nextInt(9000)));
+        p.setOfficeName(OFFICES[random.nextInt(OFFICES.length)]);
+        p.setPhotos(photos(random, id, land ? 3 : 8 + random.nextInt(30)));
+        return p;
+    }
+
+    private City pickCity(SplittableRandom random) {
+        long roll = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return CITIES[i];
+            }
+        }
+        return CITIES[CITIES.length - 1];
+    }
+
+    private static int weighted(SplittableRandom random, int... weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static double logNormal(SplittableRandom random, double sigma) {
+        // Box-Muller; SplittableRandom has no nextGaussian
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        double gaussian = Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+        return Math.exp(gaussian * sigma);
+    }
+
+    private static String coordinate(double degrees) {
+        return String.valueOf(Math.round(degrees * 1_000_000) / 1_000_000.0);
+    }
+
+    private static double roundPrice(double price) {
+        return Math.max(1000, Math.round(price / 1000) * 1000.0);
+    }
+
+    private static int yearBuilt(SplittableRandom random) {
+        // Most of the stock was built between 1950 and 1990
+        int roll = random.nextInt(100);
+        if (roll < 10) return 1900 + random.nextInt(50);
+        if (roll < 70) return 1950 + random.nextInt(40);
+        if (roll < 92) return 1990 + random.nextInt(25);
+        return 2015 + random.nextInt(10);
+    }
+
+    private static Boolean sparseFlag(SplittableRandom random, double rate) {
+        if (random.nextInt(100) < 30) {
+            return null;
+        }
+        return random.nextDouble() < rate;
+    }
+
+    private static String pickSome(SplittableRandom random, String[] values) {
+        StringBuilder picked = new StringBuilder();
+        for (String value : values) {
+            if (random.nextInt(2) == 0) {
+                if (picked.length() > 0) {
+                    picked.append(',');
+                }
+                picked.append(value);
+            }
+        }
+        return picked.length() == 0 ? null : picked.toString();
+    }
+
+    private static String remarks(SplittableRandom random, Property p) {
+        StringBuilder remarks = new StringBuilder()
+                .append(p.getBeds()).append(" bedroom, ").append(p.getBaths()).append(" bath ")
+                .append("SingleFamilyResidence".equals(p.getHousehold_type()) ? "home" : p.getHousehold_type().toLowerCase())
+                .append(" in ").append(p.getCity()).append(". ");
+        int phrases = 2 + random.nextInt(5);
+        for (int i = 0; i < phrases; i++) {
+            remarks.append(REMARK_PHRASES[random.nextInt(REMARK_PHRASES.length)]).append(' ');
+        }
+        if (Boolean.TRUE.equals(p.getPoolPrivate())) {
+            remarks.append("Sparkling private pool. ");
+        }
+        return remarks.toString().trim();
+    }
+
+    private static String photos(SplittableRandom random, long id, int count) {
+        StringBuilder photos = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                photos.append(',');
+            }
+            photos.append("https://photos.example.com/listings/").append(id).append('/').append(i)
+                    .append('-').append(Integer.toHexString(random.nextInt(0x10000))).append(".jpg");
+        }
+        return photos.toString();
+    }
+
+    private static long mix(long seed, long id) {
+        // SplitMix64 finalizer, so neighbouring ids get unrelated streams
+        long z = seed * 0x9E3779B97F4A7C15L + id;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,317 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.dto.MarketStats;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.metrics.SearchMetrics;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyAggregateRepository.Aggregate;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import com.idxexchange.idxbackend.stats.MarketStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Answers simple data questions ("how many 3 bed homes are in Irvine?",
+ * "what's the average price in Fresno?") directly from database aggregates,
+ * so the chatbot only calls the LLM for everything else.
+ */
+@Service
+@Lazy
+public class ChatIntentService {
+
+    private static final String LISTING_NOUN = "(?:homes?|houses?|properties|property|listings?|condos?|townhouses?|apartments?)";
+
+    // Count questions must ask about listings, not e.g. "how many bedrooms do I need"
+    private static final Pattern COUNT_PATTERN = Pattern.compile(
+        "\\b(?:how many|number of|count of)\\s+(?:\\S+\\s+){0,3}?" + LISTING_NOUN + "\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    // "how many homes should I tour before buying?" asks for advice, not a count
+    private static final Pattern ADVICE_PATTERN = Pattern.compile(
+        "\\b(?:should|must|do|can|would|will)\\s+(?:i|we)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    // Count questions without a location or filter must still ask about the listings on file
+    private static final Pattern COUNT_DATA_PATTERN = Pattern.compile(
+        "\\b(?:are there|is there|do you have|listed|for sale|available|on the market|in total|in (?:the|your) (?:database|mls))\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern AVERAGE_PATTERN = Pattern.compile(
+        "\\b(?:average|avg|mean|typical)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern MIN_PRICE_PATTERN = Pattern.compile(
+        "\\b(?:cheapest|least expensive|lowest[- ]priced|(?:lowest|minimum|min)\\s+(?:price|cost))\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern MAX_PRICE_PATTERN = Pattern.compile(
+        "\\b(?:most expensive|priciest|highest[- ]priced|(?:highest|maximum|max)\\s+(?:price|cost))\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern MIN_SIZE_PATTERN = Pattern.compile("\\bsmallest\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern MAX_SIZE_PATTERN = Pattern.compile("\\b(?:largest|biggest)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SIZE_METRIC_PATTERN = Pattern.compile(
+        "\\b(?:size|sq\\s*ft|sqft|square\\s*feet|square\\s*footage)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern PRICE_METRIC_PATTERN = Pattern.compile(
+        "\\b(?:price|cost|listing price|asking price)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern MEDIAN_PATTERN = Pattern.compile("\\bmedian\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern PRICE_PER_SQFT_PATTERN = Pattern.compile(
+        "\\b(?:price|cost)\\s+(?:per|a|/)\\s*(?:sq\\.?\\s*ft|sqft|square\\s*foot|square\\s*feet)\\b|\\$\\s*/\\s*(?:sq\\s*ft|sqft)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern DAYS_ON_MARKET_PATTERN = Pattern.compile(
+        "\\b(?:days on (?:the )?market|how long (?:do |does |will )?(?:\\S+\\s+){0,3}?(?:stay|sit|take to sell|last))\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    // Filters the market statistics are kept by; questions with other filters go to the LLM
+    private static final Set<String> MARKET_STATS_FILTERS = Set.of("city", "zip", "beds", "minBeds");
+
+    enum Intent {
+        COUNT, AVERAGE_PRICE, AVERAGE_SIZE, MIN_PRICE, MAX_PRICE, MIN_SIZE, MAX_SIZE,
+        MEDIAN_PRICE, PRICE_PER_SQFT, DAYS_ON_MARKET;
+
+        boolean usesMarketStats() {
+            return this == MEDIAN_PRICE || this == PRICE_PER_SQFT || this == DAYS_ON_MARKET;
+        }
+    }
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private MarketStatsService marketStatsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter answeredLocally;
+    private Counter passedToLlm;
+
+    @PostConstruct
+    void registerMetrics() {
+        answeredLocally = meterRegistry.counter("chatbot.messages", "route", "local");
+        passedToLlm = meterRegistry.counter("chatbot.messages", "route", "llm");
+        Gauge.builder("chatbot.messages.local.share", this, ChatIntentService::localShare)
+                .description("Share of chat messages answered without an LLM call")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Try to answer a chat message from the database.
+     *
+     * @return the answer text, or empty if the message should go to the LLM
+     */
+    public Optional<String> tryAnswer(String userMessage) {
+        Intent intent = classify(userMessage);
+        if (intent == null) {
+            passedToLlm.increment();
+            return Optional.empty();
+        }
+
+        PropertySearchQuery query = nlpQueryParserService.parseQuery(userMessage);
+        if (intent == Intent.COUNT && !asksForListings(userMessage, query)) {
+            passedToLlm.increment();
+            return Optional.empty();
+        }
+        if (intent.usesMarketStats() && !fitsMarketStats(query)) {
+            passedToLlm.increment();
+            return Optional.empty();
+        }
+        Specification<Property> spec = intent.usesMarketStats() ? null : propertyService.buildSpecificationFromNLPQuery(query);
+        MarketStats stats = intent.usesMarketStats()
+                ? marketStatsService.stats(query.getCity(), query.getZip(), query.getBeds(), query.getMinBeds())
+                : null;
+        String scope = describe(query);
+
+        String answer = switch (intent) {
+            case COUNT -> {
+                long count = spec == null ? propertyRepository.count() : propertyRepository.count(spec);
+                yield "There " + (count == 1 ? "is " : "are ") + String.format("%,d", count) +
+                      (count == 1 ? " listing" : " listings") + scope + ".";
+            }
+            case AVERAGE_PRICE -> priceAnswer("The average price", propertyRepository.aggregate(spec, "price", Aggregate.AVG), scope);
+            case MIN_PRICE -> priceAnswer("The lowest price", propertyRepository.aggregate(spec, "price", Aggregate.MIN), scope);
+            case MAX_PRICE -> priceAnswer("The highest price", propertyRepository.aggregate(spec, "price", Aggregate.MAX), scope);
+            case AVERAGE_SIZE -> sizeAnswer("The average size of listings", propertyRepository.aggregate(spec, "squareFeet", Aggregate.AVG), scope);
+            case MIN_SIZE -> sizeAnswer("The smallest listing", propertyRepository.aggregate(spec, "squareFeet", Aggregate.MIN), scope);
+            case MAX_SIZE -> sizeAnswer("The largest listing", propertyRepository.aggregate(spec, "squareFeet", Aggregate.MAX), scope);
+            case MEDIAN_PRICE -> priceAnswer("The median price", stats.getMedianPrice(), scope);
+            case PRICE_PER_SQFT -> stats.getMedianPricePerSquareFoot() == null
+                    ? "I couldn't find any listings with a price and square footage" + scope + "."
+                    : "The median price per square foot for listings" + scope + " is $" +
+                      String.format("%,.0f", stats.getMedianPricePerSquareFoot()) + ".";
+            case DAYS_ON_MARKET -> stats.getMedianDaysOnMarket() == null
+                    ? "I couldn't find any listings with days on market" + scope + "."
+                    : "Listings" + scope + " have been on the market for a median of " +
+                      String.format("%,.0f", stats.getMedianDaysOnMarket()) + " days.";
+        };
+
+        answeredLocally.increment();
+        return Optional.of(answer);
+    }
+
+    /**
+     * Classify a message as one of the supported aggregate questions, or null
+     */
+    Intent classify(String message) {
+        if (message == null || message.isBlank()) {
+            return null;
+        }
+        if (COUNT_PATTERN.matcher(message).find() && !ADVICE_PATTERN.matcher(message).find()) {
+            return Intent.COUNT;
+        }
+        // Checked before averages, which answer "average price per sqft" with the average price
+        if (PRICE_PER_SQFT_PATTERN.matcher(message).find()) {
+            return Intent.PRICE_PER_SQFT;
+        }
+        if (DAYS_ON_MARKET_PATTERN.matcher(message).find()) {
+            return Intent.DAYS_ON_MARKET;
+        }
+        if (MEDIAN_PATTERN.matcher(message).find()) {
+            return SIZE_METRIC_PATTERN.matcher(message).find() ? null : Intent.MEDIAN_PRICE;
+        }
+        if (AVERAGE_PATTERN.matcher(message).find()) {
+            if (SIZE_METRIC_PATTERN.matcher(message).find()) {
+                return Intent.AVERAGE_SIZE;
+            }
+            if (PRICE_METRIC_PATTERN.matcher(message).find()) {
+                return Intent.AVERAGE_PRICE;
+            }
+            return null;
+        }
+        if (MIN_PRICE_PATTERN.matcher(message).find()) {
+            return Intent.MIN_PRICE;
+        }
+        if (MAX_PRICE_PATTERN.matcher(message).find()) {
+            return Intent.MAX_PRICE;
+        }
+        if (MIN_SIZE_PATTERN.matcher(message).find()) {
+            return Intent.MIN_SIZE;
+        }
+        if (MAX_SIZE_PATTERN.matcher(message).find()) {
+            return Intent.MAX_SIZE;
+        }
+        return null;
+    }
+
+    /**
+     * Whether a count question names a location or filter, or asks what is listed
+     */
+    private static boolean asksForListings(String message, PropertySearchQuery query) {
+        return !SearchMetrics.shape(query).equals("none") || COUNT_DATA_PATTERN.matcher(message).find();
+    }
+
+    private static boolean fitsMarketStats(PropertySearchQuery query) {
+        String shape = SearchMetrics.shape(query);
+        return shape.equals("none") || MARKET_STATS_FILTERS.containsAll(List.of(shape.split("\\+")));
+    }
+
+    private String priceAnswer(String label, Double value, String scope) {
+        if (value == null) {
+            return "I couldn't find any listings with a price" + scope + ".";
+        }
+        return label + " for listings" + scope + " is $" + String.format("%,.0f", value) + ".";
+    }
+
+    private String sizeAnswer(String label, Double value, String scope) {
+        if (value == null) {
+            return "I couldn't find any listings with square footage" + scope + ".";
+        }
+        return label + scope + " is " + String.format("%,.0f", value) + " sqft.";
+    }
+
+    /**
+     * Describe the parsed filters, e.g. " with 3 beds in Irvine under $500,000"
+     */
+    private String describe(PropertySearchQuery query) {
+        List<String> parts = new ArrayList<>();
+
+        if (query.getBeds() != null) {
+            parts.add("with " + query.getBeds() + " beds");
+        } else if (query.getMinBeds() != null) {
+            parts.add("with " + query.getMinBeds() + "+ beds");
+        }
+        if (query.getBaths() != null) {
+            parts.add((parts.isEmpty() ? "with " : "and ") + query.getBaths() + " baths");
+        } else if (query.getMinBaths() != null) {
+            parts.add((parts.isEmpty() ? "with " : "and ") + query.getMinBaths() + "+ baths");
+        }
+
+        List<String> features = new ArrayList<>();
+        if (Boolean.TRUE.equals(query.getPoolPrivate())) features.add("a pool");
+        if (Boolean.TRUE.equals(query.getFireplace())) features.add("a fireplace");
+        if (Boolean.TRUE.equals(query.getView())) features.add("a view");
+        if (Boolean.TRUE.equals(query.getGarage())) features.add("a garage");
+        if (!features.isEmpty()) {
+            parts.add((parts.isEmpty() ? "with " : "and ") + String.join(", ", features));
+        }
+
+        if (query.getPropertyType() != null) {
+            parts.add("of type " + query.getPropertyType().toLowerCase());
+        }
+        if (query.getCity() != null) {
+            parts.add("in " + query.getCity());
+        }
+        if (query.getCounty() != null) {
+            String county = query.getCounty();
+            parts.add("in " + (county.toLowerCase().endsWith("county") ? county : county + " County"));
+        }
+        if (query.getSubdivision() != null) {
+            parts.add("in " + query.getSubdivision());
+        }
+        if (query.getZip() != null) {
+            parts.add("in " + query.getZip());
+        }
+        if (query.getMinPrice() != null && query.getMaxPrice() != null) {
+            parts.add("between $" + String.format("%,.0f", query.getMinPrice()) +
+                      " and $" + String.format("%,.0f", query.getMaxPrice()));
+        } else if (query.getMaxPrice() != null) {
+            parts.add("under $" + String.format("%,.0f", query.getMaxPrice()));
+        } else if (query.getMinPrice() != null) {
+            parts.add("over $" + String.format("%,.0f", query.getMinPrice()));
+        }
+
+        return parts.isEmpty() ? "" : " " + String.join(" ", parts);
+    }
+
+    private double localShare() {
+        double local = answeredLocally.count();
+        double total = local + passedToLlm.count();
+        return total == 0 ? 0 : local / total;
+    }
+}
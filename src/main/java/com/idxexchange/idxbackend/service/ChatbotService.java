@@ -2,28 +2,39 @@ package com.idxexchange.idxbackend.service;
 
 import com.idxexchange.idxbackend.dto.ChatMessage;
 import com.idxexchange.idxbackend.dto.ChatResponse;
+import com.idxexchange.idxbackend.jfr.ChatbotCallEvent;
 import com.idxexchange.idxbackend.model.Property;
 import com.idxexchange.idxbackend.repository.PropertyRepository;
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.completion.chat.ChatCompletionChoice;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.service.OpenAiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for handling AI chatbot functionality
  * Provides context-aware responses about properties
+ * Like the rest of the chatbot stack it is created on the first chat request, not at startup
  */
 @Service
+@Lazy
 public class ChatbotService {
     
     @Value("${openai.api.key:}")
@@ -32,21 +43,91 @@ public class ChatbotService {
     @Value("${openai.model:gpt-3.5-turbo}")
     private String modelName;
     
+    // Alternative OpenAI-compatible endpoint, e.g. a stub LLM for load tests
+    @Value("${openai.base-url:}")
+    private String openAiBaseUrl;
+    
+    @Value("${openai.timeout-seconds:30}")
+    private long openAiTimeoutSeconds;
+    
+    // One client for all requests, so HTTP connections and threads are reused
+    private OpenAiService openAiService;
+    
     @Autowired
     private PropertyRepository propertyRepository;
     
+    @Autowired
+    private LeadCaptureService leadCaptureService;
+    
+    @Autowired
+    private ChatIntentService chatIntentService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @PostConstruct
+    void initOpenAiClient() {
+        if (openAiApiKey == null || openAiApiKey.isEmpty()) {
+            return;
+        }
+        OkHttpClient client = OpenAiService.defaultClient(openAiApiKey, Duration.ofSeconds(openAiTimeoutSeconds));
+        if (openAiBaseUrl != null && !openAiBaseUrl.isEmpty()) {
+            HttpUrl baseUrl = HttpUrl.get(openAiBaseUrl);
+            client = client.newBuilder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                    .url(chain.request().url().newBuilder()
+                        .scheme(baseUrl.scheme())
+                        .host(baseUrl.host())
+                        .port(baseUrl.port())
+                        .build())
+                    .build()))
+                .build();
+        }
+        OpenAiApi api = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper()).create(OpenAiApi.class);
+        openAiService = new OpenAiService(api, client.dispatcher().executorService());
+    }
+    
+    @PreDestroy
+    void shutdownOpenAiClient() {
+        if (openAiService != null) {
+            openAiService.shutdownExecutor();
+        }
+    }
+    
     /**
      * Process a chat message and generate an AI response
      */
     public ChatResponse processMessage(ChatMessage message) {
+        ChatbotCallEvent event = ChatbotCallEvent.start();
+        String route = "fallback";
         try {
+            // Update lead qualification data from the new message only
+            leadCaptureService.capture(message);
+            
+            // Answer count/average/min/max questions straight from the database
+            Optional<String> localAnswer = chatIntentService.tryAnswer(message.getContent());
+            if (localAnswer.isPresent()) {
+                route = "local";
+                return ChatResponse.builder()
+                    .message(localAnswer.get())
+                    .timestamp(System.currentTimeMillis())
+                    .suggestedQuestions(generateSuggestedQuestions(message.getContent()))
+                    .contextUsed("Property database aggregate")
+                    .sessionId(message.getSessionId())
+                    .build();
+            }
+            
             // Check if API key is configured
-            if (openAiApiKey == null || openAiApiKey.isEmpty()) {
+            if (openAiService == null) {
                 return createFallbackResponse(message);
             }
             
             // Build context from properties
+            long contextStart = System.nanoTime();
             String propertyContext = buildPropertyContext(message);
+            if (event != null) {
+                event.contextBuilt(System.nanoTime() - contextStart);
+            }
             
             // Build conversation messages
             List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
@@ -68,9 +149,6 @@ public class ChatbotService {
             // Add current user message
             messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", message.getContent()));
             
-            // Create OpenAI service
-            OpenAiService service = new OpenAiService(openAiApiKey, Duration.ofSeconds(30));
-            
             // Build request
             ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
                 .model(modelName)
@@ -80,31 +158,67 @@ public class ChatbotService {
                 .build();
             
             // Get response
-            List<ChatCompletionChoice> choices = service.createChatCompletion(completionRequest).getChoices();
+            List<ChatCompletionChoice> choices = createChatCompletion(completionRequest, event).getChoices();
             
             if (choices == null || choices.isEmpty()) {
                 return createFallbackResponse(message);
             }
             
+            route = "llm";
             String responseText = choices.get(0).getMessage().getContent();
             
-            // Extract lead qualification data if enough conversation history
-            if (message.getConversationHistory() != null && message.getConversationHistory().size() >= 2) {
-                extractLeadData(message.getConversationHistory(), message.getContent());
-            }
-            
             // Build response
             return ChatResponse.builder()
                 .message(responseText)
                 .timestamp(System.currentTimeMillis())
                 .suggestedQuestions(generateSuggestedQuestions(message.getContent()))
                 .contextUsed(propertyContext.isEmpty() ? "General knowledge" : "Property database context")
+                .sessionId(message.getSessionId())
                 .build();
             
         } catch (Exception e) {
             System.err.println("Error processing chat message: " + e.getMessage());
             e.printStackTrace();
             return createFallbackResponse(message);
+        } finally {
+            if (event != null) {
+                event.finish(route);
+            }
+        }
+    }
+    
+    /**
+     * Call the LLM, recording latency by outcome and token usage
+     */
+    private ChatCompletionResult createChatCompletion(ChatCompletionRequest request, ChatbotCallEvent event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        String outcome = "error";
+        long promptTokens = 0;
+        long completionTokens = 0;
+        try {
+            ChatCompletionResult result = openAiService.createChatCompletion(request);
+            outcome = result.getChoices() == null || result.getChoices().isEmpty() ? "empty" : "success";
+            if (result.getUsage() != null) {
+                promptTokens = result.getUsage().getPromptTokens();
+                completionTokens = result.getUsage().getCompletionTokens();
+                meterRegistry.counter("chatbot.llm.tokens", "model", modelName, "type", "prompt")
+                    .increment(promptTokens);
+                meterRegistry.counter("chatbot.llm.tokens", "model", modelName, "type", "completion")
+                    .increment(completionTokens);
+            }
+            return result;
+        } finally {
+            if (event != null) {
+                event.upstream(modelName, outcome, System.nanoTime() - start, promptTokens, completionTokens);
+            }
+            sample.stop(Timer.builder("chatbot.llm.requests")
+                .description("Chat completion calls to the LLM")
+                .tags("model", modelName, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofSeconds(openAiTimeoutSeconds))
+                .register(meterRegistry));
         }
     }
     
@@ -297,108 +411,6 @@ public class ChatbotService {
         }
     }
     
-    /**
-     * Extract lead qualification data from conversation
-     * This logs lead information for follow-up (can be saved to database in production)
-     */
-    private void extractLeadData(List<ChatMessage> conversationHistory, String currentMessage) {
-        Map<String, String> leadData = new HashMap<>();
-        
-        // Combine all user messages
-        StringBuilder userMessages = new StringBuilder();
-        for (ChatMessage msg : conversationHistory) {
-            if ("user".equals(msg.getRole())) {
-                userMessages.append(msg.getContent()).append(" ");
-            }
-        }
-        userMessages.append(currentMessage).append(" ");
-        String conversation = userMessages.toString().toLowerCase();
-        
-        // Extract budget mentions
-        if (conversation.matches(".*\\$?\\d{3,}k.*") || conversation.matches(".*\\$\\d{6,}.*")) {
-            leadData.put("budget_mentioned", "yes");
-            // Try to extract specific numbers
-            if (conversation.contains("500k") || conversation.contains("$500")) {
-                leadData.put("budget_range", "~500k");
-            } else if (conversation.contains("1m") || conversation.contains("million")) {
-                leadData.put("budget_range", "1M+");
-            } else if (conversation.contains("300k") || conversation.contains("$300")) {
-                leadData.put("budget_range", "~300k");
-            }
-        }
-        
-        // Extract location mentions
-        List<String> cities = Arrays.asList("los angeles", "san francisco", "san diego", 
-                                            "sacramento", "san jose", "oakland", "fresno", 
-                                            "long beach", "bakersfield", "anaheim");
-        for (String city : cities) {
-            if (conversation.contains(city)) {
-                leadData.put("preferred_city", city);
-                break;
-            }
-        }
-        
-        // Extract bedroom count
-        if (conversation.matches(".*(\\d+)\\s*(bed|bedroom).*")) {
-            leadData.put("bedrooms_mentioned", "yes");
-            if (conversation.contains("3 bed") || conversation.contains("3-bed")) {
-                leadData.put("bedrooms", "3");
-            } else if (conversation.contains("4 bed") || conversation.contains("4-bed")) {
-                leadData.put("bedrooms", "4");
-            } else if (conversation.contains("2 bed") || conversation.contains("2-bed")) {
-                leadData.put("bedrooms", "2");
-            }
-        }
-        
-        // Extract feature preferences
-        List<String> features = new ArrayList<>();
-        if (conversation.contains("pool")) features.add("pool");
-        if (conversation.contains("garage")) features.add("garage");
-        if (conversation.contains("view")) features.add("view");
-        if (conversation.contains("yard") || conversation.contains("backyard")) features.add("yard");
-        if (conversation.contains("fireplace")) features.add("fireplace");
-        if (!features.isEmpty()) {
-            leadData.put("desired_features", String.join(", ", features));
-        }
-        
-        // Extract urgency/timeline
-        if (conversation.contains("soon") || conversation.contains("asap") || 
-            conversation.contains("urgent") || conversation.contains("immediately")) {
-            leadData.put("urgency", "high");
-        } else if (conversation.contains("few months") || conversation.contains("3-6 months") ||
-                   conversation.contains("this year")) {
-            leadData.put("urgency", "medium");
-        } else if (conversation.contains("just looking") || conversation.contains("browsing") ||
-                   conversation.contains("exploring")) {
-            leadData.put("urgency", "low");
-        }
-        
-        // Extract buyer type
-        if (conversation.contains("first time") || conversation.contains("first-time")) {
-            leadData.put("buyer_type", "first-time");
-        } else if (conversation.contains("upgrade") || conversation.contains("upgrading")) {
-            leadData.put("buyer_type", "upgrading");
-        } else if (conversation.contains("relocat") || conversation.contains("moving")) {
-            leadData.put("buyer_type", "relocating");
-        } else if (conversation.contains("investment") || conversation.contains("investor")) {
-            leadData.put("buyer_type", "investor");
-        }
-        
-        // Log lead data for review (in production, save to database)
-        if (!leadData.isEmpty()) {
-            System.out.println("=== LEAD QUALIFICATION DATA CAPTURED ===");
-            leadData.forEach((key, value) -> 
-                System.out.println("  " + key + ": " + value)
-            );
-            System.out.println("  conversation_length: " + conversationHistory.size() + " exchanges");
-            System.out.println("  timestamp: " + System.currentTimeMillis());
-            System.out.println("=========================================");
-            
-            // TODO: In production, save to database or CRM
-            // Example: leadRepository.save(new Lead(leadData));
-        }
-    }
-    
     /**
      * Create a fallback response when AI service is unavailable
      */
@@ -422,6 +434,7 @@ public class ChatbotService {
                 "Show me example searches"
             ))
             .contextUsed("Fallback mode")
+            .sessionId(message.getSessionId())
             .build();
     }
 }
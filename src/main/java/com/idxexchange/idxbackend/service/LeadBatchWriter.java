@@ -0,0 +1,136 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.model.Lead;
+import com.idxexchange.idxbackend.repository.LeadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes lead snapshots to the chat_leads table off the request thread.
+ * Snapshots are queued in a bounded buffer and flushed in batches; when the
+ * buffer is full new snapshots are dropped and counted rather than blocking chat requests.
+ */
+@Component
+@Lazy
+public class LeadBatchWriter {
+
+    @Value("${leads.writer.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${leads.writer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${leads.writer.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<Lead> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    private Counter enqueued;
+    private Counter dropped;
+    private Counter written;
+    private Counter failed;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        enqueued = meterRegistry.counter("leads.writer.enqueued");
+        dropped = meterRegistry.counter("leads.writer.dropped");
+        written = meterRegistry.counter("leads.writer.written");
+        failed = meterRegistry.counter("leads.writer.failed");
+        Gauge.builder("leads.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        running = true;
+        worker = new Thread(this::run, "lead-batch-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queue a lead snapshot for persistence. Never blocks.
+     *
+     * @return false if the queue was full and the snapshot was dropped
+     */
+    public boolean submit(Lead lead) {
+        if (queue.offer(lead)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void run() {
+        List<Lead> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Lead first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                queue.drainTo(drained, batchSize - 1);
+                flush(drained);
+            } catch (InterruptedException e) {
+                // Shutting down - drain whatever is left on the next loop iteration
+                if (!running) {
+                    queue.drainTo(drained);
+                    flush(drained);
+                    return;
+                }
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void flush(List<Lead> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Several turns of the same session may be queued - only the latest snapshot matters
+        Map<String, Lead> latestBySession = new LinkedHashMap<>();
+        for (Lead lead : batch) {
+            latestBySession.put(lead.getSessionId(), lead);
+        }
+
+        try {
+            leadRepository.saveAll(latestBySession.values());
+            written.increment(latestBySession.size());
+        } catch (Exception e) {
+            failed.increment(latestBySession.size());
+            System.err.println("Error writing lead batch: " + e.getMessage());
+        }
+    }
+}
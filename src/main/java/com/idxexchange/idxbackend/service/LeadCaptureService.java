@@ -0,0 +1,213 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.dto.ChatMessage;
+import com.idxexchange.idxbackend.model.Lead;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Captures lead qualification data from chatbot conversations.
+ * State is kept per chat session and updated from each new user message only,
+ * so the work done on the request path does not grow with conversation length.
+ */
+@Service
+@Lazy
+public class LeadCaptureService {
+
+    private static final Pattern BUDGET_PATTERN = Pattern.compile("\\$?\\d{3,}k|\\$\\d{6,}");
+
+    private static final Pattern BEDROOM_PATTERN = Pattern.compile("(\\d+)\\s*-?\\s*bed");
+
+    private static final List<String> CITIES = List.of("los angeles", "san francisco", "san diego",
+                                                        "sacramento", "san jose", "oakland", "fresno",
+                                                        "long beach", "bakersfield", "anaheim");
+
+    @Value("${leads.sessions.max:10000}")
+    private int maxSessions;
+
+    @Autowired
+    private LeadBatchWriter leadBatchWriter;
+
+    private Map<String, LeadState> sessions;
+
+    @PostConstruct
+    void init() {
+        sessions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LeadState> eldest) {
+                return size() > maxSessions;
+            }
+        });
+    }
+
+    /**
+     * Update the session's lead state with the new user message and queue a snapshot
+     * for persistence; the message count changes with every message.
+     * Assigns a session id if the client did not send one, or sent one too long for chat_leads.
+     */
+    public void capture(ChatMessage message) {
+        if (message.getSessionId() == null || message.getSessionId().isBlank() ||
+            message.getSessionId().length() > Lead.SESSION_ID_LENGTH) {
+            message.setSessionId(UUID.randomUUID().toString());
+        }
+
+        LeadState state = sessions.get(message.getSessionId());
+        if (state == null) {
+            LeadState created = new LeadState(message.getSessionId());
+            state = sessions.putIfAbsent(message.getSessionId(), created);
+            if (state == null) {
+                state = created;
+                // Clients without a session id yet still send recent history - absorb it once
+                if (message.getConversationHistory() != null) {
+                    for (ChatMessage historyMsg : message.getConversationHistory()) {
+                        if ("user".equals(historyMsg.getRole())) {
+                            state.absorb(historyMsg.getContent());
+                        }
+                    }
+                }
+            }
+        }
+
+        Lead snapshot;
+        synchronized (state) {
+            state.absorb(message.getContent());
+            snapshot = state.toLead();
+        }
+        leadBatchWriter.submit(snapshot);
+    }
+
+    /**
+     * Incrementally maintained lead data for a single chat session.
+     */
+    static class LeadState {
+        private final String sessionId;
+        private final Instant firstSeenAt = Instant.now();
+        private int messageCount;
+
+        private boolean budgetMentioned;
+        private String budgetRange;
+        private String preferredCity;
+        private Integer bedrooms;
+        private final Set<String> desiredFeatures = new LinkedHashSet<>();
+        private String urgency;
+        private String buyerType;
+
+        LeadState(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        /**
+         * Extract lead signals from one user message. Later mentions override earlier ones,
+         * except features which accumulate over the session.
+         */
+        synchronized void absorb(String content) {
+            messageCount++;
+            if (content == null || content.isEmpty()) {
+                return;
+            }
+            String text = content.toLowerCase();
+
+            // Extract budget mentions
+            if (BUDGET_PATTERN.matcher(text).find()) {
+                budgetMentioned = true;
+                String range = null;
+                if (text.contains("500k") || text.contains("$500")) {
+                    range = "~500k";
+                } else if (text.contains("1m") || text.contains("million")) {
+                    range = "1M+";
+                } else if (text.contains("300k") || text.contains("$300")) {
+                    range = "~300k";
+                }
+                if (range != null) {
+                    budgetRange = range;
+                }
+            }
+
+            // Extract location mentions
+            for (String city : CITIES) {
+                if (text.contains(city)) {
+                    preferredCity = city;
+                    break;
+                }
+            }
+
+            // Extract bedroom count
+            Matcher bedMatcher = BEDROOM_PATTERN.matcher(text);
+            if (bedMatcher.find()) {
+                try {
+                    bedrooms = Integer.valueOf(bedMatcher.group(1));
+                } catch (NumberFormatException ignored) {
+                    // Absurdly long digit runs are not a bedroom count
+                }
+            }
+
+            // Extract feature preferences
+            if (text.contains("pool")) desiredFeatures.add("pool");
+            if (text.contains("garage")) desiredFeatures.add("garage");
+            if (text.contains("view")) desiredFeatures.add("view");
+            if (text.contains("yard")) desiredFeatures.add("yard");
+            if (text.contains("fireplace")) desiredFeatures.add("fireplace");
+
+            // Extract urgency/timeline
+            String newUrgency = null;
+            if (text.contains("soon") || text.contains("asap") ||
+                text.contains("urgent") || text.contains("immediately")) {
+                newUrgency = "high";
+            } else if (text.contains("few months") || text.contains("3-6 months") ||
+                       text.contains("this year")) {
+                newUrgency = "medium";
+            } else if (text.contains("just looking") || text.contains("browsing") ||
+                       text.contains("exploring")) {
+                newUrgency = "low";
+            }
+            if (newUrgency != null) {
+                urgency = newUrgency;
+            }
+
+            // Extract buyer type
+            String newBuyerType = null;
+            if (text.contains("first time") || text.contains("first-time")) {
+                newBuyerType = "first-time";
+            } else if (text.contains("upgrade") || text.contains("upgrading")) {
+                newBuyerType = "upgrading";
+            } else if (text.contains("relocat") || text.contains("moving")) {
+                newBuyerType = "relocating";
+            } else if (text.contains("investment") || text.contains("investor")) {
+                newBuyerType = "investor";
+            }
+            if (newBuyerType != null) {
+                buyerType = newBuyerType;
+            }
+        }
+
+        synchronized Lead toLead() {
+            Lead lead = new Lead();
+            lead.setSessionId(sessionId);
+            lead.setBudgetMentioned(budgetMentioned);
+            lead.setBudgetRange(budgetRange);
+            lead.setPreferredCity(preferredCity);
+            lead.setBedrooms(bedrooms);
+            lead.setDesiredFeatures(desiredFeatures.isEmpty() ? null : String.join(", ", desiredFeatures));
+            lead.setUrgency(urgency);
+            lead.setBuyerType(buyerType);
+            lead.setMessageCount(messageCount);
+            lead.setFirstSeenAt(firstSeenAt);
+            lead.setUpdatedAt(Instant.now());
+            return lead;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes single listings and publishes a {@link PropertyChangedEvent} for each change,
+ * which listeners receive once the transaction commits
+ */
+@Service
+public class PropertyIngestionService {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Insert or update a listing by id
+     */
+    @Transactional
+    public Property save(Property property) {
+        Property before = property.getId() == null ? null
+                : propertyRepository.findById(property.getId()).map(this::snapshot).orElse(null);
+        Property saved = propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(before, snapshot(saved)));
+        return saved;
+    }
+
+    /**
+     * Delete a listing
+     *
+     * @return false if there was no listing with the id
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        Property before = propertyRepository.findById(id).map(this::snapshot).orElse(null);
+        if (before == null) {
+            return false;
+        }
+        propertyRepository.deleteById(id);
+        eventPublisher.publishEvent(new PropertyChangedEvent(before, null));
+        return true;
+    }
+
+    // Detached copy, since the managed entity changes with later writes
+    private Property snapshot(Property property) {
+        Property copy = new Property();
+        BeanUtils.copyProperties(property, copy);
+        return copy;
+    }
+}
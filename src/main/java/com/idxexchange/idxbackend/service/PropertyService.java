@@ -1,14 +1,22 @@
 package com.idxexchange.idxbackend.service;
 
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.dto.PropertyProjection;
 import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.metrics.SearchMetrics;
 import com.idxexchange.idxbackend.model.Property;
 import com.idxexchange.idxbackend.repository.PropertyRepository;
 import com.idxexchange.idxbackend.specification.PropertySpecification;
+import com.idxexchange.idxbackend.warmup.WarmupRecorder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class PropertyService {
@@ -19,6 +27,15 @@ public class PropertyService {
     @Autowired
     private NLPQueryParserService nlpQueryParserService;
 
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private SearchCoalescer searchCoalescer;
+
+    @Autowired
+    private WarmupRecorder warmupRecorder;
+
     public Page<Property> searchProperties(
             String city,
             String state,
@@ -31,61 +48,54 @@ public class PropertyService {
             Integer minBaths,
             Pageable pageable) {
 
-        Specification<Property> spec = buildSpecification(
-                city, state, zip,
-                minPrice, maxPrice,
-                beds, minBeds,
-                baths, minBaths
-        );
+        long start = System.nanoTime();
+        PropertySearchQuery filters = filters(city, state, zip, minPrice, maxPrice, beds, minBeds, baths, minBaths);
+        warmupRecorder.search(filters);
+        return search(SearchMetrics.TYPE_FILTERS, filters, null, pageable, start,
+                () -> repository.search(filters, pageable));
+    }
 
-        if (spec == null) {
-            return repository.findAll(pageable);
-        }
-        return repository.findAll(spec, pageable);
+    /**
+     * Search properties selecting only some fields of each listing
+     */
+    public Page<PropertyProjection> searchProperties(
+            String city,
+            String state,
+            String zip,
+            Double minPrice,
+            Double maxPrice,
+            Integer beds,
+            Integer minBeds,
+            Integer baths,
+            Integer minBaths,
+            PropertyFields fields,
+            Pageable pageable) {
+
+        long start = System.nanoTime();
+        PropertySearchQuery filters = filters(city, state, zip, minPrice, maxPrice, beds, minBeds, baths, minBaths);
+        warmupRecorder.search(filters);
+        return search(SearchMetrics.TYPE_FILTERS, filters, fields, pageable, start,
+                () -> repository.search(filters, fields, pageable));
     }
 
-    private Specification<Property> buildSpecification(
+    private static PropertySearchQuery filters(
             String city, String state, String zip,
             Double minPrice, Double maxPrice,
             Integer beds, Integer minBeds,
             Integer baths, Integer minBaths) {
+        return PropertySearchQuery.builder()
+                .city(city).state(state).zip(zip)
+                .minPrice(minPrice).maxPrice(maxPrice)
+                .beds(beds).minBeds(minBeds)
+                .baths(baths).minBaths(minBaths)
+                .build();
+    }
 
-        Specification<Property> spec = null;
-
-        // Location filters
-        if (city != null && !city.trim().isEmpty()) {
-            spec = combineSpec(spec, PropertySpecification.hasCity(city));
-        }
-        if (state != null && !state.trim().isEmpty()) {
-            spec = combineSpec(spec, PropertySpecification.hasState(state));
-        }
-        if (zip != null && !zip.trim().isEmpty()) {
-            spec = combineSpec(spec, PropertySpecification.hasZip(zip));
-        }
-
-        // Price filters
-        if (minPrice != null) {
-            spec = combineSpec(spec, PropertySpecification.priceGreaterThanOrEqual(minPrice));
-        }
-        if (maxPrice != null) {
-            spec = combineSpec(spec, PropertySpecification.priceLessThanOrEqual(maxPrice));
-        }
-
-        // Bedroom filters
-        if (beds != null) {
-            spec = combineSpec(spec, PropertySpecification.hasBeds(beds));
-        } else if (minBeds != null) {
-            spec = combineSpec(spec, PropertySpecification.bedsGreaterThanOrEqual(minBeds));
-        }
-
-        // Bathroom filters
-        if (baths != null) {
-            spec = combineSpec(spec, PropertySpecification.hasBaths(baths));
-        } else if (minBaths != null) {
-            spec = combineSpec(spec, PropertySpecification.bathsGreaterThanOrEqual(minBaths));
-        }
-
-        return spec;
+    // Runs a search through the coalescer and records it
+    private <T> Page<T> search(String type, PropertySearchQuery filters, PropertyFields fields, Pageable pageable,
+                               long start, Supplier<Page<T>> query) {
+        return searchMetrics.record(type, SearchMetrics.shape(filters), pageable, start,
+                () -> searchCoalescer.execute(type, filters, fields, pageable, query));
     }
 
     private Specification<Property> combineSpec(Specification<Property> existing, Specification<Property> additional) {
@@ -95,27 +105,62 @@ public class PropertyService {
     public Page<Property> getAllProperties(Pageable pageable) {
         return repository.findAll(pageable);
     }
+
+    /**
+     * A listing with its {@link Property#DETAILS} columns loaded, for the detail view
+     */
+    @Transactional(readOnly = true)
+    public Optional<Property> findDetails(Long id) {
+        warmupRecorder.listing(id);
+        return repository.findDetailsById(id).map(property -> {
+            // Loads the whole lazy group in case a cached entry lacked it
+            property.getRemarks();
+            return property;
+        });
+    }
     
     /**
      * Search properties using natural language query
      */
     public Page<Property> searchPropertiesWithNLP(String naturalLanguageQuery, Pageable pageable) {
+        long start = System.nanoTime();
         // Parse the natural language query
         PropertySearchQuery searchQuery = nlpQueryParserService.parseQuery(naturalLanguageQuery);
+        warmupRecorder.nlpQuery(searchQuery);
         
-        // Build specification from parsed query
-        Specification<Property> spec = buildSpecificationFromNLPQuery(searchQuery);
-        
-        if (spec == null) {
-            return repository.findAll(pageable);
-        }
-        return repository.findAll(spec, pageable);
+        // Run the statement compiled for the parsed query's filters
+        return search(SearchMetrics.TYPE_NLP, searchQuery, null, pageable, start,
+                () -> repository.search(searchQuery, pageable));
+    }
+
+    /**
+     * Search properties using natural language query, selecting only some fields of each listing
+     */
+    public Page<PropertyProjection> searchPropertiesWithNLP(String naturalLanguageQuery, PropertyFields fields, Pageable pageable) {
+        long start = System.nanoTime();
+        PropertySearchQuery searchQuery = nlpQueryParserService.parseQuery(naturalLanguageQuery);
+        warmupRecorder.nlpQuery(searchQuery);
+        return search(SearchMetrics.TYPE_NLP, searchQuery, fields, pageable, start,
+                () -> repository.search(searchQuery, fields, pageable));
+    }
+    
+    /**
+     * Search with the filters of an already parsed natural language query
+     */
+    public Page<Property> searchParsedNLP(PropertySearchQuery searchQuery, Pageable pageable) {
+        long start = System.nanoTime();
+        warmupRecorder.nlpQuery(searchQuery);
+        return search(SearchMetrics.TYPE_NLP, searchQuery, null, pageable, start,
+                () -> repository.search(searchQuery, pageable));
     }
     
     /**
      * Build JPA Specification from parsed NLP query
+     * Returns null when the query has no filters
+     * Searches run the equivalent compiled statement (PropertyQueryCompiler); this is for
+     * callers that compose the filters with other criteria, such as aggregates
      */
-    private Specification<Property> buildSpecificationFromNLPQuery(PropertySearchQuery query) {
+    public Specification<Property> buildSpecificationFromNLPQuery(PropertySearchQuery query) {
         Specification<Property> spec = null;
         
         // Location filters
@@ -128,6 +173,12 @@ public class PropertyService {
         if (query.getZip() != null && !query.getZip().trim().isEmpty()) {
             spec = combineSpec(spec, PropertySpecification.hasZip(query.getZip()));
         }
+        if (query.getCounty() != null && !query.getCounty().trim().isEmpty()) {
+            spec = combineSpec(spec, PropertySpecification.hasCounty(query.getCounty()));
+        }
+        if (query.getSubdivision() != null && !query.getSubdivision().trim().isEmpty()) {
+            spec = combineSpec(spec, PropertySpecification.hasSubdivision(query.getSubdivision()));
+        }
         
         // Price filters
         if (query.getMinPrice() != null) {
@@ -0,0 +1,138 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical concurrent searches.
+ *
+ * The first request for a search runs it; requests for the same search that arrive while it is
+ * running wait for it and get the same result (or exception) instead of running their own query
+ * and count. Nothing is kept once the search completes, so results are never stale: this only
+ * collapses a burst of identical requests, such as a marketing email linking to one search.
+ * Disable with idx.search.coalesce.enabled=false.
+ */
+@Component
+public class SearchCoalescer {
+
+    /**
+     * Identifies a search: its type, canonical filters, selected fields (null for all) and page
+     */
+    record Key(String type, PropertySearchQuery filters, PropertyFields fields, Pageable pageable) {
+    }
+
+    @Value("${idx.search.coalesce.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter executed;
+    private Counter collapsed;
+
+    @PostConstruct
+    void registerMetrics() {
+        executed = Counter.builder("idx.search.coalesce")
+                .description("Searches by whether they ran or shared an identical search already running")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        collapsed = Counter.builder("idx.search.coalesce")
+                .description("Searches by whether they ran or shared an identical search already running")
+                .tag("result", "collapsed")
+                .register(meterRegistry);
+        Gauge.builder("idx.search.coalesce.in.flight", inFlight, Map::size)
+                .description("Distinct searches running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a search, or wait for an identical one that is already running
+     *
+     * @param type    search type, e.g. SearchMetrics.TYPE_FILTERS
+     * @param filters the search's filters; equal filters after {@link #canonical} share a run
+     */
+    public <T> T execute(String type, PropertySearchQuery filters, Pageable pageable, Supplier<T> search) {
+        return execute(type, filters, null, pageable, search);
+    }
+
+    /**
+     * Run a search selecting some fields, or wait for an identical one that is already running
+     *
+     * @param fields the fields selected, or null for whole listings
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String type, PropertySearchQuery filters, PropertyFields fields, Pageable pageable, Supplier<T> search) {
+        if (!enabled) {
+            return search.get();
+        }
+        Key key = new Key(type, canonical(filters), fields, pageable);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            collapsed.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        executed.increment();
+        try {
+            T result = search.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * The filters with everything that does not change the results normalized away: the wording
+     * of a natural language query, its confidence, the case of case-insensitive text, and blank text
+     */
+    static PropertySearchQuery canonical(PropertySearchQuery filters) {
+        return filters.toBuilder()
+                .city(lower(filters.getCity()))
+                .state(lower(filters.getState()))
+                .county(lower(filters.getCounty()))
+                .subdivision(lower(filters.getSubdivision()))
+                .propertyType(lower(filters.getPropertyType()))
+                .zip(blankToNull(filters.getZip()))
+                .originalQuery(null)
+                .confidenceScore(null)
+                .build();
+    }
+
+    private static String lower(String value) {
+        String text = blankToNull(value);
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,161 @@
+package com.idxexchange.idxbackend.specification;
+
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles property searches to parameterized JPQL, once per shape.
+ *
+ * A search's shape is the set of filters it uses, as a bitmask. Each shape is rendered to a select
+ * and a count statement the first time it is seen; later searches of the same shape reuse the
+ * same strings and only bind their values. Because the JPQL text is identical, Hibernate also
+ * reuses its parsed and translated plan, where a Criteria query built from Specifications is
+ * interpreted and rendered to SQL again on every request.
+ *
+ * The predicates are the ones {@link PropertySpecification} builds: text filters compare
+ * case-insensitively (zip exactly), blank text is ignored, an exact bed or bath count takes
+ * precedence over a minimum, and feature flags only filter when true.
+ */
+public final class PropertyQueryCompiler {
+
+    public static final String ALIAS = "p";
+
+    enum Filter {
+        CITY("lower(p.city) = :city", q -> hasText(q.getCity()), q -> lower(q.getCity())),
+        STATE("lower(p.state) = :state", q -> hasText(q.getState()), q -> lower(q.getState())),
+        ZIP("p.zip = :zip", q -> hasText(q.getZip()), PropertySearchQuery::getZip),
+        COUNTY("lower(p.county) = :county", q -> hasText(q.getCounty()), q -> lower(q.getCounty())),
+        SUBDIVISION("lower(p.subdivisionName) = :subdivision", q -> hasText(q.getSubdivision()), q -> lower(q.getSubdivision())),
+        MIN_PRICE("p.price >= :minPrice", q -> q.getMinPrice() != null, PropertySearchQuery::getMinPrice),
+        MAX_PRICE("p.price <= :maxPrice", q -> q.getMaxPrice() != null, PropertySearchQuery::getMaxPrice),
+        BEDS("p.beds = :beds", q -> q.getBeds() != null, PropertySearchQuery::getBeds),
+        MIN_BEDS("p.beds >= :minBeds", q -> q.getBeds() == null && q.getMinBeds() != null, PropertySearchQuery::getMinBeds),
+        BATHS("p.baths = :baths", q -> q.getBaths() != null, PropertySearchQuery::getBaths),
+        MIN_BATHS("p.baths >= :minBaths", q -> q.getBaths() == null && q.getMinBaths() != null, PropertySearchQuery::getMinBaths),
+        MIN_SQUARE_FEET("p.squareFeet >= :minSquareFeet", q -> q.getMinSquareFeet() != null, PropertySearchQuery::getMinSquareFeet),
+        MAX_SQUARE_FEET("p.squareFeet <= :maxSquareFeet", q -> q.getMaxSquareFeet() != null, PropertySearchQuery::getMaxSquareFeet),
+        POOL("p.poolPrivate = true", q -> Boolean.TRUE.equals(q.getPoolPrivate()), null),
+        FIREPLACE("p.fireplace = true", q -> Boolean.TRUE.equals(q.getFireplace()), null),
+        VIEW("p.view = true", q -> Boolean.TRUE.equals(q.getView()), null),
+        GARAGE("p.garage = true", q -> Boolean.TRUE.equals(q.getGarage()), null),
+        MIN_YEAR_BUILT("p.year_built >= :minYearBuilt", q -> q.getMinYearBuilt() != null, PropertySearchQuery::getMinYearBuilt),
+        MAX_YEAR_BUILT("p.year_built <= :maxYearBuilt", q -> q.getMaxYearBuilt() != null, PropertySearchQuery::getMaxYearBuilt),
+        PROPERTY_TYPE("(lower(p.household_type) like :propertyType or lower(p.property_class) like :propertyType)",
+                q -> hasText(q.getPropertyType()), q -> "%" + lower(q.getPropertyType()) + "%");
+
+        private final String predicate;
+        private final String parameter;
+        private final Predicate<PropertySearchQuery> present;
+        private final Function<PropertySearchQuery, Object> value;
+
+        Filter(String predicate, Predicate<PropertySearchQuery> present, Function<PropertySearchQuery, Object> value) {
+            this.predicate = predicate;
+            this.parameter = value == null ? null : predicate.replaceAll("(?s).*?:(\\w+).*", "$1");
+            this.present = present;
+            this.value = value;
+        }
+    }
+
+    private static final Filter[] FILTERS = Filter.values();
+
+    /**
+     * The rendered statements of one shape
+     *
+     * @param select JPQL selecting the matching listings, without an order by clause
+     * @param count  JPQL counting them
+     * @param where  the where clause of both, empty when there are no filters
+     */
+    public record Statement(int shape, String select, String count, String where, List<Filter> filters) {
+
+        /**
+         * JPQL selecting only some fields of the matching listings, each row an array of their values
+         */
+        public String select(PropertyFields fields) {
+            return "select " + fields.selectList(ALIAS) + " from Property p" + where;
+        }
+
+        /**
+         * Bind a search of this shape's values, by parameter name
+         */
+        public void bind(PropertySearchQuery query, ParameterBinder binder) {
+            for (Filter filter : filters) {
+                if (filter.parameter != null) {
+                    binder.bind(filter.parameter, filter.value.apply(query));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets a named parameter, e.g. jakarta.persistence.Query::setParameter
+     */
+    @FunctionalInterface
+    public interface ParameterBinder {
+        void bind(String name, Object value);
+    }
+
+    private static final Map<Integer, Statement> STATEMENTS = new ConcurrentHashMap<>();
+
+    private PropertyQueryCompiler() {
+    }
+
+    /**
+     * The statements for a search's shape, rendered on first use
+     */
+    public static Statement compile(PropertySearchQuery query) {
+        return STATEMENTS.computeIfAbsent(shape(query), PropertyQueryCompiler::render);
+    }
+
+    /**
+     * Bitmask of the filters a search uses
+     */
+    public static int shape(PropertySearchQuery query) {
+        int shape = 0;
+        for (Filter filter : FILTERS) {
+            if (filter.present.test(query)) {
+                shape |= 1 << filter.ordinal();
+            }
+        }
+        return shape;
+    }
+
+    private static Statement render(int shape) {
+        List<Filter> filters = new ArrayList<>();
+        for (Filter filter : FILTERS) {
+            if ((shape & (1 << filter.ordinal())) != 0) {
+                filters.add(filter);
+            }
+        }
+        String where = filters.isEmpty() ? ""
+                : filters.stream().map(filter -> filter.predicate).collect(Collectors.joining(" and ", " where ", ""));
+        return new Statement(shape,
+                "select p from Property p" + where,
+                "select count(p) from Property p" + where,
+                where,
+                List.copyOf(filters));
+    }
+
+    /**
+     * Number of shapes rendered so far
+     */
+    public static int size() {
+        return STATEMENTS.size();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
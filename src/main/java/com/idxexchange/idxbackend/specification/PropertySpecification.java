@@ -29,6 +29,30 @@ public class PropertySpecification {
         };
     }
 
+    public static Specification<Property> hasCounty(String county) {
+        return (root, query, criteriaBuilder) -> {
+            if (county == null || county.trim().isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.equal(
+                    criteriaBuilder.lower(root.get("county")),
+                    county.toLowerCase()
+            );
+        };
+    }
+
+    public static Specification<Property> hasSubdivision(String subdivision) {
+        return (root, query, criteriaBuilder) -> {
+            if (subdivision == null || subdivision.trim().isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.equal(
+                    criteriaBuilder.lower(root.get("subdivisionName")),
+                    subdivision.toLowerCase()
+            );
+        };
+    }
+
     public static Specification<Property> hasZip(String zip) {
         return (root, query, criteriaBuilder) -> {
             if (zip == null || zip.trim().isEmpty()) {
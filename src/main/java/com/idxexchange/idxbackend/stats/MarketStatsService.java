@@ -0,0 +1,313 @@
+package com.idxexchange.idxbackend.stats;
+
+import com.idxexchange.idxbackend.dto.MarketStats;
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.invalidation.ListingCache;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Market statistics per city, zip and bedroom count, kept in memory so a lookup costs the
+ * same however many listings there are.
+ *
+ * Every combination of the three dimensions, with any of them left open, has its own
+ * aggregate of listing counts and quantile sketches. A full load scans the listings once into
+ * (city, zip, beds) cells and merges those into the wider ones; after that each
+ * {@link PropertyChangedEvent} removes the old row and adds the new one, as do the changes of
+ * other instances, from the values the InvalidationBus logs with them. Aggregates are never
+ * changed once published: updates replace them with changed copies, so lookups need no locking.
+ */
+@Service
+public class MarketStatsService implements ListingCache {
+
+    private static final List<String> ATTRIBUTES = List.of(
+            "city", "zip", "beds", "price", "squareFeet", "daysOnMarket", "standardStatus");
+
+    // A dimension left open is null
+    private record Key(String city, String zip, Integer beds) {
+    }
+
+    // The values of one listing the statistics use
+    private record Listing(String city, String zip, Integer beds, Double price, Integer squareFeet,
+                           Integer daysOnMarket, boolean active) {
+
+        static Listing of(Property property) {
+            return new Listing(normalizeCity(property.getCity()), normalizeZip(property.getZip()),
+                    property.getBeds(), property.getPrice(), property.getSquareFeet(),
+                    property.getDaysOnMarket(), isActive(property.getStandardStatus()));
+        }
+
+        static Listing of(Object[] row) {
+            return new Listing(normalizeCity((String) row[0]), normalizeZip((String) row[1]),
+                    (Integer) row[2], (Double) row[3], (Integer) row[4], (Integer) row[5], isActive((String) row[6]));
+        }
+    }
+
+    private static final class Cell {
+        long listings;
+        long active;
+        final QuantileSketch price;
+        final QuantileSketch pricePerSquareFoot;
+        final QuantileSketch daysOnMarket;
+
+        Cell() {
+            price = new QuantileSketch();
+            pricePerSquareFoot = new QuantileSketch();
+            daysOnMarket = new QuantileSketch();
+        }
+
+        private Cell(Cell other) {
+            listings = other.listings;
+            active = other.active;
+            price = other.price.copy();
+            pricePerSquareFoot = other.pricePerSquareFoot.copy();
+            daysOnMarket = other.daysOnMarket.copy();
+        }
+
+        Cell copy() {
+            return new Cell(this);
+        }
+
+        void add(Listing listing) {
+            listings++;
+            active += listing.active() ? 1 : 0;
+            if (listing.price() != null) {
+                price.add(listing.price());
+                if (listing.squareFeet() != null && listing.squareFeet() > 0) {
+                    pricePerSquareFoot.add(listing.price() / listing.squareFeet());
+                }
+            }
+            if (listing.daysOnMarket() != null) {
+                daysOnMarket.add(listing.daysOnMarket());
+            }
+        }
+
+        void remove(Listing listing) {
+            listings--;
+            active -= listing.active() ? 1 : 0;
+            if (listing.price() != null) {
+                price.remove(listing.price());
+                if (listing.squareFeet() != null && listing.squareFeet() > 0) {
+                    pricePerSquareFoot.remove(listing.price() / listing.squareFeet());
+                }
+            }
+            if (listing.daysOnMarket() != null) {
+                daysOnMarket.remove(listing.daysOnMarket());
+            }
+        }
+
+        void merge(Cell other) {
+            listings += other.listings;
+            active += other.active;
+            price.merge(other.price);
+            pricePerSquareFoot.merge(other.pricePerSquareFoot);
+            daysOnMarket.merge(other.daysOnMarket);
+        }
+    }
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private volatile Map<Key, Cell> cells = new ConcurrentHashMap<>();
+    // Bedroom counts present, for minimum-bedroom lookups
+    private volatile NavigableSet<Integer> bedCounts = Collections.emptyNavigableSet();
+    private volatile Instant updatedAt;
+
+    /**
+     * Statistics for listings matching the filters; null filters match everything.
+     * An exact bedroom count takes precedence over a minimum.
+     */
+    public MarketStats stats(String city, String zip, Integer beds, Integer minBeds) {
+        String cityKey = normalizeCity(city);
+        String zipKey = normalizeZip(zip);
+        Map<Key, Cell> current = cells;
+        Cell cell;
+        if (beds == null && minBeds != null) {
+            // Minimum bedrooms: merge the cells of every bedroom count at or above it
+            cell = new Cell();
+            for (Integer count : bedCounts.tailSet(minBeds, true)) {
+                Cell part = current.get(new Key(cityKey, zipKey, count));
+                if (part != null) {
+                    cell.merge(part);
+                }
+            }
+        } else {
+            cell = current.get(new Key(cityKey, zipKey, beds));
+        }
+
+        MarketStats.MarketStatsBuilder stats = MarketStats.builder()
+                .city(city)
+                .zip(zip)
+                .beds(beds)
+                .minBeds(beds == null ? minBeds : null)
+                .updatedAt(updatedAt);
+        if (cell == null) {
+            return stats.build();
+        }
+        return stats
+                .listings(cell.listings)
+                .activeListings(cell.active)
+                .medianPrice(cell.price.quantile(0.5))
+                .lowerQuartilePrice(cell.price.quantile(0.25))
+                .upperQuartilePrice(cell.price.quantile(0.75))
+                .medianPricePerSquareFoot(cell.pricePerSquareFoot.quantile(0.5))
+                .medianDaysOnMarket(cell.daysOnMarket.quantile(0.5))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild all aggregates with one scan of the listings. Lookups keep using the previous
+     * aggregates until the new ones are ready, and if loading fails.
+     *
+     * @return number of aggregates
+     */
+    @Scheduled(fixedDelayString = "${idx.stats.refresh-ms:3600000}", initialDelayString = "${idx.stats.refresh-ms:3600000}")
+    public synchronized int reload() {
+        try {
+            long start = System.currentTimeMillis();
+            Map<Key, Cell> leaves = new HashMap<>();
+            long[] rows = new long[1];
+            propertyRepository.scan(ATTRIBUTES, row -> {
+                Listing listing = Listing.of(row);
+                leaves.computeIfAbsent(new Key(listing.city(), listing.zip(), listing.beds()), key -> new Cell()).add(listing);
+                rows[0]++;
+            });
+
+            Map<Key, Cell> loaded = new ConcurrentHashMap<>();
+            NavigableSet<Integer> loadedBedCounts = new TreeSet<>();
+            leaves.forEach((leaf, cell) -> {
+                for (Key key : keys(leaf.city(), leaf.zip(), leaf.beds())) {
+                    loaded.computeIfAbsent(key, k -> new Cell()).merge(cell);
+                }
+                if (leaf.beds() != null) {
+                    loadedBedCounts.add(leaf.beds());
+                }
+            });
+            cells = loaded;
+            bedCounts = Collections.unmodifiableNavigableSet(loadedBedCounts);
+            updatedAt = Instant.now();
+            System.out.println("Loaded market statistics for " + rows[0] + " listings into " + loaded.size() +
+                               " aggregates in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Error loading market statistics: " + e.getMessage());
+        }
+        return cells.size();
+    }
+
+    /**
+     * Move a changed listing out of the aggregates of its old values and into those of its new ones
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isBulk()) {
+            reload();
+            return;
+        }
+        Map<Key, Cell> current = cells;
+        if (event.before() != null) {
+            Listing before = Listing.of(event.before());
+            for (Key key : keys(before.city(), before.zip(), before.beds())) {
+                Cell cell = current.get(key);
+                if (cell == null) {
+                    continue;
+                }
+                Cell updated = cell.copy();
+                updated.remove(before);
+                if (updated.listings <= 0) {
+                    current.remove(key);
+                } else {
+                    current.put(key, updated);
+                }
+            }
+        }
+        if (event.after() != null) {
+            Listing after = Listing.of(event.after());
+            for (Key key : keys(after.city(), after.zip(), after.beds())) {
+                Cell cell = current.get(key);
+                Cell updated = cell == null ? new Cell() : cell.copy();
+                updated.add(after);
+                current.put(key, updated);
+            }
+            if (after.beds() != null && !bedCounts.contains(after.beds())) {
+                NavigableSet<Integer> counts = new TreeSet<>(bedCounts);
+                counts.add(after.beds());
+                bedCounts = Collections.unmodifiableNavigableSet(counts);
+            }
+        }
+        updatedAt = Instant.now();
+    }
+
+    /**
+     * Apply listings changed by another instance, from the values logged with each change
+     */
+    @Override
+    public synchronized void changed(List<PropertyChangedEvent> changes) {
+        changes.forEach(this::onPropertyChanged);
+    }
+
+    // Without the values the listings had, the counts can only be rebuilt
+    @Override
+    public void evict(Collection<Long> propertyIds) {
+        reload();
+    }
+
+    @Override
+    public void evictAll() {
+        reload();
+    }
+
+    // The aggregates a listing counts in: each known dimension either fixed or left open
+    private static List<Key> keys(String city, String zip, Integer beds) {
+        List<Key> keys = new ArrayList<>(8);
+        for (int mask = 0; mask < 8; mask++) {
+            boolean byCity = (mask & 1) != 0;
+            boolean byZip = (mask & 2) != 0;
+            boolean byBeds = (mask & 4) != 0;
+            if ((byCity && city == null) || (byZip && zip == null) || (byBeds && beds == null)) {
+                continue;
+            }
+            keys.add(new Key(byCity ? city : null, byZip ? zip : null, byBeds ? beds : null));
+        }
+        return keys;
+    }
+
+    // Cities match case-insensitively, as in the search filters
+    private static String normalizeCity(String city) {
+        return city == null || city.isBlank() ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeZip(String zip) {
+        return zip == null || zip.isBlank() ? null : zip.trim();
+    }
+
+    private static boolean isActive(String standardStatus) {
+        return "Active".equalsIgnoreCase(standardStatus);
+    }
+
+    public int getAggregateCount() {
+        return cells.size();
+    }
+}
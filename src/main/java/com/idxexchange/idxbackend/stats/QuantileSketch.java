@@ -0,0 +1,148 @@
+package com.idxexchange.idxbackend.stats;
+
+import java.util.Arrays;
+
+/**
+ * Quantile sketch with relative error guarantees, after DDSketch.
+ *
+ * Values are counted in logarithmic buckets, so every quantile is within 1% of a value that
+ * was added, and the size depends on the spread of the values, not on how many were added.
+ * Sketches merge by adding bucket counts, and values can be removed again, which lets
+ * aggregates follow listing changes without a rescan. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // Sorted bucket indexes and their counts; only the first size entries are used
+    private int[] keys;
+    private long[] counts;
+    private int size;
+    // Zero is outside every logarithmic bucket
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch() {
+        keys = new int[4];
+        counts = new long[4];
+    }
+
+    private QuantileSketch(QuantileSketch other) {
+        keys = Arrays.copyOf(other.keys, Math.max(4, other.size));
+        counts = Arrays.copyOf(other.counts, Math.max(4, other.size));
+        size = other.size;
+        zeroCount = other.zeroCount;
+        count = other.count;
+    }
+
+    public QuantileSketch copy() {
+        return new QuantileSketch(this);
+    }
+
+    /**
+     * Add a value; negative and non-finite values are ignored
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Remove a value added before; removing a value that isn't in the sketch changes nothing
+     */
+    public void remove(double value) {
+        add(value, -1);
+    }
+
+    private void add(double value, long n) {
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            return;
+        }
+        long added;
+        if (value == 0) {
+            added = Math.max(n, -zeroCount);
+            zeroCount += added;
+        } else {
+            added = addToBucket((int) Math.ceil(Math.log(value) / LOG_GAMMA), n);
+        }
+        count += added;
+    }
+
+    /**
+     * Add all values of another sketch to this one
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < other.size; i++) {
+            addToBucket(other.keys[i], other.counts[i]);
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * Add n (negative to remove) to a bucket's count, not taking it below zero
+     *
+     * @return how much was actually added
+     */
+    private long addToBucket(int key, long n) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            long added = Math.max(n, -counts[index]);
+            counts[index] += added;
+            if (counts[index] == 0) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(counts, index + 1, counts, index, size - index - 1);
+                size--;
+            }
+            return added;
+        }
+        if (n <= 0) {
+            return 0;
+        }
+        index = -(index + 1);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(counts, index, counts, index + 1, size - index);
+        keys[index] = key;
+        counts[index] = n;
+        size++;
+        return n;
+    }
+
+    /**
+     * Estimate of the value at quantile q (0.5 for the median), or null for an empty sketch
+     */
+    public Double quantile(double q) {
+        if (count <= 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0.0;
+        }
+        for (int i = 0; i < size; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return 2 * Math.pow(GAMMA, keys[i]) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, keys[size - 1]) / (GAMMA + 1);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Number of buckets in use, which bounds the cost of a quantile lookup
+     */
+    public int buckets() {
+        return size + (zeroCount > 0 ? 1 : 0);
+    }
+}
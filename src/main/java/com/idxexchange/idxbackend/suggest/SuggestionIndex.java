@@ -0,0 +1,340 @@
+package com.idxexchange.idxbackend.suggest;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable radix trie over normalized location values, for typeahead.
+ *
+ * Every node stores the best {@code topK} suggestions of its subtree, ranked by listing count,
+ * so a lookup walks the prefix once and copies at most {@code topK} entries, whatever the
+ * number of values. Updates return a new index that shares all nodes off the changed path,
+ * so readers never see a partially applied change.
+ */
+public final class SuggestionIndex {
+
+    public enum Type { CITY, ZIP, SUBDIVISION, COUNTY, STREET }
+
+    /**
+     * A suggested value and the number of listings that have it
+     */
+    public record Suggestion(String text, Type type, long count) {
+    }
+
+    // Most listings first, then alphabetical
+    private static final Comparator<Suggestion> RANK = Comparator
+            .comparingLong(Suggestion::count).reversed()
+            .thenComparing(Suggestion::text)
+            .thenComparing(Suggestion::type);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Suggestion[] NONE = new Suggestion[0];
+    private static final Node[] LEAF = new Node[0];
+
+    private static final class Node {
+        // Characters on the edge into this node
+        final String label;
+        // Sorted by the first character of their label
+        final Node[] children;
+        // Values whose key ends here, one per type at most
+        final Suggestion[] terminals;
+        // Best topK suggestions of the subtree, in rank order
+        final Suggestion[] top;
+
+        Node(String label, Node[] children, Suggestion[] terminals, int topK) {
+            this.label = label;
+            this.children = children;
+            this.terminals = terminals;
+            this.top = rank(children, terminals, topK);
+        }
+
+        Node relabel(String label) {
+            return new Node(label, children, terminals, top);
+        }
+
+        private Node(String label, Node[] children, Suggestion[] terminals, Suggestion[] top) {
+            this.label = label;
+            this.children = children;
+            this.terminals = terminals;
+            this.top = top;
+        }
+
+        boolean isEmpty() {
+            return children.length == 0 && terminals.length == 0;
+        }
+
+        int childIndex(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char key = children[mid].label.charAt(0);
+                if (key < c) {
+                    low = mid + 1;
+                } else if (key > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private record Entry(String key, Suggestion suggestion) {
+    }
+
+    private final Node root;
+    private final int topK;
+    private final int size;
+
+    private SuggestionIndex(Node root, int topK, int size) {
+        this.root = root;
+        this.topK = topK;
+        this.size = size;
+    }
+
+    public static SuggestionIndex empty(int topK) {
+        return new SuggestionIndex(new Node("", LEAF, NONE, topK), topK, 0);
+    }
+
+    /**
+     * Build an index in one pass. Values with a blank key or a count below 1 are skipped.
+     */
+    public static SuggestionIndex build(List<Suggestion> suggestions, int topK) {
+        List<Entry> entries = new ArrayList<>(suggestions.size());
+        for (Suggestion suggestion : suggestions) {
+            String key = normalize(suggestion.text());
+            if (!key.isEmpty() && suggestion.count() > 0) {
+                entries.add(new Entry(key, suggestion));
+            }
+        }
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, Comparator.comparing(Entry::key).thenComparing(entry -> entry.suggestion().type()));
+        return new SuggestionIndex(build(sorted, 0, sorted.length, 0, "", topK), topK, sorted.length);
+    }
+
+    // Entries in [from, to) share their first depth characters
+    private static Node build(Entry[] sorted, int from, int to, int depth, String label, int topK) {
+        List<Suggestion> terminals = new ArrayList<>();
+        int i = from;
+        while (i < to && sorted[i].key().length() == depth) {
+            addTerminal(terminals, sorted[i++].suggestion());
+        }
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char c = sorted[i].key().charAt(depth);
+            int end = i + 1;
+            while (end < to && sorted[end].key().charAt(depth) == c) {
+                end++;
+            }
+            // Keys are sorted, so the first and last key bound the group's common prefix
+            int common = commonPrefix(sorted[i].key(), sorted[end - 1].key(), depth);
+            children.add(build(sorted, i, end, common, sorted[i].key().substring(depth, common), topK));
+            i = end;
+        }
+        return new Node(label, children.toArray(LEAF), terminals.toArray(NONE), topK);
+    }
+
+    // The same value may be listed under different spellings; keep one entry per type
+    private static void addTerminal(List<Suggestion> terminals, Suggestion suggestion) {
+        for (int i = 0; i < terminals.size(); i++) {
+            Suggestion existing = terminals.get(i);
+            if (existing.type() == suggestion.type()) {
+                if (suggestion.count() > existing.count()) {
+                    terminals.set(i, new Suggestion(suggestion.text(), suggestion.type(), existing.count() + suggestion.count()));
+                } else {
+                    terminals.set(i, new Suggestion(existing.text(), existing.type(), existing.count() + suggestion.count()));
+                }
+                return;
+            }
+        }
+        terminals.add(suggestion);
+    }
+
+    /**
+     * Return an index with the value of the suggestion's type and key replaced by it;
+     * a count below 1 removes the value
+     */
+    public SuggestionIndex with(Suggestion suggestion) {
+        String key = normalize(suggestion.text());
+        if (key.isEmpty()) {
+            return this;
+        }
+        int[] sizeChange = new int[1];
+        Node updated = put(root, key, 0, suggestion, sizeChange);
+        return updated == root ? this : new SuggestionIndex(updated, topK, size + sizeChange[0]);
+    }
+
+    // node has consumed the first depth characters of key
+    private Node put(Node node, String key, int depth, Suggestion suggestion, int[] sizeChange) {
+        boolean remove = suggestion.count() < 1;
+        if (depth == key.length()) {
+            Suggestion[] terminals = replaceTerminal(node.terminals, suggestion, sizeChange);
+            return terminals == node.terminals ? node : new Node(node.label, node.children, terminals, topK);
+        }
+        int index = node.childIndex(key.charAt(depth));
+        if (index < 0) {
+            if (remove) {
+                return node;
+            }
+            sizeChange[0] = 1;
+            Node leaf = new Node(key.substring(depth), LEAF, new Suggestion[]{suggestion}, topK);
+            return withChild(node, -(index + 1), leaf, true);
+        }
+        Node child = node.children[index];
+        int common = commonPrefix(child.label, 0, key, depth);
+        Node updated;
+        if (common == child.label.length()) {
+            updated = put(child, key, depth + common, suggestion, sizeChange);
+        } else if (remove) {
+            return node;
+        } else {
+            // The key leaves the child's edge part way: split the edge
+            Node tail = child.relabel(child.label.substring(common));
+            Node split = new Node(child.label.substring(0, common), new Node[]{tail}, NONE, topK);
+            updated = put(split, key, depth + common, suggestion, sizeChange);
+        }
+        if (updated == child) {
+            return node;
+        }
+        if (updated.isEmpty()) {
+            return withoutChild(node, index);
+        }
+        if (updated.terminals.length == 0 && updated.children.length == 1) {
+            // Merge a pass-through node into its only child
+            Node only = updated.children[0];
+            updated = only.relabel(updated.label + only.label);
+        }
+        return withChild(node, index, updated, false);
+    }
+
+    private Suggestion[] replaceTerminal(Suggestion[] terminals, Suggestion suggestion, int[] sizeChange) {
+        for (int i = 0; i < terminals.length; i++) {
+            if (terminals[i].type() == suggestion.type()) {
+                if (suggestion.count() < 1) {
+                    sizeChange[0] = -1;
+                    Suggestion[] removed = new Suggestion[terminals.length - 1];
+                    System.arraycopy(terminals, 0, removed, 0, i);
+                    System.arraycopy(terminals, i + 1, removed, i, terminals.length - i - 1);
+                    return removed;
+                }
+                if (terminals[i].equals(suggestion)) {
+                    return terminals;
+                }
+                Suggestion[] replaced = terminals.clone();
+                replaced[i] = suggestion;
+                return replaced;
+            }
+        }
+        if (suggestion.count() < 1) {
+            return terminals;
+        }
+        sizeChange[0] = 1;
+        Suggestion[] added = Arrays.copyOf(terminals, terminals.length + 1);
+        added[terminals.length] = suggestion;
+        return added;
+    }
+
+    private Node withChild(Node node, int index, Node child, boolean insert) {
+        Node[] children;
+        if (insert) {
+            children = new Node[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+        } else {
+            children = node.children.clone();
+        }
+        children[index] = child;
+        return new Node(node.label, children, node.terminals, topK);
+    }
+
+    private Node withoutChild(Node node, int index) {
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        return new Node(node.label, children, node.terminals, topK);
+    }
+
+    /**
+     * The highest ranked values starting with the prefix, compared after normalization
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            int index = node.childIndex(key.charAt(depth));
+            if (index < 0) {
+                return List.of();
+            }
+            node = node.children[index];
+            int common = commonPrefix(node.label, 0, key, depth);
+            if (depth + common == key.length()) {
+                break;
+            }
+            if (common < node.label.length()) {
+                return List.of();
+            }
+            depth += common;
+        }
+        return List.of(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    /**
+     * Number of distinct values in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    public int topK() {
+        return topK;
+    }
+
+    /**
+     * Lower-case, accent-free, with single spaces between words
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Suggestion[] rank(Node[] children, Suggestion[] terminals, int topK) {
+        int candidates = terminals.length;
+        for (Node child : children) {
+            candidates += child.top.length;
+        }
+        Suggestion[] all = Arrays.copyOf(terminals, candidates);
+        int n = terminals.length;
+        for (Node child : children) {
+            System.arraycopy(child.top, 0, all, n, child.top.length);
+            n += child.top.length;
+        }
+        Arrays.sort(all, RANK);
+        return all.length > topK ? Arrays.copyOf(all, topK) : all;
+    }
+
+    private static int commonPrefix(String a, String b, int from) {
+        return from + commonPrefix(a, from, b, from);
+    }
+
+    // Length of the common prefix of a from aFrom and b from bFrom
+    private static int commonPrefix(String a, int aFrom, String b, int bFrom) {
+        int n = Math.min(a.length() - aFrom, b.length() - bFrom);
+        int i = 0;
+        while (i < n && a.charAt(aFrom + i) == b.charAt(bFrom + i)) {
+            i++;
+        }
+        return i;
+    }
+}
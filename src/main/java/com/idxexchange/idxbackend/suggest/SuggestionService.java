@@ -0,0 +1,210 @@
+package com.idxexchange.idxbackend.suggest;
+
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.invalidation.ListingCache;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.nlp.Gazetteer;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Suggestion;
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Type;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Typeahead over the city, zip, subdivision, county and street values of the listings.
+ *
+ * Lookups only read the current {@link SuggestionIndex}. The index is built from group-by
+ * counts on startup and on a schedule, and kept current in between by applying each
+ * {@link PropertyChangedEvent} as count changes to the values it touches. Changes made by other
+ * instances are applied the same way, from the values the InvalidationBus logs with them.
+ */
+@Service
+public class SuggestionService implements ListingCache {
+
+    // Property attribute each suggestion type comes from
+    private static final Map<Type, String> ATTRIBUTES = Map.of(
+            Type.CITY, "city",
+            Type.ZIP, "zip",
+            Type.SUBDIVISION, "subdivisionName",
+            Type.COUNTY, "county",
+            Type.STREET, "addressStreet");
+
+    private static final Map<Type, Function<Property, String>> GETTERS = Map.of(
+            Type.CITY, Property::getCity,
+            Type.ZIP, Property::getZip,
+            Type.SUBDIVISION, Property::getSubdivisionName,
+            Type.COUNTY, Property::getCounty,
+            Type.STREET, Property::getAddressStreet);
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    // Suggestions kept per prefix, which is also the most a lookup returns
+    @Value("${idx.suggest.top-k:10}")
+    private int topK;
+
+    private volatile SuggestionIndex index;
+    private volatile Instant loadedAt;
+
+    // Listing count of every spelling of each value, by type and normalized value; guarded by this
+    private Map<Type, Map<String, Map<String, Long>>> counts = new EnumMap<>(Type.class);
+
+    @PostConstruct
+    void init() {
+        index = SuggestionIndex.empty(topK);
+    }
+
+    /**
+     * Up to {@code limit} values starting with the prefix, most listings first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return index.suggest(prefix, Math.min(limit, topK));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild the index from the database. Lookups keep using the previous index until the
+     * new one is ready, and if loading fails.
+     *
+     * @return number of distinct values in the index
+     */
+    @Scheduled(fixedDelayString = "${idx.suggest.refresh-ms:3600000}", initialDelayString = "${idx.suggest.refresh-ms:3600000}")
+    public synchronized int reload() {
+        try {
+            long start = System.currentTimeMillis();
+            Map<Type, Map<String, Map<String, Long>>> loaded = new EnumMap<>(Type.class);
+            for (Type type : Type.values()) {
+                Map<String, Map<String, Long>> values = new HashMap<>();
+                propertyRepository.countByValue(ATTRIBUTES.get(type))
+                        .forEach((value, count) -> add(values, value, count));
+                loaded.put(type, values);
+            }
+            List<Suggestion> suggestions = new ArrayList<>();
+            loaded.forEach((type, values) -> values.values()
+                    .forEach(spellings -> suggestions.add(suggestion(type, spellings))));
+            index = SuggestionIndex.build(suggestions, topK);
+            counts = loaded;
+            loadedAt = Instant.now();
+            System.out.println("Loaded typeahead index with " + index.size() + " values in " +
+                               (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Error loading typeahead index: " + e.getMessage());
+        }
+        return index.size();
+    }
+
+    /**
+     * Apply a listing change: its old values lose a listing, its new values gain one
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isBulk()) {
+            reload();
+            return;
+        }
+        SuggestionIndex updated = index;
+        for (Type type : Type.values()) {
+            Function<Property, String> getter = GETTERS.get(type);
+            String before = event.before() == null ? null : getter.apply(event.before());
+            String after = event.after() == null ? null : getter.apply(event.after());
+            if (before != null && before.equals(after)) {
+                continue;
+            }
+            Map<String, Map<String, Long>> values = counts.computeIfAbsent(type, t -> new HashMap<>());
+            Set<String> touched = new LinkedHashSet<>();
+            if (before != null && add(values, before, -1)) {
+                touched.add(SuggestionIndex.normalize(before));
+            }
+            if (after != null && add(values, after, 1)) {
+                touched.add(SuggestionIndex.normalize(after));
+            }
+            for (String key : touched) {
+                Map<String, Long> spellings = values.get(key);
+                updated = spellings == null
+                        ? updated.with(new Suggestion(key, type, 0))
+                        : updated.with(suggestion(type, spellings));
+            }
+        }
+        index = updated;
+    }
+
+    /**
+     * Apply listings changed by another instance, from the values logged with each change
+     */
+    @Override
+    public synchronized void changed(List<PropertyChangedEvent> changes) {
+        changes.forEach(this::onPropertyChanged);
+    }
+
+    // Without the values the listings had, the counts can only be rebuilt
+    @Override
+    public void evict(Collection<Long> propertyIds) {
+        reload();
+    }
+
+    @Override
+    public void evictAll() {
+        reload();
+    }
+
+    // Returns false for values that are not suggested: blank ones and "none" placeholders
+    private static boolean add(Map<String, Map<String, Long>> values, String value, long delta) {
+        String key = SuggestionIndex.normalize(value);
+        if (key.isEmpty() || Gazetteer.isPlaceholder(key)) {
+            return false;
+        }
+        String spelling = value.trim();
+        Map<String, Long> spellings = values.computeIfAbsent(key, k -> new HashMap<>());
+        if (spellings.merge(spelling, delta, Long::sum) <= 0) {
+            spellings.remove(spelling);
+        }
+        if (spellings.isEmpty()) {
+            values.remove(key);
+        }
+        return true;
+    }
+
+    // Shown with its most common spelling, counted over all of them
+    private static Suggestion suggestion(Type type, Map<String, Long> spellings) {
+        String text = null;
+        long best = 0;
+        long total = 0;
+        for (Map.Entry<String, Long> spelling : spellings.entrySet()) {
+            total += spelling.getValue();
+            if (spelling.getValue() > best || (spelling.getValue() == best && spelling.getKey().compareTo(text) < 0)) {
+                text = spelling.getKey();
+                best = spelling.getValue();
+            }
+        }
+        return new Suggestion(text, type, total);
+    }
+
+    public int getIndexSize() {
+        return index.size();
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
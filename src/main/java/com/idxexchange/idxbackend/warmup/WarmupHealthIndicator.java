@@ -0,0 +1,36 @@
+package com.idxexchange.idxbackend.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * OUT_OF_SERVICE until the startup warm-up is done, so /health keeps load balancers away from
+ * a cold instance. Add "warmup" to a readiness health group for Kubernetes probes.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Override
+    public Health health() {
+        if (!warmupService.isEnabled()) {
+            return Health.up().withDetail("warmup", "disabled").build();
+        }
+        if (!warmupService.isWarm()) {
+            return Health.outOfService().withDetail("warmup", "running").build();
+        }
+        WarmupService.Result result = warmupService.getLastResult();
+        return Health.up()
+                .withDetail("searches", result.searches())
+                .withDetail("nlpQueries", result.nlpQueries())
+                .withDetail("listings", result.listings())
+                .withDetail("failed", result.failed())
+                .withDetail("millis", result.millis())
+                .withDetail("finishedAt", warmupService.getLastFinishedAt())
+                .build();
+    }
+}
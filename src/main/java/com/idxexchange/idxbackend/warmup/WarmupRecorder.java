@@ -0,0 +1,257 @@
+package com.idxexchange.idxbackend.warmup;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.PropertySearchQueryConverter;
+import com.idxexchange.idxbackend.model.WarmupSample;
+import com.idxexchange.idxbackend.repository.WarmupSampleRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Counts the searches, NLP queries and listings that traffic asks for, and adds the counts to
+ * warmup_sample every idx.warmup.flush-ms, for WarmupService to replay on instances started later.
+ * NLP queries are recorded as the filters parsed from them, never the text users typed.
+ * Requests made by the warm-up itself are not counted.
+ *
+ * Each flush is one batched upsert (INSERT ... ON DUPLICATE KEY UPDATE on MySQL, MERGE elsewhere),
+ * so instances flushing at the same time both count. A failed flush drops its counts and is
+ * reported once until a flush succeeds again.
+ * Off by default; enable with idx.warmup.enabled=true after creating the table (db/warmup_sample.sql).
+ */
+@Component
+public class WarmupRecorder {
+
+    // Longer requests are not recorded
+    private static final int MAX_REQUEST_LENGTH = 1000;
+
+    private static final PropertySearchQueryConverter QUERIES = new PropertySearchQueryConverter();
+    private static final ThreadLocal<Boolean> REPLAYING = new ThreadLocal<>();
+
+    @Value("${idx.warmup.enabled:false}")
+    private boolean enabled;
+
+    // Distinct requests counted between flushes; new ones beyond it wait for the next flush
+    @Value("${idx.warmup.max-tracked:10000}")
+    private int maxTracked;
+
+    @Value("${idx.warmup.retention-days:7}")
+    private long retentionDays;
+
+    @Autowired
+    private WarmupSampleRepository sampleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<PropertySearchQuery, LongAdder> searches = new ConcurrentHashMap<>();
+    private final Map<PropertySearchQuery, LongAdder> nlpQueries = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> listings = new ConcurrentHashMap<>();
+    private final AtomicInteger tracked = new AtomicInteger();
+
+    // Built on first flush; only used by flush(), which is synchronized
+    private String upsert;
+    private boolean failing;
+
+    public void search(PropertySearchQuery filters) {
+        count(searches, filters);
+    }
+
+    /**
+     * Count an NLP search by its parsed filters
+     */
+    public void nlpQuery(PropertySearchQuery parsed) {
+        if (parsed != null) {
+            count(nlpQueries, parsed.toBuilder().originalQuery(null).confidenceScore(null).build());
+        }
+    }
+
+    public void listing(Long id) {
+        if (id != null) {
+            count(listings, id);
+        }
+    }
+
+    /**
+     * Make a warm-up request, without counting it
+     */
+    static void replaying(Runnable request) {
+        REPLAYING.set(Boolean.TRUE);
+        try {
+            request.run();
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+
+    /**
+     * Whether the current thread is making a warm-up request
+     */
+    public static boolean isReplaying() {
+        return REPLAYING.get() != null;
+    }
+
+    private <K> void count(Map<K, LongAdder> counts, K key) {
+        if (!enabled || isReplaying()) {
+            return;
+        }
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            if (tracked.get() >= maxTracked) {
+                return;
+            }
+            count = counts.computeIfAbsent(key, k -> {
+                tracked.incrementAndGet();
+                return new LongAdder();
+            });
+        }
+        count.increment();
+    }
+
+    /**
+     * Add the counts since the last flush to warmup_sample
+     */
+    @Scheduled(fixedDelayString = "${idx.warmup.flush-ms:60000}", initialDelayString = "${idx.warmup.flush-ms:60000}")
+    public synchronized void flush() {
+        List<Sample> samples = new ArrayList<>();
+        drain(WarmupSample.Kind.SEARCH, searches, QUERIES::convertToDatabaseColumn, samples);
+        drain(WarmupSample.Kind.NLP, nlpQueries, QUERIES::convertToDatabaseColumn, samples);
+        drain(WarmupSample.Kind.LISTING, listings, String::valueOf, samples);
+        if (samples.isEmpty()) {
+            return;
+        }
+        // The same row order on every instance, so concurrent flushes don't deadlock
+        samples.sort(Comparator.comparing((Sample sample) -> sample.kind().name()).thenComparing(Sample::fingerprint));
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            if (upsert == null) {
+                upsert = upsertStatement();
+            }
+            jdbcTemplate.batchUpdate(upsert, samples, samples.size(), (statement, sample) -> {
+                statement.setString(1, sample.kind().name());
+                statement.setString(2, sample.fingerprint());
+                statement.setString(3, sample.request());
+                statement.setLong(4, sample.hits());
+                statement.setTimestamp(5, now);
+            });
+            if (failing) {
+                failing = false;
+                System.out.println("Recording warm-up samples again");
+            }
+        } catch (Exception e) {
+            // Once per outage rather than every flush
+            if (!failing) {
+                failing = true;
+                System.err.println("Error recording " + samples.size() + " warm-up samples, dropping them until " +
+                                   "warmup_sample can be written: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private record Sample(WarmupSample.Kind kind, String fingerprint, String request, long hits) {
+    }
+
+    private <K> void drain(WarmupSample.Kind kind, Map<K, LongAdder> counts, Function<K, String> request, List<Sample> samples) {
+        for (K key : counts.keySet()) {
+            LongAdder count = counts.remove(key);
+            if (count == null) {
+                continue;
+            }
+            tracked.decrementAndGet();
+            String text = request.apply(key);
+            if (text.length() <= MAX_REQUEST_LENGTH) {
+                samples.add(new Sample(kind, fingerprint(text), text, count.sum()));
+            }
+        }
+    }
+
+    /**
+     * Insert a sample or add its hits to the existing row, with bind parameters kind, fingerprint,
+     * request, hits and last seen. Column names come from the Hibernate mapping, as they differ
+     * between the test schema and production.
+     */
+    private String upsertStatement() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory
+                .getMappingMetamodel()
+                .getEntityDescriptor(WarmupSample.class);
+        String table = persister.getTableName();
+        String kind = persister.getPropertyColumnNames("kind")[0];
+        String fingerprint = persister.getPropertyColumnNames("fingerprint")[0];
+        String request = persister.getPropertyColumnNames("request")[0];
+        String hits = persister.getPropertyColumnNames("hits")[0];
+        String lastSeen = persister.getPropertyColumnNames("lastSeen")[0];
+        String columns = kind + ", " + fingerprint + ", " + request + ", " + hits + ", " + lastSeen;
+
+        if (sessionFactory.getJdbcServices().getDialect() instanceof MySQLDialect) {
+            // Also MariaDB, whose dialect extends MySQL's
+            return "INSERT INTO " + table + " (" + columns + ") VALUES (?, ?, ?, ?, ?) " +
+                   "ON DUPLICATE KEY UPDATE " + hits + " = " + hits + " + VALUES(" + hits + "), " +
+                   lastSeen + " = VALUES(" + lastSeen + ")";
+        }
+        return "MERGE INTO " + table + " t USING (VALUES (CAST(? AS VARCHAR(16)), CAST(? AS VARCHAR(64)), " +
+               "CAST(? AS VARCHAR(1000)), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) s (" + columns + ") " +
+               "ON t." + kind + " = s." + kind + " AND t." + fingerprint + " = s." + fingerprint + " " +
+               "WHEN MATCHED THEN UPDATE SET " + hits + " = t." + hits + " + s." + hits + ", " + lastSeen + " = s." + lastSeen + " " +
+               "WHEN NOT MATCHED THEN INSERT (" + columns + ") VALUES (s." + kind + ", s." + fingerprint + ", s." +
+               request + ", s." + hits + ", s." + lastSeen + ")";
+    }
+
+    private static String fingerprint(String request) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Drop samples no traffic asked for within idx.warmup.retention-days
+     */
+    @Scheduled(fixedDelayString = "${idx.warmup.cleanup-ms:3600000}", initialDelayString = "${idx.warmup.cleanup-ms:3600000}")
+    public void deleteOldSamples() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = sampleRepository.deleteSeenBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+            if (deleted > 0) {
+                System.out.println("Deleted " + deleted + " warm-up samples not seen in " + retentionDays + " days");
+            }
+        } catch (Exception e) {
+            System.err.println("Error deleting old warm-up samples: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.idxexchange.idxbackend.warmup;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.event.PropertyChangedEvent;
+import com.idxexchange.idxbackend.invalidation.ListingCache;
+import com.idxexchange.idxbackend.model.PropertySearchQueryConverter;
+import com.idxexchange.idxbackend.model.WarmupSample;
+import com.idxexchange.idxbackend.repository.WarmupSampleRepository;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import com.idxexchange.idxbackend.service.PropertyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms an instance up before it takes traffic. The searches, NLP queries and listings that
+ * traffic asked for most (recorded by WarmupRecorder) are replayed through PropertyService, so
+ * the connection pool is filled, Hibernate has its query plans, popular listings are in the
+ * second-level cache and the JIT has compiled the search path. A fixed set of queries exercises
+ * the NLP parser's patterns even without recorded traffic. Replays are not recorded as
+ * traffic, and not in the idx.search timers.
+ *
+ * Runs on ApplicationReadyEvent, which holds readiness at REFUSING_TRAFFIC until it is done, and
+ * the warmup health indicator reports OUT_OF_SERVICE meanwhile, so /health answers 503. After a
+ * bulk listing change (a data refresh, here or on another instance) the listing cache is empty;
+ * the warm-up then runs again in the background while the instance keeps serving.
+ * Off by default; enable with idx.warmup.enabled=true after creating warmup_sample.
+ */
+@Component
+public class WarmupService implements ListingCache {
+
+    // One query per parser pattern: location, price forms, beds and baths, features, property types
+    static final List<String> NLP_PATTERNS = List.of(
+            "3 bedroom house with pool in Los Angeles under 500k",
+            "2+ bath condo in San Francisco with view",
+            "Houses in San Diego between 400k and 600k with garage",
+            "4 bed 3 bath single family home over $1.2 million with fireplace",
+            "townhouse near Irvine at least 1500 sq ft built after 2005",
+            "cheap 1br apartment in Orange County",
+            "homes in 92101 under 750,000");
+
+    public record Result(int searches, int nlpQueries, int listings, int failed, long millis) {
+    }
+
+    @Value("${idx.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${idx.warmup.top-searches:100}")
+    private int topSearches;
+
+    @Value("${idx.warmup.top-listings:1000}")
+    private int topListings;
+
+    // Searches and NLP queries are replayed this many times, for the JIT; listings once
+    @Value("${idx.warmup.passes:3}")
+    private int passes;
+
+    @Value("${idx.warmup.threads:4}")
+    private int threads;
+
+    // Readiness turns UP after this long even if replaying isn't done
+    @Value("${idx.warmup.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${idx.warmup.retention-days:7}")
+    private long retentionDays;
+
+    // Wait after a bulk change before warming up again, so a burst of refreshes warms up once
+    @Value("${idx.warmup.refresh-delay-ms:5000}")
+    private long refreshDelayMs;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @Autowired
+    private WarmupSampleRepository sampleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "warmup-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> pendingRefresh;
+
+    private volatile boolean warm;
+    private volatile Result lastResult;
+    private volatile Instant lastFinishedAt;
+
+    /**
+     * Warm up before readiness turns to ACCEPTING_TRAFFIC. The NLP gazetteer is loaded first,
+     * so replayed queries are parsed as traffic's will be.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUpOnStartup() {
+        if (!enabled) {
+            warm = true;
+            return;
+        }
+        try {
+            warmUp("startup");
+        } finally {
+            warm = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isBulk()) {
+            scheduleRefresh();
+        }
+    }
+
+    @Override
+    public void evict(Collection<Long> propertyIds) {
+        // Single listings are read back by the next request for them
+    }
+
+    @Override
+    public void evictAll() {
+        scheduleRefresh();
+    }
+
+    private synchronized void scheduleRefresh() {
+        if (!enabled) {
+            return;
+        }
+        if (pendingRefresh != null && !pendingRefresh.isDone()) {
+            return;
+        }
+        pendingRefresh = refresher.schedule(() -> warmUp("refresh"), refreshDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Replay the most requested searches, NLP queries and listings
+     */
+    public Result warmUp(String trigger) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Instant since = Instant.now().minus(Duration.ofDays(retentionDays));
+        AtomicInteger failed = new AtomicInteger();
+
+        List<Runnable> requests = new ArrayList<>();
+        List<WarmupSample> searches = List.of();
+        List<WarmupSample> nlpQueries = List.of();
+        List<WarmupSample> listings = List.of();
+        try {
+            searches = sampleRepository.findByKindAndLastSeenAfterOrderByHitsDesc(
+                    WarmupSample.Kind.SEARCH, since, PageRequest.ofSize(topSearches));
+            nlpQueries = sampleRepository.findByKindAndLastSeenAfterOrderByHitsDesc(
+                    WarmupSample.Kind.NLP, since, PageRequest.ofSize(topSearches));
+            listings = sampleRepository.findByKindAndLastSeenAfterOrderByHitsDesc(
+                    WarmupSample.Kind.LISTING, since, PageRequest.ofSize(topListings));
+        } catch (Exception e) {
+            System.err.println("Error reading warm-up samples: " + e.getMessage());
+        }
+        for (WarmupSample listing : listings) {
+            requests.add(() -> propertyService.findDetails(Long.valueOf(listing.getRequest())));
+        }
+        Pageable firstPage = PageRequest.of(0, 20);
+        PropertySearchQueryConverter queries = new PropertySearchQueryConverter();
+        for (int pass = 0; pass < passes; pass++) {
+            for (WarmupSample search : searches) {
+                requests.add(() -> {
+                    PropertySearchQuery q = queries.convertToEntityAttribute(search.getRequest());
+                    propertyService.searchProperties(q.getCity(), q.getState(), q.getZip(),
+                            q.getMinPrice(), q.getMaxPrice(), q.getBeds(), q.getMinBeds(),
+                            q.getBaths(), q.getMinBaths(), firstPage);
+                });
+            }
+            for (WarmupSample query : nlpQueries) {
+                requests.add(() -> propertyService.searchParsedNLP(queries.convertToEntityAttribute(query.getRequest()), firstPage));
+            }
+            for (String query : NLP_PATTERNS) {
+                requests.add(() -> nlpQueryParserService.parseQuery(query));
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Runnable request : requests) {
+                pool.execute(() -> {
+                    if (System.nanoTime() > deadline) {
+                        return;
+                    }
+                    try {
+                        WarmupRecorder.replaying(request);
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                System.err.println("Warm-up (" + trigger + ") timed out after " + timeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long nanos = System.nanoTime() - start;
+        Timer.builder("idx.warmup")
+                .description("Warm-up replays of popular requests")
+                .tag("trigger", trigger)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Result result = new Result(searches.size(), nlpQueries.size(), listings.size(), failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(nanos));
+        lastResult = result;
+        lastFinishedAt = Instant.now();
+        System.out.println("Warm-up (" + trigger + ") replayed " + result.searches() + " searches, " +
+                           result.nlpQueries() + " NLP queries and " + result.listings() + " listings in " +
+                           result.millis() + " ms" + (result.failed() > 0 ? ", " + result.failed() + " failed" : ""));
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the startup warm-up has finished
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    public Instant getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+}
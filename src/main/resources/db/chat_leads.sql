@@ -0,0 +1,15 @@
+-- Lead qualification data captured by the chatbot (see LeadCaptureService).
+-- spring.jpa.hibernate.ddl-auto=none in production, so create this table manually.
+CREATE TABLE IF NOT EXISTS chat_leads (
+    SessionId       VARCHAR(64)  NOT NULL PRIMARY KEY,
+    BudgetMentioned BOOLEAN,
+    BudgetRange     VARCHAR(255),
+    PreferredCity   VARCHAR(255),
+    Bedrooms        INT,
+    DesiredFeatures VARCHAR(255),
+    Urgency         VARCHAR(255),
+    BuyerType       VARCHAR(255),
+    MessageCount    INT,
+    FirstSeenAt     DATETIME(6),
+    UpdatedAt       DATETIME(6)
+);
@@ -0,0 +1,16 @@
+-- Listing changes, appended in the transaction that makes them and tailed by every backend
+-- instance to evict changed listings from its caches (see InvalidationBus).
+-- spring.jpa.hibernate.ddl-auto=none in production, so create this table manually.
+CREATE TABLE IF NOT EXISTS property_change_log (
+    Id           BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    PropertyId   BIGINT,
+    Node         VARCHAR(64)   NOT NULL,
+    ChangedAt    DATETIME(6)   NOT NULL,
+    -- The listing's values as JSON, for the typeahead and market statistics of other instances
+    ValuesBefore VARCHAR(4000),
+    ValuesAfter  VARCHAR(4000),
+    INDEX idx_property_change_log_changed_at (ChangedAt)
+);
+
+-- Tables created before the listing values were logged:
+-- ALTER TABLE property_change_log ADD COLUMN ValuesBefore VARCHAR(4000), ADD COLUMN ValuesAfter VARCHAR(4000);
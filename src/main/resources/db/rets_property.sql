@@ -0,0 +1,58 @@
+-- Columns of rets_property mapped by the Property entity, for a local MySQL database.
+-- The production table comes from the MLS feed and has many more columns; this is enough
+-- to run the backend and to load synthetic listings (see SeedRunner, idx.seed.rows).
+CREATE TABLE IF NOT EXISTS rets_property (
+    Id                        BIGINT        NOT NULL PRIMARY KEY,
+    L_Address                 VARCHAR(255),
+    L_City                    VARCHAR(255),
+    L_State                   VARCHAR(255),
+    L_Zip                     VARCHAR(255),
+    L_Class                   VARCHAR(255),
+    L_Type_                   VARCHAR(255),
+    L_Keyword2                INT,
+    LM_Dec_3                  INT,
+    L_Keyword1                INT,
+    L_Keyword5                INT,
+    L_SystemPrice             DOUBLE,
+    LMD_MP_Latitude           VARCHAR(255),
+    LMD_MP_Longitude          VARCHAR(255),
+    L_Remarks                 TEXT,
+    YearBuilt                 INT,
+    Appliances                TEXT,
+    L_Photos                  TEXT,
+    L_DisplayId               VARCHAR(255),
+    L_Status                  VARCHAR(255),
+    StandardStatus            VARCHAR(255),
+    ListingContractDate       DATE,
+    DaysOnMarket              INT,
+    L_AddressStreet           VARCHAR(255),
+    SubdivisionName           VARCHAR(255),
+    CountyOrParish            VARCHAR(255),
+    LM_Int2_3                 INT,
+    LotSizeSquareFeet         DECIMAL(14, 2),
+    BathroomsHalf             INT,
+    StoriesTotal              INT,
+    StructureType             VARCHAR(255),
+    PropertyCondition         VARCHAR(255),
+    PoolPrivateYN             BOOLEAN,
+    FireplaceYN               BOOLEAN,
+    ViewYN                    BOOLEAN,
+    GarageYN                  BOOLEAN,
+    CoolingYN                 BOOLEAN,
+    HeatingYN                 BOOLEAN,
+    Cooling                   VARCHAR(255),
+    Heating                   VARCHAR(255),
+    View                      VARCHAR(255),
+    InteriorFeatures          TEXT,
+    AssociationFee            INT,
+    AssociationFeeFrequency   VARCHAR(255),
+    LA1_UserFirstName         VARCHAR(255),
+    LA1_UserLastName          VARCHAR(255),
+    ListAgentFullName         VARCHAR(255),
+    LO1_OrganizationName      VARCHAR(255),
+    ListAgentEmail            VARCHAR(255),
+    ListAgentDirectPhone      VARCHAR(255),
+    -- Set by the MLS feed; not mapped, ListingFeedTailer reads it to find changed listings
+    ModificationTimestamp     DATETIME(6),
+    INDEX idx_rets_property_modified (ModificationTimestamp, Id)
+);
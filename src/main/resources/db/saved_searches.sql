@@ -0,0 +1,28 @@
+-- Saved searches and the alerts raised when listings start matching them (see SavedSearchService).
+-- spring.jpa.hibernate.ddl-auto=none in production, so create these tables manually.
+CREATE TABLE IF NOT EXISTS saved_searches (
+    Id           BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Owner        VARCHAR(255)  NOT NULL,
+    OwnerKeyHash CHAR(64),
+    Name         VARCHAR(255),
+    Query        VARCHAR(4000) NOT NULL,
+    CreatedAt    DATETIME(6),
+    INDEX idx_saved_searches_owner (Owner)
+);
+-- Tables created before owner keys:
+-- ALTER TABLE saved_searches ADD COLUMN OwnerKeyHash CHAR(64) AFTER Owner;
+
+CREATE TABLE IF NOT EXISTS saved_search_alerts (
+    Id            BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    SavedSearchId BIGINT       NOT NULL,
+    Owner         VARCHAR(255) NOT NULL,
+    PropertyId    BIGINT       NOT NULL,
+    Reason        VARCHAR(16),
+    CreatedAt     DATETIME(6),
+    INDEX idx_saved_search_alerts_owner (Owner, CreatedAt),
+    INDEX idx_saved_search_alerts_property (PropertyId)
+);
+-- Tables created before ListingFeedTailer:
+-- CREATE INDEX idx_saved_search_alerts_property ON saved_search_alerts (PropertyId);
+-- ListingFeedTailer finds changed listings by their modification time; without an index it scans rets_property:
+-- CREATE INDEX idx_rets_property_modified ON rets_property (ModificationTimestamp, Id);
@@ -0,0 +1,17 @@
+-- Searches, NLP queries and listings that traffic asks for most, counted by every backend
+-- instance and replayed by new instances before they take traffic (see WarmupService).
+-- spring.jpa.hibernate.ddl-auto=none in production, so create this table manually.
+CREATE TABLE IF NOT EXISTS warmup_sample (
+    Id          BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Kind        VARCHAR(16)   NOT NULL,
+    Fingerprint VARCHAR(64)   NOT NULL,
+    Request     VARCHAR(1000) NOT NULL,
+    Hits        BIGINT        NOT NULL,
+    LastSeen    DATETIME(6)   NOT NULL,
+    UNIQUE KEY uk_warmup_sample_kind_fingerprint (Kind, Fingerprint),
+    INDEX idx_warmup_sample_last_seen (LastSeen)
+);
+
+-- NLP samples hold the filters parsed from a query as JSON, not the text users typed.
+-- Earlier versions stored the text; remove those rows rather than wait for idx.warmup.retention-days:
+-- DELETE FROM warmup_sample WHERE Kind = 'NLP' AND Request NOT LIKE '{%';
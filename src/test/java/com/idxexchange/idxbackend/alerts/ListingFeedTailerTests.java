@@ -0,0 +1,89 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.SavedSearch;
+import com.idxexchange.idxbackend.model.SearchAlert;
+import com.idxexchange.idxbackend.repository.SearchAlertRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Listings written to rets_property directly, as the MLS feed does, raise alerts
+ */
+@SpringBootTest(properties = {"alerts.feed.enabled=true", "alerts.feed.poll-ms=3600000", "alerts.writer.flush-interval-ms=50"})
+class ListingFeedTailerTests {
+
+    private static final String OWNER = "feed-test@example.com";
+    // Column names as the test database's naming strategy has them; production uses L_City and so on
+    private static final String INSERT = "INSERT INTO rets_property (Id, l_city, l_state, l_keyword2, l_system_price, ModificationTimestamp) " +
+                                         "VALUES (?, 'Irvine', 'CA', 3, ?, ?)";
+    private static final String UPDATE = "UPDATE rets_property SET l_system_price = ?, ModificationTimestamp = ? WHERE Id = ?";
+
+    @Autowired
+    private ListingFeedTailer tailer;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired
+    private SearchAlertRepository searchAlertRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void alertsOnListingsTheFeedAddsAndChanges() throws InterruptedException {
+        // Not mapped by Property; the feed's own table has it
+        jdbcTemplate.execute("ALTER TABLE rets_property ADD COLUMN IF NOT EXISTS ModificationTimestamp TIMESTAMP");
+        tailer.poll();
+        tailer.poll();
+        assertThat(tailer.isTrackingChanges()).isTrue();
+
+        SavedSearch search = savedSearchService.create(OWNER, SavedSearchService.newOwnerKey(), "Irvine 3 bed",
+                PropertySearchQuery.builder().city("Irvine").beds(3).maxPrice(1_500_000.0).build());
+        Instant now = Instant.now();
+        try {
+            jdbcTemplate.update(INSERT, 9_500_001L, 1_200_000.0, Timestamp.from(now));
+            jdbcTemplate.update(INSERT, 9_500_002L, 1_900_000.0, Timestamp.from(now));
+            tailer.poll();
+            await().atMost(Duration.ofSeconds(5)).until(() -> alerts().size() == 1);
+
+            // A price drop into range alerts; a second change while still matching does not
+            jdbcTemplate.update(UPDATE, 1_400_000.0, Timestamp.from(now.plusSeconds(1)), 9_500_002L);
+            tailer.poll();
+            await().atMost(Duration.ofSeconds(5)).until(() -> alerts().size() == 2);
+            jdbcTemplate.update(UPDATE, 1_350_000.0, Timestamp.from(now.plusSeconds(2)), 9_500_002L);
+            tailer.poll();
+            Thread.sleep(200);
+
+            List<SearchAlert> alerts = alerts();
+            assertThat(alerts).hasSize(2);
+            assertThat(alerts).anySatisfy(alert -> {
+                assertThat(alert.getPropertyId()).isEqualTo(9_500_001L);
+                assertThat(alert.getReason()).isEqualTo("new");
+            });
+            assertThat(alerts).anySatisfy(alert -> {
+                assertThat(alert.getPropertyId()).isEqualTo(9_500_002L);
+                assertThat(alert.getReason()).isEqualTo("changed");
+            });
+        } finally {
+            jdbcTemplate.update("DELETE FROM rets_property WHERE Id IN (9500001, 9500002)");
+            savedSearchService.delete(search.getId(), OWNER);
+        }
+    }
+
+    private List<SearchAlert> alerts() {
+        return searchAlertRepository.findByOwnerOrderByCreatedAtDesc(OWNER, Pageable.unpaged()).getContent();
+    }
+}
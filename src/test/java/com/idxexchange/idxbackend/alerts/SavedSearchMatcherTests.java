@@ -0,0 +1,123 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.alerts.SavedSearchMatcher.Match;
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SavedSearchMatcherTests {
+
+    private static final String[] CITIES = {"Irvine", "Tustin", "Anaheim", "Orange"};
+    private static final String[] ZIPS = {"92602", "92618", "92780", "92801"};
+    private static final String[] SUBDIVISIONS = {"Woodbridge", "Tustin Ranch", null};
+
+    @Test
+    void matchesTheSameSearchesAsCheckingEachOne() {
+        Random random = new Random(42);
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        List<SearchPredicate> all = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            PropertySearchQuery query = randomQuery(random);
+            matcher.put(id, "owner" + (id % 7), query);
+            all.add(new SearchPredicate(id, "owner" + (id % 7), query));
+        }
+        // Replacing and removing keep the buckets consistent
+        for (long id = 1; id <= 300; id++) {
+            PropertySearchQuery query = randomQuery(random);
+            matcher.put(id, "owner" + (id % 7), query);
+            all.set((int) id - 1, new SearchPredicate(id, "owner" + (id % 7), query));
+        }
+        for (long id = 301; id <= 400; id++) {
+            matcher.remove(id);
+        }
+        all.removeIf(search -> search.id > 300 && search.id <= 400);
+        assertThat(matcher.size()).isEqualTo(all.size());
+
+        int matched = 0;
+        for (int i = 0; i < 2000; i++) {
+            Property listing = randomListing(random);
+            Set<Long> expected = all.stream().filter(search -> search.matches(listing))
+                    .map(search -> search.id).collect(Collectors.toCollection(TreeSet::new));
+            List<Match> matches = matcher.match(listing);
+            assertThat(matches).hasSize(expected.size());
+            Set<Long> actual = matches.stream().map(Match::savedSearchId).collect(Collectors.toCollection(TreeSet::new));
+            assertThat(actual).isEqualTo(expected);
+            matched += matches.size();
+        }
+        assertThat(matched).isGreaterThan(0);
+    }
+
+    @Test
+    void putAllReplacesEverySearch() {
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.put(1, "a", PropertySearchQuery.builder().city("Irvine").build());
+        matcher.putAll(List.of(new SavedSearchMatcher.SavedSearchEntry(2, "b",
+                PropertySearchQuery.builder().city("irvine").beds(3).maxPrice(1_000_000.0).build())));
+
+        Property listing = new Property();
+        listing.setCity("IRVINE");
+        listing.setBeds(3);
+        listing.setPrice(900_000.0);
+        assertThat(matcher.match(listing)).containsExactly(new Match(2, "b"));
+        listing.setPrice(1_100_000.0);
+        assertThat(matcher.match(listing)).isEmpty();
+    }
+
+    private static PropertySearchQuery randomQuery(Random random) {
+        PropertySearchQuery.PropertySearchQueryBuilder query = PropertySearchQuery.builder();
+        switch (random.nextInt(5)) {
+            case 0 -> query.zip(pick(random, ZIPS));
+            case 1 -> query.city(pick(random, CITIES).toLowerCase());
+            case 2 -> query.subdivision(pick(random, SUBDIVISIONS));
+            case 3 -> query.county("Orange");
+            default -> { }
+        }
+        if (random.nextInt(3) == 0) {
+            query.beds(1 + random.nextInt(5));
+        } else if (random.nextBoolean()) {
+            query.minBeds(1 + random.nextInt(4));
+        }
+        if (random.nextInt(4) != 0) {
+            double low = 300_000 + random.nextInt(20) * 50_000;
+            if (random.nextBoolean()) {
+                query.minPrice(low);
+            }
+            if (random.nextBoolean()) {
+                query.maxPrice(low + random.nextInt(20) * 50_000);
+            }
+        }
+        if (random.nextBoolean()) {
+            query.minSquareFeet(800 + random.nextInt(20) * 100);
+        }
+        if (random.nextInt(4) == 0) {
+            query.poolPrivate(true);
+        }
+        return query.build();
+    }
+
+    private static Property randomListing(Random random) {
+        Property listing = new Property();
+        listing.setCity(pick(random, CITIES));
+        listing.setZip(pick(random, ZIPS));
+        listing.setSubdivisionName(pick(random, SUBDIVISIONS));
+        listing.setCounty(random.nextInt(5) == 0 ? null : "ORANGE");
+        listing.setBeds(random.nextInt(8) == 0 ? null : 1 + random.nextInt(5));
+        listing.setPrice(random.nextInt(10) == 0 ? null : 250_000.0 + random.nextInt(2_000_000));
+        listing.setSquareFeet(random.nextInt(10) == 0 ? null : 600 + random.nextInt(3000));
+        listing.setPoolPrivate(random.nextBoolean());
+        return listing;
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,169 @@
+package com.idxexchange.idxbackend.alerts;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.SearchAlertRepository;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "alerts.writer.flush-interval-ms=50")
+@AutoConfigureMockMvc
+class SavedSearchServiceTests {
+
+    private static final String OWNER = "alerts-test@example.com";
+    private static final String KEY = "X-Owner-Key";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Autowired
+    private SearchAlertRepository searchAlertRepository;
+
+    @Test
+    void alertsWhenAListingStartsMatching() throws Exception {
+        MvcResult created = mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"owner\":\"" + OWNER + "\",\"name\":\"Irvine 3 bed\","
+                                 + "\"query\":{\"city\":\"irvine\",\"beds\":3,\"maxPrice\":1500000}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query.beds").value(3))
+                .andExpect(jsonPath("$.ownerKeyHash").doesNotExist())
+                .andReturn();
+        long id = idOf(created.getResponse().getContentAsString());
+        String key = created.getResponse().getHeader(KEY);
+        assertThat(key).isNotBlank();
+
+        Property matching = listing(9_400_001L, 1_200_000.0);
+        Property tooExpensive = listing(9_400_002L, 1_900_000.0);
+        try {
+            ingestionService.save(matching);
+            ingestionService.save(tooExpensive);
+            awaitAlerts(1);
+            // A price drop into range alerts; a second change while still matching does not
+            tooExpensive.setPrice(1_400_000.0);
+            ingestionService.save(tooExpensive);
+            tooExpensive.setPrice(1_350_000.0);
+            ingestionService.save(tooExpensive);
+            awaitAlerts(2);
+            Thread.sleep(200);
+
+            mockMvc.perform(get("/saved-searches/alerts").param("owner", OWNER).header(KEY, key))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.content[?(@.propertyId == 9400001)].reason").value("new"))
+                    .andExpect(jsonPath("$.content[?(@.propertyId == 9400002)].reason").value("changed"));
+
+            // Natural language searches are parsed before saving
+            String body = mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON).header(KEY, key)
+                            .content("{\"owner\":\"" + OWNER + "\",\"text\":\"3 bed homes in Irvine\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(KEY))
+                    .andExpect(jsonPath("$.query.beds").value(3))
+                    .andExpect(jsonPath("$.name").value("3 bed homes in Irvine"))
+                    .andReturn().getResponse().getContentAsString();
+            mockMvc.perform(get("/saved-searches").param("owner", OWNER).header(KEY, key))
+                    .andExpect(jsonPath("$.length()").value(2));
+            mockMvc.perform(delete("/saved-searches/" + idOf(body)).param("owner", OWNER).header(KEY, key))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(delete("/saved-searches/" + idOf(body)).param("owner", OWNER).header(KEY, key))
+                    .andExpect(status().isNotFound());
+        } finally {
+            List.of(matching, tooExpensive).forEach(listing -> ingestionService.delete(listing.getId()));
+            mockMvc.perform(delete("/saved-searches/" + id).param("owner", OWNER).header(KEY, key))
+                    .andExpect(status().isNoContent());
+        }
+    }
+
+    @Test
+    void keepsOwnersApart() throws Exception {
+        String owner = "keys-test@example.com";
+        String search = "{\"owner\":\"" + owner + "\",\"query\":{\"city\":\"Irvine\"}}";
+        MvcResult created = mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON).content(search))
+                .andExpect(status().isOk())
+                .andReturn();
+        long id = idOf(created.getResponse().getContentAsString());
+        String key = created.getResponse().getHeader(KEY);
+
+        // Naming the owner is not enough
+        mockMvc.perform(get("/saved-searches").param("owner", owner)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/saved-searches/alerts").param("owner", owner).header(KEY, "guess"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON).content(search))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/saved-searches/" + id)).andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/saved-searches/" + id).param("owner", owner)).andExpect(status().isForbidden());
+
+        // Another owner's key doesn't reach this owner's searches
+        String otherKey = mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"owner\":\"other-" + owner + "\",\"query\":{\"city\":\"Tustin\"}}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(KEY);
+        mockMvc.perform(delete("/saved-searches/" + id).param("owner", "other-" + owner).header(KEY, otherKey))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/saved-searches").param("owner", owner).header(KEY, otherKey))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/saved-searches").param("owner", owner).header(KEY, key))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(delete("/saved-searches/" + id).param("owner", owner).header(KEY, key))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void rejectsSearchesWithoutFiltersOrAValidOwner() throws Exception {
+        mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"3 bed homes\"}"))
+                .andExpect(status().isBadRequest());
+        // Matches every listing
+        mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"owner\":\"" + OWNER + "\",\"query\":{}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"owner\":\"" + OWNER + "\",\"text\":\"homes\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/saved-searches").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"owner\":\"" + "x".repeat(256) + "\",\"query\":{\"city\":\"Irvine\"}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static long idOf(String savedSearchJson) {
+        return Long.parseLong(savedSearchJson.replaceAll("^\\{\"id\":(\\d+),.*", "$1"));
+    }
+
+    private void awaitAlerts(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (searchAlertRepository.findByOwnerOrderByCreatedAtDesc(OWNER, Pageable.unpaged())
+                       .getTotalElements() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static Property listing(long id, double price) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity("Irvine");
+        property.setState("CA");
+        property.setPrice(price);
+        property.setBeds(3);
+        property.setBaths(2);
+        return property;
+    }
+}
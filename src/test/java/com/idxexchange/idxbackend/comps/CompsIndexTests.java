@@ -0,0 +1,68 @@
+package com.idxexchange.idxbackend.comps;
+
+import com.idxexchange.idxbackend.comps.CompsIndex.Neighbor;
+import com.idxexchange.idxbackend.comps.CompsIndex.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompsIndexTests {
+
+    private static final String[] STATUSES = {"Active", "Pending", "Closed"};
+
+    @Test
+    void findsTheSameNeighborsAsABruteForceScan() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<Point> points = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            float[] vector = CompsIndex.vector(
+                    String.valueOf(33.5 + random.nextDouble()), String.valueOf(-118 + random.nextDouble()),
+                    random.nextInt(10) == 0 ? null : 300_000 + random.nextDouble() * 1_500_000,
+                    1 + random.nextInt(5), 1 + random.nextInt(4), 700 + random.nextInt(3000),
+                    random.nextInt(8) == 0 ? null : 1950 + random.nextInt(75),
+                    random.nextBoolean(), random.nextBoolean(), random.nextBoolean(), random.nextBoolean());
+            points.add(new Point(id, STATUSES[random.nextInt(3)], vector));
+        }
+        CompsIndex index = CompsIndex.build(points);
+        assertEquals(points.size(), index.size());
+
+        for (long id = 1; id <= 200; id += 7) {
+            float[] query = index.point(id).vector();
+            long subject = id;
+            for (double radius : new double[]{0, 5}) {
+                List<Neighbor> nearest = index.nearest(query, 5, Set.of("closed"), radius, candidate -> candidate == subject);
+                List<Neighbor> expected = bruteForce(index, query, subject, radius);
+                assertEquals(expected.stream().map(Neighbor::id).toList(), nearest.stream().map(Neighbor::id).toList());
+                nearest.forEach(neighbor -> assertTrue(radius == 0 || neighbor.distanceKm() <= radius));
+            }
+        }
+    }
+
+    private static List<Neighbor> bruteForce(CompsIndex index, float[] query, long subject, double radius) {
+        List<Neighbor> all = new ArrayList<>();
+        for (long id = 1; id <= index.size(); id++) {
+            Point point = index.point(id);
+            double km = CompsIndex.distanceKm(query, point.vector());
+            if (id != subject && point.status().equals("Closed") && (radius == 0 || km <= radius)) {
+                all.add(new Neighbor(id, CompsIndex.distance(query, point.vector()), km));
+            }
+        }
+        all.sort(Comparator.comparingDouble(Neighbor::distance));
+        return all.subList(0, Math.min(5, all.size()));
+    }
+
+    @Test
+    void skipsListingsWithoutCoordinates() {
+        assertNull(CompsIndex.vector(null, "-117.8", 500_000.0, 3, 2, 1500, 1990, true, false, false, true));
+        assertNull(CompsIndex.vector("0", "0", 500_000.0, 3, 2, 1500, 1990, true, false, false, true));
+        assertNull(CompsIndex.vector("n/a", "-117.8", 500_000.0, 3, 2, 1500, 1990, true, false, false, true));
+    }
+}
@@ -0,0 +1,84 @@
+package com.idxexchange.idxbackend.comps;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CompsServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CompsService compsService;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Test
+    void findsSimilarListingsBeforeAndAfterARebuild() throws Exception {
+        List<Property> listings = List.of(
+                listing(9_300_001L, "33.6846", "-117.8265", 1_200_000.0, 4, 3, 2400, "Active"),
+                listing(9_300_002L, "33.6850", "-117.8270", 1_150_000.0, 4, 3, 2300, "Closed"),
+                listing(9_300_003L, "33.6900", "-117.8300", 600_000.0, 2, 1, 900, "Closed"),
+                listing(9_300_004L, "34.0522", "-118.2437", 1_200_000.0, 4, 3, 2400, "Closed"),
+                listing(9_300_005L, "33.6847", "-117.8266", 1_190_000.0, 4, 3, 2350, "Pending"),
+                listing(9_300_006L, null, null, 1_200_000.0, 4, 3, 2400, "Closed"));
+        listings.forEach(ingestionService::save);
+        try {
+            // Served from the overlay of changes
+            expectComps();
+            compsService.reload();
+            // Served from the rebuilt tree
+            expectComps();
+        } finally {
+            listings.forEach(listing -> ingestionService.delete(listing.getId()));
+        }
+        mockMvc.perform(get("/properties/9300001/comps")).andExpect(status().isNotFound());
+    }
+
+    private void expectComps() throws Exception {
+        mockMvc.perform(get("/properties/9300001/comps").param("k", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].property.id").value(9_300_005L))
+                .andExpect(jsonPath("$[1].property.id").value(9_300_002L));
+        mockMvc.perform(get("/properties/9300001/comps").param("status", "closed").param("radiusKm", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].property.id").value(9_300_002L))
+                .andExpect(jsonPath("$[1].property.id").value(9_300_003L))
+                .andExpect(jsonPath("$[1].distanceKm").value(lessThan(1.0)));
+        mockMvc.perform(get("/properties/9300006/comps")).andExpect(status().isNotFound());
+    }
+
+    private static Property listing(long id, String latitude, String longitude, double price, int beds, int baths,
+                                    int squareFeet, String status) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity("Irvine");
+        property.setState("CA");
+        property.setLatitude(latitude);
+        property.setLongitude(longitude);
+        property.setPrice(price);
+        property.setBeds(beds);
+        property.setBaths(baths);
+        property.setSquareFeet(squareFeet);
+        property.setYear_built(2005);
+        property.setStandardStatus(status);
+        return property;
+    }
+}
@@ -0,0 +1,52 @@
+package com.idxexchange.idxbackend.config;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LazyAttributeModuleTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Test
+    void searchesLeaveOutDetailColumnsAndTheDetailViewLoadsThem() throws Exception {
+        Property listing = new Property();
+        listing.setId(9_500_001L);
+        listing.setCity("Lazyville");
+        listing.setState("CA");
+        listing.setPrice(750_000.0);
+        listing.setPhotos("[\"https://example.com/1.jpg\"]");
+        listing.setRemarks("Sunny corner lot");
+        listing.setAgentFullName("Pat Lee");
+        ingestionService.save(listing);
+        try {
+            mockMvc.perform(get("/properties").param("city", "Lazyville"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].price").value(750_000.0))
+                    .andExpect(jsonPath("$.content[0].photos").exists())
+                    .andExpect(jsonPath("$.content[0].remarks").doesNotExist())
+                    .andExpect(jsonPath("$.content[0].agentFullName").doesNotExist());
+            mockMvc.perform(get("/properties/9500001"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.remarks").value("Sunny corner lot"))
+                    .andExpect(jsonPath("$.agentFullName").value("Pat Lee"));
+        } finally {
+            ingestionService.delete(listing.getId());
+        }
+        mockMvc.perform(get("/properties/9500001")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,56 @@
+package com.idxexchange.idxbackend.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.idxexchange.idxbackend.dto.PropertyFields;
+import com.idxexchange.idxbackend.model.Property;
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeImageHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageHintsTests() {
+        new NativeImageHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void coversTheReflectionBehindFieldSelection() {
+        for (String name : PropertyFields.available()) {
+            Field field = ReflectionUtils.findField(Property.class, name);
+            assertThat(RuntimeHintsPredicates.reflection().onField(field)).as(name).accepts(hints);
+        }
+        PropertyFields all = PropertyFields.parse(String.join(",", PropertyFields.available()));
+        assertThat(all.names()).allSatisfy(name -> assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(Property.class, "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1))
+                .invoke()).accepts(hints));
+    }
+
+    @Test
+    void coversTheOpenAiClient() {
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(OpenAiApi.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ChatCompletionResult.class, "getChoices").invoke())
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ChatMessage.class, "setContent").invoke())
+                .accepts(hints);
+    }
+
+    @Test
+    void coversTheSecondLevelCache() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(JCacheRegionFactory.class.getConstructor()).invoke())
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(CaffeineCachingProvider.class.getConstructor()).invoke())
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("reference.conf")).accepts(hints);
+    }
+}
@@ -0,0 +1,44 @@
+package com.idxexchange.idxbackend.config;
+
+import com.idxexchange.idxbackend.metrics.SqlStatsDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthContributorRegistry;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The idx.* switches are read by beans that are always registered, so they work the same in AOT builds
+ */
+@SpringBootTest(properties = {
+        "idx.cache.property.enabled=false",
+        "idx.sql.stats.enabled=false",
+        "idx.warmup.enabled=false",
+        "idx.invalidation.enabled=false"})
+class RuntimeSwitchesTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HealthContributorRegistry healthContributors;
+
+    @Test
+    void switchedOffFeaturesStayOutOfTheWay() {
+        assertThat(dataSource).isNotInstanceOf(SqlStatsDataSource.class);
+        assertThat(entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled()).isFalse();
+        HealthIndicator warmup = (HealthIndicator) healthContributors.getContributor("warmup");
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
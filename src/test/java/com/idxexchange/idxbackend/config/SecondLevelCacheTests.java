@@ -0,0 +1,92 @@
+package com.idxexchange.idxbackend.config;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.repository.PropertyRepository;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import com.idxexchange.idxbackend.service.PropertyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The invalidation poller and warm-up sample flushes would add their own statements to the counts below
+@SpringBootTest(properties = {"idx.invalidation.enabled=false", "idx.warmup.enabled=false", "alerts.feed.enabled=false"})
+class SecondLevelCacheTests {
+
+    private static final long ID = 9_600_001L;
+    private static final long OTHER_ID = 9_600_002L;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void servesRepeatedDetailLookupsFromTheCacheAndSeesIngestedChanges() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ingestionService.save(listing(ID, 900_000.0));
+        ingestionService.save(listing(OTHER_ID, 800_000.0));
+        try {
+            entityManagerFactory.getCache().evict(Property.class);
+
+            // Searches don't fill the cache
+            propertyService.searchProperties("Cacheville", null, null, null, null, null, null, null, null, PageRequest.of(0, 20));
+            assertThat(entityManagerFactory.getCache().contains(Property.class, ID)).isFalse();
+
+            // The first detail lookup reads every column in one statement, later ones none
+            assertThat(statementsFor(statistics, () -> propertyService.findDetails(ID))).isEqualTo(1);
+            assertThat(statementsFor(statistics, () ->
+                    assertThat(propertyService.findDetails(ID).orElseThrow().getAgentEmail()).isEqualTo("agent@example.com")))
+                    .isZero();
+
+            // Id lookups take cached listings from the cache and select the rest
+            assertThat(statementsFor(statistics, () ->
+                    assertThat(propertyRepository.findAllById(List.of(ID, OTHER_ID, -1L))).hasSize(2)))
+                    .isEqualTo(1);
+            assertThat(statementsFor(statistics, () -> propertyRepository.findAllById(List.of(ID)))).isZero();
+
+            // Changes through the ingestion path replace the cached listing
+            Property changed = listing(ID, 850_000.0);
+            changed.setRemarks("Price reduced");
+            ingestionService.save(changed);
+            Property cached = propertyService.findDetails(ID).orElseThrow();
+            assertThat(cached.getPrice()).isEqualTo(850_000.0);
+            assertThat(cached.getRemarks()).isEqualTo("Price reduced");
+        } finally {
+            ingestionService.delete(ID);
+            ingestionService.delete(OTHER_ID);
+        }
+        assertThat(propertyService.findDetails(ID)).isEmpty();
+    }
+
+    private static long statementsFor(Statistics statistics, Runnable lookup) {
+        long before = statistics.getPrepareStatementCount();
+        lookup.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private static Property listing(long id, double price) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity("Cacheville");
+        property.setState("CA");
+        property.setPrice(price);
+        property.setRemarks("Corner lot");
+        property.setAgentEmail("agent@example.com");
+        return property;
+    }
+}
@@ -0,0 +1,95 @@
+package com.idxexchange.idxbackend.dto;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PropertyFieldsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Test
+    void parsesFieldsInDeclarationOrder() {
+        PropertyFields fields = PropertyFields.parse(" price, id,,latitude ,price");
+        assertThat(fields.names()).containsExactly("id", "price", "latitude");
+        assertThat(fields.selectList("p")).isEqualTo("p.id, p.price, p.latitude");
+        assertThat(fields).isEqualTo(PropertyFields.parse("latitude,id,price"));
+        assertThat(PropertyFields.parse(" ")).isNull();
+        assertThatThrownBy(() -> PropertyFields.parse("id,price desc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("price desc");
+    }
+
+    @Test
+    void writesOnlyTheRequestedFields() throws Exception {
+        Property listing = new Property();
+        listing.setId(9_500_101L);
+        listing.setCity("Fieldville");
+        listing.setState("CA");
+        listing.setPrice(640_000.0);
+        listing.setBeds(3);
+        listing.setLatitude("33.68");
+        listing.setLongitude("-117.82");
+        listing.setRemarks("Corner unit");
+        ingestionService.save(listing);
+        try {
+            mockMvc.perform(get("/properties").param("city", "Fieldville").param("fields", "id,latitude,longitude,price"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(1))
+                    .andExpect(jsonPath("$.content[0]", aMapWithSize(4)))
+                    .andExpect(jsonPath("$.content[0].id").value(9_500_101L))
+                    .andExpect(jsonPath("$.content[0].latitude").value("33.68"))
+                    .andExpect(jsonPath("$.content[0].price").value(640_000.0));
+
+            mockMvc.perform(get("/properties").param("city", "Fieldville").param("fields", "id"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0]", aMapWithSize(1)))
+                    .andExpect(jsonPath("$.content[0].id").value(9_500_101L));
+
+            // Lazy columns come straight from the select list
+            mockMvc.perform(post("/properties/nlp-search").param("fields", "id,remarks").content("homes in Fieldville"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0]", aMapWithSize(2)))
+                    .andExpect(jsonPath("$.content[0].remarks").value("Corner unit"));
+
+            mockMvc.perform(get("/properties/9500101").param("fields", "beds,remarks"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", aMapWithSize(2)))
+                    .andExpect(jsonPath("$.beds").value(3))
+                    .andExpect(jsonPath("$.remarks").value("Corner unit"));
+
+            // Each endpoint says which fields are wrong and which can be used
+            mockMvc.perform(get("/properties").param("fields", "id,password"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Unknown fields: password"))
+                    .andExpect(jsonPath("$.fields", hasItems("id", "price", "remarks")));
+            mockMvc.perform(get("/properties/9500101").param("fields", "bedz"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Unknown fields: bedz"));
+            mockMvc.perform(post("/properties/nlp-search").param("fields", "id,price desc").content("homes in Fieldville"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Unknown fields: price desc"));
+        } finally {
+            ingestionService.delete(listing.getId());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.idxexchange.idxbackend.invalidation;
+
+import com.idxexchange.idxbackend.IdxBackendApplication;
+import com.idxexchange.idxbackend.comps.CompsService;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import com.idxexchange.idxbackend.service.PropertyService;
+import com.idxexchange.idxbackend.stats.MarketStatsService;
+import com.idxexchange.idxbackend.suggest.SuggestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two instances of the backend sharing one database, as behind a load balancer.
+ * Not run as a native test: it starts its contexts itself, which AOT processing doesn't see.
+ */
+@DisabledInAotMode
+class InvalidationBusTests {
+
+    private static final long ID = 9_800_001L;
+    private static final long DERIVED_ID = 9_800_002L;
+
+    @Test
+    void evictsListingsChangedByAnotherInstance() {
+        try (ConfigurableApplicationContext writer = start(); ConfigurableApplicationContext reader = start()) {
+            PropertyIngestionService ingestion = writer.getBean(PropertyIngestionService.class);
+            PropertyService readerService = reader.getBean(PropertyService.class);
+            Cache readerCache = reader.getBean(EntityManagerFactory.class).getCache();
+
+            ingestion.save(listing(500_000.0));
+            // Otherwise the reader could evict the listing for this change after caching it below
+            await().atMost(Duration.ofSeconds(5)).until(() -> received(reader) == 1);
+            assertThat(readerService.findDetails(ID).orElseThrow().getPrice()).isEqualTo(500_000.0);
+            assertThat(readerCache.contains(Property.class, ID)).isTrue();
+
+            ingestion.save(listing(450_000.0));
+            await().atMost(Duration.ofSeconds(5)).until(() -> !readerCache.contains(Property.class, ID));
+            assertThat(readerService.findDetails(ID).orElseThrow().getPrice()).isEqualTo(450_000.0);
+
+            ingestion.delete(ID);
+            await().atMost(Duration.ofSeconds(5)).until(() -> !readerCache.contains(Property.class, ID));
+            assertThat(readerService.findDetails(ID)).isEmpty();
+
+            // Each instance only evicts what the others changed
+            assertThat(received(reader)).isEqualTo(3);
+            assertThat(received(writer)).isZero();
+        }
+    }
+
+    @Test
+    void updatesTheIndexesOfAnotherInstance() {
+        try (ConfigurableApplicationContext writer = start(); ConfigurableApplicationContext reader = start()) {
+            PropertyIngestionService ingestion = writer.getBean(PropertyIngestionService.class);
+            MarketStatsService stats = reader.getBean(MarketStatsService.class);
+            SuggestionService suggestions = reader.getBean(SuggestionService.class);
+            CompsService comps = reader.getBean(CompsService.class);
+
+            Property listing = listing(500_000.0);
+            listing.setId(DERIVED_ID);
+            listing.setCity("Derivedville");
+            listing.setLatitude("38.5");
+            listing.setLongitude("-121.5");
+            ingestion.save(listing);
+            // The caches are updated one after another
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                assertThat(stats.stats("Derivedville", null, null, null).getListings()).isEqualTo(1);
+                assertThat(suggestions.suggest("derivedv", 5)).singleElement()
+                        .satisfies(suggestion -> assertThat(suggestion.count()).isEqualTo(1));
+                assertThat(comps.comps(DERIVED_ID, 5, null, null)).isNotNull();
+            });
+
+            // Moved out of its old city's counts, into the new one's
+            listing.setCity("Othertown");
+            ingestion.save(listing);
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                assertThat(stats.stats("Othertown", null, null, null).getListings()).isEqualTo(1);
+                assertThat(suggestions.suggest("derivedv", 5)).isEmpty();
+            });
+            assertThat(stats.stats("Derivedville", null, null, null).getListings()).isZero();
+            assertThat(stats.stats("Othertown", null, null, null).getMedianPrice()).isCloseTo(500_000.0, within(5_000.0));
+
+            ingestion.delete(DERIVED_ID);
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                assertThat(comps.comps(DERIVED_ID, 5, null, null)).isNull();
+                assertThat(stats.stats("Othertown", null, null, null).getListings()).isZero();
+                assertThat(suggestions.suggest("othert", 5)).isEmpty();
+            });
+        }
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    void startsAndRetriesWithoutTheChangeLogTable(CapturedOutput output) {
+        try (ConfigurableApplicationContext instance = start("invalidation-no-log", "none")) {
+            MeterRegistry meterRegistry = instance.getBean(MeterRegistry.class);
+            await().atMost(Duration.ofSeconds(5))
+                    .until(() -> meterRegistry.counter("idx.invalidation.poll.failed").count() >= 4);
+            // Reported once, not by Hibernate for every failed poll as well
+            assertThat(output.toString().lines().filter(line -> line.toLowerCase().contains("property_change_log"))).hasSize(1);
+            // Backing off: 20, 40, 80, 160... ms between polls rather than every 20 ms
+            double failures = meterRegistry.counter("idx.invalidation.poll.failed").count();
+            await().pollDelay(Duration.ofMillis(500)).until(() -> true);
+            assertThat(meterRegistry.counter("idx.invalidation.poll.failed").count() - failures).isLessThan(10);
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        // The second instance must not drop the first one's tables
+        return start("invalidation-cluster", "update");
+    }
+
+    private static ConfigurableApplicationContext start(String database, String ddlAuto) {
+        return new SpringApplicationBuilder(IdxBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "spring.main.banner-mode=off",
+                        "idx.invalidation.enabled=true",
+                        "idx.invalidation.poll-interval-ms=20",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static double received(ConfigurableApplicationContext context) {
+        return context.getBean(MeterRegistry.class).counter("idx.invalidation.received").count();
+    }
+
+    private static Property listing(double price) {
+        Property listing = new Property();
+        listing.setId(ID);
+        listing.setCity("Clusterville");
+        listing.setState("CA");
+        listing.setPrice(price);
+        listing.setRemarks("Two instances, one database");
+        return listing;
+    }
+}
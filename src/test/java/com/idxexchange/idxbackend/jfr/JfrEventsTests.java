@@ -0,0 +1,66 @@
+package com.idxexchange.idxbackend.jfr;
+
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JfrEventsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @Test
+    void searchAndParseEventsAreRecorded() throws Exception {
+        Path file = Files.createTempFile("idx", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PropertySearchEvent.class);
+            recording.enable(NlpParseEvent.class);
+            recording.start();
+            mockMvc.perform(get("/properties").param("city", "Irvine").param("minBeds", "3").param("size", "50"))
+                    .andExpect(status().isOk());
+            nlpQueryParserService.parseQuery("3 bedroom house with pool in Fresno under 500k");
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent search = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.idxexchange.PropertySearch"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("filters", search.getString("searchType"));
+            assertEquals("city+minBeds", search.getString("shape"));
+            assertEquals(50, search.getInt("pageSize"));
+            assertTrue(search.getDuration("serializationTime").toNanos() > 0);
+            assertTrue(search.getDuration("dbTime").toNanos() > 0);
+
+            RecordedEvent parse = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.idxexchange.NlpParse"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("city+maxPrice+beds+pool+propertyType", parse.getString("shape"));
+            assertEquals(5, parse.getInt("criteria"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.idxexchange.idxbackend.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConcurrencyLimitInterceptorTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shedsRequestsOverTheLimitOfTheirEndpointClass() throws Exception {
+        ConcurrencyLimiter search = interceptor.limiter("search");
+        double rejectedBefore = rejected("search");
+        List<Integer> held = new ArrayList<>();
+        try {
+            int inflight;
+            while ((inflight = search.tryAcquire()) > 0) {
+                held.add(inflight);
+            }
+
+            mockMvc.perform(get("/properties").param("city", "Irvine"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+            assertThat(rejected("search")).isEqualTo(rejectedBefore + 2);
+
+            // Other endpoint classes, and endpoints without a limit, are not affected
+            mockMvc.perform(get("/properties/-1")).andExpect(status().isNotFound());
+            mockMvc.perform(get("/properties/suggest").param("prefix", "Irv")).andExpect(status().isOk());
+        } finally {
+            held.forEach(inflight -> search.release(1_000_000, inflight));
+        }
+
+        mockMvc.perform(get("/properties").param("city", "Irvine")).andExpect(status().isOk());
+        assertThat(search.inflight()).isZero();
+    }
+
+    private double rejected(String endpoint) {
+        return meterRegistry.counter("idx.limit.rejected", "endpoint", endpoint).count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.idxexchange.idxbackend.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(80);
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 5000);
+
+        saturate(limit, FAST, 200);
+        int grown = limit.get();
+        assertThat(grown).isGreaterThan(20);
+
+        // The database slows down: the limit follows latency down to the minimum
+        saturate(limit, SLOW, 200);
+        assertThat(limit.get()).isEqualTo(4);
+
+        // And grows again once it recovers
+        saturate(limit, FAST, 500);
+        assertThat(limit.get()).isGreaterThan(20);
+    }
+
+    @Test
+    void keepsQueueingDelayBoundedUnderOverload() {
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 1000);
+
+        // A backend that serves 30 requests at a time; beyond that they queue
+        long rtt = overload(limit, FAST, 30, 20_000);
+        assertThat(limit.get()).isBetween(30, 60);
+        assertThat(rtt).isLessThanOrEqualTo(2 * FAST);
+
+        // Slower, with the same concurrency: probes take the slower RTT as the new baseline
+        rtt = overload(limit, SLOW, 30, 20_000);
+        assertThat(limit.get()).isBetween(30, 60);
+        assertThat(rtt).isLessThanOrEqualTo(2 * SLOW);
+    }
+
+    @Test
+    void staysAsItIsUnderLightLoad() {
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 5000);
+        for (int i = 0; i < 200; i++) {
+            limit.sample(FAST, 3);
+        }
+        assertThat(limit.get()).isEqualTo(20);
+    }
+
+    @Test
+    void keepsWithinItsBounds() {
+        GradientLimit limit = new GradientLimit(20, 4, 50, 1.5, 0.2, 5000);
+        saturate(limit, FAST, 1000);
+        assertThat(limit.get()).isEqualTo(50);
+    }
+
+    private static void saturate(GradientLimit limit, long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limit.sample(rttNanos, limit.get());
+        }
+    }
+
+    // Every admitted slot is taken; requests beyond the backend's concurrency wait their turn
+    private static long overload(GradientLimit limit, long serviceNanos, int concurrency, int samples) {
+        long rtt = 0;
+        for (int i = 0; i < samples; i++) {
+            rtt = (long) (serviceNanos * Math.max(1.0, (double) limit.get() / concurrency));
+            limit.sample(rtt, limit.get());
+        }
+        return rtt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.idxexchange.idxbackend.metrics;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.service.PropertyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class SearchMetricsTests {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shapeListsPresentFiltersInOrder() {
+        assertEquals("none", SearchMetrics.shape("city", null, "zip", " "));
+        assertEquals("city+minPrice", SearchMetrics.shape("city", "Irvine", "zip", "", "minPrice", 300_000.0));
+    }
+
+    @Test
+    void nlpShapeFollowsTheBuiltPredicates() {
+        PropertySearchQuery query = PropertySearchQuery.builder()
+                .city("Irvine").beds(3).minBeds(2).poolPrivate(true).view(false).build();
+        assertEquals("city+beds+pool", SearchMetrics.shape(query));
+    }
+
+    @Test
+    void pageSizesAreBucketed() {
+        assertEquals("20", SearchMetrics.pageSizeTag(PageRequest.of(0, 10)));
+        assertEquals("100", SearchMetrics.pageSizeTag(PageRequest.of(0, 64)));
+        assertEquals("more", SearchMetrics.pageSizeTag(PageRequest.of(0, 2000)));
+        assertEquals("unpaged", SearchMetrics.pageSizeTag(Pageable.unpaged()));
+    }
+
+    @Test
+    void searchesAreTimedByShape() {
+        propertyService.searchProperties("Nowhere", null, null, 100_000.0, null, null, 2, null, null, PageRequest.of(0, 20));
+        propertyService.searchPropertiesWithNLP("3 bedroom house in Irvine", PageRequest.of(0, 50));
+
+        Timer filters = meterRegistry.find("idx.search")
+                .tags("type", "filters", "shape", "city+minPrice+minBeds", "page.size", "20", "outcome", "empty")
+                .timer();
+        assertNotNull(filters);
+        assertEquals(1, filters.count());
+        assertNotNull(meterRegistry.find("idx.search.query").tags("type", "filters", "shape", "city+minPrice+minBeds").timer());
+        assertNotNull(meterRegistry.find("idx.search").tags("type", "nlp", "page.size", "50").timer());
+        assertNotNull(meterRegistry.find("nlp.parse").tags("cache", "miss").timer());
+    }
+}
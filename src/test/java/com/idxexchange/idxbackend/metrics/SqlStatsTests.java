@@ -0,0 +1,123 @@
+package com.idxexchange.idxbackend.metrics;
+
+import com.idxexchange.idxbackend.service.PropertyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"idx.sql.stats.slow-threshold-ms=0", "idx.sql.stats.log-slow=false"})
+class SqlStatsTests {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private SqlStats sqlStats;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void fingerprintIgnoresLiteralsAndListLengths() {
+        String a = SqlFingerprint.normalize("select p1_0.id from rets_property p1_0 where p1_0.city='Irvine'  and p1_0.beds in (1, 2, 3) limit 20");
+        String b = SqlFingerprint.normalize("select p1_0.id from rets_property p1_0\nwhere p1_0.city='Chula Vista' and p1_0.beds in (4,5) limit 50");
+        assertEquals("select p1_0.id from rets_property p1_0 where p1_0.city=? and p1_0.beds in (?...) limit ?", a);
+        assertEquals(a, b);
+        assertEquals(SqlFingerprint.id(a), SqlFingerprint.id(b));
+    }
+
+    @Test
+    void searchesAreFingerprintedAndExplained() throws InterruptedException {
+        propertyService.searchProperties("Irvine", null, null, 100_000.0, null, null, 2, null, null, PageRequest.of(0, 20));
+        propertyService.searchProperties("Fresno", null, null, 500_000.0, null, null, 4, null, null, PageRequest.of(0, 20));
+
+        Map<String, Object> search = sqlStats.summary(100).stream()
+                .filter(statement -> ((String) statement.get("sql")).contains("l_city)=? and p1_0.l_system_price>=?"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(sqlStats.summary(100)));
+        assertEquals(2L, search.get("count"));
+
+        String id = (String) search.get("id");
+        Map<String, Object> detail = sqlStats.detail(id);
+        for (int i = 0; i < 50 && detail.get("plan") == null; i++) {
+            Thread.sleep(100);
+            detail = sqlStats.detail(id);
+        }
+        String plan = (String) detail.get("plan");
+        assertNotNull(plan);
+        assertFalse(plan.startsWith("EXPLAIN failed"), plan);
+        List<?> samples = (List<?>) detail.get("slowSamples");
+        assertTrue(samples.size() >= 2);
+    }
+
+    @Test
+    void explainsStatementsThatDidNotFitTheQueueOnTheirNextSlowRun() throws InterruptedException {
+        DataSource target = ((SqlStatsDataSource) dataSource).getTargetDataSource();
+        CountDownLatch explaining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        sqlStats.setExplainDataSource(new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                explaining.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getConnection();
+            }
+        });
+
+        // One EXPLAIN running, a full queue, and one more that doesn't fit
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i < SqlStats.EXPLAIN_QUEUE_CAPACITY + 2; i++) {
+            statements.add("select Id as queued_" + i + " from rets_property");
+        }
+        try {
+            sqlStats.record(statements.get(0), 1_000_000, null, 0);
+            assertTrue(explaining.await(5, TimeUnit.SECONDS));
+            for (String sql : statements.subList(1, statements.size())) {
+                sqlStats.record(sql, 1_000_000, null, 0);
+            }
+        } finally {
+            sqlStats.setExplainDataSource(target);
+            release.countDown();
+        }
+        String rejected = id(statements.get(statements.size() - 1));
+        waitForPlan(id(statements.get(0)));
+        assertNull(sqlStats.detail(rejected).get("plan"));
+
+        sqlStats.record(statements.get(statements.size() - 1), 1_000_000, null, 0);
+        String plan = waitForPlan(rejected);
+        assertNotNull(plan);
+        assertFalse(plan.startsWith("EXPLAIN failed"), plan);
+    }
+
+    private String waitForPlan(String id) throws InterruptedException {
+        for (int i = 0; i < 50 && sqlStats.detail(id).get("plan") == null; i++) {
+            Thread.sleep(100);
+        }
+        return (String) sqlStats.detail(id).get("plan");
+    }
+
+    private static String id(String sql) {
+        return SqlFingerprint.id(SqlFingerprint.normalize(sql));
+    }
+}
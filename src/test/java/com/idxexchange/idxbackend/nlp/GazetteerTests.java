@@ -0,0 +1,49 @@
+package com.idxexchange.idxbackend.nlp;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GazetteerTests {
+
+    private final QueryScanner scanner = new QueryScanner(Gazetteer.build(
+            List.of("Irvine", "Mount Shasta", "St. Helena", "La Cañada Flintridge", "Chino Hills", "Orange"),
+            List.of("Orange", "Marin", "Los Angeles County"),
+            List.of("Woodbridge", "None", "N/A")
+    ));
+
+    @Test
+    void resolvesCitiesFromTheDatabaseAndBuiltInList() {
+        assertEquals("Irvine", scanner.parse("3 beds in irvine").getCity());
+        assertEquals("Fresno", scanner.parse("homes in fresno").getCity());
+        assertEquals("Los Angeles", scanner.parse("condos in LA under 500k").getCity());
+    }
+
+    @Test
+    void prefersTheLongestName() {
+        assertEquals("Chino Hills", scanner.parse("house in Chino Hills").getCity());
+        PropertySearchQuery county = scanner.parse("homes in Orange County with a pool");
+        assertEquals("Orange", county.getCounty());
+        assertNull(county.getCity());
+        assertEquals("Orange", scanner.parse("homes in Orange with a pool").getCity());
+    }
+
+    @Test
+    void resolvesCountiesAndSubdivisions() {
+        assertEquals("Marin", scanner.parse("homes in marin").getCounty());
+        assertEquals("Los Angeles County", scanner.parse("condos in county of los angeles").getCounty());
+        assertEquals("Woodbridge", scanner.parse("townhouse near woodbridge").getSubdivision());
+        assertNull(scanner.parse("homes in none").getSubdivision());
+    }
+
+    @Test
+    void resolvesAbbreviationsAndAccentFreeSpellings() {
+        assertEquals("Mount Shasta", scanner.parse("cabins in Mt Shasta").getCity());
+        assertEquals("St. Helena", scanner.parse("homes in saint helena").getCity());
+        assertEquals("La Cañada Flintridge", scanner.parse("in la canada flintridge").getCity());
+    }
+}
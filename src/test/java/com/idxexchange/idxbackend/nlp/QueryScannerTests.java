@@ -0,0 +1,165 @@
+package com.idxexchange.idxbackend.nlp;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * QueryScanner over the built-in cities must produce exactly what the old regex cascade produced,
+ * except where that failed on a bed count too large for an int: the scanner reads it as no match.
+ *
+ * Over a gazetteer, as NLPQueryParserService runs it, only locations may differ: the longest
+ * name wins ("Chino Hills", not "Chino"), cities come back spelled as stored, and counties,
+ * subdivisions and the listings' own cities are found too, each adding to the confidence score.
+ * Every other filter must be the same.
+ */
+class QueryScannerTests {
+
+    private static final String[] FRAGMENTS = {
+        "in", "near", "around", "at", "In", "AT", "under", "below", "less than", "max", "maximum", "up to",
+        "over", "above", "more than", "min", "minimum", "starting at", "at least", "between", "to", "and", "-",
+        "bed", "beds", "bedroom", "bedrooms", "br", "bd", "bath", "baths", "bathroom", "bathrooms", "ba",
+        "sq ft", "sqft", "square feet", "sq  ft", "with", "has", "having", "include", "includes", "a",
+        "pool", "fireplace", "view", "ocean view", "mountain view", "city view", "garage",
+        "house", "condo", "townhouse", "apartment", "single family", "multi  family", "land", "commercial",
+        "built", "after", "since", "from", "before", "prior to", "until",
+        "Los Angeles", "LA", "la", "SF", "San Diego", "Chino", "Chino Hills", "Santa Clara", "Santa Clarita",
+        "Newport", "Newport Beach", "Orange", "Lake Forest", "Lakewood", "irvine",
+        "3", "2.5", "1,500", "500k", "$500,000", "$", "+", "3+", "+2", "2000", "1990", "19999", ",", ".",
+        "k", "K", "m", "homes", "the", "\u00e9", "\u0301", "_", "\t", "  ", "!", "?", "/"
+    };
+
+    private final LegacyRegexQueryParser legacy = new LegacyRegexQueryParser();
+    private final QueryScanner scanner = new QueryScanner(QueryScanner.builtInCities());
+    private final QueryScanner gazetteerScanner = new QueryScanner(Gazetteer.build(
+            List.of("Irvine", "Chino Hills", "Mount Shasta", "Orange", "Yreka"),
+            List.of("Orange", "Marin", "Los Angeles County"),
+            List.of("Woodbridge", "Lakewood Village")));
+
+    @Test
+    void matchesLegacyParserOnRegressionCorpus() throws IOException {
+        List<String> corpus = loadCorpus();
+        assertTrue(corpus.size() > 100);
+        for (String query : corpus) {
+            assertSameResult(query);
+            assertSameFiltersWithGazetteer(query);
+        }
+    }
+
+    @Test
+    void matchesLegacyParserOnGeneratedQueries() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder query = new StringBuilder();
+            int words = 1 + random.nextInt(12);
+            for (int w = 0; w < words; w++) {
+                query.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                // Mostly single spaces, sometimes glued tokens
+                if (random.nextInt(6) != 0) {
+                    query.append(' ');
+                }
+            }
+            assertSameResult(query.toString());
+            assertSameFiltersWithGazetteer(query.toString());
+        }
+    }
+
+    @Test
+    void resolvesLocationsDifferentlyWithAGazetteer() {
+        assertEquals("Chino", legacy.parseQuery("house in Chino Hills").getCity());
+        assertEquals("Chino Hills", gazetteerScanner.parse("house in Chino Hills").getCity());
+
+        assertEquals("irvine", legacy.parseQuery("3 beds in irvine").getCity());
+        assertEquals("Irvine", gazetteerScanner.parse("3 beds in irvine").getCity());
+
+        PropertySearchQuery expected = legacy.parseQuery("2 beds in marin under 900k");
+        PropertySearchQuery actual = gazetteerScanner.parse("2 beds in marin under 900k");
+        assertNull(expected.getCounty());
+        assertEquals("Marin", actual.getCounty());
+        assertEquals(expected.getConfidenceScore() + 15, actual.getConfidenceScore());
+        assertEquals(withoutLocation(expected), withoutLocation(actual));
+    }
+
+    @Test
+    void readsOverflowingNumbersAsNoMatch() {
+        PropertySearchQuery beds = scanner.parse("99999999999 beds in Irvine");
+        assertNull(beds.getBeds());
+        assertNull(beds.getMinBeds());
+        assertEquals("Irvine", beds.getCity());
+        assertEquals(15, beds.getConfidenceScore());
+
+        // Years are four digits, so they always fit
+        assertEquals(9999, scanner.parse("built after 99999999999").getMinYearBuilt());
+
+        assertNull(scanner.parse("99999999999+ bedrooms").getMinBeds());
+    }
+
+    @Test
+    void handlesEmptyInput() {
+        assertSameResult(null);
+        assertSameResult("");
+        assertSameResult("   ");
+    }
+
+    private void assertSameResult(String query) {
+        PropertySearchQuery expected;
+        try {
+            expected = legacy.parseQuery(query);
+        } catch (NumberFormatException e) {
+            // The documented difference: the scanner reads the number as no match
+            scanner.parse(query);
+            return;
+        }
+        PropertySearchQuery actual = scanner.parse(query);
+        assertEquals(expected, actual, () -> "Different result for: " + query);
+    }
+
+    private void assertSameFiltersWithGazetteer(String query) {
+        PropertySearchQuery expected;
+        try {
+            expected = legacy.parseQuery(query);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        PropertySearchQuery actual = gazetteerScanner.parse(query);
+        assertEquals(withoutLocation(expected), withoutLocation(actual), () -> "Different filters for: " + query);
+
+        boolean found = actual.getCity() != null || actual.getCounty() != null || actual.getSubdivision() != null;
+        if (expected.getCity() != null) {
+            assertTrue(found, () -> "No location for: " + query);
+        }
+        int extra = expected.getCity() == null && found ? 15 : 0;
+        assertEquals(expected.getConfidenceScore() + extra, actual.getConfidenceScore(), () -> "Different confidence for: " + query);
+    }
+
+    private static PropertySearchQuery withoutLocation(PropertySearchQuery query) {
+        return query.toBuilder().city(null).county(null).subdivision(null).confidenceScore(null).build();
+    }
+
+    private List<String> loadCorpus() throws IOException {
+        List<String> queries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/nlp/regression-queries.txt")),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    queries.add(line);
+                }
+            }
+        }
+        return queries;
+    }
+}
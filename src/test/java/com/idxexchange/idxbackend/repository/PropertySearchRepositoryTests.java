@@ -0,0 +1,111 @@
+package com.idxexchange.idxbackend.repository;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.seed.SyntheticListingGenerator;
+import com.idxexchange.idxbackend.service.PropertyService;
+import com.idxexchange.idxbackend.specification.PropertyQueryCompiler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PropertySearchRepositoryTests {
+
+    private static final long FIRST_ID = 9_700_000L;
+    private static final int LISTINGS = 400;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @BeforeAll
+    void seed() {
+        SyntheticListingGenerator generator = new SyntheticListingGenerator(11);
+        List<Property> listings = new ArrayList<>();
+        for (long id = FIRST_ID; id < FIRST_ID + LISTINGS; id++) {
+            listings.add(generator.generate(id));
+        }
+        propertyRepository.saveAll(listings);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        propertyRepository.deleteAllById(LongStream.range(FIRST_ID, FIRST_ID + LISTINGS).boxed().toList());
+    }
+
+    @Test
+    void matchesTheSpecificationForEveryFilter() {
+        List<PropertySearchQuery> queries = List.of(
+                PropertySearchQuery.builder().build(),
+                PropertySearchQuery.builder().city("LOS ANGELES").build(),
+                PropertySearchQuery.builder().city("  ").state("ca").maxPrice(900_000.0).build(),
+                PropertySearchQuery.builder().county("orange county").minPrice(500_000.0).minBeds(3).build(),
+                PropertySearchQuery.builder().beds(3).minBeds(5).baths(2).minBaths(4).build(),
+                PropertySearchQuery.builder().minBaths(2).minSquareFeet(1200).maxSquareFeet(2600).build(),
+                PropertySearchQuery.builder().poolPrivate(true).fireplace(false).view(true).build(),
+                PropertySearchQuery.builder().garage(true).minYearBuilt(1980).maxYearBuilt(2010).build(),
+                PropertySearchQuery.builder().propertyType("condo").city("San Diego").build(),
+                PropertySearchQuery.builder().zip("92618").build());
+
+        Sort byId = Sort.by("id");
+        for (PropertySearchQuery query : queries) {
+            List<Long> expected = ids(propertyRepository.findAll(
+                    propertyService.buildSpecificationFromNLPQuery(query), PageRequest.of(0, 10_000, byId)));
+            List<Long> compiled = ids(propertyRepository.search(query, PageRequest.of(0, 10_000, byId)));
+            assertThat(compiled).as(query.toString()).isEqualTo(expected);
+
+            // Later pages need the count statement
+            Page<Property> page = propertyRepository.search(query, PageRequest.of(1, 5, byId));
+            assertThat(page.getTotalElements()).as(query.toString()).isEqualTo(expected.size());
+            assertThat(ids(page)).isEqualTo(expected.stream().skip(5).limit(5).toList());
+        }
+    }
+
+    @Test
+    void compilesEachShapeOnce() {
+        PropertyQueryCompiler.Statement first = PropertyQueryCompiler.compile(
+                PropertySearchQuery.builder().city("Irvine").minBeds(2).build());
+        PropertyQueryCompiler.Statement second = PropertyQueryCompiler.compile(
+                PropertySearchQuery.builder().city("Fresno").minBeds(4).build());
+        assertThat(second).isSameAs(first);
+        assertThat(first.select()).isEqualTo("select p from Property p where lower(p.city) = :city and p.beds >= :minBeds");
+
+        // An exact count replaces the minimum, so this is a different shape
+        assertThat(PropertyQueryCompiler.compile(PropertySearchQuery.builder().city("Irvine").beds(2).minBeds(2).build()))
+                .isNotSameAs(first);
+    }
+
+    @Test
+    void sortsByListingFieldsOnly() {
+        List<Double> prices = propertyRepository.search(PropertySearchQuery.builder().build(),
+                        PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "price")))
+                .map(Property::getPrice).getContent();
+        assertThat(prices).isSortedAccordingTo((a, b) -> b.compareTo(a));
+
+        assertThatThrownBy(() -> propertyRepository.search(PropertySearchQuery.builder().build(),
+                PageRequest.of(0, 20, Sort.by("price desc, p.id"))))
+                .isInstanceOf(PropertyReferenceException.class);
+    }
+
+    private static List<Long> ids(Page<Property> page) {
+        return page.map(Property::getId).getContent();
+    }
+}
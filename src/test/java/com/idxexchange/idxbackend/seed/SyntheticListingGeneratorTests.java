@@ -0,0 +1,49 @@
+package com.idxexchange.idxbackend.seed;
+
+import com.idxexchange.idxbackend.model.Property;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticListingGeneratorTests {
+
+    @Test
+    void sameSeedAndIdGiveTheSameListing() {
+        Property first = new SyntheticListingGenerator(7).generate(12345);
+        Property second = new SyntheticListingGenerator(7).generate(12345);
+        assertEquals(first.getCity(), second.getCity());
+        assertEquals(first.getPrice(), second.getPrice());
+        assertEquals(first.getRemarks(), second.getRemarks());
+        assertNotEquals(first.getRemarks(), new SyntheticListingGenerator(8).generate(12345).getRemarks());
+    }
+
+    @Test
+    void listingsStayInsideTheirCity() {
+        SyntheticListingGenerator generator = new SyntheticListingGenerator(42);
+        for (long id = 1; id <= 5000; id++) {
+            Property p = generator.generate(id);
+            SyntheticListingGenerator.City city = cityNamed(p.getCity());
+            double lat = Double.parseDouble(p.getLatitude());
+            double lon = Double.parseDouble(p.getLongitude());
+            int zip = Integer.parseInt(p.getZip());
+            assertTrue(lat >= city.minLat() && lat <= city.maxLat(), p.getCity() + " latitude " + lat);
+            assertTrue(lon >= city.minLon() && lon <= city.maxLon(), p.getCity() + " longitude " + lon);
+            assertTrue(zip >= city.zipStart() && zip < city.zipStart() + city.zipCount(), p.getCity() + " zip " + zip);
+            assertTrue(p.getPrice() > 0);
+            if (p.getBeds() != null) {
+                assertTrue(p.getSquareFeet() > 0 && p.getBaths() >= 1);
+            }
+        }
+    }
+
+    private static SyntheticListingGenerator.City cityNamed(String name) {
+        for (SyntheticListingGenerator.City city : SyntheticListingGenerator.CITIES) {
+            if (city.name().equals(name)) {
+                return city;
+            }
+        }
+        throw new AssertionError("Unknown city " + name);
+    }
+}
@@ -0,0 +1,102 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.ChatIntentService.Intent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ChatIntentServiceTests {
+
+    @Autowired
+    private ChatIntentService chatIntentService;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @Test
+    void classifiesDataQuestions() {
+        assertEquals(Intent.COUNT, chatIntentService.classify("How many 3 bed homes are in Irvine?"));
+        assertEquals(Intent.COUNT, chatIntentService.classify("number of condos for sale in Fresno"));
+        assertEquals(Intent.COUNT, chatIntentService.classify("How many listings are there?"));
+        assertEquals(Intent.AVERAGE_PRICE, chatIntentService.classify("What's the average price in Fresno?"));
+        assertEquals(Intent.AVERAGE_SIZE, chatIntentService.classify("average sqft of homes in Irvine"));
+        assertEquals(Intent.MIN_PRICE, chatIntentService.classify("cheapest home in Irvine"));
+        assertEquals(Intent.MAX_PRICE, chatIntentService.classify("What's the most expensive listing?"));
+        assertEquals(Intent.MIN_SIZE, chatIntentService.classify("smallest condo in Irvine"));
+        assertEquals(Intent.MAX_SIZE, chatIntentService.classify("biggest house in Fresno"));
+        assertEquals(Intent.MEDIAN_PRICE, chatIntentService.classify("median price in Irvine"));
+        assertEquals(Intent.PRICE_PER_SQFT, chatIntentService.classify("average price per sqft in Irvine"));
+        assertEquals(Intent.DAYS_ON_MARKET, chatIntentService.classify("How long do homes stay on the market in Irvine?"));
+    }
+
+    @Test
+    void leavesOtherQuestionsToTheLlm() {
+        assertNull(chatIntentService.classify(null));
+        assertNull(chatIntentService.classify("  "));
+        assertNull(chatIntentService.classify("How many bedrooms do I need for a family of four?"));
+        assertNull(chatIntentService.classify("How many homes should I tour before buying?"));
+        assertNull(chatIntentService.classify("How many houses can we afford on $120k a year?"));
+        assertNull(chatIntentService.classify("What's the average commute from Irvine?"));
+        assertNull(chatIntentService.classify("median square footage in Irvine"));
+        assertNull(chatIntentService.classify("Tell me about the schools in Fresno"));
+
+        // Counts without a location, filter or question about what is listed
+        assertTrue(chatIntentService.tryAnswer("How many homes should I tour before buying?").isEmpty());
+        assertTrue(chatIntentService.tryAnswer("Count of homes I've seen so far").isEmpty());
+    }
+
+    @Test
+    void formatsAnswers() {
+        List<Property> listings = List.of(
+                listing(9_300_001L, 3, 400_000.0, 1_500),
+                listing(9_300_002L, 3, 600_000.0, 2_500),
+                listing(9_300_003L, 4, 900_000.0, null));
+        listings.forEach(ingestionService::save);
+        try {
+            // Let the parser resolve the new city
+            nlpQueryParserService.reloadGazetteer();
+            assertEquals("There are 3 listings in Dunsmuir.",
+                    chatIntentService.tryAnswer("How many homes are in Dunsmuir?").orElseThrow());
+            assertEquals("There are 2 listings with 3 beds in Dunsmuir.",
+                    chatIntentService.tryAnswer("How many 3 bed homes are in Dunsmuir?").orElseThrow());
+            assertEquals("There is 1 listing with 4 beds in Dunsmuir.",
+                    chatIntentService.tryAnswer("How many 4 bed homes are in Dunsmuir?").orElseThrow());
+            assertEquals("The average price for listings in Dunsmuir is $633,333.",
+                    chatIntentService.tryAnswer("What's the average price in Dunsmuir?").orElseThrow());
+            assertEquals("The lowest price for listings in Dunsmuir is $400,000.",
+                    chatIntentService.tryAnswer("cheapest home in Dunsmuir").orElseThrow());
+            assertEquals("The highest price for listings with 3 beds in Dunsmuir is $600,000.",
+                    chatIntentService.tryAnswer("most expensive 3 bed home in Dunsmuir").orElseThrow());
+            assertEquals("The largest listing in Dunsmuir is 2,500 sqft.",
+                    chatIntentService.tryAnswer("largest home in Dunsmuir").orElseThrow());
+            assertEquals("I couldn't find any listings with square footage with 4 beds in Dunsmuir.",
+                    chatIntentService.tryAnswer("average sqft of 4 bed homes in Dunsmuir").orElseThrow());
+        } finally {
+            listings.forEach(listing -> ingestionService.delete(listing.getId()));
+        }
+    }
+
+    private static Property listing(long id, int beds, double price, Integer squareFeet) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity("Dunsmuir");
+        property.setState("CA");
+        property.setZip("96025");
+        property.setBeds(beds);
+        property.setPrice(price);
+        property.setSquareFeet(squareFeet);
+        property.setStandardStatus("Active");
+        return property;
+    }
+}
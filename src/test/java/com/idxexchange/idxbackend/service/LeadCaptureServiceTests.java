@@ -0,0 +1,96 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.dto.ChatMessage;
+import com.idxexchange.idxbackend.model.Lead;
+import com.idxexchange.idxbackend.repository.LeadRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "leads.writer.flush-interval-ms=50")
+class LeadCaptureServiceTests {
+
+    @Autowired
+    private LeadCaptureService leadCaptureService;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Test
+    void extractsSignalsFromEachMessage() {
+        LeadCaptureService.LeadState state = new LeadCaptureService.LeadState("unit");
+        state.absorb("First time buyer looking for a 3 bed house in San Diego around $500k");
+        state.absorb("Ideally with a pool and a garage, we need to move soon");
+        state.absorb(null);
+
+        Lead lead = state.toLead();
+        assertEquals("unit", lead.getSessionId());
+        assertEquals(3, lead.getMessageCount());
+        assertEquals(true, lead.getBudgetMentioned());
+        assertEquals("~500k", lead.getBudgetRange());
+        assertEquals("san diego", lead.getPreferredCity());
+        assertEquals(3, lead.getBedrooms());
+        assertEquals("pool, garage", lead.getDesiredFeatures());
+        assertEquals("high", lead.getUrgency());
+        assertEquals("first-time", lead.getBuyerType());
+    }
+
+    @Test
+    void persistsTheMessageCountOfMessagesWithoutSignals() {
+        String sessionId = "lead-count-test";
+        leadCaptureService.capture(message(sessionId, "Looking for a 2 bed in Fresno"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> messageCount(sessionId) == 1);
+
+        // Nothing to extract, but the count still moves
+        leadCaptureService.capture(message(sessionId, "thanks!"));
+        leadCaptureService.capture(message(sessionId, "ok"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> messageCount(sessionId) == 3);
+        assertEquals(2, leadRepository.findById(sessionId).orElseThrow().getBedrooms());
+    }
+
+    @Test
+    void replacesSessionIdsTooLongForTheTable() {
+        String tooLong = "x".repeat(Lead.SESSION_ID_LENGTH + 1);
+        ChatMessage message = message(tooLong, "3 beds in Oakland");
+        leadCaptureService.capture(message);
+
+        String assigned = message.getSessionId();
+        assertNotEquals(tooLong, assigned);
+        assertTrue(assigned.length() <= Lead.SESSION_ID_LENGTH);
+        await().atMost(Duration.ofSeconds(5)).until(() -> leadRepository.findById(assigned).isPresent());
+
+        String longest = "y".repeat(Lead.SESSION_ID_LENGTH);
+        message = message(longest, "3 beds in Oakland");
+        leadCaptureService.capture(message);
+        assertEquals(longest, message.getSessionId());
+        await().atMost(Duration.ofSeconds(5)).until(() -> leadRepository.findById(longest).isPresent());
+
+        message = message(null, "hello");
+        leadCaptureService.capture(message);
+        assertNotNull(message.getSessionId());
+    }
+
+    private int messageCount(String sessionId) {
+        Optional<Lead> lead = leadRepository.findById(sessionId);
+        return lead.map(Lead::getMessageCount).orElse(0);
+    }
+
+    private static ChatMessage message(String sessionId, String content) {
+        return ChatMessage.builder()
+                .role("user")
+                .content(content)
+                .sessionId(sessionId)
+                .conversationHistory(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"nlp.parse-cache.max-entries=50", "nlp.parse-cache.max-query-length=60"})
+class NLPQueryParserServiceTests {
+
+    @Autowired
+    private NLPQueryParserService parser;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void answersRepeatedQueriesFromTheCache() {
+        double hits = hits();
+        PropertySearchQuery first = parser.parseQuery("3 beds in Irvine under 900k");
+        PropertySearchQuery second = parser.parseQuery("  3 beds\tin\n\nIrvine   under 900k ");
+        assertEquals(hits + 1, hits());
+
+        assertEquals(3, second.getBeds());
+        assertEquals("Irvine", second.getCity());
+        assertEquals(900_000.0, second.getMaxPrice());
+        // Each caller sees its own text
+        assertEquals("3 beds in Irvine under 900k", first.getOriginalQuery());
+        assertEquals("  3 beds\tin\n\nIrvine   under 900k ", second.getOriginalQuery());
+        assertEquals("3 beds in Irvine under 900k", parser.parseQuery("3 beds in Irvine under 900k").getOriginalQuery());
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        for (int i = 0; i < 500; i++) {
+            parser.parseQuery(i + " beds in Irvine");
+        }
+        assertTrue(parser.getParseCacheSize() <= 50, "cache size " + parser.getParseCacheSize());
+        assertTrue(parser.getParseCacheSize() > 0);
+    }
+
+    @Test
+    void parsesLongQueriesWithoutCachingThem() {
+        String query = "looking for a 4 bedroom house with a pool and a view in Irvine under 2 million";
+        assertTrue(query.length() > 60);
+        parser.reloadGazetteer();
+        double hits = hits();
+        double misses = misses();
+
+        PropertySearchQuery parsed = parser.parseQuery(query);
+        parser.parseQuery(query);
+        assertEquals(hits, hits());
+        assertEquals(misses + 2, misses());
+        assertEquals(0, parser.getParseCacheSize());
+        assertEquals(4, parsed.getBeds());
+        assertEquals(query, parsed.getOriginalQuery());
+    }
+
+    @Test
+    void clearsOnGazetteerReload() {
+        parser.parseQuery("2 beds in Irvine");
+        assertTrue(parser.getParseCacheSize() > 0);
+        parser.reloadGazetteer();
+        assertEquals(0, parser.getParseCacheSize());
+
+        double misses = misses();
+        parser.parseQuery("2 beds in Irvine");
+        assertEquals(misses + 1, misses());
+    }
+
+    @Test
+    void reportsGazetteerLoadFailures() {
+        int size = parser.reloadGazetteer();
+        double failed = meterRegistry.counter("nlp.gazetteer.load.failed").count();
+
+        jdbcTemplate.execute("ALTER TABLE rets_property RENAME TO rets_property_moved");
+        try {
+            assertThrows(IllegalStateException.class, parser::reloadGazetteer);
+            assertNotNull(parser.getGazetteerLoadError());
+            // Scheduled reloads report it the same way, without throwing
+            parser.refreshGazetteer();
+            assertEquals(failed + 2, meterRegistry.counter("nlp.gazetteer.load.failed").count());
+            assertEquals(size, parser.getGazetteerSize());
+            assertEquals("Irvine", parser.parseQuery("homes in Irvine").getCity());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE rets_property_moved RENAME TO rets_property");
+        }
+        parser.reloadGazetteer();
+        assertNull(parser.getGazetteerLoadError());
+    }
+
+    @Test
+    void normalizesOnlyTheWhitespaceTheScannerSplitsOn() {
+        assertEquals("3 beds in Irvine", NLPQueryParserService.normalize("\t3  beds\r\nin\u000B\fIrvine \n"));
+        assertEquals("", NLPQueryParserService.normalize(" \t "));
+        // Em and no-break spaces are not \s, so they are kept as they are
+        assertEquals("3 beds\u2003in\u00A0Irvine", NLPQueryParserService.normalize("3 beds\u2003in\u00A0Irvine"));
+        assertEquals("3 beds \u2003 in Irvine", NLPQueryParserService.normalize("3 beds  \u2003  in Irvine"));
+    }
+
+    private double hits() {
+        return meterRegistry.counter("nlp.parse.cache", "result", "hit").count();
+    }
+
+    private double misses() {
+        return meterRegistry.counter("nlp.parse.cache", "result", "miss").count();
+    }
+}
@@ -0,0 +1,124 @@
+package com.idxexchange.idxbackend.service;
+
+import com.idxexchange.idxbackend.dto.PropertySearchQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class SearchCoalescerTests {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private SearchCoalescer searchCoalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void identicalConcurrentSearchesShareOneExecution() throws Exception {
+        int requests = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        double collapsedBefore = collapsed();
+
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                // Same search in different wording and case
+                PropertySearchQuery filters = PropertySearchQuery.builder()
+                        .city(i % 2 == 0 ? "Irvine" : "IRVINE").minBeds(3)
+                        .originalQuery("request " + i).confidenceScore(i)
+                        .build();
+                results.add(pool.submit(() -> searchCoalescer.execute("nlp", filters, FIRST_PAGE, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "page";
+                })));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (collapsed() - collapsedBefore < requests - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(collapsed() - collapsedBefore).isEqualTo(requests - 1);
+
+        // Nothing is kept once the search completes
+        searchCoalescer.execute("nlp", PropertySearchQuery.builder().city("irvine").minBeds(3).build(), FIRST_PAGE,
+                executions::incrementAndGet);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void differentSearchesRunSeparatelyAndFailuresReachEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        PropertySearchQuery filters = PropertySearchQuery.builder().city("Tustin").build();
+        double collapsedBefore = collapsed();
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<Object> failing = pool.submit(() -> searchCoalescer.execute("filters", filters, FIRST_PAGE, () -> {
+                executions.incrementAndGet();
+                await(release);
+                throw new IllegalStateException("database down");
+            }));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (executions.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Future<Object> waiting = pool.submit(() -> searchCoalescer.execute("filters", filters, FIRST_PAGE, () -> {
+                executions.incrementAndGet();
+                return "unexpected";
+            }));
+            // Another page is another search
+            assertThat(searchCoalescer.execute("filters", filters, PageRequest.of(1, 20), () -> "second page"))
+                    .isEqualTo("second page");
+            while (collapsed() - collapsedBefore < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            assertThatThrownBy(() -> failing.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("database down");
+            assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("database down");
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    private double collapsed() {
+        return meterRegistry.counter("idx.search.coalesce", "result", "collapsed").count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
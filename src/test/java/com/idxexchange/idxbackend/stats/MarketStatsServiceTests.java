@@ -0,0 +1,102 @@
+package com.idxexchange.idxbackend.stats;
+
+import com.idxexchange.idxbackend.dto.MarketStats;
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.ChatIntentService;
+import com.idxexchange.idxbackend.service.NLPQueryParserService;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MarketStatsServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MarketStatsService marketStatsService;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Autowired
+    private ChatIntentService chatIntentService;
+
+    @Autowired
+    private NLPQueryParserService nlpQueryParserService;
+
+    @Test
+    void followsListingChanges() throws Exception {
+        List<Property> listings = List.of(
+                listing(9_200_001L, "Yreka", "96097", 2, 300_000.0, 1_000, 10, "Active"),
+                listing(9_200_002L, "Yreka", "96097", 3, 400_000.0, 1_600, 20, "Active"),
+                listing(9_200_003L, "Yreka", "96097", 3, 500_000.0, 2_000, 30, "Pending"),
+                listing(9_200_004L, "Yreka", "96094", 4, 900_000.0, 3_000, 40, "Active"));
+        listings.forEach(ingestionService::save);
+        try {
+            MarketStats city = marketStatsService.stats("YREKA", null, null, null);
+            assertEquals(4, city.getListings());
+            assertEquals(3, city.getActiveListings());
+            assertEquals(400_000, city.getMedianPrice(), 4_000);
+            assertEquals(250, city.getMedianPricePerSquareFoot(), 2.5);
+            assertEquals(20, city.getMedianDaysOnMarket(), 0.2);
+
+            assertEquals(2, marketStatsService.stats("Yreka", "96097", 3, null).getListings());
+            assertEquals(3, marketStatsService.stats("Yreka", null, null, 3).getListings());
+            assertEquals(500_000, marketStatsService.stats("Yreka", null, null, 3).getMedianPrice(), 5_000);
+
+            mockMvc.perform(get("/properties/stats").param("zip", "96094"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.listings").value(1))
+                    .andExpect(jsonPath("$.zip").value("96094"));
+
+            // A price change moves the listing within its aggregates
+            ingestionService.save(listing(9_200_001L, "Yreka", "96097", 2, 1_000_000.0, 1_000, 10, "Closed"));
+            city = marketStatsService.stats("Yreka", null, null, null);
+            assertEquals(4, city.getListings());
+            assertEquals(2, city.getActiveListings());
+            assertEquals(500_000, city.getMedianPrice(), 5_000);
+
+            // Let the parser resolve the new city
+            nlpQueryParserService.reloadGazetteer();
+            String answer = chatIntentService.tryAnswer("What's the median price in Yreka?").orElseThrow();
+            assertTrue(answer.startsWith("The median price for listings in Yreka is $"), answer);
+            answer = chatIntentService.tryAnswer("How many days on market for homes in Yreka?").orElseThrow();
+            assertTrue(answer.contains("median of 2"), answer);
+        } finally {
+            listings.forEach(listing -> ingestionService.delete(listing.getId()));
+        }
+        MarketStats empty = marketStatsService.stats("Yreka", null, null, null);
+        assertEquals(0, empty.getListings());
+        assertNull(empty.getMedianPrice());
+    }
+
+    private static Property listing(long id, String city, String zip, int beds, double price, int squareFeet,
+                                    int daysOnMarket, String status) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity(city);
+        property.setZip(zip);
+        property.setState("CA");
+        property.setBeds(beds);
+        property.setPrice(price);
+        property.setSquareFeet(squareFeet);
+        property.setDaysOnMarket(daysOnMarket);
+        property.setStandardStatus(status);
+        return property;
+    }
+}
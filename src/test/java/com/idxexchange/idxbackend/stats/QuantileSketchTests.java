@@ -0,0 +1,81 @@
+package com.idxexchange.idxbackend.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTests {
+
+    @Test
+    void quantilesAreWithinTheRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(1);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(13 + random.nextGaussian() * 0.6);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.99}) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= exact * QuantileSketch.RELATIVE_ACCURACY, q + ": " + estimate + " vs " + exact);
+        }
+        assertTrue(sketch.buckets() < 700, "buckets: " + sketch.buckets());
+    }
+
+    @Test
+    void mergesAndRemoves() {
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        for (int days = 0; days < 50; days++) {
+            low.add(days);
+            high.add(days + 50);
+        }
+        QuantileSketch all = low.copy();
+        all.merge(high);
+        assertEquals(100, all.count());
+        assertEquals(49, all.quantile(0.5), 49 * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(0.0, all.quantile(0));
+
+        for (int days = 50; days < 100; days++) {
+            all.remove(days);
+        }
+        assertEquals(low.quantile(0.5), all.quantile(0.5));
+        assertEquals(50, all.count());
+
+        for (int days = 0; days < 50; days++) {
+            all.remove(days);
+        }
+        assertNull(all.quantile(0.5));
+        assertEquals(0, all.buckets());
+    }
+
+    @Test
+    void ignoresRemovalsOfValuesNotInTheSketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(100);
+        sketch.add(200);
+
+        // Missing bucket, missing zero, and one more removal than was added
+        sketch.remove(5_000);
+        sketch.remove(0);
+        sketch.remove(100);
+        sketch.remove(100);
+        assertEquals(1, sketch.count());
+        assertEquals(1, sketch.buckets());
+        assertEquals(200, sketch.quantile(0.5), 200 * QuantileSketch.RELATIVE_ACCURACY);
+
+        // Later additions are counted normally
+        sketch.add(0);
+        sketch.add(100);
+        assertEquals(3, sketch.count());
+        assertEquals(100, sketch.quantile(0.5), 100 * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(0.0, sketch.quantile(0));
+    }
+}
@@ -0,0 +1,87 @@
+package com.idxexchange.idxbackend.suggest;
+
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Suggestion;
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTests {
+
+    private final SuggestionIndex index = SuggestionIndex.build(List.of(
+            new Suggestion("San Diego", Type.CITY, 120),
+            new Suggestion("San Clemente", Type.CITY, 40),
+            new Suggestion("San Diego", Type.COUNTY, 300),
+            new Suggestion("Santa Ana", Type.CITY, 80),
+            new Suggestion("La Cañada Flintridge", Type.CITY, 12),
+            new Suggestion("92618", Type.ZIP, 55),
+            new Suggestion("92620", Type.ZIP, 70),
+            new Suggestion("Sand Canyon Ave", Type.STREET, 3)
+    ), 3);
+
+    @Test
+    void ranksByListingCount() {
+        assertEquals(List.of(
+                new Suggestion("San Diego", Type.COUNTY, 300),
+                new Suggestion("San Diego", Type.CITY, 120),
+                new Suggestion("Santa Ana", Type.CITY, 80)
+        ), index.suggest("san", 10));
+        assertEquals(List.of(new Suggestion("San Diego", Type.COUNTY, 300)), index.suggest("san", 1));
+        assertEquals(List.of(new Suggestion("Sand Canyon Ave", Type.STREET, 3)), index.suggest("sand", 10));
+        assertEquals(List.of(new Suggestion("92620", Type.ZIP, 70), new Suggestion("92618", Type.ZIP, 55)),
+                index.suggest("926", 10));
+    }
+
+    @Test
+    void normalizesCaseAccentsAndSpaces() {
+        assertEquals("La Cañada Flintridge", index.suggest("  LA   canada", 10).get(0).text());
+        assertEquals(2, index.suggest("San  DIEGO", 10).size());
+        assertTrue(index.suggest("sanx", 10).isEmpty());
+        assertTrue(index.suggest("zz", 10).isEmpty());
+    }
+
+    @Test
+    void updatesWithoutChangingTheOriginal() {
+        SuggestionIndex updated = index
+                .with(new Suggestion("San Diego", Type.COUNTY, 0))
+                .with(new Suggestion("Sandia", Type.SUBDIVISION, 500));
+        assertEquals(List.of(
+                new Suggestion("Sandia", Type.SUBDIVISION, 500),
+                new Suggestion("San Diego", Type.CITY, 120),
+                new Suggestion("Santa Ana", Type.CITY, 80)
+        ), updated.suggest("san", 10));
+        assertEquals(8, updated.size());
+        assertEquals(300, index.suggest("san", 1).get(0).count());
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullBuild() {
+        SplittableRandom random = new SplittableRandom(7);
+        String[] words = {"san", "santa", "sand", "an", "ana", "a", "diego", "dieguito"};
+        Map<String, Suggestion> current = new HashMap<>();
+        SuggestionIndex incremental = SuggestionIndex.empty(4);
+        for (int i = 0; i < 2000; i++) {
+            String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            Type type = Type.values()[random.nextInt(2)];
+            Suggestion suggestion = new Suggestion(text, type, random.nextInt(4) == 0 ? 0 : random.nextInt(1, 100));
+            incremental = incremental.with(suggestion);
+            if (suggestion.count() == 0) {
+                current.remove(type + text);
+            } else {
+                current.put(type + text, suggestion);
+            }
+        }
+        SuggestionIndex built = SuggestionIndex.build(new ArrayList<>(current.values()), 4);
+        assertEquals(built.size(), incremental.size());
+        for (String prefix : List.of("", "s", "sa", "san", "san ", "sand", "santa d", "a", "an", "ana a", "d", "diegu")) {
+            assertEquals(built.suggest(prefix, 4), incremental.suggest(prefix, 4), prefix);
+        }
+    }
+}
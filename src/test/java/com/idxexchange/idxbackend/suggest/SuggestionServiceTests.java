@@ -0,0 +1,71 @@
+package com.idxexchange.idxbackend.suggest;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Suggestion;
+import com.idxexchange.idxbackend.suggest.SuggestionIndex.Type;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SuggestionServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Test
+    void followsListingChanges() throws Exception {
+        ingestionService.save(listing(9_100_001L, "Quartz Hill", "93536"));
+        ingestionService.save(listing(9_100_002L, "Quartz Hill", "93536"));
+        ingestionService.save(listing(9_100_003L, "quartz  hill", "93534"));
+        assertEquals(List.of(new Suggestion("Quartz Hill", Type.CITY, 3)), suggestionService.suggest("quartz", 10));
+
+        mockMvc.perform(get("/properties/suggest").param("prefix", "9353"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("93536"))
+                .andExpect(jsonPath("$[0].type").value("ZIP"))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[1].text").value("93534"));
+
+        // Moving a listing updates both the old and the new value
+        ingestionService.save(listing(9_100_003L, "Quartzsite", "93534"));
+        assertEquals(List.of(
+                new Suggestion("Quartz Hill", Type.CITY, 2),
+                new Suggestion("Quartzsite", Type.CITY, 1)
+        ), suggestionService.suggest("quartz", 10));
+
+        ingestionService.delete(9_100_001L);
+        ingestionService.delete(9_100_002L);
+        ingestionService.delete(9_100_003L);
+        assertTrue(suggestionService.suggest("quartz", 10).isEmpty());
+        assertTrue(suggestionService.suggest("9353", 10).isEmpty());
+    }
+
+    private static Property listing(long id, String city, String zip) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity(city);
+        property.setZip(zip);
+        property.setState("CA");
+        property.setSubdivisionName("N/A");
+        return property;
+    }
+}
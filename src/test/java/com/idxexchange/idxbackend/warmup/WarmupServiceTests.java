@@ -0,0 +1,120 @@
+package com.idxexchange.idxbackend.warmup;
+
+import com.idxexchange.idxbackend.model.Property;
+import com.idxexchange.idxbackend.model.WarmupSample;
+import com.idxexchange.idxbackend.repository.WarmupSampleRepository;
+import com.idxexchange.idxbackend.service.PropertyIngestionService;
+import com.idxexchange.idxbackend.service.PropertyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "idx.warmup.enabled=true")
+class WarmupServiceTests {
+
+    private static final long ID = 9_900_001L;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyIngestionService ingestionService;
+
+    @Autowired
+    private WarmupRecorder recorder;
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private WarmupHealthIndicator healthIndicator;
+
+    @Autowired
+    private WarmupSampleRepository sampleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void replaysRecordedTrafficWithoutCountingItAgain() {
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        ingestionService.save(listing());
+        try {
+            for (int i = 0; i < 3; i++) {
+                propertyService.findDetails(ID);
+            }
+            propertyService.searchProperties("Warmupville", null, null, 300_000.0, null, null, 2, null, null, PageRequest.of(0, 20));
+            propertyService.searchPropertiesWithNLP("3 bedroom house in Warmupville under 500k", PageRequest.of(0, 20));
+            recorder.flush();
+
+            assertThat(hits(WarmupSample.Kind.LISTING, String.valueOf(ID))).isEqualTo(3);
+            // The parsed filters, not what the user typed
+            assertThat(samples(WarmupSample.Kind.NLP)).noneSatisfy(sample ->
+                    assertThat(sample.getRequest()).contains("3 bedroom house"));
+            assertThat(samples(WarmupSample.Kind.NLP)).anySatisfy(sample -> {
+                assertThat(sample.getRequest()).contains("\"beds\":3", "\"maxPrice\":500000.0");
+                assertThat(sample.getHits()).isEqualTo(1);
+            });
+            assertThat(samples(WarmupSample.Kind.SEARCH))
+                    .anySatisfy(sample -> assertThat(sample.getRequest()).contains("\"city\":\"Warmupville\""));
+
+            entityManagerFactory.getCache().evict(Property.class);
+            long searches = searchesTimed();
+            WarmupService.Result result = warmupService.warmUp("test");
+            assertThat(result.listings()).isPositive();
+            assertThat(result.nlpQueries()).isPositive();
+            assertThat(result.failed()).isZero();
+            assertThat(searchesTimed()).isEqualTo(searches);
+            assertThat(entityManagerFactory.getCache().contains(Property.class, ID)).isTrue();
+
+            // Warm-up requests are not traffic
+            recorder.flush();
+            assertThat(hits(WarmupSample.Kind.LISTING, String.valueOf(ID))).isEqualTo(3);
+            // Later flushes add to the recorded hits
+            propertyService.findDetails(ID);
+            recorder.flush();
+            assertThat(hits(WarmupSample.Kind.LISTING, String.valueOf(ID))).isEqualTo(4);
+        } finally {
+            ingestionService.delete(ID);
+            sampleRepository.deleteSeenBefore(Instant.now().plusSeconds(60));
+        }
+    }
+
+    private long searchesTimed() {
+        return meterRegistry.find("idx.search").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private long hits(WarmupSample.Kind kind, String request) {
+        return samples(kind).stream()
+                .filter(sample -> sample.getRequest().equals(request))
+                .mapToLong(WarmupSample::getHits)
+                .sum();
+    }
+
+    private List<WarmupSample> samples(WarmupSample.Kind kind) {
+        return sampleRepository.findByKindAndLastSeenAfterOrderByHitsDesc(kind, Instant.EPOCH, PageRequest.ofSize(1000));
+    }
+
+    private static Property listing() {
+        Property property = new Property();
+        property.setId(ID);
+        property.setCity("Warmupville");
+        property.setState("CA");
+        property.setPrice(450_000.0);
+        property.setBeds(3);
+        return property;
+    }
+}